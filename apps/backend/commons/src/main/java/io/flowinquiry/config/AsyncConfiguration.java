@@ -1,6 +1,10 @@
 package io.flowinquiry.config;
 
 import io.flowinquiry.tenant.TenantAwareDelegatingTaskExecutor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.Executor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
@@ -13,6 +17,13 @@ import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+/**
+ * Async executors, one bulkhead per kind of work so that a slow dependency can not starve the
+ * others: {@code asyncTaskExecutor} for listeners that work on the database, {@code
+ * mailTaskExecutor} for sending mails and {@code aiTaskExecutor} for chat model calls. Each is a
+ * thread pool, or with {@code flowinquiry.async.virtual-threads} a virtual thread per task bounded
+ * by the permits of the bulkhead. Tenant and security contexts are propagated either way.
+ */
 @Configuration
 @EnableAsync
 @Profile("!test")
@@ -20,13 +31,23 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 public class AsyncConfiguration implements AsyncConfigurer {
 
     private final TaskExecutionProperties taskExecutionProperties;
+    private final FlowInquiryProperties.Async properties;
+    private final MeterRegistry meterRegistry;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    public AsyncConfiguration(
+            TaskExecutionProperties taskExecutionProperties,
+            FlowInquiryProperties flowInquiryProperties,
+            MeterRegistry meterRegistry) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.properties = flowInquiryProperties.getAsync();
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean(name = "asyncTaskExecutor")
     public TaskExecutor auditLogTaskExecutor() {
+        if (properties.isVirtualThreads()) {
+            return bulkhead("database", properties.getDatabasePermits());
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
         executor.setMaxPoolSize(taskExecutionProperties.getPool().getMaxSize());
@@ -38,6 +59,54 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new TenantAwareDelegatingTaskExecutor(executor);
     }
 
+    @Bean(name = "mailTaskExecutor")
+    public TaskExecutor mailTaskExecutor() {
+        return properties.isVirtualThreads()
+                ? bulkhead("mail", properties.getMailPermits())
+                : fixedPool("mail", properties.getMailPermits());
+    }
+
+    @Bean(name = "aiTaskExecutor")
+    public TaskExecutor aiTaskExecutor() {
+        return properties.isVirtualThreads()
+                ? bulkhead("ai", properties.getAiPermits())
+                : fixedPool("ai", properties.getAiPermits());
+    }
+
+    /** Runs {@code @Async} methods that name no executor on the database bulkhead. */
+    @Override
+    public Executor getAsyncExecutor() {
+        return auditLogTaskExecutor();
+    }
+
+    private TaskExecutor fixedPool(String name, int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(taskExecutionProperties.getPool().getQueueCapacity());
+        executor.setThreadNamePrefix(taskExecutionProperties.getThreadNamePrefix() + name + "-");
+        executor.initialize();
+        return new TenantAwareDelegatingTaskExecutor(executor);
+    }
+
+    private TaskExecutor bulkhead(String name, int permits) {
+        BulkheadTaskExecutor executor =
+                new BulkheadTaskExecutor(
+                        taskExecutionProperties.getThreadNamePrefix() + name + "-",
+                        permits,
+                        taskExecutionProperties.getPool().getQueueCapacity(),
+                        Duration.ofMillis(properties.getSubmitTimeoutMillis()));
+        Gauge.builder(
+                        "flowinquiry.async.bulkhead.waiting",
+                        executor,
+                        BulkheadTaskExecutor::getWaiting)
+                .description("Async tasks waiting for a permit of their bulkhead")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        log.debug("Running {} tasks on virtual threads, {} at a time", name, permits);
+        return new TenantAwareDelegatingTaskExecutor(executor);
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
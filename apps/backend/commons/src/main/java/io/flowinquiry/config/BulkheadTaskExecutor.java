@@ -0,0 +1,92 @@
+package io.flowinquiry.config;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * Runs every task on its own virtual thread, with at most {@code permits} of them running at once
+ * and at most {@code queueCapacity} more waiting for a permit. Like a thread pool with a bounded
+ * queue, a full bulkhead rejects new tasks with a {@link TaskRejectedException}, so a slow
+ * dependency only holds up the tasks of its own bulkhead and can not pile up virtual threads.
+ */
+@Slf4j
+public class BulkheadTaskExecutor implements TaskExecutor {
+
+    private final VirtualThreadTaskExecutor delegate;
+
+    private final Semaphore permits;
+
+    /** Room for the tasks running or waiting; taken on submission, so rejecting is synchronous. */
+    private final Semaphore admissions;
+
+    private final long submitTimeoutNanos;
+
+    /**
+     * @param name The prefix of the thread names.
+     * @param permits The number of tasks running at once.
+     * @param queueCapacity The number of tasks waiting for a permit, beyond which tasks are
+     *     rejected.
+     * @param submitTimeout How long a submission waits for room in a full bulkhead before the task
+     *     is rejected.
+     */
+    public BulkheadTaskExecutor(
+            String name, int permits, int queueCapacity, Duration submitTimeout) {
+        this.delegate = new VirtualThreadTaskExecutor(name);
+        this.permits = new Semaphore(permits, true);
+        this.admissions = new Semaphore(permits + queueCapacity);
+        this.submitTimeoutNanos = submitTimeout.toNanos();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        admit();
+        try {
+            delegate.execute(
+                    () -> {
+                        try {
+                            permits.acquire();
+                        } catch (InterruptedException e) {
+                            log.warn("Interrupted while waiting for a permit, task not run");
+                            Thread.currentThread().interrupt();
+                            admissions.release();
+                            return;
+                        }
+                        try {
+                            task.run();
+                        } finally {
+                            permits.release();
+                            admissions.release();
+                        }
+                    });
+        } catch (RuntimeException e) {
+            admissions.release();
+            throw e;
+        }
+    }
+
+    private void admit() {
+        try {
+            if (admissions.tryAcquire(submitTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TaskRejectedException(
+                    "Interrupted while waiting for room in the bulkhead", e);
+        }
+        throw new TaskRejectedException(
+                "Bulkhead is full, " + getWaiting() + " tasks are waiting for a permit");
+    }
+
+    /**
+     * @return The number of tasks waiting for a permit.
+     */
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+}
@@ -1,12 +1,36 @@
 package io.flowinquiry.config;
 
+import io.flowinquiry.tenant.TenantFilterJpaDialect;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 @Configuration
 @EnableJpaRepositories({"io.flowinquiry"})
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
-public class DatabaseConfiguration {}
+public class DatabaseConfiguration {
+
+    /**
+     * Enables the tenant filter when transactions begin, and on the entity managers created outside
+     * of them, see {@link TenantFilterJpaDialect}.
+     */
+    @Bean
+    public static BeanPostProcessor tenantFilterJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean entityManagerFactory) {
+                    TenantFilterJpaDialect dialect = new TenantFilterJpaDialect();
+                    entityManagerFactory.setJpaDialect(dialect);
+                    entityManagerFactory.setEntityManagerInitializer(dialect::enableTenantFilter);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -25,6 +25,24 @@ public class FlowInquiryProperties {
 
     private final Slack slack = new Slack();
 
+    private final Async async = new Async();
+
+    private final ActivityLog activityLog = new ActivityLog();
+
+    private final Sse sse = new Sse();
+
+    private final Deduplication deduplication = new Deduplication();
+
+    private final Sla sla = new Sla();
+
+    private final RelayEmail relayEmail = new RelayEmail();
+
+    private final MailTemplate mailTemplate = new MailTemplate();
+
+    private final HealthEvaluation healthEvaluation = new HealthEvaluation();
+
+    private final TicketNumber ticketNumber = new TicketNumber();
+
     @Getter
     public static class Http {
         private final Cache cache = new Cache();
@@ -59,4 +77,140 @@ public class FlowInquiryProperties {
     public static class Slack {
         private String token;
     }
+
+    @Getter
+    @Setter
+    public static class Async {
+        /**
+         * Runs async listeners on virtual threads, each bulkhead bounded by its permits instead of
+         * a thread pool.
+         */
+        private boolean virtualThreads = false;
+
+        /** Database-bound listeners running at once on virtual threads. */
+        private int databasePermits = 50;
+
+        /** Mails sent at once. */
+        private int mailPermits = 10;
+
+        /** Chat model calls made at once. */
+        private int aiPermits = 4;
+
+        /**
+         * How long submitting a task to a full bulkhead waits for room before the task is rejected,
+         * as a full thread pool queue rejects it.
+         */
+        private long submitTimeoutMillis = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class ActivityLog {
+        private int queueCapacity = 10000;
+        private int batchSize = 100;
+        private long flushIntervalMillis = 500;
+        private long coalesceWindowMillis = 2000;
+    }
+
+    @Getter
+    @Setter
+    public static class Sse {
+        /** Cluster fan-out broker: none (single node), postgres or in-memory. */
+        private String broker = "none";
+
+        private String channel = "flowinquiry_sse";
+        private int bufferSize = 256;
+        private int replaySize = 100;
+        private long replayTtlSeconds = 300;
+        private long replayMaxUsers = 10000;
+    }
+
+    @Getter
+    @Setter
+    public static class Deduplication {
+        /** Keys held in memory; older ones are still found through the filter and database. */
+        private long capacity = 10000;
+
+        /** Keys the negative filter is sized for before it is rebuilt. */
+        private long expectedKeys = 100000;
+
+        private double falsePositiveRate = 0.01;
+        private int queueCapacity = 10000;
+        private int batchSize = 100;
+        private long flushIntervalMillis = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Sla {
+        /** Resolution of the SLA timers. */
+        private long tickMillis = 1000;
+
+        /** How long before the SLA is due the warning is sent. */
+        private long warningLeadSeconds = 1800;
+
+        /**
+         * How often timers due soon are reloaded, picking up SLAs set on other nodes and retrying
+         * failed escalations.
+         */
+        private long resyncIntervalSeconds = 300;
+
+        private int batchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class RelayEmail {
+        /** Threads rendering and sending queued mails. */
+        private int workerThreads = 4;
+
+        /** Jobs claimed at a time; claiming continues while full batches are found. */
+        private int batchSize = 500;
+
+        /** Jobs a worker renders and sends over one SMTP connection. */
+        private int chunkSize = 50;
+
+        /** Messages sent per second across all workers, or 0 for no limit. */
+        private double maxMessagesPerSecond = 20;
+
+        /** How long a claim holds, after which jobs of a node that died are claimed again. */
+        private long leaseSeconds = 600;
+    }
+
+    @Getter
+    @Setter
+    public static class MailTemplate {
+        /** Mail templates kept compiled, counting each locale of a template separately. */
+        private int cacheSize = 200;
+
+        /** Recompiles mail templates when their files change, which only works unpackaged. */
+        private boolean watch = false;
+    }
+
+    @Getter
+    @Setter
+    public static class HealthEvaluation {
+        /** How long new messages on a ticket are gathered into one evaluation. */
+        private long coalesceMillis = 2000;
+
+        /** Tickets waiting for evaluation, beyond which new messages are not evaluated. */
+        private int maxPendingTickets = 1000;
+
+        /** Messages evaluated in one chat model call. */
+        private int maxMessagesPerCall = 20;
+
+        /** Message evaluations kept, by the hash of the message. */
+        private long cacheSize = 10000;
+    }
+
+    @Getter
+    @Setter
+    public static class TicketNumber {
+        /**
+         * Project ticket numbers a node reserves at once and hands out from memory. Above 1,
+         * numbers of a project are no longer in creation order across nodes, and reserved numbers
+         * left unused when a node stops become gaps.
+         */
+        private int blockSize = 1;
+    }
 }
@@ -1,5 +1,6 @@
 package io.flowinquiry.modules.audit.service;
 
+import io.flowinquiry.modules.audit.utils.EntityAccessorTable;
 import io.flowinquiry.modules.collab.domain.EntityType;
 import java.util.HashMap;
 import java.util.Map;
@@ -8,6 +9,8 @@ public abstract class AbstractEntityFieldHandlerRegistry implements EntityFieldH
 
     private final Map<String, EntityFieldHandler> fieldHandlers = new HashMap<>();
 
+    private final EntityAccessorTable auditedAccessors;
+
     /**
      * Add a field handler for a specific field.
      *
@@ -35,9 +38,25 @@ public abstract class AbstractEntityFieldHandlerRegistry implements EntityFieldH
      */
     protected abstract void initializeFieldHandlers();
 
-    /** Constructor to ensure field handlers are initialized in subclasses. */
+    /**
+     * Constructor to ensure field handlers are initialized in subclasses. The accessors of the
+     * handled fields are compiled here once, so a handler registered for a field the entity does
+     * not declare fails at startup instead of being silently ignored.
+     */
     public AbstractEntityFieldHandlerRegistry() {
         initializeFieldHandlers();
+        this.auditedAccessors =
+                EntityAccessorTable.of(getEntityClass()).select(fieldHandlers.keySet());
+    }
+
+    /**
+     * Get the accessors of the fields that have a handler.
+     *
+     * @return The accessor table of the audited fields.
+     */
+    @Override
+    public EntityAccessorTable getAuditedAccessors() {
+        return auditedAccessors;
     }
 
     /**
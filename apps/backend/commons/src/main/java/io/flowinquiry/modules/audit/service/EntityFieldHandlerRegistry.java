@@ -1,5 +1,6 @@
 package io.flowinquiry.modules.audit.service;
 
+import io.flowinquiry.modules.audit.utils.EntityAccessorTable;
 import io.flowinquiry.modules.collab.domain.EntityType;
 
 public interface EntityFieldHandlerRegistry {
@@ -25,4 +26,14 @@ public interface EntityFieldHandlerRegistry {
      * @return The EntityType of the entity.
      */
     EntityType getEntityType();
+
+    /**
+     * Get the compiled accessors of the fields to compare when auditing an update. Defaults to
+     * every declared field of the entity class; handlers are only looked up for changed fields.
+     *
+     * @return The accessor table of the audited fields.
+     */
+    default EntityAccessorTable getAuditedAccessors() {
+        return EntityAccessorTable.of(getEntityClass());
+    }
 }
@@ -0,0 +1,20 @@
+package io.flowinquiry.modules.audit.service.event;
+
+import java.util.List;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/** The update of many entities at once; the i-th previous entity is the i-th updated one before. */
+@Getter
+public class AuditLogBatchUpdateEvent extends ApplicationEvent {
+
+    private final List<?> previousEntities;
+    private final List<?> updatedEntities;
+
+    public AuditLogBatchUpdateEvent(
+            Object source, List<?> previousEntities, List<?> updatedEntities) {
+        super(source);
+        this.previousEntities = previousEntities;
+        this.updatedEntities = updatedEntities;
+    }
+}
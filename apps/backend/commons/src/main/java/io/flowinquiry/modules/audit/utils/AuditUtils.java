@@ -2,24 +2,24 @@ package io.flowinquiry.modules.audit.utils;
 
 import io.flowinquiry.modules.audit.service.EntityFieldHandler;
 import io.flowinquiry.modules.audit.service.EntityFieldHandlerRegistry;
-import java.lang.reflect.Field;
+import io.flowinquiry.modules.audit.utils.EntityAccessorTable.FieldAccessor;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class AuditUtils {
 
     /**
-     * Find the changes between two entities using the provided registry.
+     * Find the changes between two entities using the provided registry. Only the registry's
+     * audited fields are read and compared.
      *
      * @param oldEntity The existing (original) entity.
      * @param newEntity The updated entity.
      * @param registry The field handler registry for the entity type.
      * @return A list of FieldChange objects representing the differences.
-     * @throws IllegalAccessException If a field is inaccessible via reflection.
      */
     public static List<FieldChange> findChanges(
-            Object oldEntity, Object newEntity, EntityFieldHandlerRegistry registry)
-            throws IllegalAccessException {
+            Object oldEntity, Object newEntity, EntityFieldHandlerRegistry registry) {
 
         // Validate that both entities are of the same type
         if (oldEntity == null
@@ -34,31 +34,30 @@ public class AuditUtils {
                     "Registry's entity class does not match the provided entity class");
         }
 
-        List<FieldChange> changes = new ArrayList<>();
-        Class<?> clazz = oldEntity.getClass();
+        List<FieldChange> changes = null;
 
-        // Iterate over all declared fields of the entity
-        for (Field field : clazz.getDeclaredFields()) {
-            field.setAccessible(true); // Make private fields accessible
+        for (FieldAccessor accessor : registry.getAuditedAccessors().accessors()) {
+            Object oldValue = accessor.get(oldEntity);
+            Object newValue = accessor.get(newEntity);
 
-            Object oldValue = field.get(oldEntity);
-            Object newValue = field.get(newEntity);
-
-            // Compare values and check for changes
-            if ((oldValue == null && newValue != null)
-                    || (oldValue != null && !oldValue.equals(newValue))) {
-                EntityFieldHandler handler = registry.getHandler(field.getName());
+            if (!Objects.equals(oldValue, newValue)) {
+                EntityFieldHandler handler = registry.getHandler(accessor.name());
 
                 // Only add the fields to audit log if the handler is presented
                 if (handler != null) {
-                    oldValue = handler.getFieldGetter().apply(oldEntity, oldValue);
-                    newValue = handler.getFieldGetter().apply(newEntity, newValue);
-                    changes.add(new FieldChange(handler.getFieldName(), oldValue, newValue));
+                    if (changes == null) {
+                        changes = new ArrayList<>();
+                    }
+                    changes.add(
+                            new FieldChange(
+                                    handler.getFieldName(),
+                                    handler.getFieldGetter().apply(oldEntity, oldValue),
+                                    handler.getFieldGetter().apply(newEntity, newValue)));
                 }
             }
         }
 
-        return changes;
+        return changes == null ? List.of() : changes;
     }
 
     /** Represents a single field change in the audit log. */
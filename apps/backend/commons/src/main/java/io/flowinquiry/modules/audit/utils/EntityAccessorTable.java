@@ -0,0 +1,131 @@
+package io.flowinquiry.modules.audit.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Field getters of one class, compiled once into {@link MethodHandle}s so that audit diffing and id
+ * extraction do not pay for reflective lookups and access checks on every event. Accessors keep the
+ * declaration order of the class, which is the order changes appear in the activity log.
+ */
+public final class EntityAccessorTable {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<EntityAccessorTable> TABLES =
+            new ClassValue<>() {
+                @Override
+                protected EntityAccessorTable computeValue(Class<?> type) {
+                    return compile(type);
+                }
+            };
+
+    private final List<FieldAccessor> accessors;
+    private final Map<String, FieldAccessor> accessorsByName;
+
+    private EntityAccessorTable(List<FieldAccessor> accessors) {
+        this.accessors = accessors;
+        this.accessorsByName = new HashMap<>();
+        for (FieldAccessor accessor : accessors) {
+            accessorsByName.put(accessor.name(), accessor);
+        }
+    }
+
+    /**
+     * Returns the accessor table of the given class, compiling it on first use.
+     *
+     * @param type The class whose declared instance fields are exposed.
+     * @return The cached accessor table.
+     */
+    public static EntityAccessorTable of(Class<?> type) {
+        return TABLES.get(type);
+    }
+
+    /**
+     * @return The accessors of all declared instance fields, in declaration order.
+     */
+    public List<FieldAccessor> accessors() {
+        return accessors;
+    }
+
+    /**
+     * @param fieldName The name of a declared instance field.
+     * @return The accessor of the field, or {@code null} if the class declares no such field.
+     */
+    public FieldAccessor find(String fieldName) {
+        return accessorsByName.get(fieldName);
+    }
+
+    /**
+     * Restricts the table to the given fields, keeping declaration order.
+     *
+     * @param fieldNames The names of declared instance fields to keep.
+     * @return A table holding only the accessors of the given fields.
+     * @throws IllegalArgumentException If the class declares no field with one of the names.
+     */
+    public EntityAccessorTable select(Collection<String> fieldNames) {
+        for (String fieldName : fieldNames) {
+            if (!accessorsByName.containsKey(fieldName)) {
+                throw new IllegalArgumentException("No declared field " + fieldName);
+            }
+        }
+        return new EntityAccessorTable(
+                accessors.stream()
+                        .filter(accessor -> fieldNames.contains(accessor.name()))
+                        .toList());
+    }
+
+    private static EntityAccessorTable compile(Class<?> type) {
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access fields of " + type.getName(), e);
+        }
+
+        List<FieldAccessor> accessors = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+            try {
+                accessors.add(
+                        new FieldAccessor(
+                                field.getName(),
+                                lookup.unreflectGetter(field).asType(GETTER_TYPE)));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(
+                        "Cannot access field " + type.getName() + "." + field.getName(), e);
+            }
+        }
+        return new EntityAccessorTable(List.copyOf(accessors));
+    }
+
+    /** A compiled getter of a single field. */
+    public record FieldAccessor(String name, MethodHandle getter) {
+
+        /**
+         * Reads the field value.
+         *
+         * @param target An instance of the class the accessor was compiled for.
+         * @return The field value, boxed if the field is primitive.
+         */
+        public Object get(Object target) {
+            try {
+                return getter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to read field " + name, e);
+            }
+        }
+    }
+}
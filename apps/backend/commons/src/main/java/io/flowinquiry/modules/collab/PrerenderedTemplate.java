@@ -0,0 +1,83 @@
+package io.flowinquiry.modules.collab;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.unbescape.html.HtmlEscape;
+
+/**
+ * A mail template rendered once with {@link #placeholder placeholders} in place of its variables,
+ * and then filled in for each recipient by substitution, so that a batch of similar mails costs a
+ * single template render per locale. Values are HTML escaped the way {@code th:text} escapes them,
+ * so placeholders must only be output through escaping attributes, not through {@code th:utext} or
+ * inside expressions that inspect their value.
+ */
+public final class PrerenderedTemplate {
+
+    private static final String DELIMITER = "@@";
+
+    /** The text around the placeholders; one more entry than {@link #names}. */
+    private final List<String> segments;
+
+    private final List<String> names;
+
+    private PrerenderedTemplate(List<String> segments, List<String> names) {
+        this.segments = segments;
+        this.names = names;
+    }
+
+    /**
+     * @return The value to render a template with in place of the named variable.
+     */
+    public static String placeholder(String name) {
+        return DELIMITER + name + DELIMITER;
+    }
+
+    /**
+     * Splits a template rendered with placeholders for the given variables.
+     *
+     * @param rendered The output of the template engine.
+     * @param names The variables rendered as placeholders.
+     */
+    public static PrerenderedTemplate parse(String rendered, Collection<String> names) {
+        Pattern pattern =
+                Pattern.compile(
+                        names.stream()
+                                .map(name -> Pattern.quote(placeholder(name)))
+                                .collect(Collectors.joining("|")));
+        List<String> segments = new ArrayList<>();
+        List<String> found = new ArrayList<>();
+        Matcher matcher = pattern.matcher(rendered);
+        int end = 0;
+        while (matcher.find()) {
+            segments.add(rendered.substring(end, matcher.start()));
+            String match = matcher.group();
+            found.add(match.substring(DELIMITER.length(), match.length() - DELIMITER.length()));
+            end = matcher.end();
+        }
+        segments.add(rendered.substring(end));
+        return new PrerenderedTemplate(List.copyOf(segments), List.copyOf(found));
+    }
+
+    /**
+     * Substitutes the placeholders in a single pass, so values that look like placeholders are left
+     * alone.
+     *
+     * @param values The value of each variable; missing or {@code null} values render empty.
+     */
+    public String fill(Map<String, String> values) {
+        StringBuilder result = new StringBuilder(segments.getFirst());
+        for (int i = 0; i < names.size(); i++) {
+            String value = values.get(names.get(i));
+            if (value != null) {
+                result.append(HtmlEscape.escapeHtml4Xml(value));
+            }
+            result.append(segments.get(i + 1));
+        }
+        return result.toString();
+    }
+}
@@ -3,6 +3,7 @@ package io.flowinquiry.modules.collab.controller;
 import io.flowinquiry.modules.collab.domain.EntityType;
 import io.flowinquiry.modules.collab.service.ActivityLogService;
 import io.flowinquiry.modules.collab.service.dto.ActivityLogDTO;
+import io.flowinquiry.query.CursorSlice;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -71,4 +72,33 @@ public class ActivityLogController {
             @Parameter(description = "Pagination information") Pageable pageable) {
         return activityLogService.getActivitiesForUser(userId, pageable);
     }
+
+    @GetMapping("/user/{userId}/scroll")
+    @Operation(
+            summary = "Scroll activity logs for a user",
+            description =
+                    "Retrieves activity logs for a specific user with keyset pagination, newest"
+                            + " first, without total count",
+            responses = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Successfully retrieved user activities",
+                        content =
+                                @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = CursorSlice.class))),
+                @ApiResponse(responseCode = "400", description = "Invalid cursor or size"),
+                @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                @ApiResponse(responseCode = "403", description = "Forbidden")
+            })
+    public CursorSlice<ActivityLogDTO> scrollUserActivities(
+            @PathVariable @Parameter(description = "ID of the user") Long userId,
+            @Parameter(description = "Cursor returned with the previous slice")
+                    @RequestParam(required = false)
+                    String cursor,
+            @Parameter(description = "Number of activities per slice, from 1 to 100")
+                    @RequestParam(defaultValue = "20")
+                    int size) {
+        return activityLogService.scrollActivitiesForUser(userId, cursor, size);
+    }
 }
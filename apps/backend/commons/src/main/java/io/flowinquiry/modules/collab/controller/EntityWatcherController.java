@@ -3,6 +3,7 @@ package io.flowinquiry.modules.collab.controller;
 import io.flowinquiry.modules.collab.domain.EntityType;
 import io.flowinquiry.modules.collab.service.EntityWatcherService;
 import io.flowinquiry.modules.fss.service.dto.EntityWatcherDTO;
+import io.flowinquiry.query.CursorSlice;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -93,6 +94,31 @@ public class EntityWatcherController {
         return entityWatcherService.getWatchedEntitiesForUser(userId, pageable);
     }
 
+    @Operation(
+            summary = "Scroll entities watched by user",
+            description =
+                    "Retrieves the entities that a specific user is watching with keyset"
+                            + " pagination, newest first, without total count")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Watched entities retrieved successfully",
+                        content = @Content(schema = @Schema(implementation = CursorSlice.class))),
+                @ApiResponse(responseCode = "400", description = "Invalid cursor or size")
+            })
+    @GetMapping("/user/scroll")
+    public CursorSlice<EntityWatcherDTO> scrollWatchedEntitiesForUser(
+            @Parameter(description = "ID of the user", required = true) @RequestParam Long userId,
+            @Parameter(description = "Cursor returned with the previous slice")
+                    @RequestParam(required = false)
+                    String cursor,
+            @Parameter(description = "Number of entities per slice, from 1 to 100")
+                    @RequestParam(defaultValue = "20")
+                    int size) {
+        return entityWatcherService.scrollWatchedEntitiesForUser(userId, cursor, size);
+    }
+
     @Operation(
             summary = "Add watchers to entity",
             description = "Adds multiple users as watchers/followers to a specific entity")
@@ -2,6 +2,7 @@ package io.flowinquiry.modules.collab.controller;
 
 import io.flowinquiry.modules.collab.service.NotificationService;
 import io.flowinquiry.modules.collab.service.dto.NotificationDTO;
+import io.flowinquiry.query.CursorSlice;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -53,6 +54,31 @@ public class NotificationController {
         return notificationService.getNotificationsForUser(userId, pageable);
     }
 
+    @Operation(
+            summary = "Scroll user notifications",
+            description =
+                    "Retrieves notifications for a specific user with keyset pagination, newest"
+                            + " first, without total count")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Notifications retrieved successfully",
+                        content = @Content(schema = @Schema(implementation = CursorSlice.class))),
+                @ApiResponse(responseCode = "400", description = "Invalid cursor or size")
+            })
+    @GetMapping("/user/{userId}/scroll")
+    public CursorSlice<NotificationDTO> scrollUserNotifications(
+            @PathVariable @Parameter(description = "ID of the user", required = true) Long userId,
+            @Parameter(description = "Cursor returned with the previous slice")
+                    @RequestParam(required = false)
+                    String cursor,
+            @Parameter(description = "Number of notifications per slice, from 1 to 100")
+                    @RequestParam(defaultValue = "20")
+                    int size) {
+        return notificationService.scrollNotificationsForUser(userId, cursor, size);
+    }
+
     @Operation(
             summary = "Mark notifications as read",
             description = "Marks multiple notifications as read")
@@ -54,6 +54,10 @@ public class EmailJob {
 
     private String subjectOverride;
 
+    // Body rendered when the job was queued; when set, it is sent as is with the subject override
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
     @Column(columnDefinition = "jsonb")
     @Convert(converter = JsonNodeConverter.class)
     private JsonNode attachments;
@@ -2,6 +2,7 @@ package io.flowinquiry.modules.collab.domain;
 
 public enum EmailJobStatus {
     PENDING,
+    SENDING,
     SENT,
     FAILED
 }
@@ -4,6 +4,8 @@ import io.flowinquiry.modules.collab.domain.ActivityLog;
 import io.flowinquiry.modules.collab.domain.EntityType;
 import io.flowinquiry.modules.collab.service.dto.ActivityLogDTO;
 import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -37,4 +39,42 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long>
             WHERE u.id = :userId
             """)
     Page<ActivityLogDTO> findAllByUserTeams(@Param("userId") Long userId, Pageable pageable);
+
+    /** The newest activities of the user's teams, for the first slice of a keyset scroll. */
+    @Query(
+            """
+            SELECT new io.flowinquiry.modules.collab.service.dto.ActivityLogDTO(
+                al.id, al.entityType, t.name, al.entityId, al.content, al.createdAt, u.id,
+                CONCAT(COALESCE(u.firstName, ''), ' ', COALESCE(u.lastName, '')),
+                u.imageUrl
+            )
+            FROM ActivityLog al
+            JOIN Team t ON al.entityType = 'Team' AND al.entityId = t.id
+            JOIN t.users u
+            WHERE u.id = :userId
+            ORDER BY al.createdAt DESC, al.id DESC
+            """)
+    List<ActivityLogDTO> findFirstByUserTeams(@Param("userId") Long userId, Pageable pageable);
+
+    /** The activities of the user's teams that come after the given creation date and id. */
+    @Query(
+            """
+            SELECT new io.flowinquiry.modules.collab.service.dto.ActivityLogDTO(
+                al.id, al.entityType, t.name, al.entityId, al.content, al.createdAt, u.id,
+                CONCAT(COALESCE(u.firstName, ''), ' ', COALESCE(u.lastName, '')),
+                u.imageUrl
+            )
+            FROM ActivityLog al
+            JOIN Team t ON al.entityType = 'Team' AND al.entityId = t.id
+            JOIN t.users u
+            WHERE u.id = :userId
+            AND al.createdAt <= :createdAt
+            AND (al.createdAt < :createdAt OR (al.createdAt = :createdAt AND al.id < :id))
+            ORDER BY al.createdAt DESC, al.id DESC
+            """)
+    List<ActivityLogDTO> findByUserTeamsAfter(
+            @Param("userId") Long userId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
 }
@@ -2,10 +2,61 @@ package io.flowinquiry.modules.collab.repository;
 
 import io.flowinquiry.modules.collab.domain.EmailJob;
 import io.flowinquiry.modules.collab.domain.EmailJobStatus;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface EmailJobRepository extends JpaRepository<EmailJob, Long> {
     List<EmailJob> findByStatusOrderByCreatedAtAsc(EmailJobStatus status, Limit limit);
+
+    /**
+     * Claims the oldest pending jobs for this node, skipping rows other nodes are claiming at the
+     * same time. Jobs claimed before the given time and never finished are claimed again.
+     *
+     * @return the claimed jobs
+     */
+    @Query(
+            value =
+                    """
+                    UPDATE fw_email_job SET status = 'SENDING', updated_at = :now
+                    WHERE id IN (
+                        SELECT id FROM fw_email_job
+                        WHERE status = 'PENDING'
+                        OR (status = 'SENDING' AND updated_at < :claimedBefore)
+                        ORDER BY created_at
+                        LIMIT :limit
+                        FOR UPDATE SKIP LOCKED)
+                    RETURNING *
+                    """,
+            nativeQuery = true)
+    List<EmailJob> claimPending(
+            @Param("now") Instant now,
+            @Param("claimedBefore") Instant claimedBefore,
+            @Param("limit") int limit);
+
+    @Modifying
+    @Query(
+            value = "UPDATE fw_email_job SET status = 'SENT', updated_at = :now WHERE id IN (:ids)",
+            nativeQuery = true)
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /** Puts the jobs back in the queue, or fails them once they used up their retries. */
+    @Modifying
+    @Query(
+            value =
+                    """
+                    UPDATE fw_email_job SET retries = retries + 1, updated_at = :now,
+                    status = CASE WHEN retries + 1 >= :maxRetries THEN 'FAILED' ELSE 'PENDING' END
+                    WHERE id IN (:ids)
+                    """,
+            nativeQuery = true)
+    int markFailed(
+            @Param("ids") Collection<Long> ids,
+            @Param("maxRetries") int maxRetries,
+            @Param("now") Instant now);
 }
@@ -48,11 +48,11 @@ public interface EntityWatcherRepository extends JpaRepository<EntityWatcher, Lo
     })
     Page<EntityWatcher> findByWatchUserId(Long userId, Pageable pageable);
 
-    void deleteByEntityTypeAndEntityIdAndWatchUserId(
+    long deleteByEntityTypeAndEntityIdAndWatchUserId(
             EntityType entityType, Long entityId, Long watchUserId);
 
     @Modifying
     @Transactional
-    void deleteByEntityTypeAndEntityIdAndWatchUser_IdIn(
+    long deleteByEntityTypeAndEntityIdAndWatchUser_IdIn(
             EntityType entityType, Long entityId, Collection<Long> watchUserIds);
 }
@@ -4,13 +4,21 @@ import io.flowinquiry.modules.collab.domain.EntityType;
 import io.flowinquiry.modules.collab.repository.ActivityLogRepository;
 import io.flowinquiry.modules.collab.service.dto.ActivityLogDTO;
 import io.flowinquiry.modules.collab.service.mapper.ActivityLogMapper;
+import io.flowinquiry.query.CursorSlice;
+import io.flowinquiry.query.KeysetCursor;
+import java.time.Instant;
+import java.util.List;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ActivityLogService {
 
+    private static final Sort.Order SCROLL_ORDER = Sort.Order.desc("createdAt");
+
     private final ActivityLogRepository activityLogRepository;
 
     private final ActivityLogMapper activityLogMapper;
@@ -32,4 +40,33 @@ public class ActivityLogService {
     public Page<ActivityLogDTO> getActivitiesForUser(Long userId, Pageable pageable) {
         return activityLogRepository.findAllByUserTeams(userId, pageable);
     }
+
+    /**
+     * Keyset-paginated activities of the user's teams, newest first, without counting them.
+     *
+     * @param cursor the cursor returned with the previous slice, or null for the first slice
+     */
+    public CursorSlice<ActivityLogDTO> scrollActivitiesForUser(
+            Long userId, String cursor, int size) {
+        PageRequest limit = PageRequest.ofSize(CursorSlice.checkSize(size) + 1);
+        List<ActivityLogDTO> rows;
+        if (cursor == null) {
+            rows = activityLogRepository.findFirstByUserTeams(userId, limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            if (!SCROLL_ORDER.equals(position.order()) || position.value() == null) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            rows =
+                    activityLogRepository.findByUserTeamsAfter(
+                            userId, Instant.parse(position.value()), position.id(), limit);
+        }
+        return CursorSlice.of(
+                rows,
+                size,
+                SCROLL_ORDER,
+                ActivityLogDTO::getCreatedAt,
+                ActivityLogDTO::getId,
+                dto -> dto);
+    }
 }
@@ -0,0 +1,354 @@
+package io.flowinquiry.modules.collab.service;
+
+import io.flowinquiry.config.FlowInquiryProperties;
+import io.flowinquiry.modules.audit.utils.ActivityLogUtils;
+import io.flowinquiry.modules.audit.utils.AuditUtils.FieldChange;
+import io.flowinquiry.modules.collab.domain.ActivityLog;
+import io.flowinquiry.modules.collab.domain.EntityType;
+import io.flowinquiry.modules.usermanagement.domain.User;
+import io.flowinquiry.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Buffers activity log entries in a bounded queue and writes them in JDBC batches from a single
+ * background thread, flushing when a batch fills up or the flush interval elapses. Field changes
+ * recorded for the same entity by the same user within the coalesce window are merged into a single
+ * entry. Entries are dropped (and counted) when the queue is full or their batch fails to write;
+ * everything queued is written before the application context shuts down.
+ */
+@Component
+@Slf4j
+public class ActivityLogWriter implements SmartLifecycle {
+
+    private static final String INSERT_ACTIVITY_LOG =
+            "INSERT INTO fw_activity_log (tenant_id, entity_type, entity_id, content, created_at,"
+                    + " created_by) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String ACTIVITY_LOG_QUERY_REGION = "queryActivityLogs";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BlockingQueue<PendingEntry> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long coalesceWindowNanos;
+
+    /** Field changes waiting out the coalesce window; only touched by the writer thread. */
+    private final Map<CoalesceKey, PendingEntry> coalescing = new LinkedHashMap<>();
+
+    private final Timer flushTimer;
+    private final Counter droppedCounter;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public ActivityLogWriter(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory,
+            MeterRegistry meterRegistry,
+            FlowInquiryProperties flowInquiryProperties) {
+        FlowInquiryProperties.ActivityLog properties = flowInquiryProperties.getActivityLog();
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalNanos =
+                TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMillis());
+        this.coalesceWindowNanos =
+                TimeUnit.MILLISECONDS.toNanos(properties.getCoalesceWindowMillis());
+
+        Gauge.builder("flowinquiry.activity_log.queue.depth", queue, BlockingQueue::size)
+                .description("Activity log entries waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer =
+                Timer.builder("flowinquiry.activity_log.flush")
+                        .description("Time taken to write one batch of activity log entries")
+                        .register(meterRegistry);
+        this.droppedCounter =
+                Counter.builder("flowinquiry.activity_log.dropped")
+                        .description(
+                                "Activity log entries dropped on a full queue or a failed write")
+                        .register(meterRegistry);
+    }
+
+    /**
+     * Queue a fully rendered activity log entry for the current tenant.
+     *
+     * @param activityLog The entry to write; its id and creation time are ignored.
+     */
+    public void write(ActivityLog activityLog) {
+        enqueue(
+                new PendingEntry(
+                        currentTenantId(),
+                        activityLog.getEntityType(),
+                        activityLog.getEntityId(),
+                        userId(activityLog.getCreatedBy()),
+                        Instant.now(),
+                        System.nanoTime(),
+                        activityLog.getContent(),
+                        null));
+    }
+
+    /**
+     * Queue field changes of an entity for the current tenant. Changes made to the same entity by
+     * the same user within the coalesce window are written as one entry that shows the oldest
+     * previous value and the newest value of every field; fields that end up unchanged are left
+     * out.
+     *
+     * @param entityType The type of the changed entity.
+     * @param entityId The id of the changed entity.
+     * @param createdBy The user who made the changes, may be null.
+     * @param changes The changed fields.
+     */
+    public void writeChanges(
+            EntityType entityType, Long entityId, User createdBy, List<FieldChange> changes) {
+        Map<String, FieldChange> changesByField = new LinkedHashMap<>();
+        for (FieldChange change : changes) {
+            changesByField.put(change.getFieldName(), change);
+        }
+        enqueue(
+                new PendingEntry(
+                        currentTenantId(),
+                        entityType,
+                        entityId,
+                        userId(createdBy),
+                        Instant.now(),
+                        System.nanoTime(),
+                        null,
+                        changesByField));
+    }
+
+    private void enqueue(PendingEntry entry) {
+        if (!running) {
+            // Not started yet or already shut down, so nothing would drain the queue
+            insert(List.of(entry));
+        } else if (!queue.offer(entry)) {
+            droppedCounter.increment();
+            log.warn(
+                    "Activity log queue is full, dropping entry for {} {}",
+                    entry.entityType(),
+                    entry.entityId());
+        } else if (!running && queue.remove(entry)) {
+            // Shutdown drained the queue before this entry arrived
+            insert(List.of(entry));
+        }
+    }
+
+    private void runWriter() {
+        List<PendingEntry> drained = new ArrayList<>(batchSize);
+        boolean interrupted = false;
+        while (running) {
+            try {
+                drain(drained, System.nanoTime() + flushIntervalNanos);
+                process(drained, false);
+            } catch (InterruptedException e) {
+                interrupted = true;
+                break;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in activity log writer", e);
+            } finally {
+                drained.clear();
+            }
+        }
+
+        // Flushed here rather than by stop(), which may give up waiting while this thread still
+        // writes, so that the coalescing entries are never touched by two threads
+        queue.drainTo(drained);
+        process(drained, true);
+        log.debug("Activity log writer stopped after flushing {} queued entries", drained.size());
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Collects entries until a batch is full or the deadline passes, whichever comes first, so that
+     * a steady trickle of entries is still written in batches.
+     */
+    private void drain(List<PendingEntry> buffer, long deadlineNanos) throws InterruptedException {
+        while (buffer.size() < batchSize) {
+            queue.drainTo(buffer, batchSize - buffer.size());
+            long remaining = deadlineNanos - System.nanoTime();
+            if (buffer.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            PendingEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            buffer.add(next);
+        }
+    }
+
+    private void process(List<PendingEntry> drained, boolean force) {
+        List<PendingEntry> ready = new ArrayList<>(drained.size());
+        for (PendingEntry entry : drained) {
+            if (entry.changes() == null) {
+                ready.add(entry);
+            } else {
+                coalescing.merge(entry.coalesceKey(), entry, PendingEntry::mergeWith);
+            }
+        }
+
+        long now = System.nanoTime();
+        Iterator<PendingEntry> pending = coalescing.values().iterator();
+        while (pending.hasNext()) {
+            PendingEntry entry = pending.next();
+            if (force || now - entry.firstSeenNanos() >= coalesceWindowNanos) {
+                pending.remove();
+                if (!entry.changes().isEmpty()) {
+                    ready.add(entry);
+                }
+            }
+        }
+
+        for (int from = 0; from < ready.size(); from += batchSize) {
+            insert(ready.subList(from, Math.min(from + batchSize, ready.size())));
+        }
+    }
+
+    private void insert(List<PendingEntry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            flushTimer.record(
+                    () ->
+                            transactionTemplate.executeWithoutResult(
+                                    status ->
+                                            jdbcTemplate.batchUpdate(
+                                                    INSERT_ACTIVITY_LOG,
+                                                    batch,
+                                                    batch.size(),
+                                                    (ps, entry) -> {
+                                                        ps.setObject(1, entry.tenantId());
+                                                        ps.setString(2, entry.entityType().name());
+                                                        ps.setLong(3, entry.entityId());
+                                                        ps.setString(4, entry.content());
+                                                        ps.setTimestamp(
+                                                                5,
+                                                                Timestamp.from(entry.createdAt()));
+                                                        ps.setObject(6, entry.createdById());
+                                                    })));
+            // Rows were written behind Hibernate's back, so cached activity log pages are stale
+            entityManagerFactory
+                    .getCache()
+                    .unwrap(Cache.class)
+                    .evictQueryRegion(ACTIVITY_LOG_QUERY_REGION);
+        } catch (RuntimeException e) {
+            droppedCounter.increment(batch.size());
+            log.error("Failed to write {} activity log entries", batch.size(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "activity-log-writer");
+        writerThread.start();
+    }
+
+    /**
+     * Stops the writer thread, which writes everything that is still queued or coalescing before it
+     * ends, and waits for it.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            writerThread.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 30_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("Activity log writer is still flushing, no longer waiting for it");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static UUID currentTenantId() {
+        return TenantContext.getTenantId()
+                .orElseThrow(() -> new IllegalStateException("tenantId is null"));
+    }
+
+    private static Long userId(User user) {
+        return user == null ? null : user.getId();
+    }
+
+    private record CoalesceKey(UUID tenantId, EntityType entityType, Long entityId, Long userId) {}
+
+    private record PendingEntry(
+            UUID tenantId,
+            EntityType entityType,
+            Long entityId,
+            Long createdById,
+            Instant createdAt,
+            long firstSeenNanos,
+            String content,
+            Map<String, FieldChange> changes) {
+
+        CoalesceKey coalesceKey() {
+            return new CoalesceKey(tenantId, entityType, entityId, createdById);
+        }
+
+        /** Keeps the earliest old value and the latest new value of every field. */
+        PendingEntry mergeWith(PendingEntry later) {
+            for (FieldChange change : later.changes().values()) {
+                FieldChange earlier = changes.get(change.getFieldName());
+                if (earlier == null) {
+                    changes.put(change.getFieldName(), change);
+                } else if (Objects.equals(earlier.getOldValue(), change.getNewValue())) {
+                    changes.remove(change.getFieldName());
+                } else {
+                    changes.put(
+                            change.getFieldName(),
+                            new FieldChange(
+                                    change.getFieldName(),
+                                    earlier.getOldValue(),
+                                    change.getNewValue()));
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public String content() {
+            return changes == null
+                    ? content
+                    : ActivityLogUtils.generateHtmlLog(List.copyOf(changes.values()));
+        }
+    }
+}
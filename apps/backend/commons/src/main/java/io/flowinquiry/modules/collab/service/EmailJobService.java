@@ -4,16 +4,30 @@ import io.flowinquiry.modules.collab.domain.EmailJob;
 import io.flowinquiry.modules.collab.domain.EmailJobStatus;
 import io.flowinquiry.modules.collab.repository.EmailJobRepository;
 import jakarta.annotation.Nullable;
+import java.sql.Timestamp;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import tools.jackson.databind.JsonNode;
 
 @Service
 public class EmailJobService {
 
+    private static final String INSERT_JOB =
+            "INSERT INTO fw_email_job (recipients, recipient_locale, template_key,"
+                    + " template_context, subject_override, body, status, retries, created_at)"
+                    + " VALUES (?, ?, ?, CAST(? AS jsonb), ?, ?, ?, 0, ?)";
+
+    private static final int BATCH_SIZE = 500;
+
     private final EmailJobRepository emailJobRepository;
 
-    public EmailJobService(EmailJobRepository emailJobRepository) {
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmailJobService(EmailJobRepository emailJobRepository, JdbcTemplate jdbcTemplate) {
         this.emailJobRepository = emailJobRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     public void enqueueEmailJob(
@@ -46,6 +60,58 @@ public class EmailJobService {
         emailJobRepository.save(job);
     }
 
+    /**
+     * Builds a job for a mail whose subject and body are rendered already.
+     *
+     * @param name The recipient's display name, may be blank.
+     * @param email The recipient's address.
+     * @return A job for {@link #enqueueRenderedEmailJobs}.
+     */
+    public static EmailJob renderedEmailJob(
+            String name,
+            String email,
+            String locale,
+            String templateKey,
+            JsonNode context,
+            String subject,
+            String body) {
+        EmailJob job = new EmailJob();
+        job.setRecipients(
+                name == null || name.isBlank() ? email : combineNameAndEmail(name, email));
+        job.setRecipientLocale(locale);
+        job.setTemplateKey(templateKey);
+        job.setTemplateContext(context);
+        job.setSubjectOverride(subject);
+        job.setBody(body);
+        job.setStatus(EmailJobStatus.PENDING);
+        return job;
+    }
+
+    /**
+     * Queues rendered mails with batched inserts. Runs in the caller's transaction, so the mails
+     * are only sent if it commits.
+     */
+    @Transactional
+    public void enqueueRenderedEmailJobs(List<EmailJob> jobs) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                INSERT_JOB,
+                jobs,
+                BATCH_SIZE,
+                (ps, job) -> {
+                    ps.setString(1, job.getRecipients());
+                    ps.setString(2, job.getRecipientLocale());
+                    ps.setString(3, job.getTemplateKey());
+                    ps.setString(4, job.getTemplateContext().toString());
+                    ps.setString(5, job.getSubjectOverride());
+                    ps.setString(6, job.getBody());
+                    ps.setString(7, job.getStatus().name());
+                    ps.setTimestamp(8, Timestamp.from(job.getCreatedAt()));
+                });
+    }
+
     private static String combineNameAndEmail(String name, String email) {
         return String.format("%s <%s>", name, email);
     }
@@ -5,11 +5,17 @@ import io.flowinquiry.modules.collab.domain.EntityWatcher;
 import io.flowinquiry.modules.collab.repository.EntityWatcherRepository;
 import io.flowinquiry.modules.collab.service.mapper.EntityWatcherMapper;
 import io.flowinquiry.modules.fss.service.dto.EntityWatcherDTO;
+import io.flowinquiry.modules.teams.repository.TicketRepository;
 import io.flowinquiry.modules.usermanagement.domain.User;
 import io.flowinquiry.modules.usermanagement.repository.UserRepository;
+import io.flowinquiry.query.CursorSlice;
+import io.flowinquiry.query.KeysetQueries;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,17 +23,22 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class EntityWatcherService {
 
+    @PersistenceContext private EntityManager entityManager;
+
     private final EntityWatcherRepository entityWatcherRepository;
     private final EntityWatcherMapper entityWatcherMapper;
     private final UserRepository userRepository;
+    private final TicketRepository ticketRepository;
 
     public EntityWatcherService(
             EntityWatcherRepository entityWatcherRepository,
             EntityWatcherMapper entityWatcherMapper,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            TicketRepository ticketRepository) {
         this.entityWatcherRepository = entityWatcherRepository;
         this.entityWatcherMapper = entityWatcherMapper;
         this.userRepository = userRepository;
+        this.ticketRepository = ticketRepository;
     }
 
     @Transactional
@@ -56,12 +67,15 @@ public class EntityWatcherService {
                             .toList();
 
             entityWatcherRepository.saveAll(entityWatchers);
+            adjustNumberWatchers(entityType, entityId, entityWatchers.size());
         }
     }
 
     public void removeWatcher(EntityType entityType, Long entityId, Long userId) {
-        entityWatcherRepository.deleteByEntityTypeAndEntityIdAndWatchUserId(
-                entityType, entityId, userId);
+        long removed =
+                entityWatcherRepository.deleteByEntityTypeAndEntityIdAndWatchUserId(
+                        entityType, entityId, userId);
+        adjustNumberWatchers(entityType, entityId, -removed);
     }
 
     @Transactional(readOnly = true)
@@ -77,9 +91,35 @@ public class EntityWatcherService {
                 .map(entityWatcherMapper::toDTO);
     }
 
+    /** Keyset-paginated entities watched by a user, newest first, without counting them. */
+    @Transactional(readOnly = true)
+    public CursorSlice<EntityWatcherDTO> scrollWatchedEntitiesForUser(
+            Long userId, String cursor, int size) {
+        return KeysetQueries.scroll(
+                entityManager,
+                EntityWatcher.class,
+                (root, query, cb) -> {
+                    root.fetch("watchUser");
+                    return cb.equal(root.get("watchUser").get("id"), userId);
+                },
+                cursor,
+                Sort.Order.desc("createdAt"),
+                size,
+                entityWatcherMapper::toDTO);
+    }
+
     @Transactional
     public void removeWatchers(EntityType entityType, Long entityId, List<Long> watcherIds) {
-        entityWatcherRepository.deleteByEntityTypeAndEntityIdAndWatchUser_IdIn(
-                entityType, entityId, watcherIds);
+        long removed =
+                entityWatcherRepository.deleteByEntityTypeAndEntityIdAndWatchUser_IdIn(
+                        entityType, entityId, watcherIds);
+        adjustNumberWatchers(entityType, entityId, -removed);
+    }
+
+    /** Keeps the watcher counter of tickets in step, in the same transaction. */
+    private void adjustNumberWatchers(EntityType entityType, Long entityId, long delta) {
+        if (entityType == EntityType.Ticket && delta != 0) {
+            ticketRepository.adjustNumberWatchers(entityId, (int) delta);
+        }
     }
 }
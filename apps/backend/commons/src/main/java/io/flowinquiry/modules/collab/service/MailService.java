@@ -1,14 +1,23 @@
 package io.flowinquiry.modules.collab.service;
 
+import io.flowinquiry.config.FlowInquiryProperties;
 import io.flowinquiry.modules.collab.EmailContext;
 import io.flowinquiry.modules.collab.service.event.MailSettingsUpdatedEvent;
 import io.flowinquiry.modules.usermanagement.service.dto.UserDTO;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
 import jakarta.mail.internet.MimeMessage;
 import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
@@ -48,10 +57,14 @@ public class MailService {
     private final AppSettingService appSettingService;
     private final MessageSource messageSource;
     private final SpringTemplateEngine templateEngine;
+    private final RateLimiter batchRateLimiter;
 
-    private JavaMailSenderImpl mailSender;
+    /** Connected transports of the current mail sender, reused by {@link #sendBatch}. */
+    private final BlockingQueue<Transport> idleTransports;
 
-    @Getter private boolean mailEnabled = false;
+    private volatile JavaMailSenderImpl mailSender;
+
+    @Getter private volatile boolean mailEnabled = false;
 
     @Getter private String from = "undefined";
 
@@ -60,10 +73,14 @@ public class MailService {
     public MailService(
             AppSettingService appSettingService,
             MessageSource messageSource,
-            SpringTemplateEngine templateEngine) {
+            SpringTemplateEngine templateEngine,
+            FlowInquiryProperties flowInquiryProperties) {
+        FlowInquiryProperties.RelayEmail properties = flowInquiryProperties.getRelayEmail();
         this.appSettingService = appSettingService;
         this.messageSource = messageSource;
         this.templateEngine = templateEngine;
+        this.batchRateLimiter = new RateLimiter(properties.getMaxMessagesPerSecond());
+        this.idleTransports = new ArrayBlockingQueue<>(Math.max(1, properties.getWorkerThreads()));
     }
 
     @PostConstruct
@@ -77,7 +94,14 @@ public class MailService {
         reloadMailSender();
     }
 
+    @PreDestroy
+    public void destroy() {
+        closeIdleTransports();
+    }
+
     private void reloadMailSender() {
+        // Pooled transports are connected with the previous settings
+        closeIdleTransports();
         String host = appSettingService.getValue(HOST_SETTING).orElse(null);
         String portStr = appSettingService.getValue(PORT_SETTING).orElse(null);
 
@@ -120,7 +144,7 @@ public class MailService {
         }
     }
 
-    @Async
+    @Async("mailTaskExecutor")
     public void sendEmail(
             String to, String subject, String content, boolean isMultipart, boolean isHtml) {
         if (mailEnabled && mailSender != null) {
@@ -158,7 +182,118 @@ public class MailService {
         }
     }
 
-    @Async
+    /** A rendered mail for {@link #sendBatch}. */
+    public record OutgoingMail(String to, String subject, String content) {}
+
+    /**
+     * Sends HTML mails one after the other over a pooled SMTP connection, instead of a new
+     * connection per mail, at no more than the configured rate across all callers. A mail that
+     * fails does not stop the others; a dropped connection is replaced.
+     *
+     * @return The positions of the mails that could not be sent, with the reason. Empty if mail is
+     *     not configured, in which case nothing is sent.
+     */
+    public Map<Integer, Exception> sendBatch(List<OutgoingMail> mails) {
+        JavaMailSenderImpl sender = this.mailSender;
+        Map<Integer, Exception> failures = new HashMap<>();
+        if (!mailEnabled || sender == null || mails.isEmpty()) {
+            return failures;
+        }
+
+        Transport transport = null;
+        try {
+            for (int i = 0; i < mails.size(); i++) {
+                OutgoingMail mail = mails.get(i);
+                try {
+                    batchRateLimiter.acquire();
+                    if (transport == null) {
+                        transport = borrowTransport(sender);
+                    }
+                    MimeMessage message = createMessage(sender, mail);
+                    transport.sendMessage(message, message.getAllRecipients());
+                    log.debug("Sent email to User '{}'", mail.to());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    for (int j = i; j < mails.size(); j++) {
+                        failures.put(j, e);
+                    }
+                    break;
+                } catch (MessagingException e) {
+                    log.warn("Email could not be sent to user '{}'", mail.to(), e);
+                    failures.put(i, e);
+                    if (transport != null && !transport.isConnected()) {
+                        closeQuietly(transport);
+                        transport = null;
+                    }
+                }
+            }
+        } finally {
+            if (transport != null) {
+                returnTransport(sender, transport);
+            }
+        }
+        return failures;
+    }
+
+    private MimeMessage createMessage(JavaMailSenderImpl sender, OutgoingMail mail)
+            throws MessagingException {
+        MimeMessage mimeMessage = sender.createMimeMessage();
+        MimeMessageHelper message =
+                new MimeMessageHelper(mimeMessage, false, StandardCharsets.UTF_8.name());
+        message.setTo(mail.to());
+        message.setFrom(from);
+        message.setSubject(mail.subject());
+        message.setText(mail.content(), true);
+        mimeMessage.setSentDate(new Date());
+        mimeMessage.saveChanges();
+        return mimeMessage;
+    }
+
+    /** Takes an idle transport that is still connected, or connects a new one. */
+    private Transport borrowTransport(JavaMailSenderImpl sender) throws MessagingException {
+        Transport transport;
+        while ((transport = idleTransports.poll()) != null) {
+            // Sends a NOOP, so connections the server closed meanwhile are found
+            if (transport.isConnected()) {
+                return transport;
+            }
+            closeQuietly(transport);
+        }
+        transport = sender.getSession().getTransport();
+        String username = sender.getUsername();
+        String password = sender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        transport.connect(sender.getHost(), sender.getPort(), username, password);
+        return transport;
+    }
+
+    private void returnTransport(JavaMailSenderImpl sender, Transport transport) {
+        if (sender != this.mailSender || !idleTransports.offer(transport)) {
+            closeQuietly(transport);
+        }
+    }
+
+    private void closeIdleTransports() {
+        Transport transport;
+        while ((transport = idleTransports.poll()) != null) {
+            closeQuietly(transport);
+        }
+    }
+
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close mail transport", e);
+        }
+    }
+
+    @Async("mailTaskExecutor")
     public void sendEmailFromTemplate(UserDTO user, String templateName, String titleKey) {
         if (user.getEmail() == null) {
             log.debug("Email doesn't exist for user '{}'", user);
@@ -174,7 +309,7 @@ public class MailService {
         this.sendEmail(user.getEmail(), subject, content, false, true);
     }
 
-    @Async
+    @Async("mailTaskExecutor")
     public void sendEmail(EmailContext emailContext) {
         if (emailContext.getToUser() == null
                 || emailContext.getToUser().getEmail() == null
@@ -197,19 +332,19 @@ public class MailService {
                 true);
     }
 
-    @Async
+    @Async("mailTaskExecutor")
     public void sendActivationEmail(UserDTO user) {
         log.debug("Sending activation email to '{}'", user.getEmail());
         this.sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
     }
 
-    @Async
+    @Async("mailTaskExecutor")
     public void sendCreationEmail(UserDTO user) {
         log.debug("Sending creation email to '{}'", user.getEmail());
         this.sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
     }
 
-    @Async
+    @Async("mailTaskExecutor")
     public void sendPasswordResetMail(UserDTO user) {
         log.debug("Sending password reset email to '{}'", user.getEmail());
         this.sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
@@ -1,15 +1,40 @@
 package io.flowinquiry.modules.collab.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.flowinquiry.config.FlowInquiryProperties;
 import io.flowinquiry.modules.collab.domain.RenderedEmail;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.cache.AlwaysValidCacheEntryValidity;
+import org.thymeleaf.cache.ICacheEntryValidity;
+import org.thymeleaf.cache.StandardCacheManager;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.AbstractTemplateResolver;
+import org.thymeleaf.templateresource.ITemplateResource;
+import org.thymeleaf.templateresource.StringTemplateResource;
 import org.yaml.snakeyaml.Yaml;
 
 /**
@@ -17,22 +42,70 @@ import org.yaml.snakeyaml.Yaml;
  * templates with YAML frontmatter containing metadata such as the email subject, and renders the
  * template body using Thymeleaf. Templates are loaded from the classpath and can be localized based
  * on the provided locale.
+ *
+ * <p>Each template file is read and parsed once: the subject and body are kept compiled in the
+ * template cache of a dedicated engine, and the file a (template, locale) pair resolves to is
+ * remembered, so a render only evaluates the compiled templates.
  */
+@Slf4j
 @Service
 public class MailTemplateRendererService {
 
+    static final String TEMPLATE_DIRECTORY = "templates/mail/";
+
+    private static final String TEMPLATE_SUFFIX = ".yaml.md";
+
+    private static final String DEFAULT_LANGUAGE = "en";
+
+    private static final String SUBJECT = "#subject";
+
+    private static final String BODY = "#body";
+
     private final SpringTemplateEngine templateEngine;
 
-    private final Yaml yaml;
+    /** The template file each template and locale resolved to, after locale fallback. */
+    private final Cache<TemplateId, String> resolvedTemplates;
+
+    private final boolean watch;
+
+    private WatchService watchService;
 
     /**
      * Constructs a new MailTemplateRendererService with the required dependencies.
      *
-     * @param templateEngine The Spring Template Engine used for processing Thymeleaf templates
+     * @param messageSource The message source for the message expressions of the templates
+     * @param flowInquiryProperties The size of the template cache and whether to watch templates
      */
-    public MailTemplateRendererService(SpringTemplateEngine templateEngine) {
-        this.templateEngine = templateEngine;
-        yaml = new Yaml();
+    public MailTemplateRendererService(
+            MessageSource messageSource, FlowInquiryProperties flowInquiryProperties) {
+        FlowInquiryProperties.MailTemplate properties = flowInquiryProperties.getMailTemplate();
+        this.watch = properties.isWatch();
+        this.resolvedTemplates =
+                Caffeine.newBuilder().maximumSize(properties.getCacheSize()).build();
+
+        StandardCacheManager cacheManager = new StandardCacheManager();
+        // A subject and a body per template file
+        cacheManager.setTemplateCacheMaxSize(properties.getCacheSize() * 2);
+        cacheManager.setExpressionCacheMaxSize(properties.getCacheSize() * 10);
+        this.templateEngine = new SpringTemplateEngine();
+        templateEngine.setCacheManager(cacheManager);
+        templateEngine.setEnableSpringELCompiler(true);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        templateEngine.setTemplateResolver(new MailTemplateResolver());
+    }
+
+    @PostConstruct
+    public void init() {
+        if (watch) {
+            watchTemplates();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
     }
 
     /**
@@ -58,6 +131,9 @@ public class MailTemplateRendererService {
      * Thank you for joining FlowInquiry. We're excited to have you.
      * </pre>
      *
+     * <p>The template for the language of the locale is used, or the English one when there is
+     * none.
+     *
      * @param templateKey The key identifying the template to render
      * @param context The Thymeleaf context containing variables for template rendering
      * @param locale The locale to use for template selection and rendering
@@ -68,20 +144,55 @@ public class MailTemplateRendererService {
      */
     public RenderedEmail render(String templateKey, Context context, Locale locale)
             throws IOException {
-        String filename = templateKey + "." + locale.getLanguage() + ".yaml.md";
-        String resourcePath = "templates/mail/" + filename;
+        String resourcePath =
+                resolvedTemplates.get(
+                        new TemplateId(templateKey, locale.getLanguage()), this::resolve);
+        if (resourcePath == null) {
+            throw new FileNotFoundException(
+                    "Template not found in classpath: "
+                            + TEMPLATE_DIRECTORY
+                            + templateKey
+                            + "."
+                            + locale.getLanguage()
+                            + TEMPLATE_SUFFIX);
+        }
+        try {
+            String subject = templateEngine.process(resourcePath + SUBJECT, context);
+            String body = templateEngine.process(resourcePath + BODY, context);
+            return new RenderedEmail(subject, body);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Drops every compiled template, so that templates are read again when next rendered. */
+    public void reload() {
+        resolvedTemplates.invalidateAll();
+        templateEngine.clearTemplateCache();
+        log.info("Mail templates reloaded.");
+    }
+
+    /**
+     * @return The classpath resource of the template for the language, or {@code null}.
+     */
+    private String resolve(TemplateId id) {
+        for (String language : List.of(id.language(), DEFAULT_LANGUAGE)) {
+            String resourcePath =
+                    TEMPLATE_DIRECTORY + id.templateKey() + "." + language + TEMPLATE_SUFFIX;
+            if (getClass().getClassLoader().getResource(resourcePath) != null) {
+                return resourcePath;
+            }
+        }
+        return null;
+    }
+
+    /** Reads a template file; only called when its subject or body is not compiled yet. */
+    String load(String resourcePath) throws IOException {
         try (InputStream is = getClass().getClassLoader().getResourceAsStream(resourcePath)) {
             if (is == null) {
                 throw new FileNotFoundException("Template not found in classpath: " + resourcePath);
             }
-
-            String raw = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-            ParsedTemplate parsed = parseTemplate(raw);
-
-            String subject = renderTemplate(parsed.subject, context);
-            String body = renderTemplate(parsed.body, context);
-
-            return new RenderedEmail(subject, body);
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
         }
     }
 
@@ -96,16 +207,109 @@ public class MailTemplateRendererService {
         String yamlSection = raw.substring(3, secondDelimiter).trim();
         String markdown = raw.substring(secondDelimiter + 3).trim();
 
-        Map<String, Object> metadata = yaml.load(yamlSection);
+        // Yaml instances are not thread-safe, and mails are rendered on several threads
+        Map<String, Object> metadata = new Yaml().load(yamlSection);
         String subject = (String) metadata.get("subject");
         if (subject == null) throw new IllegalArgumentException("Missing 'subject' in frontmatter");
 
         return new ParsedTemplate(subject, markdown);
     }
 
-    private String renderTemplate(String templateString, Context context) throws IOException {
-        return templateEngine.process(templateString, context);
+    /**
+     * Reloads the templates whenever a file of the template directory changes. Only possible when
+     * the directory is on the file system rather than packaged in a jar.
+     */
+    private void watchTemplates() {
+        URL url = getClass().getClassLoader().getResource(TEMPLATE_DIRECTORY);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            log.warn("Mail templates are not on the file system; they will not be watched.");
+            return;
+        }
+        try {
+            Path directory = Path.of(url.toURI());
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(
+                    watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            Thread watcher = new Thread(this::awaitChanges, "mail-template-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+            log.info("Watching mail templates in {}", directory);
+        } catch (IOException | URISyntaxException e) {
+            log.warn("Can not watch mail templates in {}", url, e);
+        }
+    }
+
+    private void awaitChanges() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                key.pollEvents();
+                reload();
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    /**
+     * Serves the subject ({@code <file>#subject}) or body ({@code <file>#body}) of a template file.
+     * The engine asks for each only once, and keeps the compiled result in its template cache.
+     */
+    private class MailTemplateResolver extends AbstractTemplateResolver {
+
+        @Override
+        protected boolean computeResolvable(
+                IEngineConfiguration configuration,
+                String ownerTemplate,
+                String template,
+                Map<String, Object> templateResolutionAttributes) {
+            return template.endsWith(SUBJECT) || template.endsWith(BODY);
+        }
+
+        @Override
+        protected ITemplateResource computeTemplateResource(
+                IEngineConfiguration configuration,
+                String ownerTemplate,
+                String template,
+                Map<String, Object> templateResolutionAttributes) {
+            int separator = template.lastIndexOf('#');
+            String raw;
+            try {
+                raw = load(template.substring(0, separator));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            ParsedTemplate parsed = parseTemplate(raw);
+            return new StringTemplateResource(
+                    template.endsWith(SUBJECT) ? parsed.subject() : parsed.body());
+        }
+
+        @Override
+        protected TemplateMode computeTemplateMode(
+                IEngineConfiguration configuration,
+                String ownerTemplate,
+                String template,
+                Map<String, Object> templateResolutionAttributes) {
+            return TemplateMode.HTML;
+        }
+
+        @Override
+        protected ICacheEntryValidity computeValidity(
+                IEngineConfiguration configuration,
+                String ownerTemplate,
+                String template,
+                Map<String, Object> templateResolutionAttributes) {
+            return AlwaysValidCacheEntryValidity.INSTANCE;
+        }
     }
 
+    private record TemplateId(String templateKey, String language) {}
+
     private record ParsedTemplate(String subject, String body) {}
 }
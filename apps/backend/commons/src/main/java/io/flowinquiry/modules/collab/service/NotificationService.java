@@ -1,26 +1,70 @@
 package io.flowinquiry.modules.collab.service;
 
+import io.flowinquiry.modules.collab.domain.Notification;
 import io.flowinquiry.modules.collab.repository.NotificationRepository;
 import io.flowinquiry.modules.collab.service.dto.NotificationDTO;
 import io.flowinquiry.modules.collab.service.mapper.NotificationMapper;
+import io.flowinquiry.query.CursorSlice;
+import io.flowinquiry.query.KeysetQueries;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Transactional
 @Service
 public class NotificationService {
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO fw_notification (content, notification_type, user_id, is_read, tenant_id,"
+                    + " created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int BATCH_SIZE = 500;
+
+    @PersistenceContext private EntityManager entityManager;
+
     private final NotificationRepository notificationRepository;
 
     private final NotificationMapper notificationMapper;
 
+    private final JdbcTemplate jdbcTemplate;
+
     public NotificationService(
-            NotificationRepository notificationRepository, NotificationMapper notificationMapper) {
+            NotificationRepository notificationRepository,
+            NotificationMapper notificationMapper,
+            JdbcTemplate jdbcTemplate) {
         this.notificationRepository = notificationRepository;
         this.notificationMapper = notificationMapper;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stores notifications with batched inserts, bypassing the persistence context. Each
+     * notification must carry its user and tenant, as there may be no tenant in context.
+     */
+    public void createNotifications(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(
+                INSERT_NOTIFICATION,
+                notifications,
+                BATCH_SIZE,
+                (ps, notification) -> {
+                    ps.setString(1, notification.getContent());
+                    ps.setString(2, notification.getType().name());
+                    ps.setLong(3, notification.getUser().getId());
+                    ps.setBoolean(4, Boolean.TRUE.equals(notification.getIsRead()));
+                    ps.setObject(5, notification.getTenantId());
+                    ps.setTimestamp(6, now);
+                });
     }
 
     @Transactional(readOnly = true)
@@ -37,6 +81,20 @@ public class NotificationService {
         return notificationRepository.findByUserId(userId, pageable).map(notificationMapper::toDTO);
     }
 
+    /** Keyset-paginated notifications of a user, newest first, without counting them. */
+    @Transactional(readOnly = true)
+    public CursorSlice<NotificationDTO> scrollNotificationsForUser(
+            Long userId, String cursor, int size) {
+        return KeysetQueries.scroll(
+                entityManager,
+                Notification.class,
+                (root, query, cb) -> cb.equal(root.get("user").get("id"), userId),
+                cursor,
+                Sort.Order.desc("createdAt"),
+                size,
+                notificationMapper::toDTO);
+    }
+
     @Transactional
     public void markNotificationsAsRead(List<Long> notificationIds) {
         notificationRepository.markAsRead(notificationIds);
@@ -0,0 +1,41 @@
+package io.flowinquiry.modules.collab.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out permits evenly spaced at a fixed rate, across all threads. A caller that finds the next
+ * permit in the future reserves it and sleeps until then, so callers are served in the order they
+ * arrive and there are no bursts after idle periods.
+ */
+final class RateLimiter {
+
+    private final long intervalNanos;
+
+    /** Guarded by this. */
+    private long nextFreeNanos;
+
+    /**
+     * @param permitsPerSecond The rate, or 0 or less for no limit.
+     */
+    RateLimiter(double permitsPerSecond) {
+        this.intervalNanos =
+                permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    void acquire() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long permit = Math.max(now, nextFreeNanos);
+            nextFreeNanos = permit + intervalNanos;
+            waitNanos = permit - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -1,34 +1,45 @@
 package io.flowinquiry.modules.collab.service.job;
 
+import io.flowinquiry.config.FlowInquiryProperties;
 import io.flowinquiry.modules.collab.domain.EmailJob;
-import io.flowinquiry.modules.collab.domain.EmailJobStatus;
 import io.flowinquiry.modules.collab.domain.RenderedEmail;
 import io.flowinquiry.modules.collab.repository.EmailJobRepository;
 import io.flowinquiry.modules.collab.service.AppSettingService;
 import io.flowinquiry.modules.collab.service.MailService;
+import io.flowinquiry.modules.collab.service.MailService.OutgoingMail;
 import io.flowinquiry.modules.collab.service.MailTemplateRendererService;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import lombok.extern.slf4j.Slf4j;
-import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.springframework.context.annotation.Profile;
-import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.thymeleaf.context.Context;
 import tools.jackson.core.type.TypeReference;
 import tools.jackson.databind.ObjectMapper;
 
+/**
+ * Sends the mails queued in {@code fw_email_job}. Each node claims batches of pending jobs with
+ * {@code FOR UPDATE SKIP LOCKED}, so that all nodes share the queue without sending a job twice. A
+ * claimed batch is split into chunks that a bounded pool of workers render and send, each over a
+ * pooled SMTP connection, and the outcome of the whole batch is written back with two updates.
+ */
 @Slf4j
 @Profile("!test")
 @Component
 public class SendRelayEmailJob {
-    private static final int MAX_RETRIES = 3;
-    private static final int EMAIL_JOB_BATCH_LIMIT = 500;
+    static final int MAX_RETRIES = 3;
 
     private static final String BASE_URL = "baseUrl";
     static final String BASE_URL_SETTING = "mail.base_url";
@@ -37,6 +48,12 @@ public class SendRelayEmailJob {
     private final MailTemplateRendererService emailTemplateRenderer;
     private final AppSettingService appSettingService;
     private final MailService emailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor workers;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int batchSize;
+    private final int chunkSize;
+    private final long leaseSeconds;
 
     private String baseUrl;
 
@@ -44,11 +61,27 @@ public class SendRelayEmailJob {
             EmailJobRepository emailJobRepository,
             MailTemplateRendererService emailTemplateRenderer,
             MailService emailSender,
-            AppSettingService appSettingService) {
+            AppSettingService appSettingService,
+            PlatformTransactionManager transactionManager,
+            FlowInquiryProperties flowInquiryProperties) {
+        FlowInquiryProperties.RelayEmail properties = flowInquiryProperties.getRelayEmail();
         this.emailJobRepository = emailJobRepository;
         this.emailTemplateRenderer = emailTemplateRenderer;
         this.emailSender = emailSender;
         this.appSettingService = appSettingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = properties.getBatchSize();
+        this.chunkSize = properties.getChunkSize();
+        this.leaseSeconds = properties.getLeaseSeconds();
+
+        this.workers = new ThreadPoolTaskExecutor();
+        workers.setCorePoolSize(properties.getWorkerThreads());
+        workers.setMaxPoolSize(properties.getWorkerThreads());
+        // A batch is submitted at once and waited for, so this is never exceeded
+        workers.setQueueCapacity((batchSize + chunkSize - 1) / chunkSize);
+        workers.setThreadNamePrefix("relay-email-");
+        workers.setDaemon(true);
+        workers.initialize();
     }
 
     @PostConstruct
@@ -56,53 +89,121 @@ public class SendRelayEmailJob {
         this.baseUrl = appSettingService.getValue(BASE_URL_SETTING).orElse("");
     }
 
-    @SchedulerLock(name = "SendRelayEmailJob", lockAtMostFor = "1h")
+    @PreDestroy
+    public void destroy() {
+        workers.shutdown();
+    }
+
     @Scheduled(fixedRate = 60000)
     public void run() {
-        List<EmailJob> jobs =
-                emailJobRepository.findByStatusOrderByCreatedAtAsc(
-                        EmailJobStatus.PENDING, Limit.of(EMAIL_JOB_BATCH_LIMIT));
+        List<EmailJob> jobs;
+        do {
+            jobs = claim();
+            if (jobs.isEmpty()) {
+                log.debug("No pending email jobs found.");
+                return;
+            }
+            relay(jobs);
+        } while (jobs.size() == batchSize && !Thread.currentThread().isInterrupted());
+    }
+
+    private List<EmailJob> claim() {
+        Instant now = Instant.now();
+        return transactionTemplate.execute(
+                status ->
+                        emailJobRepository.claimPending(
+                                now, now.minusSeconds(leaseSeconds), batchSize));
+    }
+
+    /** Renders and sends the claimed jobs on the worker pool, then records the outcome. */
+    void relay(List<EmailJob> jobs) {
+        List<List<EmailJob>> chunks = new ArrayList<>();
+        List<Future<Outcome>> futures = new ArrayList<>();
+        for (int from = 0; from < jobs.size(); from += chunkSize) {
+            List<EmailJob> chunk = jobs.subList(from, Math.min(from + chunkSize, jobs.size()));
+            chunks.add(chunk);
+            futures.add(workers.submit(() -> send(chunk)));
+        }
 
-        if (jobs.isEmpty()) {
-            log.debug("No pending email jobs found.");
-            return;
+        List<Long> sent = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                Outcome outcome = futures.get(i).get();
+                sent.addAll(outcome.sent());
+                failed.addAll(outcome.failed());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // Left claimed; claimed again when the lease runs out
+                return;
+            } catch (ExecutionException e) {
+                log.error("Failed to relay {} email jobs", chunks.get(i).size(), e.getCause());
+                chunks.get(i).forEach(job -> failed.add(job.getId()));
+            }
         }
 
-        ObjectMapper objectMapper = new ObjectMapper();
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(
+                status -> {
+                    if (!sent.isEmpty()) {
+                        emailJobRepository.markSent(sent, now);
+                    }
+                    if (!failed.isEmpty()) {
+                        emailJobRepository.markFailed(failed, MAX_RETRIES, now);
+                    }
+                });
+        log.info(
+                "Relayed {} email jobs: {} sent, {} failed.",
+                jobs.size(),
+                sent.size(),
+                failed.size());
+    }
 
-        for (EmailJob job : jobs) {
+    private Outcome send(List<EmailJob> chunk) {
+        List<EmailJob> rendered = new ArrayList<>(chunk.size());
+        List<OutgoingMail> mails = new ArrayList<>(chunk.size());
+        List<Long> failed = new ArrayList<>();
+        for (EmailJob job : chunk) {
             try {
-                Locale locale =
-                        Locale.forLanguageTag(
-                                Optional.ofNullable(job.getRecipientLocale()).orElse("en"));
-                Context context = prepareContext(job, locale, objectMapper);
-                RenderedEmail rendered =
-                        emailTemplateRenderer.render(job.getTemplateKey(), context, locale);
-
-                String subject =
-                        Optional.ofNullable(job.getSubjectOverride()).orElse(rendered.subject());
-                emailSender.sendEmail(job.getRecipients(), subject, rendered.body(), false, true);
-
-                job.setStatus(EmailJobStatus.SENT);
-                log.info("Email job {} sent successfully.", job.getId());
+                mails.add(render(job));
+                rendered.add(job);
             } catch (Exception ex) {
-                job.setRetries(job.getRetries() + 1);
-                log.error("Failed to send email job {}: {}", job.getId(), ex.getMessage(), ex);
-                if (job.getRetries() >= MAX_RETRIES) {
-                    job.setStatus(EmailJobStatus.FAILED);
-                    log.warn(
-                            "Email job {} marked as FAILED after {} retries.",
-                            job.getId(),
-                            MAX_RETRIES);
-                }
+                log.error("Failed to render email job {}: {}", job.getId(), ex.getMessage(), ex);
+                failed.add(job.getId());
             }
+        }
 
-            job.setUpdatedAt(Instant.now());
-            emailJobRepository.save(job);
+        Map<Integer, Exception> failures = emailSender.sendBatch(mails);
+        List<Long> sent = new ArrayList<>(rendered.size());
+        for (int i = 0; i < rendered.size(); i++) {
+            Exception failure = failures.get(i);
+            if (failure == null) {
+                sent.add(rendered.get(i).getId());
+            } else {
+                log.error(
+                        "Failed to send email job {}: {}",
+                        rendered.get(i).getId(),
+                        failure.getMessage());
+                failed.add(rendered.get(i).getId());
+            }
         }
+        return new Outcome(sent, failed);
     }
 
-    private Context prepareContext(EmailJob job, Locale locale, ObjectMapper objectMapper) {
+    private OutgoingMail render(EmailJob job) throws Exception {
+        if (job.getBody() != null) {
+            return new OutgoingMail(job.getRecipients(), job.getSubjectOverride(), job.getBody());
+        }
+        Locale locale =
+                Locale.forLanguageTag(Optional.ofNullable(job.getRecipientLocale()).orElse("en"));
+        Context context = prepareContext(job, locale);
+        RenderedEmail rendered =
+                emailTemplateRenderer.render(job.getTemplateKey(), context, locale);
+        String subject = Optional.ofNullable(job.getSubjectOverride()).orElse(rendered.subject());
+        return new OutgoingMail(job.getRecipients(), subject, rendered.body());
+    }
+
+    private Context prepareContext(EmailJob job, Locale locale) {
         Context context = new Context(locale);
         Map<String, Object> contextMap =
                 objectMapper.convertValue(job.getTemplateContext(), new TypeReference<>() {});
@@ -110,4 +211,6 @@ public class SendRelayEmailJob {
         context.setVariables(contextMap);
         return context;
     }
+
+    private record Outcome(List<Long> sent, List<Long> failed) {}
 }
@@ -1,6 +1,7 @@
 package io.flowinquiry.modules.fss.controller;
 
 import io.flowinquiry.modules.fss.service.StorageService;
+import io.flowinquiry.modules.fss.service.StoredObject;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -8,9 +9,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
-import java.io.ByteArrayOutputStream;
 import java.util.concurrent.TimeUnit;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
@@ -19,6 +18,7 @@ import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -41,6 +41,14 @@ public class FileDownloadController {
                         responseCode = "200",
                         description = "File downloaded successfully",
                         content = @Content(mediaType = "application/octet-stream")),
+                @ApiResponse(
+                        responseCode = "206",
+                        description = "Requested byte range of the file",
+                        content = @Content(mediaType = "application/octet-stream")),
+                @ApiResponse(
+                        responseCode = "304",
+                        description = "File not modified since the cached version",
+                        content = @Content),
                 @ApiResponse(
                         responseCode = "400",
                         description = "Invalid request - missing file container",
@@ -53,7 +61,13 @@ public class FileDownloadController {
     @GetMapping(value = "/**")
     public ResponseEntity<Resource> downloadFile(
             @Parameter(description = "HTTP request containing the file path", required = true)
-                    HttpServletRequest request)
+                    HttpServletRequest request,
+            @Parameter(
+                            description =
+                                    "Edge length in pixels an image should be scaled down to fit;"
+                                            + " rounded up to 32, 64 or 256")
+                    @RequestParam(value = "size", required = false)
+                    Integer size)
             throws Exception {
         String requestUrl = request.getRequestURI();
         int fileIndex = requestUrl.lastIndexOf("/");
@@ -63,21 +77,34 @@ public class FileDownloadController {
         String fileName = requestUrl.substring(fileIndex + 1);
         String container = requestUrl.substring("/api/files".length() + 1, fileIndex);
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        storageService.downloadFile(container, fileName, out);
-        byte[] data = out.toByteArray();
+        if (size != null && size <= 0) {
+            throw new IllegalArgumentException("Invalid image size " + size);
+        }
+        StoredObject object =
+                size == null
+                        ? storageService.getObject(container, fileName)
+                        : storageService.getImageVariant(container, fileName, size);
 
         MediaType mediaType =
                 MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
 
+        // Spring MVC streams the resource, answers Range requests with 206 and conditional
+        // requests matching the ETag or Last-Modified with 304
         return ResponseEntity.ok()
                 .contentType(mediaType)
-                .contentLength(data.length)
-                .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic())
-                .eTag(String.valueOf(data.length))
+                .cacheControl(
+                        // Images are replaced in place, so a variant can not be cached forever,
+                        // but a stale one may be shown while the browser revalidates it
+                        size == null
+                                ? CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic()
+                                : CacheControl.maxAge(1, TimeUnit.DAYS)
+                                        .cachePublic()
+                                        .staleWhileRevalidate(7, TimeUnit.DAYS))
+                .eTag(object.eTag())
+                .lastModified(object.lastModified())
                 .header(
                         HttpHeaders.EXPIRES,
                         String.valueOf(System.currentTimeMillis() + 3600 * 1000 * 24))
-                .body(new ByteArrayResource(data));
+                .body(object.resource());
     }
 }
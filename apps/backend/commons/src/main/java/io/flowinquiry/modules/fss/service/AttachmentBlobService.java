@@ -0,0 +1,69 @@
+package io.flowinquiry.modules.fss.service;
+
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reference counts of content-addressed attachment files. Each attachment row referring to a file
+ * holds one reference; a file is garbage once its count drops to zero.
+ *
+ * <p>Counts are changed with single statements so concurrent uploads and deletes of the same
+ * content serialize on its row: a {@link #collect} that races an {@link #acquire} either sees the
+ * new reference and keeps the file, or finishes first so that the upload stores the file again.
+ */
+@Service
+public class AttachmentBlobService {
+
+    private static final String ACQUIRE =
+            "INSERT INTO fw_attachment_blob (blob_path, ref_count) VALUES (?, 1)"
+                    + " ON CONFLICT (blob_path) DO UPDATE"
+                    + " SET ref_count = fw_attachment_blob.ref_count + 1";
+
+    private static final String RELEASE =
+            "UPDATE fw_attachment_blob SET ref_count = ref_count - 1 WHERE blob_path = ?"
+                    + " RETURNING ref_count";
+
+    private static final String COLLECT =
+            "DELETE FROM fw_attachment_blob WHERE blob_path = ? AND ref_count <= 0"
+                    + " RETURNING blob_path";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AttachmentBlobService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds a reference to a file, registering the file on its first reference. Call it before
+     * storing the file so that a concurrent {@link #collect} cannot delete it afterwards.
+     *
+     * @param path the storage path of the file
+     */
+    public void acquire(String path) {
+        jdbcTemplate.update(ACQUIRE, path);
+    }
+
+    /**
+     * Removes a reference to a file.
+     *
+     * @param path the storage path of the file
+     * @return the references left, or {@code null} if the file is not reference counted because it
+     *     was stored before content addressing
+     */
+    public Long release(String path) {
+        List<Long> remaining = jdbcTemplate.queryForList(RELEASE, Long.class, path);
+        return remaining.isEmpty() ? null : remaining.get(0);
+    }
+
+    /**
+     * Unregisters a file that has no references left. The caller deletes the file within the same
+     * transaction, which keeps the row locked until then.
+     *
+     * @param path the storage path of the file
+     * @return whether the file was unregistered and should be deleted
+     */
+    public boolean collect(String path) {
+        return !jdbcTemplate.queryForList(COLLECT, String.class, path).isEmpty();
+    }
+}
@@ -1,15 +1,24 @@
 package io.flowinquiry.modules.fss.service;
 
+import io.flowinquiry.modules.collab.domain.EntityType;
 import io.flowinquiry.modules.fss.domain.EntityAttachment;
 import io.flowinquiry.modules.fss.repository.EntityAttachmentRepository;
 import io.flowinquiry.modules.fss.service.dto.EntityAttachmentDTO;
 import io.flowinquiry.modules.fss.service.mapper.EntityAttachmentMapper;
+import io.flowinquiry.modules.teams.repository.TicketRepository;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
@@ -19,37 +28,66 @@ public class EntityAttachmentService {
     private final EntityAttachmentRepository entityAttachmentRepository;
     private final EntityAttachmentMapper entityAttachmentMapper;
     private final StorageService storageService;
+    private final AttachmentBlobService attachmentBlobService;
+    private final TicketRepository ticketRepository;
+    private final TransactionTemplate collectTransaction;
 
     public EntityAttachmentService(
             EntityAttachmentRepository entityAttachmentRepository,
             EntityAttachmentMapper entityAttachmentMapper,
-            StorageService storageService) {
+            StorageService storageService,
+            AttachmentBlobService attachmentBlobService,
+            TicketRepository ticketRepository,
+            PlatformTransactionManager transactionManager) {
         this.entityAttachmentRepository = entityAttachmentRepository;
+        this.ticketRepository = ticketRepository;
         this.entityAttachmentMapper = entityAttachmentMapper;
         this.storageService = storageService;
+        this.attachmentBlobService = attachmentBlobService;
+        this.collectTransaction = new TransactionTemplate(transactionManager);
+        this.collectTransaction.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     /**
-     * Uploads a single attachment and returns an unsaved EntityAttachment object.
+     * Uploads a single attachment and returns an unsaved EntityAttachment object. The file is
+     * stored once under its content digest; uploading identical content again only adds a reference
+     * to it.
      *
      * @param entityType The type of entity (e.g., "ticket", "comment").
      * @param entityId The ID of the entity.
      * @param file The file to upload.
-     * @return An unsaved EntityAttachment object.
+     * @param attachedUrls The file URLs already attached to the entity, updated with the new one.
+     * @return An unsaved EntityAttachment object, or null if the entity already has a file with the
+     *     same content.
      * @throws Exception If file storage fails or the file is empty.
      */
-    private EntityAttachment createAttachment(String entityType, Long entityId, MultipartFile file)
+    private EntityAttachment createAttachment(
+            String entityType, Long entityId, MultipartFile file, Set<String> attachedUrls)
             throws Exception {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File cannot be empty.");
         }
 
-        // Store the file and get its URL
-        String fileUrl =
-                storageService.uploadFile(
+        String fileUrl;
+        try (StagedContent content =
+                storageService.stageContent(
                         StorageService.ATTACHMENTS,
                         file.getOriginalFilename(),
-                        file.getInputStream());
+                        file.getInputStream())) {
+            fileUrl = content.path();
+            if (!attachedUrls.add(fileUrl)) {
+                log.debug(
+                        "Skip attaching {} to {} {}, the same content is attached already",
+                        file.getOriginalFilename(),
+                        entityType,
+                        entityId);
+                return null;
+            }
+            // Reference first, so a concurrent garbage collection cannot remove the stored file
+            attachmentBlobService.acquire(fileUrl);
+            content.store();
+        }
 
         // Create the attachment entity
         EntityAttachment attachment = new EntityAttachment();
@@ -66,6 +104,7 @@ public class EntityAttachmentService {
 
     /**
      * Uploads multiple attachments and associates them with a specific entity using batch insert.
+     * Files whose content is already attached to the entity are skipped.
      *
      * @param entityType The type of entity (e.g., "ticket", "comment").
      * @param entityId The ID of the entity.
@@ -80,17 +119,35 @@ public class EntityAttachmentService {
             throw new IllegalArgumentException("File list cannot be empty.");
         }
 
+        Set<String> attachedUrls = new HashSet<>();
+        for (EntityAttachment attachment :
+                entityAttachmentRepository.findByEntityTypeAndEntityId(entityType, entityId)) {
+            attachedUrls.add(attachment.getFileUrl());
+        }
+
         List<EntityAttachment> attachments = new ArrayList<>();
         for (MultipartFile file : files) {
-            attachments.add(createAttachment(entityType, entityId, file));
+            EntityAttachment attachment =
+                    createAttachment(entityType, entityId, file, attachedUrls);
+            if (attachment != null) {
+                attachments.add(attachment);
+            }
         }
 
         // Perform batch insert for all attachments
-        return entityAttachmentRepository.saveAll(attachments);
+        List<EntityAttachment> saved = entityAttachmentRepository.saveAll(attachments);
+        adjustNumberAttachments(entityType, entityId, saved.size());
+        return saved;
     }
 
+    @Transactional
     public EntityAttachment saveEntityAttachment(EntityAttachment entityAttachment) {
-        return entityAttachmentRepository.save(entityAttachment);
+        boolean isNew = entityAttachment.getId() == null;
+        EntityAttachment saved = entityAttachmentRepository.save(entityAttachment);
+        if (isNew) {
+            adjustNumberAttachments(saved.getEntityType(), saved.getEntityId(), 1);
+        }
+        return saved;
     }
 
     /**
@@ -111,18 +168,20 @@ public class EntityAttachmentService {
      * @param entityType The type of entity (e.g., "ticket", "comment").
      * @param entityId The ID of the entity.
      */
+    @Transactional
     public void deleteAttachments(String entityType, Long entityId) throws Exception {
         List<EntityAttachment> attachments =
                 entityAttachmentRepository.findByEntityTypeAndEntityId(entityType, entityId);
 
+        // Delete the attachment records from the database
+        entityAttachmentRepository.deleteAll(attachments);
+        adjustNumberAttachments(entityType, entityId, -attachments.size());
+
         for (EntityAttachment attachment : attachments) {
             if (attachment.getFileUrl() != null) {
-                storageService.deleteFile(attachment.getFileUrl());
+                releaseFile(attachment.getFileUrl());
             }
         }
-
-        // Delete the attachment records from the database
-        entityAttachmentRepository.deleteAll(attachments);
     }
 
     /**
@@ -137,15 +196,67 @@ public class EntityAttachmentService {
                 .findById(attachmentId)
                 .ifPresent(
                         attachment -> {
+                            entityAttachmentRepository.deleteById(attachmentId);
+                            adjustNumberAttachments(
+                                    attachment.getEntityType(), attachment.getEntityId(), -1);
+
                             if (attachment.getFileUrl() != null) {
                                 try {
-                                    storageService.deleteFile(attachment.getFileUrl());
+                                    releaseFile(attachment.getFileUrl());
                                 } catch (Exception e) {
                                     log.error("Can not delete file {}", attachment.getFileUrl(), e);
                                 }
                             }
+                        });
+    }
 
-                            entityAttachmentRepository.deleteById(attachmentId);
+    /** Keeps the attachment counter of tickets in step, in the same transaction. */
+    private void adjustNumberAttachments(String entityType, Long entityId, int delta) {
+        if (EntityType.Ticket.name().equals(entityType) && delta != 0) {
+            ticketRepository.adjustNumberAttachments(entityId, delta);
+        }
+    }
+
+    /**
+     * Drops an attachment's reference to its file. A file nobody refers to any more is deleted once
+     * the current transaction has committed, so a rollback keeps it.
+     */
+    private void releaseFile(String fileUrl) throws Exception {
+        Long remaining = attachmentBlobService.release(fileUrl);
+        if (remaining == null) {
+            // Stored before content addressing, so only this attachment refers to it
+            storageService.deleteFile(fileUrl);
+        } else if (remaining <= 0) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(
+                        new TransactionSynchronization() {
+                            @Override
+                            public void afterCommit() {
+                                collectFile(fileUrl);
+                            }
                         });
+            } else {
+                collectFile(fileUrl);
+            }
+        }
+    }
+
+    private void collectFile(String fileUrl) {
+        try {
+            // A new transaction holds the reference row until the file is gone
+            collectTransaction.executeWithoutResult(
+                    status -> {
+                        if (attachmentBlobService.collect(fileUrl)) {
+                            try {
+                                storageService.deleteFile(fileUrl);
+                            } catch (Exception e) {
+                                throw new IllegalStateException(
+                                        "Can not delete file " + fileUrl, e);
+                            }
+                        }
+                    });
+        } catch (RuntimeException e) {
+            log.error("Can not collect unreferenced file {}", fileUrl, e);
+        }
     }
 }
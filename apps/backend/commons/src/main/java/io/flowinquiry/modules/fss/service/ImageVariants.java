@@ -0,0 +1,68 @@
+package io.flowinquiry.modules.fss.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/** The downscaled sizes images are served in, and the scaling that produces them. */
+final class ImageVariants {
+
+    /** Bounding box sizes in pixels, ascending. */
+    static final int[] SIZES = {32, 64, 256};
+
+    private ImageVariants() {}
+
+    /**
+     * @return The smallest variant size that covers the requested size, or the largest one.
+     */
+    static int select(int requestedSize) {
+        for (int size : SIZES) {
+            if (size >= requestedSize) {
+                return size;
+            }
+        }
+        return SIZES[SIZES.length - 1];
+    }
+
+    /**
+     * Scales an image down to fit a square of the given size, keeping its aspect ratio. Large
+     * reductions are done in halving steps, since a single bilinear step samples too few source
+     * pixels and looks jagged.
+     *
+     * @return The scaled image, or {@code null} if the image fits already.
+     */
+    static BufferedImage scale(BufferedImage image, int size, boolean opaque) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (width <= size && height <= size) {
+            return null;
+        }
+        double ratio = (double) size / Math.max(width, height);
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = image;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next =
+                    new BufferedImage(
+                            width,
+                            height,
+                            opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(
+                        RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(
+                        RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+}
@@ -1,36 +1,118 @@
 package io.flowinquiry.modules.fss.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import io.flowinquiry.exceptions.ResourceNotFoundException;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.stereotype.Component;
 
 @Component
 @Slf4j
 public class LocalFileStorageService implements StorageService {
 
+    /** Directory under the root for uploads being hashed, on the same file system as the blobs. */
+    private static final String STAGING = ".staging";
+
+    private static final int STAGING_BUFFER_SIZE = 128 * 1024;
+
+    /** Directory under the root for the image variants written on upload. */
+    private static final String VARIANTS = ".variants";
+
+    /** Directory under the root for variants generated on demand, bounded by size. */
+    private static final String THUMBNAILS = ".thumbnails";
+
+    /** Images with more pixels are served unscaled, to bound the memory a thumbnail takes. */
+    private static final long MAX_THUMBNAIL_PIXELS = 40_000_000;
+
     private final String rootDirectory;
 
+    /** Size in bytes of every file under {@link #THUMBNAILS}; evicted files are deleted. */
+    private final Cache<Path, Long> thumbnails;
+
+    /** Thumbnails being generated, so that concurrent requests for one wait for it. */
+    private final ConcurrentMap<Path, CompletableFuture<Path>> generations =
+            new ConcurrentHashMap<>();
+
+    /** Bounds the thumbnails decoded at once; beyond it, originals are served unscaled. */
+    private final Semaphore generationPermits =
+            new Semaphore(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
     public LocalFileStorageService(
-            @Value("${application.file.rootDirectory:storage}") String rootDirectory) {
+            @Value("${application.file.rootDirectory:storage}") String rootDirectory,
+            @Value("${application.file.thumbnailCacheMaxBytes:268435456}")
+                    long thumbnailCacheMaxBytes) {
         this.rootDirectory = rootDirectory;
         File storageDir = new File(rootDirectory);
         if (!storageDir.exists()) {
             storageDir.mkdirs();
             log.info("Created storage folder : {}", storageDir.getAbsolutePath());
         }
+        this.thumbnails =
+                Caffeine.newBuilder()
+                        .maximumWeight(thumbnailCacheMaxBytes)
+                        .weigher((Path path, Long size) -> (int) Math.min(size, Integer.MAX_VALUE))
+                        .removalListener(
+                                (Path path, Long size, RemovalCause cause) -> {
+                                    if (path != null && cause != RemovalCause.REPLACED) {
+                                        deleteQuietly(path);
+                                    }
+                                })
+                        .executor(Runnable::run)
+                        .build();
+        loadThumbnails();
+    }
+
+    /** Takes over thumbnails generated before a restart, so that they count towards the bound. */
+    private void loadThumbnails() {
+        Path directory = Paths.get(rootDirectory, THUMBNAILS);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.filter(Files::isRegularFile)
+                    .forEach(file -> thumbnails.put(file, file.toFile().length()));
+        } catch (IOException e) {
+            log.warn("Can not load thumbnails from {}", directory, e);
+        }
     }
 
     @Override
@@ -45,11 +127,7 @@ public class LocalFileStorageService implements StorageService {
         String fileName = URLEncoder.encode(blobName, StandardCharsets.UTF_8);
         File destinationFile = new File(directory, fileName);
         try (OutputStream outputStream = new FileOutputStream(destinationFile)) {
-            byte[] buffer = new byte[1024];
-            int bytesRead;
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                outputStream.write(buffer, 0, bytesRead);
-            }
+            inputStream.transferTo(outputStream);
         }
         log.debug(
                 "Save container {} blob {} to file {} successfully",
@@ -75,14 +153,28 @@ public class LocalFileStorageService implements StorageService {
         File destinationFile = new File(directory, pngFileName);
 
         // Read the input stream as an image and write it as PNG
+        BufferedImage image = ImageIO.read(inputStream);
+        if (image == null) {
+            throw new IllegalArgumentException("Input stream does not contain a valid image");
+        }
         try (OutputStream outputStream = new FileOutputStream(destinationFile)) {
-            BufferedImage image = ImageIO.read(inputStream);
-            if (image == null) {
-                throw new IllegalArgumentException("Input stream does not contain a valid image");
-            }
             ImageIO.write(image, "png", outputStream);
         }
 
+        // The image may replace an earlier one stored under the same name
+        invalidateThumbnails(containerName, pngFileName);
+        for (int size : ImageVariants.SIZES) {
+            Path variant =
+                    Paths.get(rootDirectory, VARIANTS, containerName, "" + size, pngFileName);
+            BufferedImage scaled = ImageVariants.scale(image, size, false);
+            if (scaled == null) {
+                // Smaller than the variant, so the original is served instead
+                Files.deleteIfExists(variant);
+            } else {
+                writeImage(scaled, "png", variant);
+            }
+        }
+
         log.debug(
                 "Converted and saved container {} blob {} as PNG to file {} successfully",
                 containerName,
@@ -93,32 +185,288 @@ public class LocalFileStorageService implements StorageService {
     }
 
     @Override
-    public void downloadFile(String containerName, String blobName, OutputStream outputStream)
+    public StagedContent stageContent(
+            String containerName, String fileName, InputStream inputStream) throws Exception {
+        Path stagingDirectory = Files.createDirectories(Paths.get(rootDirectory, STAGING));
+        Path temporaryFile = Files.createTempFile(stagingDirectory, "upload-", ".tmp");
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        long size = 0;
+        try (ReadableByteChannel source = Channels.newChannel(inputStream);
+                FileChannel target = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(STAGING_BUFFER_SIZE);
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.array(), 0, buffer.limit());
+                size += buffer.remaining();
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryFile);
+            throw e;
+        }
+
+        String hash = HexFormat.of().formatHex(digest.digest());
+        // Fan out by the first digest byte to keep directories small
+        String path =
+                containerName + "/" + hash.substring(0, 2) + "/" + hash + extensionOf(fileName);
+        return new LocalStagedContent(temporaryFile, Paths.get(rootDirectory, path), path, size);
+    }
+
+    private static String extensionOf(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        int dot = fileName.lastIndexOf('.');
+        String extension = dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        // The extension lets downloads pick a content type; anything unusual is dropped
+        return extension.matches("[a-z0-9]{1,10}") ? "." + extension : "";
+    }
+
+    @Override
+    public StoredObject getObject(String containerName, String blobName) throws Exception {
+        return toStoredObject(resolve(containerName, blobName));
+    }
+
+    @Override
+    public StoredObject getImageVariant(String containerName, String blobName, int size)
             throws Exception {
-        File sourceFile = new File(rootDirectory + File.separator + containerName, blobName);
-        if (sourceFile.exists()) {
-            try (InputStream inputStream = new FileInputStream(sourceFile)) {
-                byte[] buffer = new byte[1024];
-                int bytesRead;
-                while ((bytesRead = inputStream.read(buffer)) != -1) {
-                    outputStream.write(buffer, 0, bytesRead);
+        Path original = resolve(containerName, blobName);
+        int variantSize = ImageVariants.select(size);
+        FileTime originalModified = Files.getLastModifiedTime(original);
+
+        Path variant =
+                Paths.get(rootDirectory, VARIANTS, containerName, "" + variantSize, blobName);
+        if (isCurrent(variant, originalModified)) {
+            return toStoredObject(variant);
+        }
+
+        Path thumbnail =
+                Paths.get(rootDirectory, THUMBNAILS, containerName, "" + variantSize, blobName);
+        if (thumbnails.getIfPresent(thumbnail) != null && isCurrent(thumbnail, originalModified)) {
+            return toStoredObject(thumbnail);
+        }
+
+        String format = thumbnailFormat(blobName);
+        if (format == null) {
+            return toStoredObject(original);
+        }
+        CompletableFuture<Path> generation = new CompletableFuture<>();
+        CompletableFuture<Path> running = generations.putIfAbsent(thumbnail, generation);
+        if (running != null) {
+            // Another request is generating the same thumbnail already
+            return toStoredObject(
+                    running.handle((path, e) -> path != null ? path : original).join());
+        }
+        try {
+            Path served = generateThumbnail(original, thumbnail, format, variantSize);
+            generation.complete(served);
+            return toStoredObject(served);
+        } catch (Exception e) {
+            generation.completeExceptionally(e);
+            throw e;
+        } finally {
+            generations.remove(thumbnail, generation);
+        }
+    }
+
+    /**
+     * @return The generated thumbnail, or the original when it is not an image, is small enough
+     *     already, is too large to decode or too many thumbnails are being generated.
+     */
+    private Path generateThumbnail(Path original, Path thumbnail, String format, int size)
+            throws IOException {
+        if (!generationPermits.tryAcquire()) {
+            log.debug("Too many thumbnails being generated, serving {} unscaled", original);
+            return original;
+        }
+        try {
+            BufferedImage image = readImage(original);
+            BufferedImage scaled =
+                    image == null ? null : ImageVariants.scale(image, size, !"png".equals(format));
+            if (scaled == null) {
+                return original;
+            }
+            writeImage(scaled, format, thumbnail);
+            thumbnails.put(thumbnail, Files.size(thumbnail));
+            log.debug("Generated {} px thumbnail of {}", size, original);
+            // Evicted right away if it alone exceeds the cache bound
+            return Files.isRegularFile(thumbnail) ? thumbnail : original;
+        } finally {
+            generationPermits.release();
+        }
+    }
+
+    /**
+     * Decodes an image, checking its dimensions in the header first.
+     *
+     * @return The image, or {@code null} if the file is not an image or has more than {@link
+     *     #MAX_THUMBNAIL_PIXELS} pixels.
+     */
+    private static BufferedImage readImage(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers =
+                    input == null ? Collections.emptyIterator() : ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_THUMBNAIL_PIXELS) {
+                    log.debug("Image {} has {} pixels, too many to make a thumbnail", file, pixels);
+                    return null;
                 }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
             }
-        } else {
+        }
+    }
+
+    /**
+     * @return The format to write thumbnails of the file in, or {@code null} if none are made.
+     */
+    private static String thumbnailFormat(String blobName) {
+        return switch (extensionOf(blobName)) {
+            case ".png" -> "png";
+            case ".jpg", ".jpeg" -> "jpg";
+            default -> null;
+        };
+    }
+
+    private static boolean isCurrent(Path file, FileTime originalModified) throws IOException {
+        return Files.isRegularFile(file)
+                && Files.getLastModifiedTime(file).compareTo(originalModified) >= 0;
+    }
+
+    /** Writes through a staging file, so that readers never see a partly written image. */
+    private void writeImage(BufferedImage image, String format, Path destination)
+            throws IOException {
+        Path stagingDirectory = Files.createDirectories(Paths.get(rootDirectory, STAGING));
+        Path temporaryFile = Files.createTempFile(stagingDirectory, "image-", ".tmp");
+        try {
+            if (!ImageIO.write(image, format, temporaryFile.toFile())) {
+                throw new IOException("No image writer for " + format);
+            }
+            Files.createDirectories(destination.getParent());
+            Files.move(
+                    temporaryFile,
+                    destination,
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private void invalidateThumbnails(String containerName, String blobName) {
+        for (int size : ImageVariants.SIZES) {
+            thumbnails.invalidate(
+                    Paths.get(rootDirectory, THUMBNAILS, containerName, "" + size, blobName));
+        }
+    }
+
+    private void deleteVariants(String containerName, String blobName) throws IOException {
+        invalidateThumbnails(containerName, blobName);
+        for (int size : ImageVariants.SIZES) {
+            Files.deleteIfExists(
+                    Paths.get(rootDirectory, VARIANTS, containerName, "" + size, blobName));
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Can not delete thumbnail {}", file, e);
+        }
+    }
+
+    private Path resolve(String containerName, String blobName) {
+        Path root = Paths.get(rootDirectory).toAbsolutePath().normalize();
+        Path path = root.resolve(Paths.get(containerName, blobName)).normalize();
+        if (!path.startsWith(root) || !Files.isRegularFile(path)) {
             throw new ResourceNotFoundException(
                     "Can not find the resource " + blobName + " in the container " + containerName);
         }
+        return path;
+    }
+
+    private static StoredObject toStoredObject(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        Instant lastModified = attributes.lastModifiedTime().toInstant();
+        // Size and modification time change whenever a file is written, without hashing it
+        String eTag =
+                "\""
+                        + Long.toHexString(attributes.size())
+                        + "-"
+                        + Long.toHexString(attributes.lastModifiedTime().to(TimeUnit.MICROSECONDS))
+                        + "\"";
+        return new StoredObject(new FileSystemResource(path), lastModified, eTag);
     }
 
     @Override
     public void deleteFile(String containerName, String blobName) throws Exception {
         Files.deleteIfExists(Paths.get(rootDirectory, containerName, blobName));
+        deleteVariants(containerName, blobName);
     }
 
     @Override
     public void deleteFile(String objectPath) throws Exception {
         if (!StringUtils.isEmpty(objectPath)) {
             Files.deleteIfExists(Paths.get(rootDirectory, objectPath));
+            int separator = objectPath.lastIndexOf('/');
+            if (separator > 0) {
+                deleteVariants(
+                        objectPath.substring(0, separator), objectPath.substring(separator + 1));
+            }
+        }
+    }
+
+    private static final class LocalStagedContent implements StagedContent {
+        private final Path temporaryFile;
+        private final Path destination;
+        private final String path;
+        private final long size;
+
+        private LocalStagedContent(Path temporaryFile, Path destination, String path, long size) {
+            this.temporaryFile = temporaryFile;
+            this.destination = destination;
+            this.path = path;
+            this.size = size;
+        }
+
+        @Override
+        public String path() {
+            return path;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public void store() throws IOException {
+            if (Files.exists(destination)) {
+                log.debug("Content {} is stored already", path);
+                return;
+            }
+            Files.createDirectories(destination.getParent());
+            try {
+                Files.move(temporaryFile, destination, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                log.debug("Content {} was stored concurrently", path);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(temporaryFile);
         }
     }
 }
@@ -0,0 +1,32 @@
+package io.flowinquiry.modules.fss.service;
+
+import java.io.IOException;
+
+/**
+ * Uploaded content that has been hashed into a temporary file but not yet stored. Its path is
+ * derived from the content digest, so identical content always maps to the same path. Closing it
+ * discards the temporary file if the content was not stored.
+ */
+public interface StagedContent extends AutoCloseable {
+
+    /**
+     * @return the storage path the content is stored under, e.g. {@code
+     *     attachments/3f/3fa9...e1.png}
+     */
+    String path();
+
+    /**
+     * @return the content size in bytes
+     */
+    long size();
+
+    /**
+     * Moves the content to its path unless identical content is stored there already.
+     *
+     * @throws IOException if the content cannot be moved into place
+     */
+    void store() throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
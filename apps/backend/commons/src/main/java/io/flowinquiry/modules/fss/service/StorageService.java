@@ -28,6 +28,20 @@ public interface StorageService {
     String uploadImage(String containerName, String blobName, InputStream inputStream)
             throws Exception;
 
+    /**
+     * Streams content into temporary storage while computing its SHA-256 digest, for storing it
+     * once under that digest however many times it is uploaded. The caller records its reference to
+     * the content before calling {@link StagedContent#store()}, and closes the staged content
+     * afterwards.
+     *
+     * @param containerName the storage container / folder
+     * @param fileName the original file name; only its extension is kept
+     * @param inputStream the content
+     * @return the staged content
+     */
+    StagedContent stageContent(String containerName, String fileName, InputStream inputStream)
+            throws Exception;
+
     /**
      * Upload an image, reusing the existing stored path when one is present, or generating a fresh
      * UUID-based path when not.
@@ -61,8 +75,36 @@ public interface StorageService {
         return uploadImage(containerName, java.util.UUID.randomUUID().toString(), inputStream);
     }
 
-    void downloadFile(String containerName, String blobName, OutputStream outputStream)
-            throws Exception;
+    /**
+     * Opens a stored file for reading without loading it into memory.
+     *
+     * @param containerName the storage container / folder
+     * @param blobName the stored file name
+     * @return the file content with its validators
+     * @throws io.flowinquiry.exceptions.ResourceNotFoundException if the file does not exist
+     */
+    StoredObject getObject(String containerName, String blobName) throws Exception;
+
+    /**
+     * Opens a downscaled variant of a stored image, generating and caching it when the image was
+     * stored without one. Files that are not images, or that fit the size already, are returned as
+     * they are.
+     *
+     * @param containerName the storage container / folder
+     * @param blobName the stored file name
+     * @param size the edge length in pixels the image should fit; rounded up to a variant size
+     * @return the variant content with its validators
+     * @throws io.flowinquiry.exceptions.ResourceNotFoundException if the file does not exist
+     */
+    StoredObject getImageVariant(String containerName, String blobName, int size) throws Exception;
+
+    default void downloadFile(String containerName, String blobName, OutputStream outputStream)
+            throws Exception {
+        try (InputStream inputStream =
+                getObject(containerName, blobName).resource().getInputStream()) {
+            inputStream.transferTo(outputStream);
+        }
+    }
 
     void deleteFile(String containerName, String blobName) throws Exception;
 
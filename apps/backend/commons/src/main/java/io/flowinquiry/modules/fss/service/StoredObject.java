@@ -0,0 +1,14 @@
+package io.flowinquiry.modules.fss.service;
+
+import java.time.Instant;
+import org.springframework.core.io.Resource;
+
+/**
+ * A stored file opened for reading. The content is streamed from the resource on demand, never
+ * loaded into memory as a whole.
+ *
+ * @param resource The file content; Spring MVC serves it with HTTP Range support.
+ * @param lastModified When the file was last written.
+ * @param eTag A quoted entity tag that changes whenever the file content does.
+ */
+public record StoredObject(Resource resource, Instant lastModified, String eTag) {}
@@ -2,8 +2,10 @@ package io.flowinquiry.modules.shared.controller;
 
 import io.flowinquiry.modules.shared.domain.EventPayload;
 import io.flowinquiry.modules.shared.domain.EventPayloadType;
+import io.flowinquiry.modules.teams.service.TeamService;
 import io.flowinquiry.security.SecurityUtils;
 import io.flowinquiry.security.service.JwtService;
+import io.flowinquiry.sse.SseTopics;
 import io.flowinquiry.sse.UserEventSinkManager;
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.List;
@@ -13,26 +15,37 @@ import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
+import tools.jackson.databind.ObjectMapper;
 
 @RestController
 public class SseController {
 
     private final UserEventSinkManager sinkManager;
     private final JwtService jwtService;
+    private final TeamService teamService;
+    private final ObjectMapper objectMapper;
 
-    public SseController(UserEventSinkManager sinkManager, JwtService jwtService) {
+    public SseController(
+            UserEventSinkManager sinkManager,
+            JwtService jwtService,
+            TeamService teamService,
+            ObjectMapper objectMapper) {
         this.sinkManager = sinkManager;
         this.jwtService = jwtService;
+        this.teamService = teamService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping(value = "/sse/events/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<ServerSentEvent<EventPayload>> streamEvents(
+    public Flux<ServerSentEvent<String>> streamEvents(
             @PathVariable Long userId,
             @RequestParam(required = false) String token,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
             HttpServletResponse response) {
         // Validate token is provided
         if (token == null || token.isEmpty()) {
@@ -52,13 +65,19 @@ public class SseController {
                     HttpStatus.FORBIDDEN, "User ID in token does not match the requested user ID");
         }
 
+        // Team-wide events are published once per team topic rather than once per member
+        List<String> topics =
+                teamService.findTeamIdsByUserId(userId).stream().map(SseTopics::team).toList();
+
+        // Events shared by many connections render their JSON once, so the data goes out as-is
         return sinkManager
-                .getSink(userId)
+                .getSink(userId, topics, lastEventId)
                 .map(
-                        payload ->
-                                ServerSentEvent.<EventPayload>builder()
-                                        .event(payload.getType().name())
-                                        .data(payload)
+                        event ->
+                                ServerSentEvent.<String>builder()
+                                        .id(event.id())
+                                        .event(event.payload().getType().name())
+                                        .data(event.json(objectMapper))
                                         .build());
     }
 
@@ -70,6 +89,25 @@ public class SseController {
         userIds.forEach(userId -> sendEventToUser(userId, type, data));
     }
 
+    /**
+     * Sends an event once to every user subscribed to a topic.
+     *
+     * @param topic The topic, see {@link SseTopics}.
+     * @param type The event type.
+     * @param data The event data.
+     */
+    public void sendEventToTopic(String topic, EventPayloadType type, Object data) {
+        sinkManager.emitToTopic(topic, new EventPayload(type, data));
+    }
+
+    public void subscribeToTopic(Long userId, String topic) {
+        sinkManager.subscribe(userId, topic);
+    }
+
+    public void unsubscribeFromTopic(Long userId, String topic) {
+        sinkManager.unsubscribe(userId, topic);
+    }
+
     public void broadcastEvent(EventPayloadType type, Object data) {
         sinkManager.broadcast(new EventPayload(type, data));
     }
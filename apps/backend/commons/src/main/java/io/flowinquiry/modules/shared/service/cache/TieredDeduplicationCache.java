@@ -0,0 +1,353 @@
+package io.flowinquiry.modules.shared.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.flowinquiry.config.FlowInquiryProperties;
+import io.flowinquiry.modules.shared.domain.DeduplicationCacheEntry;
+import io.flowinquiry.modules.shared.reppository.DeduplicationCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deduplication store with three tiers: a bounded in-memory cache of recent keys, a Bloom filter
+ * over every key that has not expired, and the database. A key missing from the filter was never
+ * stored, so most checks of new keys are answered without a query; only filter hits that are not in
+ * memory go to the database.
+ *
+ * <p>New keys are written to the database in batches from a background thread. On startup the
+ * filter is filled with all keys that have not expired and the cache with the most recent of them.
+ * The filter is rebuilt from the database once more keys were added than it was sized for. Each
+ * filter is sized for twice the keys stored when it is built (and at least the expected keys), so a
+ * rebuild is only needed again once the stored keys have doubled.
+ */
+@Service
+@Slf4j
+public class TieredDeduplicationCache implements DeduplicationCacheService, SmartLifecycle {
+
+    private static final String UPSERT_ENTRY =
+            "INSERT INTO fw_deduplication_cache (cache_key, expired_time) VALUES (?, ?)"
+                    + " ON CONFLICT (cache_key) DO UPDATE SET expired_time = EXCLUDED.expired_time";
+
+    private static final String SELECT_VALID_ENTRIES =
+            "SELECT cache_key, expired_time FROM fw_deduplication_cache WHERE expired_time > ?"
+                    + " ORDER BY expired_time DESC";
+
+    private static final String COUNT_VALID_ENTRIES =
+            "SELECT COUNT(*) FROM fw_deduplication_cache WHERE expired_time > ?";
+
+    private final DeduplicationCacheRepository deduplicationCacheRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Cache<String, Instant> cache;
+    private final BlockingQueue<DeduplicationCacheEntry> queue;
+    private final long capacity;
+    private final long expectedKeys;
+    private final double falsePositiveRate;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private volatile BloomFilter filter;
+
+    /** Receives new keys too while {@link #rebuildFilter} fills it, so none are missed. */
+    private volatile BloomFilter nextFilter;
+
+    /**
+     * Held while a key is added to the filters and while a new filter is swapped in, so that a key
+     * added during the swap can not reach the old filter only.
+     */
+    private final Object filterLock = new Object();
+
+    /**
+     * Until the stored keys are loaded the filter would wrongly rule them out, so it is skipped.
+     */
+    private volatile boolean filterLoaded;
+
+    private final Counter cacheHits;
+    private final Counter filterMisses;
+    private final Counter databaseLookups;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public TieredDeduplicationCache(
+            DeduplicationCacheRepository deduplicationCacheRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory,
+            MeterRegistry meterRegistry,
+            FlowInquiryProperties flowInquiryProperties) {
+        FlowInquiryProperties.Deduplication properties = flowInquiryProperties.getDeduplication();
+        this.deduplicationCacheRepository = deduplicationCacheRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.capacity = properties.getCapacity();
+        this.expectedKeys = properties.getExpectedKeys();
+        this.falsePositiveRate = properties.getFalsePositiveRate();
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalNanos =
+                TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMillis());
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.filter = new BloomFilter(expectedKeys, falsePositiveRate);
+        this.cache =
+                Caffeine.newBuilder()
+                        .maximumSize(capacity)
+                        .expireAfter(new ExpireAtValue())
+                        .build();
+
+        this.cacheHits = lookupCounter(meterRegistry, "cache");
+        this.filterMisses = lookupCounter(meterRegistry, "filter");
+        this.databaseLookups = lookupCounter(meterRegistry, "database");
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String tier) {
+        return Counter.builder("flowinquiry.deduplication.lookups")
+                .description("Deduplication checks by the tier that answered them")
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        if (cache.getIfPresent(key) != null) {
+            cacheHits.increment();
+            return true;
+        }
+        if (filterLoaded && !filter.mightContain(key)) {
+            filterMisses.increment();
+            return false;
+        }
+
+        databaseLookups.increment();
+        Instant now = Instant.now();
+        return deduplicationCacheRepository
+                .findById(key)
+                .filter(entry -> entry.getExpiredTime().isAfter(now))
+                .map(
+                        entry -> {
+                            cache.put(key, entry.getExpiredTime());
+                            return true;
+                        })
+                .orElse(false);
+    }
+
+    @Override
+    public void put(String key, Duration expirationDuration) {
+        Instant expiredTime = Instant.now().plus(expirationDuration);
+        cache.put(key, expiredTime);
+
+        DeduplicationCacheEntry entry = new DeduplicationCacheEntry(key, expiredTime);
+        if (!running || !queue.offer(entry)) {
+            // Nothing drains the queue, or it is full; the caller is a background job anyway
+            write(List.of(entry));
+        }
+
+        // Queued or written first, so a rebuild that starts before this line still sees the key
+        synchronized (filterLock) {
+            filter.put(key);
+            if (nextFilter != null) {
+                nextFilter.put(key);
+            }
+        }
+    }
+
+    private void runWriter() {
+        List<DeduplicationCacheEntry> drained = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                drain(drained, System.nanoTime() + flushIntervalNanos);
+                write(List.copyOf(drained));
+                if (!filterLoaded || filter.isSaturated()) {
+                    rebuildFilter();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in deduplication cache writer", e);
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    private void drain(List<DeduplicationCacheEntry> buffer, long deadlineNanos)
+            throws InterruptedException {
+        while (buffer.size() < batchSize) {
+            queue.drainTo(buffer, batchSize - buffer.size());
+            long remaining = deadlineNanos - System.nanoTime();
+            if (buffer.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            DeduplicationCacheEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            buffer.add(next);
+        }
+    }
+
+    private void write(List<DeduplicationCacheEntry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status ->
+                            jdbcTemplate.batchUpdate(
+                                    UPSERT_ENTRY,
+                                    batch,
+                                    batch.size(),
+                                    (ps, entry) -> {
+                                        ps.setString(1, entry.getKey());
+                                        ps.setTimestamp(2, Timestamp.from(entry.getExpiredTime()));
+                                    }));
+            // Rows were written behind Hibernate's back
+            entityManagerFactory.getCache().evict(DeduplicationCacheEntry.class);
+        } catch (RuntimeException e) {
+            // The keys stay in memory, so they are only lost on restart or eviction
+            log.error("Failed to persist {} deduplication keys", batch.size(), e);
+        }
+    }
+
+    /**
+     * Fills a new filter from the database and swaps it in. Keys added meanwhile go into both
+     * filters, and keys still queued are added explicitly, so the new filter misses none.
+     */
+    private void rebuildFilter() {
+        BloomFilter rebuilt = newFilter();
+        nextFilter = rebuilt;
+        try {
+            int loaded = loadValidKeys(rebuilt, false);
+            queue.forEach(entry -> rebuilt.put(entry.getKey()));
+            swapFilter(rebuilt);
+            log.debug("Rebuilt deduplication filter with {} keys", loaded);
+        } finally {
+            nextFilter = null;
+        }
+    }
+
+    private void swapFilter(BloomFilter loadedFilter) {
+        synchronized (filterLock) {
+            filter = loadedFilter;
+            nextFilter = null;
+            filterLoaded = true;
+        }
+    }
+
+    /**
+     * Creates an empty filter with room for twice the keys that have not expired, so that it is not
+     * saturated as soon as they are loaded.
+     */
+    private BloomFilter newFilter() {
+        Long validKeys =
+                jdbcTemplate.queryForObject(
+                        COUNT_VALID_ENTRIES, Long.class, Timestamp.from(Instant.now()));
+        long size = Math.max(expectedKeys, 2 * (validKeys != null ? validKeys : 0L));
+        return new BloomFilter(size, falsePositiveRate);
+    }
+
+    /**
+     * Adds every key that has not expired to the filter, and optionally the most recent ones to the
+     * cache.
+     *
+     * @return The number of keys loaded.
+     */
+    private int loadValidKeys(BloomFilter target, boolean warmCache) {
+        int[] loaded = {0};
+        jdbcTemplate.query(
+                SELECT_VALID_ENTRIES,
+                rs -> {
+                    String key = rs.getString(1);
+                    target.put(key);
+                    if (warmCache && loaded[0] < capacity) {
+                        cache.put(key, rs.getTimestamp(2).toInstant());
+                    }
+                    loaded[0]++;
+                },
+                Timestamp.from(Instant.now()));
+        return loaded[0];
+    }
+
+    @Override
+    public void start() {
+        try {
+            BloomFilter loadedFilter = newFilter();
+            nextFilter = loadedFilter;
+            int loaded = loadValidKeys(loadedFilter, true);
+            swapFilter(loadedFilter);
+            log.info("Loaded {} deduplication keys", loaded);
+        } catch (RuntimeException e) {
+            // The writer thread retries through rebuildFilter
+            log.error("Failed to load deduplication keys, checking the database for every key", e);
+        } finally {
+            nextFilter = null;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "deduplication-cache-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /** Stops the writer thread and writes every key that is still queued. */
+    @Override
+    public void stop() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            writerThread.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 30_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<DeduplicationCacheEntry> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            write(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Expires each key at the instant stored as its value. */
+    private static final class ExpireAtValue implements Expiry<String, Instant> {
+
+        @Override
+        public long expireAfterCreate(String key, Instant expiredTime, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), expiredTime).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(
+                String key, Instant expiredTime, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, expiredTime, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(
+                String key, Instant expiredTime, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import java.io.IOException;
 import java.util.List;
@@ -163,6 +164,52 @@ public class ProjectController {
         return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
     }
 
+    @Operation(
+            summary = "Stream a full project export",
+            description =
+                    "Exports every project matching the query to CSV or Excel based on Accept"
+                            + " header, writing rows to the response as they are read")
+    @ApiResponses({
+        @ApiResponse(
+                responseCode = "200",
+                description = "Export projects as CSV or Excel",
+                content = {
+                    @Content(
+                            mediaType = "text/csv",
+                            schema = @Schema(type = "string", format = "binary")),
+                    @Content(
+                            mediaType =
+                                    "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                            schema = @Schema(type = "string", format = "binary"))
+                })
+    })
+    @PostMapping(
+            value = "/export/stream",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {
+                "text/csv",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"
+            })
+    public void streamProjectExport(
+            @RequestBody(required = false) Optional<QueryDTO> queryDTO,
+            @RequestHeader(HttpHeaders.ACCEPT) String accept,
+            HttpServletResponse response)
+            throws IOException {
+        String fileName = projectExportService.getExportFileName(accept);
+
+        response.setContentType(accept);
+        response.setHeader(
+                HttpHeaders.CONTENT_DISPOSITION,
+                String.format(HttpHeaderConstants.CONTENT_DISPOSITION_FILENAME, fileName));
+        response.setHeader(
+                HttpHeaders.CACHE_CONTROL,
+                CacheControl.noStore().noCache().mustRevalidate().getHeaderValue());
+        response.setHeader(HttpHeaders.PRAGMA, HttpHeaderConstants.PRAGMA_NO_CACHE);
+        response.setHeader(HttpHeaders.EXPIRES, HttpHeaderConstants.EXPIRES_IMMEDIATELY);
+
+        projectExportService.streamExport(queryDTO, accept, response.getOutputStream());
+    }
+
     private ResponseEntity<byte[]> buildFileResponseEntity(
             byte[] file, String filename, String mediaType) {
 
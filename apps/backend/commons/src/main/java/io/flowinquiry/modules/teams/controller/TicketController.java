@@ -1,15 +1,18 @@
 package io.flowinquiry.modules.teams.controller;
 
 import io.flowinquiry.modules.teams.domain.WorkflowTransitionHistoryStatus;
+import io.flowinquiry.modules.teams.service.TicketBulkService;
 import io.flowinquiry.modules.teams.service.TicketService;
 import io.flowinquiry.modules.teams.service.WorkflowTransitionHistoryService;
 import io.flowinquiry.modules.teams.service.dto.PriorityDistributionDTO;
 import io.flowinquiry.modules.teams.service.dto.TeamTicketPriorityDistributionDTO;
 import io.flowinquiry.modules.teams.service.dto.TicketActionCountByDateDTO;
+import io.flowinquiry.modules.teams.service.dto.TicketBulkUpdateDTO;
 import io.flowinquiry.modules.teams.service.dto.TicketDTO;
 import io.flowinquiry.modules.teams.service.dto.TicketDistributionDTO;
 import io.flowinquiry.modules.teams.service.dto.TransitionItemCollectionDTO;
 import io.flowinquiry.modules.usermanagement.service.dto.TicketStatisticsDTO;
+import io.flowinquiry.query.CursorSlice;
 import io.flowinquiry.query.QueryDTO;
 import io.flowinquiry.utils.DateUtils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -26,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -49,12 +53,15 @@ import org.springframework.web.server.ResponseStatusException;
 public class TicketController {
 
     private final TicketService ticketService;
+    private final TicketBulkService ticketBulkService;
     private final WorkflowTransitionHistoryService workflowTransitionHistoryService;
 
     public TicketController(
             TicketService ticketService,
+            TicketBulkService ticketBulkService,
             WorkflowTransitionHistoryService workflowTransitionHistoryService) {
         this.ticketService = ticketService;
+        this.ticketBulkService = ticketBulkService;
         this.workflowTransitionHistoryService = workflowTransitionHistoryService;
     }
 
@@ -80,6 +87,39 @@ public class TicketController {
         return ticketService.findTickets(queryDTO, pageable);
     }
 
+    @Operation(
+            summary = "Scroll tickets",
+            description =
+                    "Search for tickets based on query criteria with keyset pagination. Returns a"
+                            + " slice without total count and the cursor of the next slice")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Successfully retrieved tickets",
+                        content =
+                                @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = CursorSlice.class))),
+                @ApiResponse(
+                        responseCode = "400",
+                        description = "Bad request, invalid cursor or size",
+                        content = @Content)
+            })
+    @PostMapping("/search/scroll")
+    public CursorSlice<TicketDTO> scrollTickets(
+            @Parameter(description = "Query parameters for filtering tickets") @Valid @RequestBody
+                    QueryDTO queryDTO,
+            @Parameter(description = "Cursor returned with the previous slice")
+                    @RequestParam(required = false)
+                    String cursor,
+            @Parameter(description = "Number of tickets per slice, from 1 to 100")
+                    @RequestParam(defaultValue = "20")
+                    int size,
+            @Parameter(description = "Sort of the first slice, on one property") Sort sort) {
+        return ticketService.scrollTickets(queryDTO, cursor, sort, size);
+    }
+
     @Operation(summary = "Get ticket by ID", description = "Retrieves a ticket by its ID")
     @ApiResponses(
             value = {
@@ -585,6 +625,40 @@ public class TicketController {
         return ticketService.updateTicketState(ticketId, newStateId);
     }
 
+    @Operation(
+            summary = "Update tickets in bulk",
+            description =
+                    "Applies the same changes to several tickets: moves them to a state, reassigns"
+                            + " them, or changes their iteration, epic or priority. Fields left"
+                            + " null are unchanged. Either every ticket is updated or none is")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Tickets successfully updated",
+                        content =
+                                @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = TicketDTO.class))),
+                @ApiResponse(
+                        responseCode = "400",
+                        description =
+                                "Bad request - no change, too many tickets, or a state the"
+                                        + " workflow of a ticket does not allow",
+                        content = @Content),
+                @ApiResponse(
+                        responseCode = "404",
+                        description = "Ticket not found",
+                        content = @Content)
+            })
+    @PatchMapping("/bulk")
+    public List<TicketDTO> updateTickets(
+            @Parameter(description = "Tickets to update and the changes to apply", required = true)
+                    @Valid @RequestBody
+                    TicketBulkUpdateDTO changes) {
+        return ticketBulkService.updateTickets(changes);
+    }
+
     /** Helper class to represent a date range */
     private record DateRange(Instant from, Instant to) {}
 
@@ -14,7 +14,6 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
-import org.hibernate.annotations.Formula;
 
 @EqualsAndHashCode(callSuper = false)
 @Entity
@@ -88,12 +87,12 @@ public class Ticket extends TenantScopedAuditingEntity<Long> {
     @Column(name = "is_completed", nullable = false)
     private Boolean isCompleted = false;
 
-    @Formula(
-            "(SELECT COUNT(a.id) FROM fw_entity_attachment a WHERE a.entity_type = 'Ticket' AND a.entity_id = id)")
+    // Maintained by TicketRepository#adjustNumberAttachments, never written from the entity
+    @Column(name = "number_attachments", insertable = false, updatable = false)
     private int numberAttachments;
 
-    @Formula(
-            "(SELECT COUNT(a.id) FROM fw_entity_watchers a WHERE a.entity_type = 'Ticket' AND a.entity_id = id)")
+    // Maintained by TicketRepository#adjustNumberWatchers, never written from the entity
+    @Column(name = "number_watchers", insertable = false, updatable = false)
     private int numberWatchers;
 
     @OneToOne(
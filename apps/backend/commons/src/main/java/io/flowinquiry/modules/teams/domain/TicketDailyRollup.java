@@ -0,0 +1,66 @@
+package io.flowinquiry.modules.teams.domain;
+
+import io.flowinquiry.modules.usermanagement.domain.User;
+import io.flowinquiry.tenant.domain.TenantScopedEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Pre-aggregated ticket counts per project, iteration, assignee, priority, state and completion
+ * day. Rows are maintained incrementally by {@code TicketRollupService} so the throughput and
+ * burndown reports never have to load individual tickets.
+ */
+@Entity
+@Table(name = "fw_ticket_daily_rollup")
+@Getter
+@Setter
+@NoArgsConstructor
+public class TicketDailyRollup extends TenantScopedEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "iteration_id")
+    private ProjectIteration iteration;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "assign_user_id")
+    private User assignUser;
+
+    @Convert(converter = TicketPriorityConverter.class)
+    private TicketPriority priority;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "state_id")
+    private WorkflowState state;
+
+    @Column(name = "is_completed", nullable = false)
+    private Boolean isCompleted;
+
+    /** Completion day of the counted tickets; {@code null} while they are still open. */
+    @Column(name = "bucket_date")
+    private LocalDate bucketDate;
+
+    @Column(name = "ticket_count", nullable = false)
+    private Long ticketCount;
+
+    @Column(name = "estimate_sum", nullable = false)
+    private Long estimateSum;
+}
@@ -58,6 +58,9 @@ public class WorkflowTransitionHistory extends TenantScopedEntity {
     @Column(name = "sla_due_date")
     private Instant slaDueDate;
 
+    @Column(name = "sla_warning_sent_at")
+    private Instant slaWarningSentAt;
+
     @Column(name = "status")
     @Enumerated(EnumType.STRING)
     private WorkflowTransitionHistoryStatus status;
@@ -1,7 +1,34 @@
 package io.flowinquiry.modules.teams.repository;
 
 import io.flowinquiry.modules.teams.domain.ProjectTicketSequence;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface ProjectTicketSequenceRepository
-        extends JpaRepository<ProjectTicketSequence, Long> {}
+        extends JpaRepository<ProjectTicketSequence, Long> {
+
+    /**
+     * Reserves the next {@code count} ticket numbers of a project in one atomic statement, creating
+     * the sequence of the project on its first ticket. Concurrent callers queue on the row lock
+     * instead of failing.
+     *
+     * @return The last reserved number; the block runs from {@code last - count + 1} to it.
+     */
+    @QueryHints(
+            @QueryHint(name = "org.hibernate.query.native.spaces", value = "fw_project_ticket_seq"))
+    @Query(
+            value =
+                    """
+                    INSERT INTO fw_project_ticket_seq (project_id, last_ticket_number, version)
+                    VALUES (:projectId, :count, 0)
+                    ON CONFLICT (project_id) DO UPDATE
+                    SET last_ticket_number = fw_project_ticket_seq.last_ticket_number + :count,
+                        version = fw_project_ticket_seq.version + 1
+                    RETURNING last_ticket_number
+                    """,
+            nativeQuery = true)
+    long reserveTicketNumbers(@Param("projectId") Long projectId, @Param("count") int count);
+}
@@ -1,10 +1,12 @@
 package io.flowinquiry.modules.teams.repository;
 
 import io.flowinquiry.modules.teams.domain.Team;
+import io.flowinquiry.modules.teams.service.dto.TeamManagerDTO;
 import io.flowinquiry.modules.teams.service.dto.UserTeamDTO;
 import io.flowinquiry.modules.usermanagement.domain.User;
 import io.flowinquiry.modules.usermanagement.service.dto.UserWithTeamRoleDTO;
 import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -34,6 +36,9 @@ public interface TeamRepository extends JpaRepository<Team, Long>, JpaSpecificat
     @Query("SELECT t FROM Team t JOIN t.users u WHERE u.id = :userId")
     List<Team> findTeamsByUserId(@Param("userId") Long userId);
 
+    @Query("SELECT t.id FROM Team t JOIN t.users u WHERE u.id = :userId")
+    List<Long> findTeamIdsByUserId(@Param("userId") Long userId);
+
     @Query(
             """
         SELECT u
@@ -103,6 +108,21 @@ public interface TeamRepository extends JpaRepository<Team, Long>, JpaSpecificat
     """)
     List<User> findManagersByTeamId(@Param("teamId") Long teamId);
 
+    /**
+     * Finds the managers of all the given teams in a single query.
+     *
+     * @param teamIds the IDs of the teams.
+     * @return one entry per team and manager.
+     */
+    @Query(
+            """
+        SELECT new io.flowinquiry.modules.teams.service.dto.TeamManagerDTO(
+            ut.team.id, u.id, u.email, u.firstName, u.lastName, u.langKey)
+        FROM UserTeam ut JOIN ut.user u
+        WHERE ut.team.id IN :teamIds AND ut.role.name = 'manager'
+    """)
+    List<TeamManagerDTO> findManagersByTeamIds(@Param("teamIds") Collection<Long> teamIds);
+
     /**
      * Fetches every team a user belongs to together with the user's role in that team in a single
      * query — avoids the N+1 problem.
@@ -1,9 +1,13 @@
 package io.flowinquiry.modules.teams.repository;
 
 import io.flowinquiry.modules.teams.domain.TicketConversationHealth;
+import jakarta.persistence.LockModeType;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -12,4 +16,9 @@ public interface TicketConversationHealthRepository
                 JpaSpecificationExecutor<TicketConversationHealth> {
 
     Optional<TicketConversationHealth> findByTicketId(Long ticketId);
+
+    /** Locks the record, so that evaluations of the same ticket on other threads wait. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM TicketConversationHealth h WHERE h.ticket.id = :ticketId")
+    Optional<TicketConversationHealth> findByTicketIdForUpdate(@Param("ticketId") Long ticketId);
 }
@@ -0,0 +1,193 @@
+package io.flowinquiry.modules.teams.repository;
+
+import io.flowinquiry.modules.teams.domain.TicketDailyRollup;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TicketDailyRollupRepository
+        extends JpaRepository<TicketDailyRollup, Long>,
+                JpaSpecificationExecutor<TicketDailyRollup> {
+
+    String ROLLUP_COLUMNS =
+            "tenant_id, project_id, iteration_id, assign_user_id, priority, state_id, is_completed,"
+                    + " bucket_date";
+
+    String UPSERT_ROLLUP =
+            "INSERT INTO fw_ticket_daily_rollup ("
+                    + ROLLUP_COLUMNS
+                    + ", ticket_count, estimate_sum) ";
+
+    String ON_CONFLICT_ADD =
+            " ON CONFLICT ("
+                    + ROLLUP_COLUMNS
+                    + ") DO UPDATE SET ticket_count = fw_ticket_daily_rollup.ticket_count +"
+                    + " EXCLUDED.ticket_count, estimate_sum = fw_ticket_daily_rollup.estimate_sum"
+                    + " + EXCLUDED.estimate_sum";
+
+    /** Computes the rollup rows from scratch out of the live tickets of every tenant. */
+    String TICKET_GROUPS =
+            "SELECT t.tenant_id, t.project_id, t.iteration_id, t.assign_user_id, t.priority,"
+                    + " t.current_state_id, t.is_completed, CASE WHEN t.is_completed THEN"
+                    + " t.actual_completion_date END, COUNT(*), COALESCE(SUM(t.estimate), 0)"
+                    + " FROM fw_ticket t WHERE t.project_id IS NOT NULL AND t.is_deleted = FALSE"
+                    + " GROUP BY 1, 2, 3, 4, 5, 6, 7, 8";
+
+    String STORED_GROUPS =
+            "SELECT "
+                    + ROLLUP_COLUMNS
+                    + ", ticket_count, estimate_sum FROM fw_ticket_daily_rollup"
+                    + " WHERE ticket_count <> 0";
+
+    @EntityGraph(attributePaths = {"iteration", "assignUser"})
+    List<TicketDailyRollup> findAll(Specification<TicketDailyRollup> spec);
+
+    @Modifying
+    @Query(
+            value =
+                    UPSERT_ROLLUP
+                            + "VALUES (CAST(:tenantId AS UUID), :projectId, CAST(:iterationId AS"
+                            + " BIGINT), CAST(:assignUserId AS BIGINT), CAST(:priority AS INT),"
+                            + " CAST(:stateId AS BIGINT), :completed, CAST(:bucketDate AS DATE),"
+                            + " :ticketDelta, :estimateDelta)"
+                            + ON_CONFLICT_ADD,
+            nativeQuery = true)
+    void applyDelta(
+            @Param("tenantId") UUID tenantId,
+            @Param("projectId") Long projectId,
+            @Param("iterationId") Long iterationId,
+            @Param("assignUserId") Long assignUserId,
+            @Param("priority") Integer priority,
+            @Param("stateId") Long stateId,
+            @Param("completed") boolean completed,
+            @Param("bucketDate") LocalDate bucketDate,
+            @Param("ticketDelta") long ticketDelta,
+            @Param("estimateDelta") long estimateDelta);
+
+    /**
+     * Adds the given tickets to the rollup rows of their current columns with {@code sign} 1, or
+     * takes them out of those rows with {@code sign} -1.
+     */
+    @Modifying
+    @Query(
+            value =
+                    UPSERT_ROLLUP
+                            + "SELECT t.tenant_id, t.project_id, t.iteration_id, t.assign_user_id,"
+                            + " t.priority, t.current_state_id, t.is_completed, CASE WHEN"
+                            + " t.is_completed THEN t.actual_completion_date END, :sign * COUNT(*),"
+                            + " :sign * COALESCE(SUM(t.estimate), 0) FROM fw_ticket t WHERE t.id IN"
+                            + " (:ticketIds) AND t.project_id IS NOT NULL AND t.is_deleted = FALSE"
+                            + " GROUP BY 1, 2, 3, 4, 5, 6, 7, 8"
+                            + ON_CONFLICT_ADD,
+            nativeQuery = true)
+    void applyTickets(@Param("ticketIds") Collection<Long> ticketIds, @Param("sign") int sign);
+
+    /**
+     * Moves the open tickets of an iteration into today's completed bucket. Must run right before
+     * {@link TicketRepository#findTicketsByIterationIdAndClose(Long)} inside the same transaction,
+     * so CURRENT_DATE matches the completion date written to the tickets.
+     */
+    @Modifying
+    @Query(
+            value =
+                    UPSERT_ROLLUP
+                            + "SELECT t.tenant_id, t.project_id, t.iteration_id, t.assign_user_id,"
+                            + " t.priority, t.current_state_id, c.completed, CASE WHEN c.completed"
+                            + " THEN CURRENT_DATE END, c.sign * COUNT(*), c.sign *"
+                            + " COALESCE(SUM(t.estimate), 0) FROM fw_ticket t CROSS JOIN (VALUES"
+                            + " (FALSE, -1), (TRUE, 1)) AS c(completed, sign) WHERE"
+                            + " t.iteration_id = :iterationId AND t.is_completed = FALSE AND"
+                            + " t.is_deleted = FALSE AND t.project_id IS NOT NULL GROUP BY 1, 2,"
+                            + " 3, 4, 5, 6, 7, 8, c.sign"
+                            + ON_CONFLICT_ADD,
+            nativeQuery = true)
+    void closeOpenTicketsOfIteration(@Param("iterationId") Long iterationId);
+
+    /**
+     * Folds the rows of a deleted iteration into the "no iteration" rows, mirroring the {@code ON
+     * DELETE SET NULL} applied to the tickets themselves.
+     */
+    @Modifying
+    @Query(
+            value =
+                    UPSERT_ROLLUP
+                            + "SELECT tenant_id, project_id, NULL, assign_user_id, priority,"
+                            + " state_id, is_completed, bucket_date, SUM(ticket_count),"
+                            + " SUM(estimate_sum) FROM fw_ticket_daily_rollup WHERE iteration_id ="
+                            + " :iterationId GROUP BY 1, 2, 3, 4, 5, 6, 7, 8"
+                            + ON_CONFLICT_ADD,
+            nativeQuery = true)
+    void mergeIterationIntoBacklog(@Param("iterationId") Long iterationId);
+
+    @Modifying
+    @Query(
+            value = "DELETE FROM fw_ticket_daily_rollup WHERE iteration_id = :iterationId",
+            nativeQuery = true)
+    void deleteByIterationId(@Param("iterationId") Long iterationId);
+
+    /** Projects whose rollups are reconciled, across every tenant. */
+    @Query(value = "SELECT id FROM fw_project ORDER BY id", nativeQuery = true)
+    List<Long> findProjectIds();
+
+    /**
+     * Adds the difference between a from-scratch aggregation of the project's tickets and its
+     * stored rollup rows onto those rows. The difference is read from one snapshot and applied as a
+     * delta, so ticket writes committing meanwhile are neither blocked nor lost.
+     *
+     * @return the number of rollup rows that were corrected
+     */
+    @Modifying
+    @Query(
+            value =
+                    UPSERT_ROLLUP
+                            + "SELECT "
+                            + ROLLUP_COLUMNS
+                            + ", SUM(ticket_count), SUM(estimate_sum) FROM (SELECT t.tenant_id,"
+                            + " t.project_id, t.iteration_id, t.assign_user_id, t.priority,"
+                            + " t.current_state_id, t.is_completed, CASE WHEN t.is_completed THEN"
+                            + " t.actual_completion_date END, COUNT(*), COALESCE(SUM(t.estimate), 0)"
+                            + " FROM fw_ticket t WHERE t.project_id = :projectId AND t.is_deleted ="
+                            + " FALSE GROUP BY 1, 2, 3, 4, 5, 6, 7, 8 UNION ALL SELECT "
+                            + ROLLUP_COLUMNS
+                            + ", -ticket_count, -estimate_sum FROM fw_ticket_daily_rollup WHERE"
+                            + " project_id = :projectId) AS d("
+                            + ROLLUP_COLUMNS
+                            + ", ticket_count, estimate_sum) GROUP BY 1, 2, 3, 4, 5, 6, 7, 8 HAVING"
+                            + " SUM(ticket_count) <> 0 OR SUM(estimate_sum) <> 0"
+                            + ON_CONFLICT_ADD,
+            nativeQuery = true)
+    int correctProjectRows(@Param("projectId") Long projectId);
+
+    /** Number of rollup rows that disagree with a from-scratch aggregation of the tickets. */
+    @Query(
+            value =
+                    "SELECT COUNT(*) FROM (("
+                            + STORED_GROUPS
+                            + " EXCEPT "
+                            + TICKET_GROUPS
+                            + ") UNION ALL ("
+                            + TICKET_GROUPS
+                            + " EXCEPT "
+                            + STORED_GROUPS
+                            + ")) mismatches",
+            nativeQuery = true)
+    long countMismatchedRows();
+
+    @Modifying
+    @Query(
+            value =
+                    "DELETE FROM fw_ticket_daily_rollup WHERE project_id = :projectId AND"
+                            + " ticket_count = 0 AND estimate_sum = 0",
+            nativeQuery = true)
+    int deleteEmptyProjectRows(@Param("projectId") Long projectId);
+}
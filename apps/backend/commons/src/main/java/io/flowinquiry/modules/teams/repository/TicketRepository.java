@@ -9,6 +9,7 @@ import io.flowinquiry.modules.teams.service.dto.TicketDistributionDTO;
 import io.flowinquiry.modules.usermanagement.service.dto.TicketStatisticsDTO;
 import jakarta.persistence.QueryHint;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -310,4 +311,77 @@ public interface TicketRepository
           LIMIT :size
           """)
     List<Ticket> findOverdueTicketsAfterId(@Param("id") Long id, @Param("size") int size);
+
+    @Modifying(flushAutomatically = true)
+    @Query(
+            "UPDATE Ticket t SET t.numberAttachments = t.numberAttachments + :delta WHERE t.id = :ticketId")
+    int adjustNumberAttachments(@Param("ticketId") Long ticketId, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query(
+            "UPDATE Ticket t SET t.numberWatchers = t.numberWatchers + :delta WHERE t.id = :ticketId")
+    int adjustNumberWatchers(@Param("ticketId") Long ticketId, @Param("delta") int delta);
+
+    /**
+     * Adds the user as a watcher of those of the tickets it does not watch yet, and counts the new
+     * watchers on the tickets.
+     *
+     * @return The number of tickets the user was added to.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.query.native.spaces", value = "fw_ticket"),
+        @QueryHint(name = "org.hibernate.query.native.spaces", value = "fw_entity_watchers")
+    })
+    @Query(
+            value =
+                    """
+            WITH added AS (
+                INSERT INTO fw_entity_watchers
+                    (entity_type, entity_id, watch_user_id, created_at, created_by, tenant_id)
+                SELECT 'Ticket', t.id, :userId, CURRENT_TIMESTAMP, CAST(:createdBy AS BIGINT),
+                    t.tenant_id
+                FROM fw_ticket t
+                WHERE t.id IN (:ticketIds)
+                AND NOT EXISTS (SELECT 1 FROM fw_entity_watchers w
+                    WHERE w.entity_type = 'Ticket' AND w.entity_id = t.id
+                    AND w.watch_user_id = :userId)
+                RETURNING entity_id
+            )
+            UPDATE fw_ticket t
+            SET number_watchers = t.number_watchers + 1
+            FROM added
+            WHERE t.id = added.entity_id
+            """,
+            nativeQuery = true)
+    int addWatcherToTickets(
+            @Param("ticketIds") Collection<Long> ticketIds,
+            @Param("userId") Long userId,
+            @Param("createdBy") Long createdBy);
+
+    /**
+     * Recounts the attachments and watchers of every ticket whose counters have drifted.
+     *
+     * @return The number of repaired tickets.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "fw_ticket"))
+    @Query(
+            value =
+                    """
+            UPDATE fw_ticket t
+            SET number_attachments = c.attachments, number_watchers = c.watchers
+            FROM (
+                SELECT t2.id,
+                    (SELECT COUNT(*) FROM fw_entity_attachment a
+                        WHERE a.entity_type = 'Ticket' AND a.entity_id = t2.id) AS attachments,
+                    (SELECT COUNT(*) FROM fw_entity_watchers w
+                        WHERE w.entity_type = 'Ticket' AND w.entity_id = t2.id) AS watchers
+                FROM fw_ticket t2
+            ) c
+            WHERE c.id = t.id
+            AND (t.number_attachments <> c.attachments OR t.number_watchers <> c.watchers)
+            """,
+            nativeQuery = true)
+    int reconcileCounters();
 }
@@ -1,7 +1,10 @@
 package io.flowinquiry.modules.teams.repository;
 
 import io.flowinquiry.modules.teams.domain.WorkflowTransitionHistory;
+import io.flowinquiry.modules.teams.service.dto.SlaBreachDTO;
+import io.flowinquiry.modules.teams.service.dto.SlaDeadlineDTO;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -24,11 +27,67 @@ public interface WorkflowTransitionHistoryRepository
                     + "ORDER BY wth.transitionDate ASC")
     List<WorkflowTransitionHistory> findByTicketId(@Param("ticketId") Long ticketId);
 
+    /**
+     * Finds the SLA deadlines of transitions still in progress that are due before the given time,
+     * through the index on status and due date.
+     */
     @Query(
             """
-    SELECT wth FROM WorkflowTransitionHistory wth
-    WHERE wth.status = io.flowinquiry.modules.teams.domain.WorkflowTransitionHistoryStatus.IN_PROGRESS
-    AND wth.slaDueDate <= :checkTime
-    """)
-    List<WorkflowTransitionHistory> findViolatingTransitions(@Param("checkTime") Instant checkTime);
+            SELECT new io.flowinquiry.modules.teams.service.dto.SlaDeadlineDTO(
+                wth.id, wth.slaDueDate, wth.slaWarningSentAt)
+            FROM WorkflowTransitionHistory wth
+            WHERE wth.status = io.flowinquiry.modules.teams.domain.WorkflowTransitionHistoryStatus.IN_PROGRESS
+            AND wth.slaDueDate <= :before
+            """)
+    List<SlaDeadlineDTO> findSlaDeadlines(@Param("before") Instant before);
+
+    /**
+     * Escalates the given transitions that are still in progress.
+     *
+     * @return the ids of the transitions escalated by this call
+     */
+    @Query(
+            value =
+                    """
+                    UPDATE fw_workflow_transition_history SET status = 'ESCALATED'
+                    WHERE id IN (:ids) AND status = 'IN_PROGRESS'
+                    RETURNING id
+                    """,
+            nativeQuery = true)
+    List<Long> escalateInProgress(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Loads the given transitions together with their ticket, team and assignee in one query, for
+     * the notifications of an SLA breach.
+     */
+    @Query(
+            """
+            SELECT new io.flowinquiry.modules.teams.service.dto.SlaBreachDTO(
+                wth.id, wth.eventName, wth.toState.id, wth.slaDueDate, t.id, t.requestTitle,
+                t.tenantId, tm.id, tm.name, t.workflow.id, u.id, u.email, u.firstName, u.lastName,
+                u.langKey)
+            FROM WorkflowTransitionHistory wth
+            JOIN wth.ticket t
+            JOIN t.team tm
+            LEFT JOIN t.assignUser u
+            WHERE wth.id IN :ids
+            """)
+    List<SlaBreachDTO> findSlaBreaches(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Marks the SLA warning of the given transitions as sent, unless it was sent already or the
+     * transition is no longer in progress.
+     *
+     * @return the ids of the transitions whose warning the caller should send
+     */
+    @Query(
+            value =
+                    """
+                    UPDATE fw_workflow_transition_history SET sla_warning_sent_at = :now
+                    WHERE id IN (:ids) AND status = 'IN_PROGRESS' AND sla_warning_sent_at IS NULL
+                    AND sla_due_date > :now
+                    RETURNING id
+                    """,
+            nativeQuery = true)
+    List<Long> claimSlaWarnings(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
 }
@@ -1,11 +1,15 @@
 package io.flowinquiry.modules.teams.service;
 
 import io.flowinquiry.modules.shared.HttpHeaderConstants;
+import io.flowinquiry.modules.teams.ExportException;
 import io.flowinquiry.modules.teams.service.dto.ExportDataDTO;
 import io.flowinquiry.modules.teams.service.dto.ProjectDTO;
 import io.flowinquiry.modules.teams.service.export.CsvExporter;
 import io.flowinquiry.modules.teams.service.export.ExcelExporter;
+import io.flowinquiry.modules.teams.service.export.ExportWriter;
 import io.flowinquiry.query.QueryDTO;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -16,6 +20,9 @@ import org.springframework.stereotype.Service;
 @AllArgsConstructor
 public class ProjectExportService {
 
+    /** Projects fetched and written per keyset chunk by {@link #streamExport}. */
+    static final int EXPORT_CHUNK_SIZE = 500;
+
     private final CsvExporter csvExporter;
     private final ExcelExporter excelExporter;
     private final ProjectService projectService;
@@ -34,4 +41,35 @@ public class ProjectExportService {
         }
         throw new IllegalArgumentException("Unsupported export type: " + exportType);
     }
+
+    public String getExportFileName(String exportType) {
+        if (exportType.equalsIgnoreCase(HttpHeaderConstants.CSV_MIME_TYPE)) {
+            return "projects.csv";
+        } else if (exportType.equalsIgnoreCase(HttpHeaderConstants.EXCEL_MIME_TYPE)) {
+            return "projects.xlsx";
+        }
+        throw new IllegalArgumentException("Unsupported export type: " + exportType);
+    }
+
+    /** Writes every project matching the filters to {@code out} without paging limits. */
+    public void streamExport(Optional<QueryDTO> queryDTO, String exportType, OutputStream out) {
+        streamExport(queryDTO, exportType, out, EXPORT_CHUNK_SIZE);
+    }
+
+    void streamExport(
+            Optional<QueryDTO> queryDTO, String exportType, OutputStream out, int chunkSize) {
+        String fileName = getExportFileName(exportType);
+        try (ExportWriter<ProjectDTO> writer = openWriter(exportType, out)) {
+            projectService.forEachProjectChunk(queryDTO, chunkSize, writer::write);
+        } catch (IOException e) {
+            throw new ExportException("Failed to export " + fileName, e);
+        }
+    }
+
+    private ExportWriter<ProjectDTO> openWriter(String exportType, OutputStream out) {
+        if (exportType.equalsIgnoreCase(HttpHeaderConstants.CSV_MIME_TYPE)) {
+            return csvExporter.openWriter(out, ProjectDTO.class);
+        }
+        return excelExporter.openWriter(out, "Projects", ProjectDTO.class);
+    }
 }
@@ -28,6 +28,8 @@ public class ProjectIterationService {
 
     private final TicketService ticketService;
 
+    private final TicketRollupService ticketRollupService;
+
     private final ApplicationEventPublisher eventPublisher;
 
     public List<ProjectIterationDTO> findByProjectId(Long projectId) {
@@ -87,6 +89,7 @@ public class ProjectIterationService {
 
     @Transactional
     public void deleteIteration(Long id) {
+        ticketRollupService.onIterationDeleted(id);
         projectIterationRepository.deleteById(id);
     }
 
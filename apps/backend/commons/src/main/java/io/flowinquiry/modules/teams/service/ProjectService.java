@@ -16,10 +16,18 @@ import io.flowinquiry.modules.teams.service.dto.ProjectSettingDTO;
 import io.flowinquiry.modules.teams.service.event.NewProjectCreatedEvent;
 import io.flowinquiry.modules.teams.service.mapper.ProjectMapper;
 import io.flowinquiry.query.QueryDTO;
+import io.flowinquiry.query.QueryUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -31,6 +39,8 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class ProjectService {
 
+    @PersistenceContext private EntityManager entityManager;
+
     private final TeamRepository teamRepository;
 
     private final ProjectRepository projectRepository;
@@ -98,6 +108,34 @@ public class ProjectService {
         return projectRepository.findAll(spec, pageable).map(projectMapper::toDto);
     }
 
+    /**
+     * Walks every project matching the filters in id-ordered keyset chunks. Each chunk is detached
+     * from the persistence context once {@code consumer} has handled it, so memory use stays flat
+     * however many projects match.
+     */
+    @Transactional(readOnly = true)
+    public void forEachProjectChunk(
+            Optional<QueryDTO> queryDTO, int chunkSize, Consumer<List<ProjectDTO>> consumer) {
+        Specification<Project> spec =
+                Optional.ofNullable(QueryUtils.<Project>createSpecification(queryDTO.orElse(null)))
+                        .orElse(Specification.unrestricted());
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Project> window;
+        do {
+            ScrollPosition from = position;
+            window =
+                    projectRepository.findBy(
+                            spec,
+                            query -> query.sortBy(Sort.by("id")).limit(chunkSize).scroll(from));
+            if (window.isEmpty()) {
+                return;
+            }
+            consumer.accept(window.map(projectMapper::toDto).getContent());
+            position = window.positionAt(window.size() - 1);
+            entityManager.clear();
+        } while (window.hasNext());
+    }
+
     @Transactional(readOnly = true)
     public Page<ProjectDTO> getProjectsByUserId(Long userId, Pageable pageable) {
         return projectRepository.findAllByUserId(userId, pageable).map(projectMapper::toDto);
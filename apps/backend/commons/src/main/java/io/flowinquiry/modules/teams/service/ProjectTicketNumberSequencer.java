@@ -0,0 +1,103 @@
+package io.flowinquiry.modules.teams.service;
+
+import io.flowinquiry.config.FlowInquiryProperties;
+import io.flowinquiry.modules.teams.repository.ProjectTicketSequenceRepository;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out per-project ticket numbers. Numbers are reserved with one atomic upsert on the
+ * project's sequence row, so concurrent ticket creation in a project waits on the row instead of
+ * failing.
+ *
+ * <p>With a block size of 1 each number is reserved in the transaction creating the ticket, and a
+ * rolled back ticket gives its number back. With a larger block size the node reserves blocks of
+ * numbers in their own transaction and hands them out from memory, reaching the database once per
+ * block.
+ */
+@Service
+public class ProjectTicketNumberSequencer {
+
+    private final ProjectTicketSequenceRepository projectTicketSequenceRepository;
+
+    private final TransactionTemplate blockTransaction;
+
+    private final int blockSize;
+
+    private final Map<Long, NumberBlock> blocks = new ConcurrentHashMap<>();
+
+    private final Map<Long, ReentrantLock> refillLocks = new ConcurrentHashMap<>();
+
+    public ProjectTicketNumberSequencer(
+            ProjectTicketSequenceRepository projectTicketSequenceRepository,
+            PlatformTransactionManager transactionManager,
+            FlowInquiryProperties flowInquiryProperties) {
+        this.projectTicketSequenceRepository = projectTicketSequenceRepository;
+        this.blockTransaction = new TransactionTemplate(transactionManager);
+        this.blockTransaction.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, flowInquiryProperties.getTicketNumber().getBlockSize());
+    }
+
+    public long nextTicketNumber(Long projectId) {
+        if (blockSize == 1) {
+            return projectTicketSequenceRepository.reserveTicketNumbers(projectId, 1);
+        }
+        while (true) {
+            NumberBlock block = blocks.get(projectId);
+            if (block != null) {
+                long number = block.next();
+                if (number > 0) {
+                    return number;
+                }
+            }
+            ReentrantLock lock = refillLocks.computeIfAbsent(projectId, id -> new ReentrantLock());
+            lock.lock();
+            try {
+                // Another thread may have refilled the block while this one waited
+                if (blocks.get(projectId) == block) {
+                    blocks.put(projectId, reserveBlock(projectId));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Committed on its own: numbers of the block go to tickets of other transactions, so a rollback
+     * of the current one must not give them back.
+     */
+    private NumberBlock reserveBlock(Long projectId) {
+        Long last =
+                blockTransaction.execute(
+                        status ->
+                                projectTicketSequenceRepository.reserveTicketNumbers(
+                                        projectId, blockSize));
+        return new NumberBlock(last - blockSize + 1, last);
+    }
+
+    private static final class NumberBlock {
+
+        private final AtomicLong next;
+
+        private final long last;
+
+        private NumberBlock(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+
+        /** The next number of the block, or 0 once it is used up. */
+        private long next() {
+            long number = next.getAndIncrement();
+            return number <= last ? number : 0;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import io.flowinquiry.modules.teams.domain.TeamRole;
 import io.flowinquiry.modules.teams.repository.TeamRepository;
 import io.flowinquiry.modules.teams.repository.TeamRoleRepository;
 import io.flowinquiry.modules.teams.service.dto.TeamDTO;
+import io.flowinquiry.modules.teams.service.dto.TeamManagerDTO;
 import io.flowinquiry.modules.teams.service.dto.UserTeamDTO;
 import io.flowinquiry.modules.teams.service.dto.UserTeamsContextDTO;
 import io.flowinquiry.modules.teams.service.event.NewTeamCreatedEvent;
@@ -24,6 +25,7 @@ import io.flowinquiry.modules.usermanagement.service.dto.UserWithTeamRoleDTO;
 import io.flowinquiry.modules.usermanagement.service.mapper.UserMapper;
 import io.flowinquiry.query.QueryDTO;
 import jakarta.persistence.EntityNotFoundException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.apache.commons.lang3.StringUtils;
@@ -126,6 +128,11 @@ public class TeamService {
         return teamRepository.findTeamsByUserId(userId).stream().map(teamMapper::toDto).toList();
     }
 
+    @Transactional(readOnly = true)
+    public List<Long> findTeamIdsByUserId(Long userId) {
+        return teamRepository.findTeamIdsByUserId(userId);
+    }
+
     /**
      * Returns the team-membership context for a user in one query. Only teams where the user is a
      * member are returned together with their role. Admins are treated the same as regular users —
@@ -290,4 +297,18 @@ public class TeamService {
     public List<User> getTeamManagers(Long teamId) {
         return teamRepository.findManagersByTeamId(teamId);
     }
+
+    /**
+     * Retrieves the managers of all the given teams with a single query.
+     *
+     * @param teamIds the IDs of the teams.
+     * @return one entry per team and manager.
+     */
+    @Transactional(readOnly = true)
+    public List<TeamManagerDTO> getTeamManagers(Collection<Long> teamIds) {
+        if (teamIds.isEmpty()) {
+            return List.of();
+        }
+        return teamRepository.findManagersByTeamIds(teamIds);
+    }
 }
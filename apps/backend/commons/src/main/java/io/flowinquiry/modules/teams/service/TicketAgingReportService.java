@@ -11,8 +11,10 @@ import io.flowinquiry.modules.teams.service.dto.BurndownDayDTO;
 import io.flowinquiry.modules.teams.service.dto.BurndownReportDTO;
 import io.flowinquiry.modules.teams.domain.Ticket;
 import io.flowinquiry.modules.teams.domain.TicketConversationHealth;
+import io.flowinquiry.modules.teams.domain.TicketDailyRollup;
 import io.flowinquiry.modules.teams.domain.TicketPriority;
 import io.flowinquiry.modules.teams.repository.TicketConversationHealthRepository;
+import io.flowinquiry.modules.teams.repository.TicketDailyRollupRepository;
 import io.flowinquiry.modules.teams.repository.TicketRepository;
 import io.flowinquiry.modules.teams.service.dto.TicketAgingDTO;
 import io.flowinquiry.modules.teams.service.dto.TicketAgingReportDTO;
@@ -30,6 +32,17 @@ import io.flowinquiry.modules.teams.service.dto.WorkloadBalanceQueryDTO;
 import io.flowinquiry.modules.teams.service.dto.WorkloadBalanceReportDTO;
 import io.flowinquiry.modules.teams.service.mapper.TicketMapper;
 import io.flowinquiry.query.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -41,7 +54,9 @@ import java.util.*;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.hibernate.Session;
+import org.hibernate.query.common.TemporalUnit;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -59,9 +74,30 @@ public class TicketAgingReportService {
 
     private final ProjectIterationRepository projectIterationRepository;
 
+    private final TicketDailyRollupRepository rollupRepository;
+
+    private final ReportEngine reportEngine;
+
     private static final List<String> DEFAULT_COMPLETED_STATUS_ALIASES =
             List.of("RESOLVED", "CLOSED");
 
+    /** Upper bound on the number of ticket rows returned by the aging report. */
+    private static final int MAX_AGING_TICKETS = 1000;
+
+    /** Computed field holding a ticket's age in days in the aging aggregation. */
+    private static final String AGE_FIELD = "ageInDays";
+
+    private static final List<AgeBucket> AGE_BUCKETS =
+            List.of(
+                    new AgeBucket("0-2", 0, 2L),
+                    new AgeBucket("3-5", 3, 5L),
+                    new AgeBucket("6-10", 6, 10L),
+                    new AgeBucket("11-20", 11, 20L),
+                    new AgeBucket("21-30", 21, 30L),
+                    new AgeBucket("31+", 31, null));
+
+    @PersistenceContext private EntityManager entityManager;
+
     @Transactional(readOnly = true)
     public TicketHealthDistributionDTO getHealthDistributionReport(TicketHealthQueryParams params) {
 
@@ -145,7 +181,7 @@ public class TicketAgingReportService {
     @Transactional(readOnly = true)
     public TicketAgingReportDTO getAgingTicketsReport(TicketQueryParams queryParams) {
 
-        Specification<Ticket> ticketsSpecification =
+        QueryDTO ticketsFilter =
                 getTicketsForAgingReport(
                         queryParams.getProjectId(),
                         queryParams.getIterationId(),
@@ -155,75 +191,264 @@ public class TicketAgingReportService {
                         queryParams.getCreatedFrom(),
                         queryParams.getCreatedTo(),
                         queryParams.isIncludeClosed());
-        List<Ticket> ticketList = ticketRepository.findAll(ticketsSpecification);
+        String groupBy = queryParams.getGroupBy();
+        int limit = Math.min(Math.max(queryParams.getLimit(), 1), MAX_AGING_TICKETS);
+        Instant now = Instant.now();
 
-        List<TicketAgingDTO> agingTickets =
-                ticketList.stream()
-                        .map(this::calculateTicketAge)
-                        .sorted(Comparator.comparingLong(TicketAgingDTO::getAgeInDays).reversed())
-                        .toList();
-        Map<String, List<TicketAgingDTO>> groupedTickets =
-                groupTickets(agingTickets, queryParams.getGroupBy());
-        DoubleSummaryStatistics ageStats =
-                agingTickets.stream().mapToDouble(TicketAgingDTO::getAgeInDays).summaryStatistics();
+        // Counts, min/max/sum of age and age buckets are computed by the database per group, so
+        // the statistics no longer depend on hydrating every ticket of the project.
+        Map<String, AgingGroupStats> groupStats =
+                aggregateTicketAgeByGroup(ticketsFilter, groupBy, now);
+
+        Map<String, List<TicketAgingDTO>> groupedTickets = new LinkedHashMap<>();
+        groupStats.keySet().forEach(group -> groupedTickets.put(group, new ArrayList<>()));
+        for (TicketAgingDTO ticket :
+                findOldestTickets(createSpecification(ticketsFilter), now, limit)) {
+            groupedTickets
+                    .computeIfAbsent(resolveAgingGroup(ticket, groupBy), k -> new ArrayList<>())
+                    .add(ticket);
+        }
+
+        long totalTickets = 0;
+        long totalAge = 0;
+        Long maxAge = null;
+        Long minAge = null;
+        Map<String, Long> groupCounts = new LinkedHashMap<>();
+        Map<String, Map<String, Long>> groupAgeBuckets = new LinkedHashMap<>();
+        for (Map.Entry<String, AgingGroupStats> entry : groupStats.entrySet()) {
+            AgingGroupStats stats = entry.getValue();
+            totalTickets += stats.count();
+            totalAge += stats.sumAge();
+            if (stats.maxAge() != null) {
+                maxAge = maxAge == null ? stats.maxAge() : Math.max(maxAge, stats.maxAge());
+            }
+            if (stats.minAge() != null) {
+                minAge = minAge == null ? stats.minAge() : Math.min(minAge, stats.minAge());
+            }
+            groupCounts.put(entry.getKey(), stats.count());
+            groupAgeBuckets.put(entry.getKey(), stats.ageBuckets());
+        }
 
         TicketAgingReportDTO report = new TicketAgingReportDTO();
         report.setGroupedTickets(groupedTickets);
-        report.setAverageAge(ageStats.getAverage());
-        report.setMaxAge((long) ageStats.getMax());
-        report.setMinAge((long) ageStats.getMin());
-        report.setTotalTickets(agingTickets.size());
+        report.setGroupCounts(groupCounts);
+        report.setGroupAgeBuckets(groupAgeBuckets);
+        report.setAverageAge(totalTickets == 0 ? 0.0 : (double) totalAge / totalTickets);
+        report.setMaxAge(maxAge != null ? maxAge : 0L);
+        report.setMinAge(minAge != null ? minAge : 0L);
+        report.setTotalTickets((int) totalTickets);
 
         return report;
     }
 
-    private TicketAgingDTO calculateTicketAge(Ticket ticket) {
+    /**
+     * Runs a single {@link ReportEngine} GROUP BY query returning, per aging group, the ticket
+     * count, min/max/sum of the age in days and the number of tickets in each {@link #AGE_BUCKETS}
+     * bucket. The age and the bucket flags are passed to the engine as computed fields.
+     */
+    private Map<String, AgingGroupStats> aggregateTicketAgeByGroup(
+            QueryDTO filters, String groupBy, Instant now) {
+        Map<String, ComputedField> computedFields = new HashMap<>();
+        computedFields.put(AGE_FIELD, (cb, root) -> ageInDays(cb, root, now));
+        List<AggregationField> aggregations = new ArrayList<>();
+        aggregations.add(new AggregationField("id", AggregationFunction.COUNT, "count"));
+        aggregations.add(new AggregationField(AGE_FIELD, AggregationFunction.MIN, "minAge"));
+        aggregations.add(new AggregationField(AGE_FIELD, AggregationFunction.MAX, "maxAge"));
+        aggregations.add(new AggregationField(AGE_FIELD, AggregationFunction.SUM, "sumAge"));
+        for (AgeBucket bucket : AGE_BUCKETS) {
+            String field = "ageBucket:" + bucket.label();
+            computedFields.put(
+                    field,
+                    (cb, root) ->
+                            cb.<Long>selectCase()
+                                    .when(bucket.matches(cb, ageInDays(cb, root, now)), 1L)
+                                    .otherwise(0L));
+            aggregations.add(new AggregationField(field, AggregationFunction.SUM, field));
+        }
+
+        AggregationQuery query = new AggregationQuery();
+        query.setEntity(Ticket.class.getSimpleName());
+        query.setGroupByFields(resolveAgingGroupFields(groupBy));
+        query.setAggregations(aggregations);
+        query.setFilters(filters);
+
+        Map<String, AgingGroupStats> stats = new LinkedHashMap<>();
+        for (AggregationResult row : reportEngine.aggregate(query, computedFields)) {
+            Map<String, Number> metrics = row.getMetrics();
+            Map<String, Long> buckets = new LinkedHashMap<>();
+            for (AgeBucket bucket : AGE_BUCKETS) {
+                buckets.put(bucket.label(), toLong(metrics.get("ageBucket:" + bucket.label())));
+            }
+            AgingGroupStats groupStats =
+                    new AgingGroupStats(
+                            toLong(metrics.get("count")),
+                            toNullableLong(metrics.get("minAge")),
+                            toNullableLong(metrics.get("maxAge")),
+                            toLong(metrics.get("sumAge")),
+                            buckets);
+            // Assignees sharing the same display name end up in the same group, as before
+            stats.merge(resolveAgingGroup(row, groupBy), groupStats, AgingGroupStats::merge);
+        }
+        return stats;
+    }
+
+    /**
+     * Fetches only the columns needed to render the oldest tickets, ordered by age descending,
+     * without hydrating {@link Ticket} entities or their associations.
+     */
+    private List<TicketAgingDTO> findOldestTickets(
+            Specification<Ticket> specification, Instant now, int limit) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Ticket> root = cq.from(Ticket.class);
+        Join<Ticket, ?> project = root.join("project", JoinType.LEFT);
+        Join<Ticket, ?> currentState = root.join("currentState", JoinType.LEFT);
+        Join<Ticket, ?> assignUser = root.join("assignUser", JoinType.LEFT);
+        Expression<Long> age = ageInDays(cb, root, now);
+
+        cq.multiselect(
+                root.get("id").alias("id"),
+                root.get("projectTicketNumber").alias("projectTicketNumber"),
+                project.get("shortName").alias("projectShortName"),
+                root.get("requestTitle").alias("title"),
+                root.get("priority").alias("priority"),
+                currentState.get("stateName").alias("status"),
+                assignUser.get("firstName").alias("assigneeFirstName"),
+                assignUser.get("lastName").alias("assigneeLastName"),
+                root.get("createdAt").alias("createdAt"),
+                root.get("isCompleted").alias("isCompleted"),
+                root.get("actualCompletionDate").alias("actualCompletionDate"),
+                age.alias("ageInDays"));
+        Predicate where = specification.toPredicate(root, cq, cb);
+        if (where != null) {
+            cq.where(where);
+        }
+        cq.orderBy(cb.desc(age), cb.asc(root.get("id")));
+
+        return entityManager.createQuery(cq).setMaxResults(limit).getResultList().stream()
+                .map(this::toTicketAgingDTO)
+                .toList();
+    }
+
+    private TicketAgingDTO toTicketAgingDTO(Tuple tuple) {
+        Long ticketId = tuple.get("id", Long.class);
+        Long projectTicketNumber = tuple.get("projectTicketNumber", Long.class);
         TicketAgingDTO dto = new TicketAgingDTO();
-        dto.setTicketId(ticket.getId());
+        dto.setTicketId(ticketId);
         dto.setTicketKey(
-                nonNull(ticket.getProjectTicketNumber())
-                        ? ticket.getProject().getShortName() + "-" + ticket.getProjectTicketNumber()
-                        : "TICKET-" + ticket.getId());
-        dto.setTitle(ticket.getRequestTitle());
-        dto.setPriority(ticket.getPriority());
-        dto.setStatus(ticket.getCurrentState().getStateName());
+                nonNull(projectTicketNumber)
+                        ? tuple.get("projectShortName", String.class) + "-" + projectTicketNumber
+                        : "TICKET-" + ticketId);
+        dto.setTitle(tuple.get("title", String.class));
+        dto.setPriority(tuple.get("priority", TicketPriority.class));
+        dto.setStatus(tuple.get("status", String.class));
         dto.setAssignee(
-                nonNull(ticket.getAssignUser())
-                        ? ticket.getAssignUser().getFirstName()
-                                + " "
-                                + ticket.getAssignUser().getLastName()
-                        : "Unassigned");
-
-        // Calculate age in days
-        long ageInDays =
-                ticket.getIsCompleted()
-                        ? ChronoUnit.DAYS.between(
-                                ticket.getCreatedAt(),
-                                ticket.getActualCompletionDate()
-                                        .atStartOfDay()
-                                        .toInstant(ZoneOffset.UTC))
-                        : ChronoUnit.DAYS.between(ticket.getCreatedAt(), Instant.now());
-        dto.setAgeInDays(ageInDays);
-        dto.setCreatedDate(ticket.getCreatedAt());
-        if (ticket.getIsCompleted())
-            dto.setCompletionDate(
-                    ticket.getActualCompletionDate().atStartOfDay().toInstant(ZoneOffset.UTC));
+                formatAssignee(
+                        tuple.get("assigneeFirstName", String.class),
+                        tuple.get("assigneeLastName", String.class)));
+        dto.setAgeInDays(toNullableLong(tuple.get("ageInDays")));
+        dto.setCreatedDate(tuple.get("createdAt", Instant.class));
+        LocalDate completionDate = tuple.get("actualCompletionDate", LocalDate.class);
+        if (Boolean.TRUE.equals(tuple.get("isCompleted", Boolean.class))
+                && completionDate != null) {
+            dto.setCompletionDate(completionDate.atStartOfDay().toInstant(ZoneOffset.UTC));
+        }
         return dto;
     }
 
-    private Map<String, List<TicketAgingDTO>> groupTickets(
-            List<TicketAgingDTO> tickets, String groupBy) {
+    /**
+     * Age in whole days: from creation to the completion date for completed tickets, and from
+     * creation to {@code now} for open ones.
+     */
+    private Expression<Long> ageInDays(CriteriaBuilder criteriaBuilder, Root<?> root, Instant now) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) criteriaBuilder;
+        Path<LocalDate> actualCompletionDate = root.get("actualCompletionDate");
+        Expression<Instant> ageEnd =
+                cb.<Instant>selectCase()
+                        .when(
+                                cb.and(
+                                        cb.isTrue(root.<Boolean>get("isCompleted")),
+                                        cb.isNotNull(actualCompletionDate)),
+                                actualCompletionDate.cast(Instant.class))
+                        .otherwise(now);
+        return cb.durationByUnit(
+                TemporalUnit.DAY, cb.durationBetween(root.<Instant>get("createdAt"), ageEnd));
+    }
+
+    private List<String> resolveAgingGroupFields(String groupBy) {
+        return switch (groupBy) {
+            case "status" -> List.of("currentState.stateName");
+            case "priority" -> List.of("priority");
+            default -> List.of("assignUser.firstName", "assignUser.lastName");
+        };
+    }
+
+    private String resolveAgingGroup(AggregationResult row, String groupBy) {
+        Map<String, Object> dimensions = row.getDimensions();
         return switch (groupBy) {
-            case "status" ->
-                    tickets.stream().collect(Collectors.groupingBy(TicketAgingDTO::getStatus));
-            case "priority" ->
-                    tickets.stream()
-                            .collect(Collectors.groupingBy(t -> t.getPriority().toString()));
-            default -> tickets.stream().collect(Collectors.groupingBy(TicketAgingDTO::getAssignee));
+            case "status" -> Objects.toString(dimensions.get("currentState.stateName"), "None");
+            case "priority" -> Objects.toString(dimensions.get("priority"), "None");
+            default ->
+                    formatAssignee(
+                            (String) dimensions.get("assignUser.firstName"),
+                            (String) dimensions.get("assignUser.lastName"));
         };
     }
 
-    private Specification<Ticket> getTicketsForAgingReport(
+    private String resolveAgingGroup(TicketAgingDTO ticket, String groupBy) {
+        return switch (groupBy) {
+            case "status" -> Objects.toString(ticket.getStatus(), "None");
+            case "priority" -> Objects.toString(ticket.getPriority(), "None");
+            default -> ticket.getAssignee();
+        };
+    }
+
+    private String formatAssignee(String firstName, String lastName) {
+        if (firstName == null && lastName == null) {
+            return "Unassigned";
+        }
+        return firstName + " " + lastName;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static Long toNullableLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    /** Aggregated age statistics of one aging report group. */
+    private record AgingGroupStats(
+            long count, Long minAge, Long maxAge, long sumAge, Map<String, Long> ageBuckets) {
+
+        AgingGroupStats merge(AgingGroupStats other) {
+            Map<String, Long> buckets = new LinkedHashMap<>(ageBuckets);
+            other.ageBuckets().forEach((label, value) -> buckets.merge(label, value, Long::sum));
+            return new AgingGroupStats(
+                    count + other.count(),
+                    minAge == null || (other.minAge() != null && other.minAge() < minAge)
+                            ? other.minAge()
+                            : minAge,
+                    maxAge == null || (other.maxAge() != null && other.maxAge() > maxAge)
+                            ? other.maxAge()
+                            : maxAge,
+                    sumAge + other.sumAge(),
+                    buckets);
+        }
+    }
+
+    /** Inclusive age range, in days, used to bucket tickets in the aging chart. */
+    private record AgeBucket(String label, long minDays, Long maxDays) {
+
+        Predicate matches(CriteriaBuilder cb, Expression<Long> age) {
+            return maxDays == null
+                    ? cb.greaterThanOrEqualTo(age, minDays)
+                    : cb.between(age, minDays, maxDays);
+        }
+    }
+
+    private QueryDTO getTicketsForAgingReport(
             String projectId,
             String iterationId,
             List<String> status,
@@ -269,51 +494,55 @@ public class TicketAgingReportService {
         filter.setLogicalOperator(LogicalOperator.AND);
         filter.setFilters(filters);
         queryDTO.setGroups(List.of(filter));
-        return createSpecification(queryDTO);
+        return queryDTO;
     }
 
-    @Cacheable(value = "ticketThroughputReports", key = "#query")
     @Transactional(readOnly = true)
     public TicketThroughputReportDTO getThroughputReport(TicketThroughputQueryDTO query) {
         TicketThroughputQueryDTO normalizedQuery = normalizeThroughputQuery(query);
-        List<Ticket> completedTickets =
-                ticketRepository.findAll(getTicketsForThroughputReport(normalizedQuery));
+        List<TicketDailyRollup> completedRollups =
+                rollupRepository.findAll(getRollupsForThroughputReport(normalizedQuery));
 
         Map<String, Long> trendByPeriod =
-                completedTickets.stream()
+                completedRollups.stream()
                         .collect(
                                 Collectors.groupingBy(
-                                        ticket -> resolvePeriod(ticket, normalizedQuery),
+                                        rollup -> resolvePeriod(rollup, normalizedQuery),
                                         TreeMap::new,
-                                        Collectors.counting()));
+                                        Collectors.summingLong(TicketDailyRollup::getTicketCount)));
 
         Map<String, Map<String, Long>> tableCounts =
-                completedTickets.stream()
+                completedRollups.stream()
                         .collect(
                                 Collectors.groupingBy(
-                                        ticket -> resolvePeriod(ticket, normalizedQuery),
+                                        rollup -> resolvePeriod(rollup, normalizedQuery),
                                         TreeMap::new,
                                         Collectors.groupingBy(
-                                                ticket -> resolveGroup(ticket, normalizedQuery),
+                                                rollup -> resolveGroup(rollup, normalizedQuery),
                                                 TreeMap::new,
-                                                Collectors.counting())));
+                                                Collectors.summingLong(
+                                                        TicketDailyRollup::getTicketCount))));
 
         List<TicketThroughputBucketDTO> tableRows = new ArrayList<>();
         tableCounts.forEach(
                 (period, groupMap) ->
                         groupMap.forEach(
-                                (group, count) ->
+                                (group, count) -> {
+                                    if (count > 0) {
                                         tableRows.add(
                                                 new TicketThroughputBucketDTO(
-                                                        period, group, count))));
+                                                        period, group, count));
+                                    }
+                                }));
 
         TicketThroughputReportDTO report = new TicketThroughputReportDTO();
-        report.setTotalTicketsCompleted(completedTickets.size());
-        report.setAverageWeeklyThroughput(calculateAverageWeeklyThroughput(completedTickets));
-        report.setPeakWeekThroughput(calculatePeakWeekThroughput(completedTickets));
-        report.setCurrentIterationThroughput(calculateCurrentIterationThroughput(completedTickets));
+        report.setTotalTicketsCompleted(sumTicketCounts(completedRollups));
+        report.setAverageWeeklyThroughput(calculateAverageWeeklyThroughput(completedRollups));
+        report.setPeakWeekThroughput(calculatePeakWeekThroughput(completedRollups));
+        report.setCurrentIterationThroughput(calculateCurrentIterationThroughput(completedRollups));
         report.setTrend(
                 trendByPeriod.entrySet().stream()
+                        .filter(entry -> entry.getValue() > 0)
                         .map(
                                 entry ->
                                         new TicketThroughputBucketDTO(
@@ -540,19 +769,19 @@ public class TicketAgingReportService {
         return (status == null || status.isEmpty()) ? DEFAULT_COMPLETED_STATUS_ALIASES : status;
     }
 
-    private Specification<Ticket> getTicketsForThroughputReport(TicketThroughputQueryDTO query) {
+    private Specification<TicketDailyRollup> getRollupsForThroughputReport(
+            TicketThroughputQueryDTO query) {
         List<Filter> filters = new ArrayList<>();
-        filters.add(new Filter("project.id", FilterOperator.EQ, query.getProjectId()));
-        filters.add(new Filter("isDeleted", FilterOperator.EQ, false));
+        filters.add(new Filter("projectId", FilterOperator.EQ, query.getProjectId()));
         filters.add(new Filter("isCompleted", FilterOperator.EQ, true));
 
         if (query.getFrom() != null) {
             LocalDate fromDate = LocalDate.ofInstant(query.getFrom(), ZoneOffset.UTC);
-            filters.add(new Filter("actualCompletionDate", FilterOperator.GTE, fromDate));
+            filters.add(new Filter("bucketDate", FilterOperator.GTE, fromDate));
         }
         if (query.getTo() != null) {
             LocalDate toDate = LocalDate.ofInstant(query.getTo(), ZoneOffset.UTC);
-            filters.add(new Filter("actualCompletionDate", FilterOperator.LTE, toDate));
+            filters.add(new Filter("bucketDate", FilterOperator.LTE, toDate));
         }
 
         addInFilterIfNotEmpty(filters, "priority", query.getPriorities());
@@ -564,7 +793,7 @@ public class TicketAgingReportService {
         addInFilterIfNotEmpty(filters, "assignUser.id", query.getAssigneeId());
 
         if (shouldFilterCurrentState(query.getStatus())) {
-            filters.add(new Filter("currentState.stateName", FilterOperator.IN, query.getStatus()));
+            filters.add(new Filter("state.stateName", FilterOperator.IN, query.getStatus()));
         }
 
         QueryDTO queryDTO = new QueryDTO();
@@ -587,19 +816,19 @@ public class TicketAgingReportService {
                 && !new HashSet<>(DEFAULT_COMPLETED_STATUS_ALIASES).containsAll(status);
     }
 
-    private String resolvePeriod(Ticket ticket, TicketThroughputQueryDTO query) {
+    private String resolvePeriod(TicketDailyRollup rollup, TicketThroughputQueryDTO query) {
         return switch (query.getGranularity()) {
-            case iteration -> resolveIterationPeriod(ticket);
-            case month -> YearMonth.from(ticket.getActualCompletionDate()).toString();
-            case week -> resolveWeekPeriod(ticket.getActualCompletionDate());
+            case iteration -> resolveIterationPeriod(rollup);
+            case month -> YearMonth.from(rollup.getBucketDate()).toString();
+            case week -> resolveWeekPeriod(rollup.getBucketDate());
         };
     }
 
-    private String resolveIterationPeriod(Ticket ticket) {
-        if (ticket.getIteration() == null) {
+    private String resolveIterationPeriod(TicketDailyRollup rollup) {
+        if (rollup.getIteration() == null) {
             return "No iteration";
         }
-        return ticket.getIteration().getName();
+        return rollup.getIteration().getName();
     }
 
     private String resolveWeekPeriod(LocalDate date) {
@@ -609,58 +838,63 @@ public class TicketAgingReportService {
         return String.format("%d-W%02d", year, week);
     }
 
-    private String resolveGroup(Ticket ticket, TicketThroughputQueryDTO query) {
+    private String resolveGroup(TicketDailyRollup rollup, TicketThroughputQueryDTO query) {
         return switch (query.getGroupBy()) {
-            case assignee -> resolveAssigneeGroup(ticket);
+            case assignee -> resolveAssigneeGroup(rollup);
             case priority ->
-                    Optional.ofNullable(ticket.getPriority())
+                    Optional.ofNullable(rollup.getPriority())
                             .map(TicketPriority::name)
                             .orElse("None");
             case none -> "All";
         };
     }
 
-    private String resolveAssigneeGroup(Ticket ticket) {
-        if (ticket.getAssignUser() == null) {
+    private String resolveAssigneeGroup(TicketDailyRollup rollup) {
+        if (rollup.getAssignUser() == null) {
             return "Unassigned";
         }
-        return (ticket.getAssignUser().getFirstName() + " " + ticket.getAssignUser().getLastName())
+        return (rollup.getAssignUser().getFirstName() + " " + rollup.getAssignUser().getLastName())
                 .trim();
     }
 
-    private double calculateAverageWeeklyThroughput(List<Ticket> tickets) {
-        if (tickets.isEmpty()) {
-            return 0;
-        }
-        Map<String, Long> weeklyCounts = groupByCompletedWeek(tickets);
+    private long sumTicketCounts(List<TicketDailyRollup> rollups) {
+        return rollups.stream().mapToLong(TicketDailyRollup::getTicketCount).sum();
+    }
+
+    private double calculateAverageWeeklyThroughput(List<TicketDailyRollup> rollups) {
+        Map<String, Long> weeklyCounts = groupByCompletedWeek(rollups);
         return weeklyCounts.values().stream().mapToLong(Long::longValue).average().orElse(0);
     }
 
-    private long calculatePeakWeekThroughput(List<Ticket> tickets) {
-        return groupByCompletedWeek(tickets).values().stream()
+    private long calculatePeakWeekThroughput(List<TicketDailyRollup> rollups) {
+        return groupByCompletedWeek(rollups).values().stream()
                 .mapToLong(Long::longValue)
                 .max()
                 .orElse(0);
     }
 
-    private long calculateCurrentIterationThroughput(List<Ticket> tickets) {
+    private long calculateCurrentIterationThroughput(List<TicketDailyRollup> rollups) {
         Instant now = Instant.now();
-        return tickets.stream()
-                .filter(ticket -> ticket.getIteration() != null)
+        return rollups.stream()
+                .filter(rollup -> rollup.getIteration() != null)
                 .filter(
-                        ticket ->
-                                !ticket.getIteration().getStartDate().isAfter(now)
-                                        && !ticket.getIteration().getEndDate().isBefore(now))
-                .count();
+                        rollup ->
+                                !rollup.getIteration().getStartDate().isAfter(now)
+                                        && !rollup.getIteration().getEndDate().isBefore(now))
+                .mapToLong(TicketDailyRollup::getTicketCount)
+                .sum();
     }
 
-    private Map<String, Long> groupByCompletedWeek(List<Ticket> tickets) {
-        return tickets.stream()
-                .filter(ticket -> ticket.getActualCompletionDate() != null)
-                .collect(
-                        Collectors.groupingBy(
-                                ticket -> resolveWeekPeriod(ticket.getActualCompletionDate()),
-                                Collectors.counting()));
+    private Map<String, Long> groupByCompletedWeek(List<TicketDailyRollup> rollups) {
+        Map<String, Long> weeklyCounts =
+                rollups.stream()
+                        .filter(rollup -> rollup.getBucketDate() != null)
+                        .collect(
+                                Collectors.groupingBy(
+                                        rollup -> resolveWeekPeriod(rollup.getBucketDate()),
+                                        Collectors.summingLong(TicketDailyRollup::getTicketCount)));
+        weeklyCounts.values().removeIf(count -> count == 0);
+        return weeklyCounts;
     }
 
     private String escapeCsv(String value) {
@@ -681,10 +915,10 @@ public class TicketAgingReportService {
         LocalDate start = iteration.getStartDate().atZone(ZoneOffset.UTC).toLocalDate();
         LocalDate end = iteration.getEndDate().atZone(ZoneOffset.UTC).toLocalDate();
 
-        List<Ticket> tickets = ticketRepository.findAll(buildIterationSpec(params.getProjectId(), params.getIterationId()));
+        List<TicketDailyRollup> rollups = rollupRepository.findAll(buildIterationSpec(params.getProjectId(), params.getIterationId()));
         boolean usePoints = "story_points".equalsIgnoreCase(params.getMeasure());
 
-        double plannedWork = calculatePlannedWork(tickets, usePoints);
+        double plannedWork = calculatePlannedWork(rollups, usePoints);
         long totalDays = ChronoUnit.DAYS.between(start, end) + 1;
 
         LocalDate today = LocalDate.now(ZoneOffset.UTC);
@@ -693,7 +927,7 @@ public class TicketAgingReportService {
             last = start;
         }
 
-        List<BurndownDayDTO> days = calculateDailyBurndown(start, end, last, tickets, plannedWork, usePoints, totalDays);
+        List<BurndownDayDTO> days = calculateDailyBurndown(start, end, last, rollups, plannedWork, usePoints, totalDays);
 
         double remainingWork = plannedWork;
         double completedWork = 0.0;
@@ -719,17 +953,17 @@ public class TicketAgingReportService {
                 .build();
     }
 
-    private double calculatePlannedWork(List<Ticket> tickets, boolean usePoints) {
+    private double calculatePlannedWork(List<TicketDailyRollup> rollups, boolean usePoints) {
         double plannedWork = 0.0;
-        for (Ticket ticket : tickets) {
-            plannedWork += getTicketWeight(ticket, usePoints);
+        for (TicketDailyRollup rollup : rollups) {
+            plannedWork += getRollupWeight(rollup, usePoints);
         }
         return plannedWork;
     }
 
     private List<BurndownDayDTO> calculateDailyBurndown(
             LocalDate start, LocalDate end, LocalDate last,
-            List<Ticket> tickets, double plannedWork, boolean usePoints, long totalDays) {
+            List<TicketDailyRollup> rollups, double plannedWork, boolean usePoints, long totalDays) {
 
         List<BurndownDayDTO> days = new ArrayList<>();
         for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
@@ -740,8 +974,8 @@ public class TicketAgingReportService {
             Double completedValueForDay = null;
 
             if (!date.isAfter(last)) {
-                completedValueForDay = calculateCompletedOnDate(tickets, date, usePoints);
-                double completedSoFar = calculateCompletedSoFar(tickets, date, usePoints);
+                completedValueForDay = calculateCompletedOnDate(rollups, date, usePoints);
+                double completedSoFar = calculateCompletedSoFar(rollups, date, usePoints);
                 remainingValueForDay = Math.max(0.0, plannedWork - completedSoFar);
             }
 
@@ -762,36 +996,36 @@ public class TicketAgingReportService {
         return plannedWork - (dayIndex * (plannedWork / (double) (totalDays - 1)));
     }
 
-    private double calculateCompletedOnDate(List<Ticket> tickets, LocalDate date, boolean usePoints) {
+    private double calculateCompletedOnDate(List<TicketDailyRollup> rollups, LocalDate date, boolean usePoints) {
         double completed = 0.0;
-        for (Ticket ticket : tickets) {
-            if (isCompletedOn(ticket, date)) {
-                completed += getTicketWeight(ticket, usePoints);
+        for (TicketDailyRollup rollup : rollups) {
+            if (isCompletedOn(rollup, date)) {
+                completed += getRollupWeight(rollup, usePoints);
             }
         }
         return completed;
     }
 
-    private double calculateCompletedSoFar(List<Ticket> tickets, LocalDate date, boolean usePoints) {
+    private double calculateCompletedSoFar(List<TicketDailyRollup> rollups, LocalDate date, boolean usePoints) {
         double completed = 0.0;
-        for (Ticket ticket : tickets) {
-            if (isCompletedBeforeOrOn(ticket, date)) {
-                completed += getTicketWeight(ticket, usePoints);
+        for (TicketDailyRollup rollup : rollups) {
+            if (isCompletedBeforeOrOn(rollup, date)) {
+                completed += getRollupWeight(rollup, usePoints);
             }
         }
         return completed;
     }
 
-    private boolean isCompletedOn(Ticket ticket, LocalDate date) {
-        return ticket.getIsCompleted() != null && ticket.getIsCompleted() 
-                && ticket.getActualCompletionDate() != null 
-                && ticket.getActualCompletionDate().equals(date);
+    private boolean isCompletedOn(TicketDailyRollup rollup, LocalDate date) {
+        return Boolean.TRUE.equals(rollup.getIsCompleted())
+                && rollup.getBucketDate() != null
+                && rollup.getBucketDate().equals(date);
     }
 
-    private boolean isCompletedBeforeOrOn(Ticket ticket, LocalDate date) {
-        return ticket.getIsCompleted() != null && ticket.getIsCompleted() 
-                && ticket.getActualCompletionDate() != null 
-                && !ticket.getActualCompletionDate().isAfter(date);
+    private boolean isCompletedBeforeOrOn(TicketDailyRollup rollup, LocalDate date) {
+        return Boolean.TRUE.equals(rollup.getIsCompleted())
+                && rollup.getBucketDate() != null
+                && !rollup.getBucketDate().isAfter(date);
     }
 
     private BurndownProjectedStatus resolveProjectedStatus(
@@ -811,18 +1045,14 @@ public class TicketAgingReportService {
         return BurndownProjectedStatus.ON_TRACK;
     }
 
-    private double getTicketWeight(Ticket ticket, boolean usePoints) {
-        if (usePoints) {
-            return ticket.getEstimate() != null ? ticket.getEstimate().doubleValue() : 0.0;
-        }
-        return 1.0;
+    private double getRollupWeight(TicketDailyRollup rollup, boolean usePoints) {
+        return usePoints ? rollup.getEstimateSum() : rollup.getTicketCount();
     }
 
-    private Specification<Ticket> buildIterationSpec(Long projectId, Long iterationId) {
+    private Specification<TicketDailyRollup> buildIterationSpec(Long projectId, Long iterationId) {
         List<Filter> filters = new ArrayList<>();
-        filters.add(new Filter("project.id", FilterOperator.EQ, projectId));
+        filters.add(new Filter("projectId", FilterOperator.EQ, projectId));
         filters.add(new Filter("iteration.id", FilterOperator.EQ, iterationId));
-        filters.add(new Filter("isDeleted", FilterOperator.EQ, false));
 
         QueryDTO queryDTO = new QueryDTO();
         GroupFilter groupFilter = new GroupFilter();
@@ -0,0 +1,295 @@
+package io.flowinquiry.modules.teams.service;
+
+import static io.flowinquiry.modules.teams.domain.WorkflowTransitionHistoryStatus.COMPLETED;
+import static io.flowinquiry.modules.teams.domain.WorkflowTransitionHistoryStatus.IN_PROGRESS;
+
+import io.flowinquiry.exceptions.ResourceNotFoundException;
+import io.flowinquiry.modules.audit.service.event.AuditLogBatchUpdateEvent;
+import io.flowinquiry.modules.teams.domain.ProjectEpic;
+import io.flowinquiry.modules.teams.domain.ProjectIteration;
+import io.flowinquiry.modules.teams.domain.Ticket;
+import io.flowinquiry.modules.teams.domain.WorkflowState;
+import io.flowinquiry.modules.teams.repository.TicketRepository;
+import io.flowinquiry.modules.teams.service.WorkflowTransitionTable.Transition;
+import io.flowinquiry.modules.teams.service.dto.TicketBulkUpdateDTO;
+import io.flowinquiry.modules.teams.service.dto.TicketDTO;
+import io.flowinquiry.modules.teams.service.event.TicketsBulkUpdatedEvent;
+import io.flowinquiry.modules.usermanagement.domain.User;
+import io.flowinquiry.modules.usermanagement.service.dto.UserKey;
+import io.flowinquiry.security.SecurityUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Applies the same change to many tickets at once: moves them to a state, reassigns them, or
+ * changes their iteration, epic or priority. State moves are checked against the cached {@link
+ * WorkflowTransitionTable}, the tickets are changed with one {@code UPDATE} per kind of change, and
+ * the transition history is written with one JDBC batch. Side effects are published as one {@link
+ * TicketsBulkUpdatedEvent} and one {@link AuditLogBatchUpdateEvent} for the whole batch.
+ */
+@Service
+@Transactional
+public class TicketBulkService {
+
+    static final int MAX_TICKETS = 500;
+
+    private static final String INSERT_TRANSITION =
+            "INSERT INTO fw_workflow_transition_history (ticket_id, from_state_id, to_state_id,"
+                    + " event_name, transition_date, sla_due_date, status, tenant_id) SELECT t.id,"
+                    + " ?, ?, ?, ?, ?, ?, t.tenant_id FROM fw_ticket t WHERE t.id = ?";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    private final TicketRepository ticketRepository;
+    private final TicketSearchService ticketSearchService;
+    private final TicketRollupService ticketRollupService;
+    private final WorkflowTransitionTable workflowTransitionTable;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TicketBulkService(
+            TicketRepository ticketRepository,
+            TicketSearchService ticketSearchService,
+            TicketRollupService ticketRollupService,
+            WorkflowTransitionTable workflowTransitionTable,
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher) {
+        this.ticketRepository = ticketRepository;
+        this.ticketSearchService = ticketSearchService;
+        this.ticketRollupService = ticketRollupService;
+        this.workflowTransitionTable = workflowTransitionTable;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Applies the changes to every ticket, or to none of them when a ticket is missing or cannot
+     * move to the requested state.
+     *
+     * @return the updated tickets, ordered by id
+     */
+    public List<TicketDTO> updateTickets(TicketBulkUpdateDTO changes) {
+        Set<Long> ticketIds = new LinkedHashSet<>(changes.getTicketIds());
+        if (ticketIds.isEmpty() || ticketIds.size() > MAX_TICKETS) {
+            throw new IllegalArgumentException(
+                    "Between 1 and " + MAX_TICKETS + " tickets can be updated at once");
+        }
+        boolean changesColumns =
+                changes.getAssignUserId() != null
+                        || changes.getIterationId() != null
+                        || changes.getEpicId() != null
+                        || changes.getPriority() != null;
+        if (!changesColumns && changes.getCurrentStateId() == null) {
+            throw new IllegalArgumentException("No change requested");
+        }
+
+        List<TicketDTO> previousTickets = ticketSearchService.findTicketsById(ticketIds);
+        if (previousTickets.size() < ticketIds.size()) {
+            previousTickets.forEach(ticket -> ticketIds.remove(ticket.getId()));
+            throw new ResourceNotFoundException("Tickets not found: " + ticketIds);
+        }
+        Map<Long, Transition> moves = findMoves(previousTickets, changes.getCurrentStateId());
+
+        Instant now = Instant.now();
+        Long modifiedBy = SecurityUtils.getCurrentUserLogin().map(UserKey::getId).orElse(null);
+        entityManager.flush();
+        ticketRollupService.onTicketsUpdating(ticketIds);
+        if (changesColumns) {
+            updateColumns(ticketIds, changes, now, modifiedBy);
+        }
+        if (!moves.isEmpty()) {
+            Transition anyMove = moves.values().iterator().next();
+            updateState(
+                    moves.keySet(),
+                    anyMove.targetStateId(),
+                    anyMove.targetFinal(),
+                    now,
+                    modifiedBy);
+        }
+        ticketRollupService.onTicketsUpdated(ticketIds);
+        if (changes.getAssignUserId() != null) {
+            ticketRepository.addWatcherToTickets(ticketIds, changes.getAssignUserId(), modifiedBy);
+        }
+        Map<Long, Instant> slaDueDates = recordTransitions(moves, now);
+        entityManager.clear();
+
+        List<TicketDTO> updatedTickets = ticketSearchService.findTicketsById(ticketIds);
+        eventPublisher.publishEvent(
+                new AuditLogBatchUpdateEvent(this, previousTickets, updatedTickets));
+        eventPublisher.publishEvent(
+                new TicketsBulkUpdatedEvent(
+                        this, previousTickets, updatedTickets, modifiedBy, slaDueDates));
+        return updatedTickets;
+    }
+
+    /** The transition of every ticket that changes state, failing if one of them cannot. */
+    private Map<Long, Transition> findMoves(List<TicketDTO> tickets, Long targetStateId) {
+        Map<Long, Transition> moves = new LinkedHashMap<>();
+        if (targetStateId == null) {
+            return moves;
+        }
+        List<Long> refused = new ArrayList<>();
+        for (TicketDTO ticket : tickets) {
+            if (Objects.equals(ticket.getCurrentStateId(), targetStateId)) {
+                continue;
+            }
+            Transition transition =
+                    workflowTransitionTable.find(
+                            ticket.getWorkflowId(), ticket.getCurrentStateId(), targetStateId);
+            if (transition == null) {
+                refused.add(ticket.getId());
+            } else {
+                moves.put(ticket.getId(), transition);
+            }
+        }
+        if (!refused.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Tickets " + refused + " cannot move to state " + targetStateId);
+        }
+        return moves;
+    }
+
+    private void updateColumns(
+            Collection<Long> ticketIds, TicketBulkUpdateDTO changes, Instant now, Long modifiedBy) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Ticket> update = cb.createCriteriaUpdate(Ticket.class);
+        Root<Ticket> root = update.from(Ticket.class);
+        if (changes.getAssignUserId() != null) {
+            update.set(
+                    root.<User>get("assignUser"),
+                    entityManager.getReference(User.class, changes.getAssignUserId()));
+        }
+        if (changes.getIterationId() != null) {
+            update.set(
+                    root.<ProjectIteration>get("iteration"),
+                    entityManager.getReference(ProjectIteration.class, changes.getIterationId()));
+        }
+        if (changes.getEpicId() != null) {
+            update.set(
+                    root.<ProjectEpic>get("epic"),
+                    entityManager.getReference(ProjectEpic.class, changes.getEpicId()));
+        }
+        if (changes.getPriority() != null) {
+            update.set(root.get("priority"), changes.getPriority());
+        }
+        execute(update, root, ticketIds, now, modifiedBy);
+    }
+
+    /** Moves the tickets to the state, completing them when it is final. */
+    private void updateState(
+            Collection<Long> ticketIds,
+            Long targetStateId,
+            boolean finalState,
+            Instant now,
+            Long modifiedBy) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Ticket> update = cb.createCriteriaUpdate(Ticket.class);
+        Root<Ticket> root = update.from(Ticket.class);
+        update.set(
+                root.<WorkflowState>get("currentState"),
+                entityManager.getReference(WorkflowState.class, targetStateId));
+        update.set(root.get("isNew"), false);
+        update.set(root.get("isCompleted"), finalState);
+        if (finalState) {
+            update.set(
+                    root.<LocalDate>get("actualCompletionDate"),
+                    cb.coalesce(root.<LocalDate>get("actualCompletionDate"), LocalDate.now()));
+        }
+        execute(update, root, ticketIds, now, modifiedBy);
+    }
+
+    private void execute(
+            CriteriaUpdate<Ticket> update,
+            Root<Ticket> root,
+            Collection<Long> ticketIds,
+            Instant now,
+            Long modifiedBy) {
+        update.set(root.get("modifiedAt"), now);
+        if (modifiedBy != null) {
+            update.set(root.get("modifiedBy"), modifiedBy);
+        }
+        update.where(root.get("id").in(ticketIds));
+        entityManager.createQuery(update).executeUpdate();
+    }
+
+    /**
+     * Writes the history of the moves in one JDBC batch.
+     *
+     * @return the SLA due dates of the transitions left in progress, by transition id
+     */
+    private Map<Long, Instant> recordTransitions(Map<Long, Transition> moves, Instant now) {
+        if (moves.isEmpty()) {
+            return Map.of();
+        }
+        List<Map.Entry<Long, Transition>> rows = new ArrayList<>(moves.entrySet());
+        List<Instant> slaDueDates =
+                rows.stream()
+                        .map(Map.Entry::getValue)
+                        .map(
+                                transition ->
+                                        transition.slaDuration() != null
+                                                        && transition.slaDuration() > 0
+                                                ? now.plus(
+                                                        transition.slaDuration(), ChronoUnit.HOURS)
+                                                : null)
+                        .toList();
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_TRANSITION, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Transition transition = rows.get(i).getValue();
+                        ps.setLong(1, transition.sourceStateId());
+                        ps.setLong(2, transition.targetStateId());
+                        ps.setString(3, transition.eventName());
+                        ps.setTimestamp(4, Timestamp.from(now));
+                        Instant slaDueDate = slaDueDates.get(i);
+                        ps.setTimestamp(5, slaDueDate != null ? Timestamp.from(slaDueDate) : null);
+                        ps.setString(
+                                6, (transition.targetFinal() ? COMPLETED : IN_PROGRESS).name());
+                        ps.setLong(7, rows.get(i).getKey());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keys);
+
+        Map<Long, Instant> scheduled = new LinkedHashMap<>();
+        List<Map<String, Object>> ids = keys.getKeyList();
+        for (int i = 0; i < rows.size(); i++) {
+            if (slaDueDates.get(i) != null && !rows.get(i).getValue().targetFinal()) {
+                scheduled.put(((Number) ids.get(i).get("id")).longValue(), slaDueDates.get(i));
+            }
+        }
+        return scheduled;
+    }
+}
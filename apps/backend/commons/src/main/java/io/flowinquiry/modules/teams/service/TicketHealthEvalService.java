@@ -2,30 +2,154 @@ package io.flowinquiry.modules.teams.service;
 
 import static io.flowinquiry.utils.StringUtils.polishedHtmlTagsMessage;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.flowinquiry.config.FlowInquiryProperties;
 import io.flowinquiry.modules.ai.service.ChatModelService;
 import io.flowinquiry.modules.teams.domain.Ticket;
 import io.flowinquiry.modules.teams.domain.TicketConversationHealth;
 import io.flowinquiry.modules.teams.repository.TicketConversationHealthRepository;
+import io.flowinquiry.modules.teams.service.dto.TicketDTO;
+import io.flowinquiry.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
 
+/**
+ * Scores the health of ticket conversations with the chat model on the AI executor, away from the
+ * request threads and the database-bound async executor. Messages submitted for the same ticket
+ * within the coalesce window are evaluated together, with a single chat model call that returns the
+ * sentiment, question and resolution signals of every message. Signals are cached by message hash,
+ * so repeated messages cost no call. When too many tickets are waiting, new messages are dropped
+ * and counted.
+ */
 @Service
 @ConditionalOnBean(ChatModelService.class)
 @Slf4j
 public class TicketHealthEvalService {
 
+    private static final String SIGNALS_PROMPT =
+            """
+            For each of the following messages of a support conversation, evaluate:
+            - sentiment: a score between 0 and 1
+            - question: whether the message is a question
+            - resolved: whether the message indicates that the issue has been resolved
+            Respond with only a JSON array holding one object per message, in the same order, \
+            such as [{"sentiment": 0.8, "question": false, "resolved": true}].
+            """;
+
     private final TicketConversationHealthRepository ticketConversationHealthRepository;
     private final ChatModelService chatModelService;
+    private final TicketService ticketService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskScheduler timer;
+    private final TaskExecutor evaluator;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long coalesceMillis;
+    private final int maxPendingTickets;
+    private final int maxMessagesPerCall;
+
+    /** Messages waiting out the coalesce window, by ticket. */
+    private final Map<TicketKey, List<PendingMessage>> pending = new ConcurrentHashMap<>();
+
+    /** Signals of evaluated messages, by message hash. */
+    private final Cache<String, MessageSignals> signals;
+
+    private final Counter coalescedCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Timer evaluationTimer;
 
     public TicketHealthEvalService(
             ChatModelService chatModelService,
-            TicketConversationHealthRepository ticketConversationHealthRepository) {
+            TicketConversationHealthRepository ticketConversationHealthRepository,
+            TicketService ticketService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            FlowInquiryProperties flowInquiryProperties,
+            @Qualifier("aiTaskExecutor") TaskExecutor evaluator) {
+        FlowInquiryProperties.HealthEvaluation properties =
+                flowInquiryProperties.getHealthEvaluation();
         this.chatModelService = chatModelService;
         this.ticketConversationHealthRepository = ticketConversationHealthRepository;
+        this.ticketService = ticketService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.coalesceMillis = properties.getCoalesceMillis();
+        this.maxPendingTickets = properties.getMaxPendingTickets();
+        this.maxMessagesPerCall = properties.getMaxMessagesPerCall();
+        this.signals = Caffeine.newBuilder().maximumSize(properties.getCacheSize()).build();
+
+        this.evaluator = evaluator;
+        // Only hands the due tickets over to the AI executor, evaluations run there
+        this.timer = new ThreadPoolTaskScheduler();
+        timer.setThreadNamePrefix("health-eval-");
+        timer.setDaemon(true);
+        timer.initialize();
+
+        Gauge.builder("flowinquiry.health_eval.pending", pending, Map::size)
+                .description("Tickets waiting for their conversation health to be evaluated")
+                .register(meterRegistry);
+        this.coalescedCounter =
+                Counter.builder("flowinquiry.health_eval.coalesced")
+                        .description("Messages evaluated together with an earlier one")
+                        .register(meterRegistry);
+        this.droppedCounter =
+                Counter.builder("flowinquiry.health_eval.dropped")
+                        .description("Messages not evaluated because too many tickets waited")
+                        .register(meterRegistry);
+        this.failedCounter =
+                Counter.builder("flowinquiry.health_eval.failed")
+                        .description("Messages whose evaluation failed")
+                        .register(meterRegistry);
+        this.cacheHits = cacheCounter(meterRegistry, "hit");
+        this.cacheMisses = cacheCounter(meterRegistry, "miss");
+        this.evaluationTimer =
+                Timer.builder("flowinquiry.health_eval.evaluation")
+                        .description("Time taken to evaluate the pending messages of a ticket")
+                        .register(meterRegistry);
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("flowinquiry.health_eval.cache")
+                .description("Message evaluations by whether they were cached")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        timer.shutdown();
     }
 
     public String summarizeTicket(String description) {
@@ -33,57 +157,182 @@ public class TicketHealthEvalService {
     }
 
     /**
-     * Evaluates the conversation health incrementally by updating metrics.
+     * Queues a message of a ticket conversation for evaluation in the current tenant. Returns
+     * immediately; the conversation health is updated once the coalesce window has passed.
+     *
+     * @param ticketId The ID of the ticket.
+     * @param message The new message in the conversation.
+     * @param authorId The user who wrote the message; messages of the requester weigh more.
+     */
+    public void submit(Long ticketId, String message, Long authorId) {
+        UUID tenantId =
+                TenantContext.getTenantId()
+                        .orElseThrow(() -> new IllegalStateException("tenantId is null"));
+        TicketKey key = new TicketKey(tenantId, ticketId);
+        PendingMessage pendingMessage = new PendingMessage(message, authorId);
+        boolean[] first = new boolean[1];
+        List<PendingMessage> messages =
+                pending.compute(
+                        key,
+                        (k, queued) -> {
+                            if (queued == null) {
+                                if (pending.size() >= maxPendingTickets) {
+                                    return null;
+                                }
+                                first[0] = true;
+                                queued = new ArrayList<>();
+                            }
+                            queued.add(pendingMessage);
+                            return queued;
+                        });
+
+        if (messages == null) {
+            droppedCounter.increment();
+            log.warn("Too many tickets waiting for evaluation, skipping message on {}", ticketId);
+        } else if (first[0]) {
+            timer.schedule(() -> dispatch(key), Instant.now().plusMillis(coalesceMillis));
+        } else {
+            coalescedCounter.increment();
+        }
+    }
+
+    private void dispatch(TicketKey key) {
+        try {
+            evaluator.execute(() -> evaluate(key));
+        } catch (TaskRejectedException e) {
+            List<PendingMessage> messages = pending.remove(key);
+            if (messages != null) {
+                droppedCounter.increment(messages.size());
+                log.warn("AI executor is saturated, skipping ticket {}", key.ticketId());
+            }
+        }
+    }
+
+    private void evaluate(TicketKey key) {
+        List<PendingMessage> messages = pending.remove(key);
+        if (messages == null) {
+            return;
+        }
+        // Failures are counted within the timed block, so a recorded evaluation is fully accounted
+        evaluationTimer.record(
+                () -> {
+                    try {
+                        TenantContext.runWithTenant(
+                                key.tenantId(),
+                                () -> evaluateConversationHealth(key.ticketId(), messages));
+                    } catch (RuntimeException e) {
+                        failedCounter.increment(messages.size());
+                        log.error(
+                                "Failed to evaluate {} messages of ticket {}",
+                                messages.size(),
+                                key.ticketId(),
+                                e);
+                    }
+                });
+    }
+
+    /**
+     * Evaluates the conversation health incrementally by updating metrics, one message after the
+     * other.
      *
      * @param ticketId The ID of the ticket.
-     * @param newMessage The new message in the conversation.
+     * @param messages The new messages in the conversation, oldest first.
      */
-    @Transactional
-    public void evaluateConversationHealth(
-            Long ticketId, String newMessage, boolean isCustomerResponse) {
-
-        String polishedMessage = polishedHtmlTagsMessage(newMessage);
-
-        // Retrieve existing health record or create a new one
-        TicketConversationHealth health =
-                ticketConversationHealthRepository
-                        .findByTicketId(ticketId)
-                        .orElseGet(() -> createNewConversationHealth(ticketId, polishedMessage));
-
-        // Step 1: Evaluate sentiment of the new message
-        float sentimentScore = evaluateSentiment(polishedMessage);
-        log.debug("Message '{}' has sentiment score: {}", polishedMessage, sentimentScore);
-
-        // Step 2: Check if the message resolves an issue (only for customer responses)
-        boolean resolvesIssue = isCustomerResponse && determineIfResolved(polishedMessage);
-        log.debug(
-                "Message '{}' resolved: {}, Customer response: {}",
-                polishedMessage,
-                resolvesIssue,
-                isCustomerResponse);
-
-        // Step 3: Increment total messages
+    private void evaluateConversationHealth(Long ticketId, List<PendingMessage> messages) {
+        TicketDTO ticket = ticketService.getTicketById(ticketId);
+        List<String> polishedMessages =
+                messages.stream()
+                        .map(message -> polishedHtmlTagsMessage(message.content()))
+                        .toList();
+        List<MessageSignals> messageSignals = signalsOf(polishedMessages);
+
+        // Summarize outside the transaction, it is the slowest part
+        String firstMessage = polishedMessages.getFirst();
+        String summary =
+                ticketConversationHealthRepository.findByTicketId(ticketId).isPresent()
+                        ? null
+                        : generateSummary(firstMessage);
+        Long requesterId = ticket.getRequestUserId();
+        if (!applyMessages(
+                ticketId, requesterId, messages, polishedMessages, messageSignals, summary)) {
+            // The record was removed since it was looked up, so summarize and create it now
+            applyMessages(
+                    ticketId,
+                    requesterId,
+                    messages,
+                    polishedMessages,
+                    messageSignals,
+                    generateSummary(firstMessage));
+        }
+    }
+
+    /**
+     * Applies the messages to the health record of the ticket in one transaction, without calling
+     * the chat model while holding the lock.
+     *
+     * @param summary The summary to create the record with, or null if it is expected to exist.
+     * @return false, with nothing applied, if the record does not exist and no summary was given.
+     */
+    private boolean applyMessages(
+            Long ticketId,
+            Long requesterId,
+            List<PendingMessage> messages,
+            List<String> polishedMessages,
+            List<MessageSignals> messageSignals,
+            String summary) {
+        return Boolean.TRUE.equals(
+                transactionTemplate.execute(
+                        status -> {
+                            Optional<TicketConversationHealth> existing =
+                                    ticketConversationHealthRepository.findByTicketIdForUpdate(
+                                            ticketId);
+                            if (existing.isEmpty() && summary == null) {
+                                return false;
+                            }
+                            TicketConversationHealth health =
+                                    existing.orElseGet(
+                                            () -> createNewConversationHealth(ticketId, summary));
+                            for (int i = 0; i < messages.size(); i++) {
+                                boolean isCustomerResponse =
+                                        Objects.equals(requesterId, messages.get(i).authorId());
+                                log.debug(
+                                        "Message '{}' has signals {}, Customer response: {}",
+                                        polishedMessages.get(i),
+                                        messageSignals.get(i),
+                                        isCustomerResponse);
+                                applyMessage(health, messageSignals.get(i), isCustomerResponse);
+                            }
+                            ticketConversationHealthRepository.save(health);
+                            return true;
+                        }));
+    }
+
+    private void applyMessage(
+            TicketConversationHealth health, MessageSignals signals, boolean isCustomerResponse) {
+        // Step 1: Check if the message resolves an issue (only for customer responses)
+        boolean resolvesIssue = isCustomerResponse && signals.resolved();
+
+        // Step 2: Increment total messages
         health.setTotalMessages(health.getTotalMessages() + 1);
 
-        // Step 4: Check if message is a question
-        boolean isQuestion = isCustomerResponse && isQuestion(polishedMessage);
-        if (isQuestion) {
+        // Step 3: Check if message is a question
+        if (isCustomerResponse && signals.question()) {
             health.setTotalQuestions(health.getTotalQuestions() + 1);
         }
 
-        // Step 5: Increment resolved question count only if the issue is resolved
+        // Step 4: Increment resolved question count only if the issue is resolved
         if (resolvesIssue) {
             health.setResolvedQuestions(health.getResolvedQuestions() + 1);
         }
 
-        // Step 6: Update cumulative sentiment (weighted for customer responses)
+        // Step 5: Update cumulative sentiment (weighted for customer responses)
         float sentimentWeight = isCustomerResponse ? 1.5f : 1.0f;
         health.setCumulativeSentiment(
                 (health.getCumulativeSentiment() * (health.getTotalMessages() - 1)
-                                + sentimentScore * sentimentWeight)
+                                + signals.sentiment() * sentimentWeight)
                         / health.getTotalMessages());
 
-        // Step 7: Compute clarity score, but prevent sudden drops
+        // Step 6: Compute clarity score, but prevent sudden drops
         float clarityRatio =
                 (health.getTotalQuestions() > 0)
                         ? (float) health.getResolvedQuestions() / health.getTotalQuestions()
@@ -94,7 +343,7 @@ public class TicketHealthEvalService {
         float weightedClarityScore =
                 clarityRatio * clarityScalingFactor + (1 - clarityScalingFactor) * 0.5f;
 
-        // Step 8: Compute conversation health
+        // Step 7: Compute conversation health
         health.setConversationHealth(
                 (0.6f * health.getCumulativeSentiment())
                         + // Sentiment contribution
@@ -102,55 +351,82 @@ public class TicketHealthEvalService {
                         + // **Adjusted Clarity Contribution**
                         (0.2f * (resolvesIssue ? 1.0f : 0.0f)) // Resolution contribution
                 );
-
-        // Step 9: Save the updated conversation health record
-        ticketConversationHealthRepository.save(health);
     }
 
-    /** Determines if the message contains a question using AI. */
-    private boolean isQuestion(String message) {
-        String aiPrompt =
-                "Determine if the following message is a question. Respond with 'true' or 'false':\n\nMessage: "
-                        + message;
-        String aiResponse = chatModelService.call(aiPrompt);
-        return Boolean.parseBoolean(aiResponse.trim());
-    }
+    /**
+     * Looks up the signals of each message in the cache, and evaluates the others with as few chat
+     * model calls as {@code maxMessagesPerCall} allows.
+     *
+     * @return The signals of each message, in order.
+     */
+    private List<MessageSignals> signalsOf(List<String> messages) {
+        List<String> hashes = messages.stream().map(TicketHealthEvalService::hash).toList();
+        Map<String, MessageSignals> found = new HashMap<>();
+        // Keyed by hash so that a message repeated within the batch is evaluated once
+        Map<String, String> uncached = new LinkedHashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            String hash = hashes.get(i);
+            MessageSignals cached = signals.getIfPresent(hash);
+            if (cached != null) {
+                cacheHits.increment();
+                found.put(hash, cached);
+            } else {
+                cacheMisses.increment();
+                uncached.putIfAbsent(hash, messages.get(i));
+            }
+        }
 
-    /** Determines if the message resolves the issue. */
-    private boolean determineIfResolved(String message) {
-        String aiPrompt =
-                "Does the following message indicate that the issue has been resolved? Respond with 'true' or 'false':\n\nMessage: "
-                        + message;
-        String aiResponse = chatModelService.call(aiPrompt);
-        return Boolean.parseBoolean(aiResponse.trim());
+        List<String> uncachedHashes = List.copyOf(uncached.keySet());
+        List<String> uncachedMessages = List.copyOf(uncached.values());
+        for (int from = 0; from < uncachedMessages.size(); from += maxMessagesPerCall) {
+            int to = Math.min(from + maxMessagesPerCall, uncachedMessages.size());
+            List<MessageSignals> evaluated = evaluateSignals(uncachedMessages.subList(from, to));
+            for (int i = from; i < to; i++) {
+                signals.put(uncachedHashes.get(i), evaluated.get(i - from));
+                found.put(uncachedHashes.get(i), evaluated.get(i - from));
+            }
+        }
+        return hashes.stream().map(found::get).toList();
     }
 
     /**
-     * Calls OpenAI to evaluate the sentiment of a message.
-     *
-     * @param newMessage The message to evaluate.
-     * @return A sentiment score (0.0 - 1.0).
+     * Calls the chat model once to evaluate the sentiment, question and resolution signals of
+     * several messages.
      */
-    private float evaluateSentiment(String newMessage) {
-        // Use OpenAI to analyze sentiment
+    private List<MessageSignals> evaluateSignals(List<String> messages) {
+        StringBuilder prompt = new StringBuilder(SIGNALS_PROMPT);
+        for (int i = 0; i < messages.size(); i++) {
+            prompt.append("\nMessage ").append(i + 1).append(": ").append(messages.get(i));
+        }
         String response =
                 chatModelService.call(
                         new Prompt(
-                                "Evaluate the sentiment of this message and return a score between 0 and 1. Provide only the number: "
-                                        + newMessage,
+                                prompt.toString(),
                                 OpenAiChatOptions.builder()
                                         .temperature(0.1)
-                                        .maxCompletionTokens(10)
+                                        .maxCompletionTokens(20 + 30 * messages.size())
                                         .build()));
 
-        // Extract the sentiment score from the response (assuming response contains a parsable
-        // float)
+        // Models sometimes wrap the array in a code block
+        int start = response.indexOf('[');
+        int end = response.lastIndexOf(']');
         try {
-            return Float.parseFloat(response.trim());
-        } catch (NumberFormatException e) {
-            throw new IllegalStateException(
-                    "Unable to parse sentiment score from OpenAI response: " + response);
+            if (start >= 0 && end > start) {
+                MessageSignals[] parsed =
+                        objectMapper.readValue(
+                                response.substring(start, end + 1), MessageSignals[].class);
+                if (parsed.length == messages.size()) {
+                    return List.of(parsed);
+                }
+            }
+        } catch (JacksonException e) {
+            log.debug("Can not parse message signals", e);
         }
+        throw new IllegalStateException(
+                "Unable to parse the signals of "
+                        + messages.size()
+                        + " messages from the chat model response: "
+                        + response);
     }
 
     /**
@@ -168,10 +444,10 @@ public class TicketHealthEvalService {
      * Creates a new conversation health record for a ticket.
      *
      * @param ticketId The ID of the ticket.
+     * @param summary The summary of the first message.
      * @return The newly created conversation health entity.
      */
-    private TicketConversationHealth createNewConversationHealth(
-            Long ticketId, String firstMessage) {
+    private TicketConversationHealth createNewConversationHealth(Long ticketId, String summary) {
         TicketConversationHealth health = new TicketConversationHealth();
         health.setTicket(Ticket.builder().id(ticketId).build());
         health.setCumulativeSentiment(0.0f);
@@ -179,7 +455,24 @@ public class TicketHealthEvalService {
         health.setTotalQuestions(0);
         health.setResolvedQuestions(0);
         health.setConversationHealth(0.0f);
-        health.setSummary(generateSummary(firstMessage));
+        health.setSummary(summary);
         return ticketConversationHealthRepository.save(health);
     }
+
+    private static String hash(String message) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of()
+                    .formatHex(digest.digest(message.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record TicketKey(UUID tenantId, Long ticketId) {}
+
+    private record PendingMessage(String content, Long authorId) {}
+
+    /** What the chat model found in a message. */
+    private record MessageSignals(float sentiment, boolean question, boolean resolved) {}
 }
@@ -0,0 +1,150 @@
+package io.flowinquiry.modules.teams.service;
+
+import io.flowinquiry.modules.teams.domain.Ticket;
+import io.flowinquiry.modules.teams.domain.TicketPriority;
+import io.flowinquiry.modules.teams.repository.TicketDailyRollupRepository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps {@code fw_ticket_daily_rollup} in step with ticket writes. Every change is applied as a
+ * delta inside the caller's transaction, so the rollups commit or roll back together with the
+ * ticket itself.
+ */
+@Slf4j
+@Service
+@Transactional
+public class TicketRollupService {
+
+    private final TicketDailyRollupRepository rollupRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public TicketRollupService(
+            TicketDailyRollupRepository rollupRepository,
+            PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Captures the rollup row a ticket currently counts towards, or {@code null} when the ticket is
+     * not part of any project report.
+     */
+    public RollupContribution contributionOf(Ticket ticket) {
+        if (ticket.getProject() == null || ticket.isDeleted()) {
+            return null;
+        }
+        boolean completed = Boolean.TRUE.equals(ticket.getIsCompleted());
+        return new RollupContribution(
+                ticket.getTenantId(),
+                ticket.getProject().getId(),
+                ticket.getIteration() != null ? ticket.getIteration().getId() : null,
+                ticket.getAssignUser() != null ? ticket.getAssignUser().getId() : null,
+                ticket.getPriority(),
+                ticket.getCurrentState() != null ? ticket.getCurrentState().getId() : null,
+                completed,
+                completed ? ticket.getActualCompletionDate() : null,
+                ticket.getEstimate() != null ? ticket.getEstimate() : 0L);
+    }
+
+    public void onTicketCreated(Ticket ticket) {
+        apply(contributionOf(ticket), 1);
+    }
+
+    public void onTicketUpdated(RollupContribution previous, Ticket ticket) {
+        RollupContribution current = contributionOf(ticket);
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        apply(previous, -1);
+        apply(current, 1);
+    }
+
+    public void onTicketDeleted(Ticket ticket) {
+        apply(contributionOf(ticket), -1);
+    }
+
+    /**
+     * Must be called before the tickets are bulk-updated, followed by {@link #onTicketsUpdated}.
+     */
+    public void onTicketsUpdating(Collection<Long> ticketIds) {
+        rollupRepository.applyTickets(ticketIds, -1);
+    }
+
+    public void onTicketsUpdated(Collection<Long> ticketIds) {
+        rollupRepository.applyTickets(ticketIds, 1);
+    }
+
+    /** Must be called before the open tickets of the iteration are bulk-closed. */
+    public void onIterationClosing(Long iterationId) {
+        rollupRepository.closeOpenTicketsOfIteration(iterationId);
+    }
+
+    public void onIterationDeleted(Long iterationId) {
+        rollupRepository.mergeIterationIntoBacklog(iterationId);
+        rollupRepository.deleteByIterationId(iterationId);
+    }
+
+    /**
+     * Compares the rollups with a from-scratch aggregation of the tickets and corrects the rows
+     * that have drifted. Each project is reconciled in its own short transaction with row-level
+     * upserts, so ticket writes keep going meanwhile; when called inside a transaction, every
+     * project joins it instead.
+     *
+     * @return the number of rollup rows that were found to be out of date
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long reconcile() {
+        long mismatches = 0;
+        for (Long projectId : rollupRepository.findProjectIds()) {
+            mismatches += transactionTemplate.execute(status -> reconcileProject(projectId));
+        }
+        if (mismatches > 0) {
+            log.warn("Corrected {} drifted ticket rollup rows", mismatches);
+        }
+        return mismatches;
+    }
+
+    private int reconcileProject(Long projectId) {
+        int mismatches = rollupRepository.correctProjectRows(projectId);
+        rollupRepository.deleteEmptyProjectRows(projectId);
+        return mismatches;
+    }
+
+    private void apply(RollupContribution contribution, int sign) {
+        if (contribution == null) {
+            return;
+        }
+        rollupRepository.applyDelta(
+                contribution.tenantId(),
+                contribution.projectId(),
+                contribution.iterationId(),
+                contribution.assignUserId(),
+                contribution.priority() != null ? contribution.priority().getCode() : null,
+                contribution.stateId(),
+                contribution.completed(),
+                contribution.bucketDate(),
+                sign,
+                sign * contribution.estimate());
+    }
+
+    public record RollupContribution(
+            UUID tenantId,
+            Long projectId,
+            Long iterationId,
+            Long assignUserId,
+            TicketPriority priority,
+            Long stateId,
+            boolean completed,
+            LocalDate bucketDate,
+            long estimate) {}
+}
@@ -0,0 +1,307 @@
+package io.flowinquiry.modules.teams.service;
+
+import static io.flowinquiry.query.QueryUtils.createSpecification;
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+import io.flowinquiry.modules.teams.domain.TShirtSize;
+import io.flowinquiry.modules.teams.domain.Ticket;
+import io.flowinquiry.modules.teams.domain.TicketChannel;
+import io.flowinquiry.modules.teams.domain.TicketPriority;
+import io.flowinquiry.modules.teams.service.dto.TicketConversationHealthDTO;
+import io.flowinquiry.modules.teams.service.dto.TicketDTO;
+import io.flowinquiry.query.CursorSlice;
+import io.flowinquiry.query.KeysetCursor;
+import io.flowinquiry.query.QueryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Read-optimized ticket search. Fetches exactly the columns of {@link TicketDTO} in one query,
+ * joining the associations it shows instead of initializing them ticket by ticket, and loads the
+ * child ticket ids of the whole page with a single {@code IN} query. A page therefore costs the
+ * same number of statements whatever its size.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TicketSearchService {
+
+    private static final Sort.Order DEFAULT_SCROLL_ORDER = Sort.Order.desc("createdAt");
+
+    private static final String SORT_KEY = "sortKey";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    public Page<TicketDTO> findTickets(QueryDTO queryDTO, Pageable pageable) {
+        Specification<Ticket> specification = createSpecification(queryDTO);
+        List<TicketDTO> tickets = findTicketRows(specification, pageable);
+        loadChildTicketIds(tickets);
+        return PageableExecutionUtils.getPage(tickets, pageable, () -> countTickets(specification));
+    }
+
+    /** The tickets with the given ids, ordered by id. Ids of unknown tickets are skipped. */
+    public List<TicketDTO> findTicketsById(Collection<Long> ids) {
+        Specification<Ticket> byId = (root, query, cb) -> root.get("id").in(ids);
+        List<TicketDTO> tickets = findTicketRows(byId, Pageable.unpaged(Sort.by("id")));
+        loadChildTicketIds(tickets);
+        return tickets;
+    }
+
+    /**
+     * Keyset-paginated search: a slice of tickets after the given cursor, without counting the
+     * matches. The first slice is sorted by the first order of {@code sort}, or by creation date
+     * descending; later slices keep the sort of their cursor.
+     */
+    public CursorSlice<TicketDTO> scrollTickets(
+            QueryDTO queryDTO, String cursor, Sort sort, int size) {
+        CursorSlice.checkSize(size);
+        KeysetCursor position = cursor == null ? null : KeysetCursor.decode(cursor);
+        Sort.Order order =
+                position != null
+                        ? position.order()
+                        : sort.stream().findFirst().orElse(DEFAULT_SCROLL_ORDER);
+        Specification<Ticket> specification = createSpecification(queryDTO);
+        if (position != null) {
+            specification =
+                    specification == null ? position.after() : specification.and(position.after());
+        }
+
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Ticket> root = cq.from(Ticket.class);
+        List<Selection<?>> selections = ticketColumns(root);
+        selections.add(KeysetCursor.sortKey(root, order.getProperty()).alias(SORT_KEY));
+        cq.select(cb.tuple(selections));
+        where(cq, root, cb, specification);
+        cq.orderBy(KeysetCursor.orders(order, root, cb));
+
+        List<Tuple> rows = entityManager.createQuery(cq).setMaxResults(size + 1).getResultList();
+        CursorSlice<TicketDTO> slice =
+                CursorSlice.of(
+                        rows,
+                        size,
+                        order,
+                        row -> row.get(SORT_KEY),
+                        row -> row.get("id", Long.class),
+                        TicketSearchService::toTicketDTO);
+        loadChildTicketIds(slice.getContent());
+        return slice;
+    }
+
+    private List<TicketDTO> findTicketRows(Specification<Ticket> specification, Pageable pageable) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Ticket> root = cq.from(Ticket.class);
+        cq.select(cb.tuple(ticketColumns(root)));
+        where(cq, root, cb, specification);
+        if (pageable.getSort().isSorted()) {
+            cq.orderBy(toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<Tuple> query = entityManager.createQuery(cq);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList().stream().map(TicketSearchService::toTicketDTO).toList();
+    }
+
+    /** The columns of {@link TicketDTO}, joining the associations it shows. */
+    private static List<Selection<?>> ticketColumns(Root<Ticket> root) {
+        Join<Ticket, ?> team = root.join("team", JoinType.LEFT);
+        Join<Ticket, ?> workflow = root.join("workflow", JoinType.LEFT);
+        Join<Ticket, ?> project = root.join("project", JoinType.LEFT);
+        Join<Ticket, ?> requestUser = root.join("requestUser", JoinType.LEFT);
+        Join<Ticket, ?> assignUser = root.join("assignUser", JoinType.LEFT);
+        Join<Ticket, ?> currentState = root.join("currentState", JoinType.LEFT);
+        Join<Ticket, ?> iteration = root.join("iteration", JoinType.LEFT);
+        Join<Ticket, ?> epic = root.join("epic", JoinType.LEFT);
+        Join<Ticket, ?> health = root.join("conversationHealth", JoinType.LEFT);
+
+        return new ArrayList<>(
+                List.of(
+                        root.get("id").alias("id"),
+                        team.get("id").alias("teamId"),
+                        team.get("name").alias("teamName"),
+                        workflow.get("id").alias("workflowId"),
+                        workflow.get("name").alias("workflowName"),
+                        workflow.get("requestName").alias("workflowRequestName"),
+                        project.get("id").alias("projectId"),
+                        project.get("name").alias("projectName"),
+                        project.get("shortName").alias("projectShortName"),
+                        root.get("projectTicketNumber").alias("projectTicketNumber"),
+                        requestUser.get("id").alias("requestUserId"),
+                        requestUser.get("firstName").alias("requestUserFirstName"),
+                        requestUser.get("lastName").alias("requestUserLastName"),
+                        requestUser.get("imageUrl").alias("requestUserImageUrl"),
+                        assignUser.get("id").alias("assignUserId"),
+                        assignUser.get("firstName").alias("assignUserFirstName"),
+                        assignUser.get("lastName").alias("assignUserLastName"),
+                        assignUser.get("imageUrl").alias("assignUserImageUrl"),
+                        root.get("requestTitle").alias("requestTitle"),
+                        root.get("requestDescription").alias("requestDescription"),
+                        root.get("priority").alias("priority"),
+                        root.get("estimatedCompletionDate").alias("estimatedCompletionDate"),
+                        root.get("actualCompletionDate").alias("actualCompletionDate"),
+                        currentState.get("id").alias("currentStateId"),
+                        currentState.get("stateName").alias("currentStateName"),
+                        iteration.get("id").alias("iterationId"),
+                        iteration.get("name").alias("iterationName"),
+                        epic.get("id").alias("epicId"),
+                        epic.get("name").alias("epicName"),
+                        root.get("channel").alias("channel"),
+                        root.get("isNew").alias("isNew"),
+                        root.get("isCompleted").alias("isCompleted"),
+                        root.get("createdAt").alias("createdAt"),
+                        root.get("modifiedAt").alias("modifiedAt"),
+                        root.get("numberAttachments").alias("numberAttachments"),
+                        root.get("numberWatchers").alias("numberWatchers"),
+                        root.get("size").alias("size"),
+                        root.get("estimate").alias("estimate"),
+                        health.get("id").alias("healthId"),
+                        health.get("conversationHealth").alias("conversationHealth"),
+                        health.get("cumulativeSentiment").alias("cumulativeSentiment"),
+                        health.get("totalMessages").alias("totalMessages"),
+                        health.get("totalQuestions").alias("totalQuestions"),
+                        health.get("resolvedQuestions").alias("resolvedQuestions"),
+                        root.get("parentTicket").get("id").alias("parentTicketId")));
+    }
+
+    private static void where(
+            CriteriaQuery<?> cq,
+            Root<Ticket> root,
+            HibernateCriteriaBuilder cb,
+            Specification<Ticket> specification) {
+        Predicate where = specification == null ? null : specification.toPredicate(root, cq, cb);
+        if (where != null) {
+            cq.where(where);
+        }
+    }
+
+    private long countTickets(Specification<Ticket> specification) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Ticket> root = cq.from(Ticket.class);
+        cq.select(cb.count(root));
+        where(cq, root, cb, specification);
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    /** Sets the child ticket ids of every ticket on the page, with one query for the page. */
+    private void loadChildTicketIds(List<TicketDTO> tickets) {
+        if (tickets.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Long>> childTicketIds = new HashMap<>();
+        for (TicketDTO ticket : tickets) {
+            List<Long> ids = new ArrayList<>();
+            ticket.setChildTicketIds(ids);
+            childTicketIds.put(ticket.getId(), ids);
+        }
+        List<Object[]> rows =
+                entityManager
+                        .createQuery(
+                                "SELECT t.parentTicket.id, t.id FROM Ticket t"
+                                        + " WHERE t.parentTicket.id IN :parentIds ORDER BY t.id",
+                                Object[].class)
+                        .setParameter("parentIds", childTicketIds.keySet())
+                        .getResultList();
+        for (Object[] row : rows) {
+            childTicketIds.get((Long) row[0]).add((Long) row[1]);
+        }
+    }
+
+    private static TicketDTO toTicketDTO(Tuple tuple) {
+        Long id = tuple.get("id", Long.class);
+        Long healthId = tuple.get("healthId", Long.class);
+        Integer estimate = tuple.get("estimate", Integer.class);
+        return TicketDTO.builder()
+                .id(id)
+                .teamId(tuple.get("teamId", Long.class))
+                .teamName(tuple.get("teamName", String.class))
+                .workflowId(tuple.get("workflowId", Long.class))
+                .workflowName(tuple.get("workflowName", String.class))
+                .workflowRequestName(tuple.get("workflowRequestName", String.class))
+                .projectId(tuple.get("projectId", Long.class))
+                .projectName(tuple.get("projectName", String.class))
+                .projectShortName(tuple.get("projectShortName", String.class))
+                .projectTicketNumber(tuple.get("projectTicketNumber", Long.class))
+                .requestUserId(tuple.get("requestUserId", Long.class))
+                .requestUserName(userFullName(tuple, "requestUser"))
+                .requestUserImageUrl(tuple.get("requestUserImageUrl", String.class))
+                .assignUserId(tuple.get("assignUserId", Long.class))
+                .assignUserName(userFullName(tuple, "assignUser"))
+                .assignUserImageUrl(tuple.get("assignUserImageUrl", String.class))
+                .requestTitle(tuple.get("requestTitle", String.class))
+                .requestDescription(tuple.get("requestDescription", String.class))
+                .priority(tuple.get("priority", TicketPriority.class))
+                .estimatedCompletionDate(tuple.get("estimatedCompletionDate", LocalDate.class))
+                .actualCompletionDate(tuple.get("actualCompletionDate", LocalDate.class))
+                .currentStateId(tuple.get("currentStateId", Long.class))
+                .currentStateName(tuple.get("currentStateName", String.class))
+                .iterationId(tuple.get("iterationId", Long.class))
+                .iterationName(tuple.get("iterationName", String.class))
+                .epicId(tuple.get("epicId", Long.class))
+                .epicName(tuple.get("epicName", String.class))
+                .channel(tuple.get("channel", TicketChannel.class))
+                .isNew(tuple.get("isNew", Boolean.class))
+                .isCompleted(tuple.get("isCompleted", Boolean.class))
+                .createdAt(tuple.get("createdAt", Instant.class))
+                .modifiedAt(tuple.get("modifiedAt", Instant.class))
+                .numberAttachments(tuple.get("numberAttachments", Integer.class))
+                .numberWatchers(tuple.get("numberWatchers", Integer.class))
+                .size(tuple.get("size", TShirtSize.class))
+                .estimate(estimate == null ? 0 : estimate)
+                .conversationHealth(
+                        healthId == null
+                                ? null
+                                : TicketConversationHealthDTO.builder()
+                                        .id(healthId)
+                                        .ticketId(id)
+                                        .conversationHealth(
+                                                tuple.get("conversationHealth", Float.class))
+                                        .cumulativeSentiment(
+                                                tuple.get("cumulativeSentiment", Float.class))
+                                        .totalMessages(tuple.get("totalMessages", Integer.class))
+                                        .totalQuestions(tuple.get("totalQuestions", Integer.class))
+                                        .resolvedQuestions(
+                                                tuple.get("resolvedQuestions", Integer.class))
+                                        .build())
+                .parentTicketId(tuple.get("parentTicketId", Long.class))
+                .build();
+    }
+
+    /** Same as {@code TicketMapper#mapUserFullName}, null when the ticket has no such user. */
+    private static String userFullName(Tuple tuple, String user) {
+        if (tuple.get(user + "Id") == null) {
+            return null;
+        }
+        String firstName = tuple.get(user + "FirstName", String.class);
+        String lastName = tuple.get(user + "LastName", String.class);
+        return ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : ""))
+                .trim();
+    }
+}
@@ -1,7 +1,6 @@
 package io.flowinquiry.modules.teams.service;
 
 import static io.flowinquiry.modules.teams.domain.WorkflowTransitionHistoryStatus.COMPLETED;
-import static io.flowinquiry.query.QueryUtils.createSpecification;
 import static org.springframework.util.CollectionUtils.isEmpty;
 
 import io.flowinquiry.exceptions.ResourceNotFoundException;
@@ -9,17 +8,16 @@ import io.flowinquiry.modules.audit.service.event.AuditLogUpdateEvent;
 import io.flowinquiry.modules.collab.domain.EntityType;
 import io.flowinquiry.modules.collab.domain.EntityWatcher;
 import io.flowinquiry.modules.collab.repository.EntityWatcherRepository;
-import io.flowinquiry.modules.teams.domain.ProjectTicketSequence;
 import io.flowinquiry.modules.teams.domain.Ticket;
 import io.flowinquiry.modules.teams.domain.WorkflowState;
 import io.flowinquiry.modules.teams.domain.WorkflowTransition;
 import io.flowinquiry.modules.teams.domain.WorkflowTransitionHistory;
 import io.flowinquiry.modules.teams.domain.WorkflowTransitionHistoryStatus;
-import io.flowinquiry.modules.teams.repository.ProjectTicketSequenceRepository;
 import io.flowinquiry.modules.teams.repository.TicketRepository;
 import io.flowinquiry.modules.teams.repository.WorkflowStateRepository;
 import io.flowinquiry.modules.teams.repository.WorkflowTransitionHistoryRepository;
 import io.flowinquiry.modules.teams.repository.WorkflowTransitionRepository;
+import io.flowinquiry.modules.teams.service.TicketRollupService.RollupContribution;
 import io.flowinquiry.modules.teams.service.dto.PriorityDistributionDTO;
 import io.flowinquiry.modules.teams.service.dto.TeamTicketPriorityDistributionDTO;
 import io.flowinquiry.modules.teams.service.dto.TicketActionCountByDateDTO;
@@ -28,10 +26,12 @@ import io.flowinquiry.modules.teams.service.dto.TicketDistributionDTO;
 import io.flowinquiry.modules.teams.service.event.NewTicketCreatedEvent;
 import io.flowinquiry.modules.teams.service.event.ProjectEpicChangedByTicketEvent;
 import io.flowinquiry.modules.teams.service.event.ProjectIterationChangedByTicketEvent;
+import io.flowinquiry.modules.teams.service.event.SlaDueDateScheduledEvent;
 import io.flowinquiry.modules.teams.service.event.TicketWorkStateTransitionEvent;
 import io.flowinquiry.modules.teams.service.mapper.TicketMapper;
 import io.flowinquiry.modules.usermanagement.domain.User;
 import io.flowinquiry.modules.usermanagement.service.dto.TicketStatisticsDTO;
+import io.flowinquiry.query.CursorSlice;
 import io.flowinquiry.query.QueryDTO;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -41,7 +41,6 @@ import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -54,8 +53,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -71,7 +69,9 @@ public class TicketService {
     private final WorkflowTransitionRepository workflowTransitionRepository;
     private final WorkflowTransitionHistoryRepository workflowTransitionHistoryRepository;
     private final ApplicationEventPublisher eventPublisher;
-    private final ProjectTicketSequenceRepository projectTicketSequenceRepository;
+    private final ProjectTicketNumberSequencer projectTicketNumberSequencer;
+    private final TicketRollupService ticketRollupService;
+    private final TicketSearchService ticketSearchService;
 
     @Autowired
     public TicketService(
@@ -81,7 +81,9 @@ public class TicketService {
             WorkflowTransitionRepository workflowTransitionRepository,
             WorkflowStateRepository workflowStateRepository,
             WorkflowTransitionHistoryRepository workflowTransitionHistoryRepository,
-            ProjectTicketSequenceRepository projectTicketSequenceRepository,
+            ProjectTicketNumberSequencer projectTicketNumberSequencer,
+            TicketRollupService ticketRollupService,
+            TicketSearchService ticketSearchService,
             ApplicationEventPublisher eventPublisher) {
         this.ticketRepository = ticketRepository;
         this.entityWatcherRepository = entityWatcherRepository;
@@ -89,13 +91,19 @@ public class TicketService {
         this.workflowTransitionRepository = workflowTransitionRepository;
         this.workflowStateRepository = workflowStateRepository;
         this.workflowTransitionHistoryRepository = workflowTransitionHistoryRepository;
-        this.projectTicketSequenceRepository = projectTicketSequenceRepository;
+        this.projectTicketNumberSequencer = projectTicketNumberSequencer;
+        this.ticketRollupService = ticketRollupService;
+        this.ticketSearchService = ticketSearchService;
         this.eventPublisher = eventPublisher;
     }
 
     public Page<TicketDTO> findTickets(QueryDTO queryDTO, Pageable pageable) {
-        Specification<Ticket> spec = createSpecification(queryDTO);
-        return ticketRepository.findAll(spec, pageable).map(ticketMapper::toDto);
+        return ticketSearchService.findTickets(queryDTO, pageable);
+    }
+
+    public CursorSlice<TicketDTO> scrollTickets(
+            QueryDTO queryDTO, String cursor, Sort sort, int size) {
+        return ticketSearchService.scrollTickets(queryDTO, cursor, sort, size);
     }
 
     @Transactional(readOnly = true)
@@ -135,12 +143,13 @@ public class TicketService {
         ticketDTO.setIsCompleted(false);
 
         if (ticketDTO.getProjectId() != null) {
-            Long nextNumber = getNextProjectTicketNumber(ticketDTO.getProjectId());
-            ticketDTO.setProjectTicketNumber(nextNumber);
+            ticketDTO.setProjectTicketNumber(
+                    projectTicketNumberSequencer.nextTicketNumber(ticketDTO.getProjectId()));
         }
 
         Ticket ticket = ticketMapper.toEntity(ticketDTO);
         ticket = ticketRepository.save(ticket);
+        ticketRollupService.onTicketCreated(ticket);
 
         Long ticketId = ticket.getId();
 
@@ -163,6 +172,7 @@ public class TicketService {
                                 })
                         .collect(Collectors.toList());
         entityWatcherRepository.saveAll(entityWatchers);
+        ticketRepository.adjustNumberWatchers(ticketId, entityWatchers.size());
 
         // Clear the persistence context to force a reload
         entityManager.clear();
@@ -180,6 +190,10 @@ public class TicketService {
         history.setSlaDueDate(slaDueDate);
         history.setStatus(WorkflowTransitionHistoryStatus.IN_PROGRESS);
         workflowTransitionHistoryRepository.save(history);
+        if (slaDueDate != null) {
+            eventPublisher.publishEvent(
+                    new SlaDueDateScheduledEvent(this, history.getId(), slaDueDate));
+        }
 
         TicketDTO savedTicketDTO = ticketMapper.toDto(ticket);
         eventPublisher.publishEvent(new NewTicketCreatedEvent(this, savedTicketDTO));
@@ -205,6 +219,8 @@ public class TicketService {
                                                 "Ticket not found with id: " + ticketDTO.getId()));
         TicketDTO previousTicket = ticketMapper.toDto(existingTicket);
         Long previousState = previousTicket.getCurrentStateId();
+        RollupContribution previousContribution =
+                ticketRollupService.contributionOf(existingTicket);
 
         ticketMapper.updateEntity(ticketDTO, existingTicket);
 
@@ -234,13 +250,16 @@ public class TicketService {
                 watcher.setEntityId(ticketDTO.getId());
                 watcher.setWatchUser(User.builder().id(assignedUserId).build());
                 entityWatcherRepository.save(watcher);
+                ticketRepository.adjustNumberWatchers(ticketDTO.getId(), 1);
                 // Flush & Clear the persistence context to ensure fresh retrieval
                 entityManager.flush();
                 entityManager.clear();
             }
         }
 
-        TicketDTO savedTicket = ticketMapper.toDto(ticketRepository.save(existingTicket));
+        Ticket updatedTicket = ticketRepository.save(existingTicket);
+        ticketRollupService.onTicketUpdated(previousContribution, updatedTicket);
+        TicketDTO savedTicket = ticketMapper.toDto(updatedTicket);
 
         eventPublisher.publishEvent(new AuditLogUpdateEvent(this, previousTicket, ticketDTO));
 
@@ -279,9 +298,21 @@ public class TicketService {
             eventPublisher.publishEvent(
                     new ProjectIterationChangedByTicketEvent(this, ticketMapper.toDto(ticket)));
         }
+        ticketRollupService.onTicketDeleted(ticket);
         ticketRepository.deleteById(id);
     }
 
+    /**
+     * Recounts the attachments and watchers of the tickets whose counters have drifted, e.g. after
+     * attachments or watchers were changed outside of the services that maintain the counters.
+     *
+     * @return the number of repaired tickets
+     */
+    @Transactional
+    public int reconcileCounters() {
+        return ticketRepository.reconcileCounters();
+    }
+
     public Optional<TicketDTO> getNextTicket(Long ticketId, Long projectId) {
         return ticketRepository.findNextTicket(ticketId, projectId).map(ticketMapper::toDto);
     }
@@ -408,31 +439,9 @@ public class TicketService {
         return updateTicket(newTicket);
     }
 
-    private Long getNextProjectTicketNumber(Long projectId) {
-        try {
-            ProjectTicketSequence sequence =
-                    projectTicketSequenceRepository
-                            .findById(projectId)
-                            .orElseGet(
-                                    () -> {
-                                        ProjectTicketSequence newSeq = new ProjectTicketSequence();
-                                        newSeq.setProjectId(projectId);
-                                        newSeq.setLastTicketNumber(0L);
-                                        return newSeq;
-                                    });
-
-            sequence.setLastTicketNumber(sequence.getLastTicketNumber() + 1);
-            projectTicketSequenceRepository.saveAndFlush(sequence);
-            return sequence.getLastTicketNumber();
-
-        } catch (ObjectOptimisticLockingFailureException e) {
-            throw new ConcurrentModificationException(
-                    "Concurrent project ticket creation detected. Please retry.", e);
-        }
-    }
-
     @Transactional
     public void closeTicketsWithIteration(Long iterationId) {
+        ticketRollupService.onIterationClosing(iterationId);
         ticketRepository.findTicketsByIterationIdAndClose(iterationId);
     }
 }
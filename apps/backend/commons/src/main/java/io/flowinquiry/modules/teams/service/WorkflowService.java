@@ -63,6 +63,8 @@ public class WorkflowService {
 
     private final WorkflowTransitionMapper workflowTransitionMapper;
 
+    private final WorkflowTransitionTable workflowTransitionTable;
+
     public WorkflowService(
             WorkflowRepository workflowRepository,
             WorkflowStateRepository workflowStateRepository,
@@ -72,7 +74,8 @@ public class WorkflowService {
             TicketRepository ticketRepository,
             WorkflowMapper workflowMapper,
             WorkflowStateMapper workflowStateMapper,
-            WorkflowTransitionMapper workflowTransitionMapper) {
+            WorkflowTransitionMapper workflowTransitionMapper,
+            WorkflowTransitionTable workflowTransitionTable) {
         this.workflowRepository = workflowRepository;
         this.workflowStateRepository = workflowStateRepository;
         this.workflowTransitionRepository = workflowTransitionRepository;
@@ -82,6 +85,7 @@ public class WorkflowService {
         this.workflowMapper = workflowMapper;
         this.workflowStateMapper = workflowStateMapper;
         this.workflowTransitionMapper = workflowTransitionMapper;
+        this.workflowTransitionTable = workflowTransitionTable;
     }
 
     @Transactional(readOnly = true)
@@ -380,6 +384,7 @@ public class WorkflowService {
                                 })
                         .toList();
         newTransitions = workflowTransitionRepository.saveAll(newTransitions);
+        workflowTransitionTable.invalidate(workflowId);
 
         // Step 4: Return the updated workflow
         WorkflowDetailedDTO updatedWorkflow = workflowMapper.toDetailedDto(workflowEntity);
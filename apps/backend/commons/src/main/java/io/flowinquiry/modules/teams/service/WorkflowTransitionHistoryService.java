@@ -1,7 +1,6 @@
 package io.flowinquiry.modules.teams.service;
 
 import static io.flowinquiry.modules.teams.domain.WorkflowTransitionHistoryStatus.COMPLETED;
-import static io.flowinquiry.modules.teams.domain.WorkflowTransitionHistoryStatus.ESCALATED;
 import static io.flowinquiry.modules.teams.domain.WorkflowTransitionHistoryStatus.IN_PROGRESS;
 
 import io.flowinquiry.exceptions.ResourceNotFoundException;
@@ -11,13 +10,20 @@ import io.flowinquiry.modules.teams.domain.WorkflowTransitionHistory;
 import io.flowinquiry.modules.teams.repository.TicketRepository;
 import io.flowinquiry.modules.teams.repository.WorkflowTransitionHistoryRepository;
 import io.flowinquiry.modules.teams.repository.WorkflowTransitionRepository;
+import io.flowinquiry.modules.teams.service.dto.SlaBreachDTO;
+import io.flowinquiry.modules.teams.service.dto.SlaDeadlineDTO;
 import io.flowinquiry.modules.teams.service.dto.TransitionItemCollectionDTO;
+import io.flowinquiry.modules.teams.service.event.SlaDueDateScheduledEvent;
 import io.flowinquiry.modules.teams.service.mapper.WorkflowTransitionHistoryMapper;
-import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,16 +34,21 @@ public class WorkflowTransitionHistoryService {
     private final TicketRepository ticketRepository;
     private final WorkflowTransitionRepository workflowTransitionRepository;
     private final WorkflowTransitionHistoryMapper workflowTransitionHistoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext private EntityManager entityManager;
 
     public WorkflowTransitionHistoryService(
             WorkflowTransitionHistoryRepository workflowTransitionHistoryRepository,
             TicketRepository ticketRepository,
             WorkflowTransitionRepository workflowTransitionRepository,
-            WorkflowTransitionHistoryMapper workflowTransitionHistoryMapper) {
+            WorkflowTransitionHistoryMapper workflowTransitionHistoryMapper,
+            ApplicationEventPublisher eventPublisher) {
         this.workflowTransitionHistoryRepository = workflowTransitionHistoryRepository;
         this.ticketRepository = ticketRepository;
         this.workflowTransitionRepository = workflowTransitionRepository;
         this.workflowTransitionHistoryMapper = workflowTransitionHistoryMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -88,6 +99,10 @@ public class WorkflowTransitionHistoryService {
         }
 
         workflowTransitionHistoryRepository.save(history);
+        if (slaDueDate != null && history.getStatus() == IN_PROGRESS) {
+            eventPublisher.publishEvent(
+                    new SlaDueDateScheduledEvent(this, history.getId(), slaDueDate));
+        }
     }
 
     public TransitionItemCollectionDTO getTransitionHistoryByTicketId(Long ticketId) {
@@ -101,37 +116,60 @@ public class WorkflowTransitionHistoryService {
         return workflowTransitionHistoryMapper.toTicketHistoryDto(ticketId, histories);
     }
 
+    /**
+     * Retrieves the SLA deadlines of transitions in progress that are due before the given time.
+     *
+     * @param before The latest due date to include.
+     * @return The deadlines, including those that have passed already.
+     */
     @Transactional(readOnly = true)
-    public List<WorkflowTransitionHistory> getViolatingTransitions(long checkTimeInSeconds) {
-        Instant checkTime = Instant.now().plusSeconds(checkTimeInSeconds);
-        return workflowTransitionHistoryRepository.findViolatingTransitions(checkTime);
+    public List<SlaDeadlineDTO> getSlaDeadlines(Instant before) {
+        return workflowTransitionHistoryRepository.findSlaDeadlines(before);
     }
 
     /**
-     * Retrieves workflow transitions that have already violated their SLA.
+     * Escalates the given transitions with a single statement. Transitions that are no longer in
+     * progress, for instance because another node escalated them first, are left out.
      *
-     * @return A list of violated workflow transitions.
+     * @param transitionIds The transitions to escalate.
+     * @return The transitions escalated by this call, with the ticket details their notifications
+     *     need.
      */
-    public List<WorkflowTransitionHistory> getViolatedTransitions() {
-        return workflowTransitionHistoryRepository.findViolatingTransitions(Instant.now());
+    @Transactional
+    public List<SlaBreachDTO> escalateTransitions(Collection<Long> transitionIds) {
+        List<Long> escalated =
+                workflowTransitionHistoryRepository.escalateInProgress(transitionIds);
+        if (escalated.isEmpty()) {
+            return List.of();
+        }
+        evict(escalated);
+        return workflowTransitionHistoryRepository.findSlaBreaches(escalated);
     }
 
     /**
-     * Updates the given workflow transition to 'Escalated' and persists it.
+     * Records that the SLA warning of the given transitions is being sent. Transitions whose
+     * warning was sent already, or that are no longer in progress or overdue, are left out.
      *
-     * @param transitionId The workflow transition history entry to escalate.
+     * @param transitionIds The transitions about to be warned of.
+     * @return The transitions whose warning the caller should send.
      */
     @Transactional
-    public void escalateTransition(Long transitionId) {
-        WorkflowTransitionHistory violatedTicket =
-                workflowTransitionHistoryRepository
-                        .findById(transitionId)
-                        .orElseThrow(
-                                () ->
-                                        new EntityNotFoundException(
-                                                "Transition not found: " + transitionId));
+    public List<WorkflowTransitionHistory> claimSlaWarnings(Collection<Long> transitionIds) {
+        return reload(
+                workflowTransitionHistoryRepository.claimSlaWarnings(transitionIds, Instant.now()));
+    }
+
+    /** Loads transitions updated behind Hibernate's back, bypassing their cached state. */
+    private List<WorkflowTransitionHistory> reload(List<Long> transitionIds) {
+        if (transitionIds.isEmpty()) {
+            return List.of();
+        }
+        evict(transitionIds);
+        return workflowTransitionHistoryRepository.findAllById(transitionIds);
+    }
 
-        violatedTicket.setStatus(ESCALATED);
-        workflowTransitionHistoryRepository.save(violatedTicket);
+    private void evict(List<Long> transitionIds) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        transitionIds.forEach(id -> cache.evict(WorkflowTransitionHistory.class, id));
     }
 }
@@ -0,0 +1,75 @@
+package io.flowinquiry.modules.teams.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.flowinquiry.modules.teams.domain.WorkflowTransition;
+import io.flowinquiry.modules.teams.repository.WorkflowTransitionRepository;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+
+/**
+ * The transitions of each workflow, cached so that the moves of many tickets are checked in memory.
+ * A workflow's entry is dropped when the workflow is edited on this node, and expires after a
+ * minute so that edits made on other nodes are picked up.
+ */
+@Component
+public class WorkflowTransitionTable {
+
+    private final WorkflowTransitionRepository workflowTransitionRepository;
+
+    private final Cache<Long, Map<StateChange, Transition>> transitions =
+            Caffeine.newBuilder().maximumSize(1000).expireAfterWrite(Duration.ofMinutes(1)).build();
+
+    public WorkflowTransitionTable(WorkflowTransitionRepository workflowTransitionRepository) {
+        this.workflowTransitionRepository = workflowTransitionRepository;
+    }
+
+    /**
+     * The transition of the workflow from one state to another, or {@code null} when the workflow
+     * does not allow the move.
+     */
+    public Transition find(Long workflowId, Long sourceStateId, Long targetStateId) {
+        return transitions
+                .get(workflowId, this::load)
+                .get(new StateChange(sourceStateId, targetStateId));
+    }
+
+    public void invalidate(Long workflowId) {
+        transitions.invalidate(workflowId);
+    }
+
+    private Map<StateChange, Transition> load(Long workflowId) {
+        return workflowTransitionRepository.findByWorkflowId(workflowId).stream()
+                .map(Transition::of)
+                .collect(
+                        Collectors.toMap(
+                                transition ->
+                                        new StateChange(
+                                                transition.sourceStateId(),
+                                                transition.targetStateId()),
+                                Function.identity(),
+                                (first, duplicate) -> first));
+    }
+
+    private record StateChange(Long sourceStateId, Long targetStateId) {}
+
+    public record Transition(
+            Long sourceStateId,
+            Long targetStateId,
+            String eventName,
+            Long slaDuration,
+            boolean targetFinal) {
+
+        static Transition of(WorkflowTransition transition) {
+            return new Transition(
+                    transition.getSourceState().getId(),
+                    transition.getTargetState().getId(),
+                    transition.getEventName(),
+                    transition.getSlaDuration(),
+                    Boolean.TRUE.equals(transition.getTargetState().getIsFinal()));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.flowinquiry.modules.teams.service.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A transition escalated for missing its SLA, with what its notifications are built from. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlaBreachDTO {
+    private Long transitionId;
+    private String eventName;
+    private Long toStateId;
+    private Instant slaDueDate;
+    private Long ticketId;
+    private String requestTitle;
+    private UUID tenantId;
+    private Long teamId;
+    private String teamName;
+    private Long workflowId;
+    private Long assignUserId;
+    private String assignUserEmail;
+    private String assignUserFirstName;
+    private String assignUserLastName;
+    private String assignUserLangKey;
+}
@@ -0,0 +1,15 @@
+package io.flowinquiry.modules.teams.service.dto;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlaDeadlineDTO {
+    private Long transitionId;
+    private Instant slaDueDate;
+    private Instant slaWarningSentAt;
+}
@@ -0,0 +1,17 @@
+package io.flowinquiry.modules.teams.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamManagerDTO {
+    private Long teamId;
+    private Long userId;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String langKey;
+}
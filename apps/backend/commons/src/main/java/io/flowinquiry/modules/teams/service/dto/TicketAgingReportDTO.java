@@ -6,7 +6,17 @@ import lombok.Data;
 
 @Data
 public class TicketAgingReportDTO {
+    /**
+     * The matching tickets, oldest first and grouped; at most the requested limit if one is set.
+     */
     private Map<String, List<TicketAgingDTO>> groupedTickets;
+
+    /** Number of matching tickets per group, including those not listed in groupedTickets. */
+    private Map<String, Long> groupCounts;
+
+    /** Per group, the number of tickets in each age bucket (e.g. "0-2", "31+"). */
+    private Map<String, Map<String, Long>> groupAgeBuckets;
+
     private Double averageAge;
     private Long maxAge;
     private Long minAge;
@@ -0,0 +1,23 @@
+package io.flowinquiry.modules.teams.service.dto;
+
+import io.flowinquiry.modules.teams.domain.TicketPriority;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.Data;
+
+/** Changes applied to every ticket of {@link #ticketIds}; null fields are left unchanged. */
+@Data
+public class TicketBulkUpdateDTO {
+
+    @NotEmpty private List<Long> ticketIds;
+
+    private Long currentStateId;
+
+    private Long assignUserId;
+
+    private Long iterationId;
+
+    private Long epicId;
+
+    private TicketPriority priority;
+}
@@ -26,4 +26,10 @@ public class TicketQueryParams {
 
     private String groupBy = "assignee";
     private boolean includeClosed = false;
+
+    /**
+     * Maximum number of (oldest) tickets listed in the report, capped at 1000. The statistics
+     * always cover every matching ticket.
+     */
+    private int limit = 100;
 }
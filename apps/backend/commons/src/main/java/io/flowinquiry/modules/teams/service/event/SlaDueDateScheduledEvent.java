@@ -0,0 +1,19 @@
+package io.flowinquiry.modules.teams.service.event;
+
+import java.time.Instant;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class SlaDueDateScheduledEvent extends ApplicationEvent {
+
+    private final Long transitionId;
+
+    private final Instant slaDueDate;
+
+    public SlaDueDateScheduledEvent(Object source, Long transitionId, Instant slaDueDate) {
+        super(source);
+        this.transitionId = transitionId;
+        this.slaDueDate = slaDueDate;
+    }
+}
@@ -0,0 +1,40 @@
+package io.flowinquiry.modules.teams.service.event;
+
+import io.flowinquiry.modules.teams.service.dto.TicketDTO;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Tickets updated together by one bulk operation. Published once for the whole batch, in place of
+ * the events a one-by-one update publishes for each ticket.
+ */
+@Getter
+public class TicketsBulkUpdatedEvent extends ApplicationEvent {
+
+    /** The tickets before the update, in the order of {@link #updatedTickets}. */
+    private final List<TicketDTO> previousTickets;
+
+    private final List<TicketDTO> updatedTickets;
+
+    /** The user who updated the tickets, or null when not done by a user. */
+    private final Long modifiedBy;
+
+    /** SLA due dates of the state transitions recorded by the update, by transition id. */
+    private final Map<Long, Instant> slaDueDates;
+
+    public TicketsBulkUpdatedEvent(
+            Object source,
+            List<TicketDTO> previousTickets,
+            List<TicketDTO> updatedTickets,
+            Long modifiedBy,
+            Map<Long, Instant> slaDueDates) {
+        super(source);
+        this.previousTickets = previousTickets;
+        this.updatedTickets = updatedTickets;
+        this.modifiedBy = modifiedBy;
+        this.slaDueDates = slaDueDates;
+    }
+}
@@ -3,8 +3,9 @@ package io.flowinquiry.modules.teams.service.export;
 import com.opencsv.CSVWriter;
 import io.flowinquiry.modules.teams.ExportException;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import org.springframework.stereotype.Component;
@@ -17,35 +18,43 @@ public class CsvExporter {
             return new byte[0];
         }
 
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                CSVWriter writer =
-                        new CSVWriter(new OutputStreamWriter(baos, StandardCharsets.UTF_8))) {
-
-            Field[] fields = type.getDeclaredFields();
-
-            // Header
-            String[] header = new String[fields.length];
-            for (int i = 0; i < fields.length; i++) {
-                fields[i].setAccessible(true);
-                header[i] = fields[i].getName();
-            }
-            writer.writeNext(header);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ExportWriter<T> writer = openWriter(baos, type)) {
+            writer.write(data);
+        } catch (IOException e) {
+            throw new ExportException("Failed to export CSV for " + type.getSimpleName(), e);
+        }
+        return baos.toByteArray();
+    }
 
-            // Data rows
-            for (T item : data) {
-                String[] row = new String[fields.length];
-                for (int i = 0; i < fields.length; i++) {
-                    Object value = fields[i].get(item);
-                    row[i] = value != null ? value.toString() : "";
+    /** Opens a streaming CSV writer; the header row is written immediately. */
+    public <T> ExportWriter<T> openWriter(OutputStream out, Class<T> type) {
+        List<ExportColumns.Column> columns = ExportColumns.of(type);
+        CSVWriter writer = new CSVWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.writeNext(columns.stream().map(ExportColumns.Column::name).toArray(String[]::new));
+
+        return new ExportWriter<>() {
+            @Override
+            public void write(List<T> rows) {
+                for (T item : rows) {
+                    String[] row = new String[columns.size()];
+                    for (int i = 0; i < row.length; i++) {
+                        Object value = columns.get(i).read(item);
+                        row[i] = value != null ? value.toString() : "";
+                    }
+                    writer.writeNext(row);
+                }
+                if (writer.checkError()) {
+                    throw new ExportException(
+                            "Failed to export CSV for " + type.getSimpleName(),
+                            writer.getException());
                 }
-                writer.writeNext(row);
             }
 
-            writer.flush();
-            return baos.toByteArray();
-
-        } catch (Exception e) {
-            throw new ExportException("Failed to export CSV for " + type.getSimpleName(), e);
-        }
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
     }
 }
@@ -2,64 +2,86 @@ package io.flowinquiry.modules.teams.service.export;
 
 import io.flowinquiry.modules.teams.ExportException;
 import java.io.ByteArrayOutputStream;
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Component;
 
 @Component
 public class ExcelExporter {
 
+    /** Rows kept in memory before SXSSF flushes them to its temporary file. */
+    private static final int ROW_ACCESS_WINDOW = 100;
+
+    /** Fixed column width (in 1/256 of a character); auto-sizing would need every row in memory. */
+    private static final int COLUMN_WIDTH = 20 * 256;
+
     public <T> byte[] export(List<T> data, String sheetName, Class<T> type) {
         if (data == null || data.isEmpty()) {
             return new byte[0];
         }
 
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter<T> writer = openWriter(out, sheetName, type)) {
+            writer.write(data);
+        } catch (IOException e) {
+            throw new ExportException("Failed to export excel for " + sheetName, e);
+        }
+        return out.toByteArray();
+    }
 
-            Sheet sheet = workbook.createSheet(sheetName);
+    /**
+     * Opens a streaming workbook writer. Rows are flushed to a temporary file as they are written
+     * and the workbook is copied to {@code out} when the writer is closed.
+     */
+    public <T> ExportWriter<T> openWriter(OutputStream out, String sheetName, Class<T> type) {
+        List<ExportColumns.Column> columns = ExportColumns.of(type);
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        Sheet sheet = workbook.createSheet(sheetName);
 
-            Field[] fields = type.getDeclaredFields();
+        CellStyle headerStyle = workbook.createCellStyle();
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
 
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < columns.size(); i++) {
+            sheet.setColumnWidth(i, COLUMN_WIDTH);
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(columns.get(i).name());
+            cell.setCellStyle(headerStyle);
+        }
 
-            Row headerRow = sheet.createRow(0);
-            for (int i = 0; i < fields.length; i++) {
-                fields[i].setAccessible(true);
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(fields[i].getName());
-                cell.setCellStyle(headerStyle);
-            }
+        return new ExportWriter<>() {
+            private int rowIdx = 1;
 
-            int rowIdx = 1;
-            for (T item : data) {
-                Row row = sheet.createRow(rowIdx++);
-                for (int col = 0; col < fields.length; col++) {
-                    fields[col].setAccessible(true);
-                    Object value = fields[col].get(item);
-                    setCellValue(row.createCell(col), value);
+            @Override
+            public void write(List<T> rows) {
+                for (T item : rows) {
+                    Row row = sheet.createRow(rowIdx++);
+                    for (int col = 0; col < columns.size(); col++) {
+                        setCellValue(row.createCell(col), columns.get(col).read(item));
+                    }
                 }
             }
 
-            for (int i = 0; i < fields.length; i++) {
-                sheet.autoSizeColumn(i);
+            @Override
+            public void close() throws IOException {
+                try {
+                    workbook.write(out);
+                } finally {
+                    workbook.dispose();
+                    workbook.close();
+                }
             }
-
-            workbook.write(out);
-            return out.toByteArray();
-        } catch (Exception e) {
-            throw new ExportException("Failed to export excel for " + sheetName, e);
-        }
+        };
     }
 
     private void setCellValue(Cell cell, Object value) {
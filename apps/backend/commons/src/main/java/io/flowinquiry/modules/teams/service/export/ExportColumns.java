@@ -0,0 +1,61 @@
+package io.flowinquiry.modules.teams.service.export;
+
+import io.flowinquiry.modules.teams.ExportException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Export columns of a row type, one per declared instance field in declaration order. Field access
+ * is resolved to method handles once per class instead of reflecting on every cell.
+ */
+final class ExportColumns {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<List<Column>> COLUMNS =
+            new ClassValue<>() {
+                @Override
+                protected List<Column> computeValue(Class<?> type) {
+                    MethodHandles.Lookup lookup = MethodHandles.lookup();
+                    List<Column> columns = new ArrayList<>();
+                    for (Field field : type.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                            continue;
+                        }
+                        try {
+                            field.setAccessible(true);
+                            columns.add(
+                                    new Column(
+                                            field.getName(),
+                                            lookup.unreflectGetter(field).asType(GETTER_TYPE)));
+                        } catch (IllegalAccessException e) {
+                            throw new ExportException(
+                                    "Cannot read export field " + field.getName(), e);
+                        }
+                    }
+                    return List.copyOf(columns);
+                }
+            };
+
+    private ExportColumns() {}
+
+    static List<Column> of(Class<?> type) {
+        return COLUMNS.get(type);
+    }
+
+    record Column(String name, MethodHandle getter) {
+
+        Object read(Object row) {
+            try {
+                return getter.invokeExact(row);
+            } catch (Throwable e) {
+                throw new ExportException("Cannot read export field " + name, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package io.flowinquiry.modules.teams.service.export;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * Writes export rows to an output stream chunk by chunk, so an export never has to hold the whole
+ * result set or the whole file in memory. Closing the writer completes the file.
+ */
+public interface ExportWriter<T> extends Closeable {
+
+    void write(List<T> rows);
+}
@@ -8,34 +8,43 @@ import static j2html.TagCreator.strong;
 import static j2html.TagCreator.text;
 
 import io.flowinquiry.modules.collab.EmailContext;
+import io.flowinquiry.modules.collab.PrerenderedTemplate;
+import io.flowinquiry.modules.collab.domain.EmailJob;
 import io.flowinquiry.modules.collab.domain.Notification;
 import io.flowinquiry.modules.collab.domain.NotificationType;
+import io.flowinquiry.modules.collab.service.EmailJobService;
 import io.flowinquiry.modules.collab.service.MailService;
+import io.flowinquiry.modules.collab.service.NotificationService;
 import io.flowinquiry.modules.shared.controller.SseController;
 import io.flowinquiry.modules.shared.service.cache.DeduplicationCacheService;
-import io.flowinquiry.modules.teams.domain.Ticket;
-import io.flowinquiry.modules.teams.domain.WorkflowTransitionHistory;
 import io.flowinquiry.modules.teams.service.TeamService;
 import io.flowinquiry.modules.teams.service.WorkflowTransitionHistoryService;
+import io.flowinquiry.modules.teams.service.dto.SlaBreachDTO;
+import io.flowinquiry.modules.teams.service.dto.TeamManagerDTO;
 import io.flowinquiry.modules.usermanagement.domain.User;
-import io.flowinquiry.modules.usermanagement.service.mapper.UserMapper;
+import io.flowinquiry.modules.usermanagement.service.dto.UserDTO;
 import io.flowinquiry.utils.Obfuscator;
 import java.time.Duration;
-import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Profile;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import tools.jackson.databind.node.JsonNodeFactory;
+import tools.jackson.databind.node.ObjectNode;
 
 @Slf4j
 @Profile("!test")
@@ -43,6 +52,14 @@ import org.springframework.transaction.annotation.Transactional;
 @AllArgsConstructor
 public class SendNotificationForTicketsViolateSlaJob {
 
+    private static final String TEMPLATE = "mail/violatedSlaTicketEmail";
+
+    private static final String FIRST_NAME = "firstName";
+
+    /** The template variables that differ between mails, besides the recipient's first name. */
+    private static final List<String> TICKET_VARIABLES =
+            List.of("requestTitle", "obfuscatedTeamId", "obfuscatedTicketId", "slaDueDate");
+
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm z");
 
     private final TeamService teamService;
@@ -51,113 +68,198 @@ public class SendNotificationForTicketsViolateSlaJob {
 
     private final MailService mailService;
 
-    private final DeduplicationCacheService deduplicationCacheService;
+    private final SpringTemplateEngine templateEngine;
 
-    private final UserMapper userMapper;
+    private final NotificationService notificationService;
+
+    private final EmailJobService emailJobService;
+
+    private final DeduplicationCacheService deduplicationCacheService;
 
     private final MessageSource messageSource;
 
     private final SseController sseController;
 
-    @Scheduled(cron = "0 0/1 * * * ?")
-    @SchedulerLock(name = "SendNotificationForTicketsViolateSlaJob")
+    /**
+     * Escalates the given transitions whose SLA is due and notifies the assignee and team managers
+     * of each. Transitions escalated already, by this or another node, are skipped.
+     *
+     * <p>The work is done per batch rather than per transition: one statement escalates them, one
+     * query loads their tickets and one the managers of their teams, the mail template is rendered
+     * once per locale, and the notifications and mails are stored with batched inserts. The mails
+     * are sent by the relay email job once this transaction commits.
+     *
+     * @param transitionIds The transitions whose SLA is due.
+     */
     @Transactional
-    public void run() {
-        List<WorkflowTransitionHistory> violatingTickets =
-                workflowTransitionHistoryService.getViolatedTransitions();
-
-        for (WorkflowTransitionHistory violatingTicket : violatingTickets) {
-            Ticket ticket = violatingTicket.getTicket();
-            Instant slaDueDate = violatingTicket.getSlaDueDate();
-            String formattedSlaDueDate = slaDueDate.atZone(ZoneId.of("UTC")).format(formatter);
+    public void run(Collection<Long> transitionIds) {
+        List<SlaBreachDTO> breaches =
+                workflowTransitionHistoryService.escalateTransitions(transitionIds);
+        if (breaches.isEmpty()) {
+            return;
+        }
 
-            // ✅ Escalate status
-            workflowTransitionHistoryService.escalateTransition(violatingTicket.getId());
+        Set<Long> teamIds =
+                breaches.stream().map(SlaBreachDTO::getTeamId).collect(Collectors.toSet());
+        Map<Long, List<Recipient>> managersByTeam = new HashMap<>();
+        for (TeamManagerDTO manager : teamService.getTeamManagers(teamIds)) {
+            managersByTeam
+                    .computeIfAbsent(manager.getTeamId(), teamId -> new ArrayList<>())
+                    .add(
+                            new Recipient(
+                                    manager.getUserId(),
+                                    manager.getEmail(),
+                                    manager.getFirstName(),
+                                    manager.getLastName(),
+                                    manager.getLangKey()));
+        }
 
-            // ✅ Fetch assign user (if exists)
-            User assignUser = ticket.getAssignUser();
+        Map<Locale, PrerenderedTemplate> templates = new HashMap<>();
+        List<Notification> notifications = new ArrayList<>();
+        List<EmailJob> emailJobs = new ArrayList<>();
+        List<String> cacheKeys = new ArrayList<>();
 
-            // ✅ Fetch all team managers
-            List<User> teamManagers = teamService.getTeamManagers(ticket.getTeam().getId());
+        for (SlaBreachDTO breach : breaches) {
+            String formattedSlaDueDate =
+                    breach.getSlaDueDate().atZone(ZoneId.of("UTC")).format(formatter);
+            String content = notificationContent(breach, formattedSlaDueDate);
+            Map<String, String> variables = new HashMap<>();
+            variables.put("requestTitle", breach.getRequestTitle());
+            variables.put("obfuscatedTeamId", Obfuscator.obfuscate(breach.getTeamId()));
+            variables.put("obfuscatedTicketId", Obfuscator.obfuscate(breach.getTicketId()));
+            variables.put("slaDueDate", formattedSlaDueDate);
 
-            // ✅ Collect all recipients (Assign User + Team Managers)
-            Set<User> recipients = new HashSet<>();
-            if (assignUser != null) {
-                recipients.add(assignUser);
+            // Assignee and team managers, each once
+            Map<Long, Recipient> recipients = new LinkedHashMap<>();
+            if (breach.getAssignUserId() != null) {
+                recipients.put(
+                        breach.getAssignUserId(),
+                        new Recipient(
+                                breach.getAssignUserId(),
+                                breach.getAssignUserEmail(),
+                                breach.getAssignUserFirstName(),
+                                breach.getAssignUserLastName(),
+                                breach.getAssignUserLangKey()));
+            }
+            for (Recipient manager : managersByTeam.getOrDefault(breach.getTeamId(), List.of())) {
+                recipients.putIfAbsent(manager.id(), manager);
             }
-            recipients.addAll(teamManagers); // Always notify managers
 
-            for (User recipient : recipients) {
-                // ✅ Build unique cache key per user to prevent duplicate notifications
+            for (Recipient recipient : recipients.values()) {
                 String cacheKey =
                         buildSlaWarningKey(
-                                recipient.getId(),
-                                ticket.getId(),
-                                violatingTicket.getTicket().getWorkflow().getId(),
-                                violatingTicket.getEventName(),
-                                violatingTicket.getToState().getId(),
+                                recipient.id(),
+                                breach.getTicketId(),
+                                breach.getWorkflowId(),
+                                breach.getEventName(),
+                                breach.getToStateId(),
                                 "SendNotificationForTicketsViolateSlaJob");
 
                 if (deduplicationCacheService.containsKey(cacheKey)) {
                     continue;
                 }
 
-                // ✅ Create notification content
-                String html =
-                        p(
-                                        text("The ticket "),
-                                        a(ticket.getRequestTitle())
-                                                .withHref(
-                                                        "/portal/teams/"
-                                                                + Obfuscator.obfuscate(
-                                                                        ticket.getTeam().getId())
-                                                                + "/tickets/"
-                                                                + Obfuscator.obfuscate(
-                                                                        ticket.getId())),
-                                        text(
-                                                " assigned to you or your team has violated its SLA. The SLA was due on "),
-                                        strong(text(formattedSlaDueDate)),
-                                        text(". Please take necessary action immediately."))
-                                .render();
-
-                // ✅ Create notification object
                 Notification notification =
                         Notification.builder()
-                                .content(html)
+                                .content(content)
                                 .type(NotificationType.SLA_BREACH)
-                                .user(User.builder().id(recipient.getId()).build())
+                                .user(User.builder().id(recipient.id()).build())
                                 .isRead(false)
                                 .build();
+                notification.setTenantId(breach.getTenantId());
+                notifications.add(notification);
 
-                // ✅ Send WebSocket notification
-                sseController.sendEventToUser(recipient.getId(), NOTIFICATION, notification);
-
-                EmailContext emailContext =
-                        new EmailContext(
-                                        Locale.forLanguageTag("en"),
-                                        mailService.getBaseUrl(),
-                                        messageSource)
-                                .setToUser(userMapper.toDto(recipient))
-                                .setSubject(
-                                        "email.ticket.sla.violation.subject",
-                                        ticket.getRequestTitle(),
-                                        ticket.getTeam().getName())
-                                .addVariable("requestTitle", ticket.getRequestTitle())
-                                .addVariable(
-                                        "obfuscatedTeamId",
-                                        Obfuscator.obfuscate(ticket.getTeam().getId()))
-                                .addVariable(
-                                        "obfuscatedTicketId", Obfuscator.obfuscate(ticket.getId()))
-                                .addVariable("slaDueDate", formattedSlaDueDate)
-                                .setTemplate("mail/violatedSlaTicketEmail");
-
-                mailService.sendEmail(emailContext);
-
-                // ✅ Store Key in Deduplication Cache
-                deduplicationCacheService.put(cacheKey, Duration.ofHours(24));
+                if (recipient.email() != null) {
+                    Locale locale =
+                            Locale.forLanguageTag(
+                                    recipient.langKey() != null ? recipient.langKey() : "en");
+                    PrerenderedTemplate template =
+                            templates.computeIfAbsent(locale, this::renderTemplate);
+                    Map<String, String> values = new HashMap<>(variables);
+                    values.put(FIRST_NAME, recipient.firstName());
+                    emailJobs.add(
+                            EmailJobService.renderedEmailJob(
+                                    recipient.name(),
+                                    recipient.email(),
+                                    locale.toLanguageTag(),
+                                    TEMPLATE,
+                                    templateContext(variables),
+                                    messageSource.getMessage(
+                                            "email.ticket.sla.violation.subject",
+                                            new Object[] {
+                                                breach.getRequestTitle(), breach.getTeamName()
+                                            },
+                                            locale),
+                                    template.fill(values)));
+                }
+
+                cacheKeys.add(cacheKey);
             }
+        }
+
+        notificationService.createNotifications(notifications);
+        emailJobService.enqueueRenderedEmailJobs(emailJobs);
+
+        for (Notification notification : notifications) {
+            sseController.sendEventToUser(
+                    notification.getUser().getId(), NOTIFICATION, notification);
+        }
+        cacheKeys.forEach(
+                cacheKey -> deduplicationCacheService.put(cacheKey, Duration.ofHours(24)));
+
+        log.debug(
+                "SLA violation notifications sent for {} transitions: {} notifications, {} mails"
+                        + " in {} locales",
+                breaches.size(),
+                notifications.size(),
+                emailJobs.size(),
+                templates.size());
+    }
+
+    private String notificationContent(SlaBreachDTO breach, String formattedSlaDueDate) {
+        return p(
+                        text("The ticket "),
+                        a(breach.getRequestTitle())
+                                .withHref(
+                                        "/portal/teams/"
+                                                + Obfuscator.obfuscate(breach.getTeamId())
+                                                + "/tickets/"
+                                                + Obfuscator.obfuscate(breach.getTicketId())),
+                        text(
+                                " assigned to you or your team has violated its SLA. The SLA was due on "),
+                        strong(text(formattedSlaDueDate)),
+                        text(". Please take necessary action immediately."))
+                .render();
+    }
+
+    /** Renders the mail template with placeholders for everything that differs between mails. */
+    private PrerenderedTemplate renderTemplate(Locale locale) {
+        UserDTO user = new UserDTO();
+        user.setFirstName(PrerenderedTemplate.placeholder(FIRST_NAME));
+        EmailContext emailContext =
+                new EmailContext(locale, mailService.getBaseUrl(), messageSource).setToUser(user);
+        for (String variable : TICKET_VARIABLES) {
+            emailContext.addVariable(variable, PrerenderedTemplate.placeholder(variable));
+        }
+        String rendered = templateEngine.process(TEMPLATE, emailContext.getThymeleafContext());
+
+        List<String> names = new ArrayList<>(TICKET_VARIABLES);
+        names.add(FIRST_NAME);
+        return PrerenderedTemplate.parse(rendered, names);
+    }
+
+    private static ObjectNode templateContext(Map<String, String> variables) {
+        ObjectNode context = JsonNodeFactory.instance.objectNode();
+        variables.forEach(context::put);
+        return context;
+    }
+
+    private record Recipient(
+            Long id, String email, String firstName, String lastName, String langKey) {
 
-            log.debug("SLA violation notification sent for ticket {}", violatingTicket);
+        String name() {
+            return ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : ""))
+                    .trim();
         }
     }
 }
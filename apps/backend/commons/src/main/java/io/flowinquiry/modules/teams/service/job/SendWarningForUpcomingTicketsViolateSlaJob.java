@@ -22,13 +22,13 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.springframework.context.annotation.Profile;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Profile("!test")
@@ -36,10 +36,6 @@ import org.springframework.stereotype.Component;
 @AllArgsConstructor
 public class SendWarningForUpcomingTicketsViolateSlaJob {
 
-    // send the warning to people before 30 minutes the SLAs are violated, this value should get
-    // from team settings
-    private static final int PRIOR_SLA_WARNING_THRESHOLD_IN_SECONDS = 1800;
-
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm z");
 
     private final TeamService teamService;
@@ -50,12 +46,16 @@ public class SendWarningForUpcomingTicketsViolateSlaJob {
 
     private final SseController sseController;
 
-    @Scheduled(cron = "0 0/15 * * * ?")
-    @SchedulerLock(name = "SendWarningForUpcomingTicketsViolateSlaJob")
-    public void run() {
+    /**
+     * Warns the assignee, or the team managers of unassigned tickets, that the SLA of the given
+     * transitions is due soon. Transitions warned of already, by this or another node, are skipped.
+     *
+     * @param transitionIds The transitions whose SLA is due soon.
+     */
+    @Transactional
+    public void run(Collection<Long> transitionIds) {
         List<WorkflowTransitionHistory> violatingTickets =
-                workflowTransitionHistoryService.getViolatingTransitions(
-                        PRIOR_SLA_WARNING_THRESHOLD_IN_SECONDS);
+                workflowTransitionHistoryService.claimSlaWarnings(transitionIds);
 
         for (WorkflowTransitionHistory violatingTicket : violatingTickets) {
             Ticket ticket = violatingTicket.getTicket();
@@ -0,0 +1,30 @@
+package io.flowinquiry.modules.teams.service.job;
+
+import io.flowinquiry.modules.teams.service.TicketService;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class TicketCounterReconciliationJob {
+    private final TicketService ticketService;
+
+    public TicketCounterReconciliationJob(TicketService ticketService) {
+        this.ticketService = ticketService;
+    }
+
+    /**
+     * Scheduled job to verify the attachment and watcher counters of tickets against the
+     * attachments and watchers they count.
+     *
+     * <p>Runs daily at 3 AM and repairs the counters that have drifted.
+     */
+    @Scheduled(cron = "0 0 3 * * ?") // Runs daily at 3 AM
+    @SchedulerLock(name = "TicketCounterReconciliationJob")
+    public void reconcileTicketCounters() {
+        int repaired = ticketService.reconcileCounters();
+        log.info("Ticket counter reconciliation repaired {} tickets", repaired);
+    }
+}
@@ -0,0 +1,31 @@
+package io.flowinquiry.modules.teams.service.job;
+
+import io.flowinquiry.modules.teams.service.TicketRollupService;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class TicketRollupReconciliationJob {
+    private final TicketRollupService ticketRollupService;
+
+    public TicketRollupReconciliationJob(TicketRollupService ticketRollupService) {
+        this.ticketRollupService = ticketRollupService;
+    }
+
+    /**
+     * Scheduled job to verify the ticket rollups against the tickets they summarize.
+     *
+     * <p>Runs daily at 2 AM and corrects the rollups that have drifted, e.g. after tickets were
+     * changed outside of {@code TicketService}. Projects are reconciled one at a time, without
+     * blocking ticket writes.
+     */
+    @Scheduled(cron = "0 0 2 * * ?") // Runs daily at 2 AM
+    @SchedulerLock(name = "TicketRollupReconciliationJob")
+    public void reconcileTicketRollups() {
+        long mismatches = ticketRollupService.reconcile();
+        log.info("Ticket rollup reconciliation found {} mismatched rows", mismatches);
+    }
+}
@@ -11,8 +11,8 @@ import io.flowinquiry.modules.collab.domain.ActivityLog;
 import io.flowinquiry.modules.collab.domain.EntityType;
 import io.flowinquiry.modules.collab.domain.Notification;
 import io.flowinquiry.modules.collab.domain.NotificationType;
-import io.flowinquiry.modules.collab.repository.ActivityLogRepository;
 import io.flowinquiry.modules.collab.repository.NotificationRepository;
+import io.flowinquiry.modules.collab.service.ActivityLogWriter;
 import io.flowinquiry.modules.shared.controller.SseController;
 import io.flowinquiry.modules.shared.domain.EventPayloadType;
 import io.flowinquiry.modules.teams.repository.TeamRepository;
@@ -37,7 +37,7 @@ public class NewProjectCreatedNotificationEventListener {
 
     private final TeamRepository teamRepository;
     private final NotificationRepository notificationRepository;
-    private final ActivityLogRepository activityLogRepository;
+    private final ActivityLogWriter activityLogWriter;
     private final UserRepository userRepository;
     private final SseController sseController;
 
@@ -101,6 +101,6 @@ public class NewProjectCreatedNotificationEventListener {
                         .entityType(EntityType.Team)
                         .content(html)
                         .build();
-        activityLogRepository.save(activityLog);
+        activityLogWriter.write(activityLog);
     }
 }
@@ -4,9 +4,9 @@ import io.flowinquiry.modules.teams.service.TicketHealthEvalService;
 import io.flowinquiry.modules.teams.service.dto.TicketDTO;
 import io.flowinquiry.modules.teams.service.event.NewTicketCreatedEvent;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 @Component
 @ConditionalOnBean(TicketHealthEvalService.class)
@@ -18,11 +18,14 @@ public class NewTicketCreatedAiSummaryEventListener {
         this.ticketHealthEvalService = ticketHealthEvalService;
     }
 
-    @Async("asyncTaskExecutor")
-    @EventListener
+    /**
+     * Only queues the ticket; it is evaluated on the executor of the evaluation service once the
+     * transaction that published the event has committed, so the evaluation sees its data.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void onNewTicketCreated(NewTicketCreatedEvent event) {
         TicketDTO ticketDTO = event.getTicket();
-        ticketHealthEvalService.evaluateConversationHealth(
+        ticketHealthEvalService.submit(
                 ticketDTO.getId(),
                 "Title: "
                         + ticketDTO.getRequestTitle()
@@ -30,6 +33,6 @@ public class NewTicketCreatedAiSummaryEventListener {
                         + "Description: "
                         + ticketDTO.getRequestDescription()
                         + "\n",
-                true);
+                ticketDTO.getRequestUserId());
     }
 }
@@ -8,7 +8,7 @@ import static j2html.TagCreator.span;
 
 import io.flowinquiry.modules.collab.domain.ActivityLog;
 import io.flowinquiry.modules.collab.domain.EntityType;
-import io.flowinquiry.modules.collab.repository.ActivityLogRepository;
+import io.flowinquiry.modules.collab.service.ActivityLogWriter;
 import io.flowinquiry.modules.teams.domain.Team;
 import io.flowinquiry.modules.teams.repository.TeamRepository;
 import io.flowinquiry.modules.teams.service.event.NewUsersAddedIntoTeamEvent;
@@ -25,15 +25,15 @@ import org.springframework.transaction.annotation.Transactional;
 @Component
 public class NewUserAddedIntoTeamNotificationEventListener {
 
-    private final ActivityLogRepository activityLogRepository;
+    private final ActivityLogWriter activityLogWriter;
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
 
     public NewUserAddedIntoTeamNotificationEventListener(
-            ActivityLogRepository activityLogRepository,
+            ActivityLogWriter activityLogWriter,
             TeamRepository teamRepository,
             UserRepository userRepository) {
-        this.activityLogRepository = activityLogRepository;
+        this.activityLogWriter = activityLogWriter;
         this.teamRepository = teamRepository;
         this.userRepository = userRepository;
     }
@@ -82,6 +82,6 @@ public class NewUserAddedIntoTeamNotificationEventListener {
                         .content(content)
                         .createdBy(SecurityUtils.getCurrentUserAuditorLogin())
                         .build();
-        activityLogRepository.save(activityLog);
+        activityLogWriter.write(activityLog);
     }
 }
@@ -3,12 +3,16 @@ package io.flowinquiry.modules.teams.service.listener;
 import static io.flowinquiry.modules.shared.domain.EventPayloadType.UPDATED_EPIC;
 
 import io.flowinquiry.modules.shared.controller.SseController;
-import io.flowinquiry.modules.teams.repository.TeamRepository;
 import io.flowinquiry.modules.teams.repository.TicketRepository;
 import io.flowinquiry.modules.teams.service.dto.ProjectEpicDTO;
+import io.flowinquiry.modules.teams.service.dto.TicketDTO;
 import io.flowinquiry.modules.teams.service.event.ProjectEpicChangedByTicketEvent;
-import io.flowinquiry.modules.usermanagement.service.dto.UserWithTeamRoleDTO;
+import io.flowinquiry.modules.teams.service.event.TicketsBulkUpdatedEvent;
+import io.flowinquiry.sse.SseTopics;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import lombok.AllArgsConstructor;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
@@ -19,7 +23,6 @@ import org.springframework.transaction.annotation.Transactional;
 @AllArgsConstructor
 public class ProjectEpicChangedByTicketEventListener {
 
-    private final TeamRepository teamRepository;
     private final TicketRepository ticketRepository;
     private final SseController sseController;
 
@@ -30,14 +33,10 @@ public class ProjectEpicChangedByTicketEventListener {
         Long epicId = event.getTicket().getEpicId();
         Long teamId = event.getTicket().getTeamId();
         if (epicId != null) {
-            List<Long> userIds =
-                    teamRepository.findUsersByTeamId(teamId).stream()
-                            .map(UserWithTeamRoleDTO::getId)
-                            .toList();
             Long totalStoryPointsByEpicId =
                     ticketRepository.getTotalStoryPointsByEpicId(event.getTicket().getEpicId());
-            sseController.sendEventToUsers(
-                    userIds,
+            sseController.sendEventToTopic(
+                    SseTopics.team(teamId),
                     UPDATED_EPIC,
                     ProjectEpicDTO.builder()
                             .id(epicId)
@@ -45,4 +44,38 @@ public class ProjectEpicChangedByTicketEventListener {
                             .build());
         }
     }
+
+    /**
+     * Sends the story points of every epic the batch moved tickets into or out of, once per epic.
+     */
+    @Async("asyncTaskExecutor")
+    @EventListener
+    @Transactional
+    public void onTicketsBulkUpdated(TicketsBulkUpdatedEvent event) {
+        Map<Long, Long> teamByEpicId = new LinkedHashMap<>();
+        List<TicketDTO> previousTickets = event.getPreviousTickets();
+        List<TicketDTO> updatedTickets = event.getUpdatedTickets();
+        for (int i = 0; i < updatedTickets.size(); i++) {
+            TicketDTO previous = previousTickets.get(i);
+            TicketDTO updated = updatedTickets.get(i);
+            if (!Objects.equals(previous.getEpicId(), updated.getEpicId())) {
+                for (TicketDTO ticket : List.of(previous, updated)) {
+                    if (ticket.getEpicId() != null) {
+                        teamByEpicId.putIfAbsent(ticket.getEpicId(), ticket.getTeamId());
+                    }
+                }
+            }
+        }
+        teamByEpicId.forEach(
+                (epicId, teamId) ->
+                        sseController.sendEventToTopic(
+                                SseTopics.team(teamId),
+                                UPDATED_EPIC,
+                                ProjectEpicDTO.builder()
+                                        .id(epicId)
+                                        .totalStoryPoints(
+                                                ticketRepository.getTotalStoryPointsByEpicId(
+                                                        epicId))
+                                        .build()));
+    }
 }
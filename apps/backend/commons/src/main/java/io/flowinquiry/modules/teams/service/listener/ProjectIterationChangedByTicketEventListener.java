@@ -3,45 +3,80 @@ package io.flowinquiry.modules.teams.service.listener;
 import static io.flowinquiry.modules.shared.domain.EventPayloadType.UPDATED_ITERATION;
 
 import io.flowinquiry.modules.shared.controller.SseController;
-import io.flowinquiry.modules.teams.repository.TeamRepository;
 import io.flowinquiry.modules.teams.repository.TicketRepository;
 import io.flowinquiry.modules.teams.service.dto.ProjectIterationDTO;
+import io.flowinquiry.modules.teams.service.dto.TicketDTO;
 import io.flowinquiry.modules.teams.service.event.ProjectIterationChangedByTicketEvent;
-import io.flowinquiry.modules.usermanagement.service.dto.UserWithTeamRoleDTO;
+import io.flowinquiry.modules.teams.service.event.TicketsBulkUpdatedEvent;
+import io.flowinquiry.sse.SseTopics;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 @Component
+@RequiredArgsConstructor
 public class ProjectIterationChangedByTicketEventListener {
 
-    private TeamRepository teamRepository;
-    private TicketRepository ticketRepository;
-    private SseController sseController;
+    private final TicketRepository ticketRepository;
+    private final SseController sseController;
 
     @Async("asyncTaskExecutor")
     @EventListener
     @Transactional
     public void onProjectIterationChangedByTicket(ProjectIterationChangedByTicketEvent event) {
-        Long iterationId = event.getTicket().getEpicId();
+        Long iterationId = event.getTicket().getIterationId();
         Long teamId = event.getTicket().getTeamId();
         if (iterationId != null) {
-            List<Long> userIds =
-                    teamRepository.findUsersByTeamId(teamId).stream()
-                            .map(UserWithTeamRoleDTO::getId)
-                            .toList();
-            Long totalStoryPointsByEpicId =
-                    ticketRepository.getTotalStoryPointsByIterationId(
-                            event.getTicket().getIterationId());
-            sseController.sendEventToUsers(
-                    userIds,
+            Long totalStoryPointsByIterationId =
+                    ticketRepository.getTotalStoryPointsByIterationId(iterationId);
+            sseController.sendEventToTopic(
+                    SseTopics.team(teamId),
                     UPDATED_ITERATION,
                     ProjectIterationDTO.builder()
                             .id(iterationId)
-                            .totalStoryPoints(totalStoryPointsByEpicId)
+                            .totalStoryPoints(totalStoryPointsByIterationId)
                             .build());
         }
     }
+
+    /**
+     * Sends the story points of every iteration the batch moved tickets into or out of, once per
+     * iteration.
+     */
+    @Async("asyncTaskExecutor")
+    @EventListener
+    @Transactional
+    public void onTicketsBulkUpdated(TicketsBulkUpdatedEvent event) {
+        Map<Long, Long> teamByIterationId = new LinkedHashMap<>();
+        List<TicketDTO> previousTickets = event.getPreviousTickets();
+        List<TicketDTO> updatedTickets = event.getUpdatedTickets();
+        for (int i = 0; i < updatedTickets.size(); i++) {
+            TicketDTO previous = previousTickets.get(i);
+            TicketDTO updated = updatedTickets.get(i);
+            if (!Objects.equals(previous.getIterationId(), updated.getIterationId())) {
+                for (TicketDTO ticket : List.of(previous, updated)) {
+                    if (ticket.getIterationId() != null) {
+                        teamByIterationId.putIfAbsent(ticket.getIterationId(), ticket.getTeamId());
+                    }
+                }
+            }
+        }
+        teamByIterationId.forEach(
+                (iterationId, teamId) ->
+                        sseController.sendEventToTopic(
+                                SseTopics.team(teamId),
+                                UPDATED_ITERATION,
+                                ProjectIterationDTO.builder()
+                                        .id(iterationId)
+                                        .totalStoryPoints(
+                                                ticketRepository.getTotalStoryPointsByIterationId(
+                                                        iterationId))
+                                        .build()));
+    }
 }
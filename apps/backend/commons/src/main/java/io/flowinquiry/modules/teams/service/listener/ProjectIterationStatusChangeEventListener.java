@@ -5,11 +5,9 @@ import io.flowinquiry.modules.shared.domain.EventPayloadType;
 import io.flowinquiry.modules.teams.domain.ProjectIteration;
 import io.flowinquiry.modules.teams.domain.ProjectIterationStatus;
 import io.flowinquiry.modules.teams.domain.Team;
-import io.flowinquiry.modules.teams.repository.TeamRepository;
 import io.flowinquiry.modules.teams.service.event.ProjectIterationStatusChangeEvent;
 import io.flowinquiry.modules.teams.service.mapper.ProjectIterationMapper;
-import io.flowinquiry.modules.usermanagement.service.dto.UserWithTeamRoleDTO;
-import java.util.List;
+import io.flowinquiry.sse.SseTopics;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
@@ -19,7 +17,6 @@ import org.springframework.transaction.annotation.Transactional;
 @Component
 @RequiredArgsConstructor
 public class ProjectIterationStatusChangeEventListener {
-    private final TeamRepository teamRepository;
     private final SseController sseController;
     private final ProjectIterationMapper projectIterationMapper;
 
@@ -30,17 +27,15 @@ public class ProjectIterationStatusChangeEventListener {
         ProjectIteration iteration = event.getProjectIteration();
         Team team = iteration.getProject().getTeam();
         if (team != null && team.getId() != null) {
-            List<Long> userIds =
-                    teamRepository.findUsersByTeamId(team.getId()).stream()
-                            .map(UserWithTeamRoleDTO::getId)
-                            .toList();
             EventPayloadType payloadType =
                     iteration.getStatus() == ProjectIterationStatus.CLOSED
                             ? EventPayloadType.ITERATION_CLOSED
                             : EventPayloadType.ITERATION_CREATED;
 
-            sseController.sendEventToUsers(
-                    userIds, payloadType, projectIterationMapper.toDto(iteration));
+            sseController.sendEventToTopic(
+                    SseTopics.team(team.getId()),
+                    payloadType,
+                    projectIterationMapper.toDto(iteration));
         }
     }
 }
@@ -8,7 +8,7 @@ import static j2html.TagCreator.span;
 
 import io.flowinquiry.modules.collab.domain.ActivityLog;
 import io.flowinquiry.modules.collab.domain.EntityType;
-import io.flowinquiry.modules.collab.repository.ActivityLogRepository;
+import io.flowinquiry.modules.collab.service.ActivityLogWriter;
 import io.flowinquiry.modules.teams.domain.Team;
 import io.flowinquiry.modules.teams.repository.TeamRepository;
 import io.flowinquiry.modules.teams.service.event.RemoveUserOutOfTeamEvent;
@@ -27,15 +27,15 @@ public class RemoveUserOutOfTeamNotificationEventListener {
 
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
-    private final ActivityLogRepository activityLogRepository;
+    private final ActivityLogWriter activityLogWriter;
 
     public RemoveUserOutOfTeamNotificationEventListener(
             TeamRepository teamRepository,
             UserRepository userRepository,
-            ActivityLogRepository activityLogRepository) {
+            ActivityLogWriter activityLogWriter) {
         this.teamRepository = teamRepository;
         this.userRepository = userRepository;
-        this.activityLogRepository = activityLogRepository;
+        this.activityLogWriter = activityLogWriter;
     }
 
     @Async("asyncTaskExecutor")
@@ -77,6 +77,6 @@ public class RemoveUserOutOfTeamNotificationEventListener {
                         .content(content)
                         .createdBy(SecurityUtils.getCurrentUserAuditorLogin())
                         .build();
-        activityLogRepository.save(activityLog);
+        activityLogWriter.write(activityLog);
     }
 }
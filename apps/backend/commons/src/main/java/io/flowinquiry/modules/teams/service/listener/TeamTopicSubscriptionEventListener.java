@@ -0,0 +1,31 @@
+package io.flowinquiry.modules.teams.service.listener;
+
+import io.flowinquiry.modules.shared.controller.SseController;
+import io.flowinquiry.modules.teams.service.event.NewUsersAddedIntoTeamEvent;
+import io.flowinquiry.modules.teams.service.event.RemoveUserOutOfTeamEvent;
+import io.flowinquiry.sse.SseTopics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the team topics of connected users in line with team membership, so that a user added to or
+ * removed from a team does not have to reconnect to see the right team events.
+ */
+@Component
+@RequiredArgsConstructor
+public class TeamTopicSubscriptionEventListener {
+
+    private final SseController sseController;
+
+    @EventListener
+    public void onNewUsersAddedIntoTeam(NewUsersAddedIntoTeamEvent event) {
+        String topic = SseTopics.team(event.getTeamId());
+        event.getUserIds().forEach(userId -> sseController.subscribeToTopic(userId, topic));
+    }
+
+    @EventListener
+    public void onRemoveUserOutOfTeam(RemoveUserOutOfTeamEvent event) {
+        sseController.unsubscribeFromTopic(event.getUserId(), SseTopics.team(event.getTeamId()));
+    }
+}
@@ -2,38 +2,32 @@ package io.flowinquiry.modules.teams.service.listener;
 
 import io.flowinquiry.modules.collab.service.dto.CommentDTO;
 import io.flowinquiry.modules.teams.service.TicketHealthEvalService;
-import io.flowinquiry.modules.teams.service.TicketService;
-import io.flowinquiry.modules.teams.service.dto.TicketDTO;
 import io.flowinquiry.modules.teams.service.event.TicketCommentCreatedEvent;
-import java.util.Objects;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 @Component
 @ConditionalOnBean(TicketHealthEvalService.class)
 public class TicketCommentCreatedAiEvaluateConversationHealthEventListener {
 
-    private final TicketService ticketService;
-
     private final TicketHealthEvalService ticketHealthEvalService;
 
     public TicketCommentCreatedAiEvaluateConversationHealthEventListener(
-            TicketService ticketService, TicketHealthEvalService ticketHealthEvalService) {
+            TicketHealthEvalService ticketHealthEvalService) {
         this.ticketHealthEvalService = ticketHealthEvalService;
-        this.ticketService = ticketService;
     }
 
-    @Async("asyncTaskExecutor")
-    @EventListener
+    /**
+     * Only queues the comment; it is evaluated on the executor of the evaluation service once the
+     * transaction that published the event has committed, so the evaluation sees its data.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void onTicketNewCommentAiEvaluateConversationHealthEvent(
             TicketCommentCreatedEvent event) {
         CommentDTO comment = event.getCommentDTO();
-        TicketDTO ticketDTO = ticketService.getTicketById(comment.getEntityId());
-        ticketHealthEvalService.evaluateConversationHealth(
-                comment.getEntityId(),
-                comment.getContent(),
-                Objects.equals(ticketDTO.getRequestUserId(), comment.getCreatedById()));
+        ticketHealthEvalService.submit(
+                comment.getEntityId(), comment.getContent(), comment.getCreatedById());
     }
 }
@@ -13,8 +13,8 @@ import io.flowinquiry.exceptions.ResourceNotFoundException;
 import io.flowinquiry.modules.collab.domain.ActivityLog;
 import io.flowinquiry.modules.collab.domain.Notification;
 import io.flowinquiry.modules.collab.domain.NotificationType;
-import io.flowinquiry.modules.collab.repository.ActivityLogRepository;
 import io.flowinquiry.modules.collab.repository.NotificationRepository;
+import io.flowinquiry.modules.collab.service.ActivityLogWriter;
 import io.flowinquiry.modules.collab.service.dto.CommentDTO;
 import io.flowinquiry.modules.shared.controller.SseController;
 import io.flowinquiry.modules.teams.repository.TeamRepository;
@@ -41,7 +41,7 @@ public class TicketCommentCreatedNotificationEventListener {
     private final TicketService ticketService;
     private final TeamRepository teamRepository;
     private final NotificationRepository notificationRepository;
-    private final ActivityLogRepository activityLogRepository;
+    private final ActivityLogWriter activityLogWriter;
     private final SseController sseController;
 
     @Async("asyncTaskExecutor")
@@ -106,6 +106,6 @@ public class TicketCommentCreatedNotificationEventListener {
                         .entityType(Team)
                         .content(html)
                         .build();
-        activityLogRepository.save(activityLog);
+        activityLogWriter.write(activityLog);
     }
 }
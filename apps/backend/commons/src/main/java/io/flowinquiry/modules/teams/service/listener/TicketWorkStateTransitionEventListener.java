@@ -7,15 +7,21 @@ import static j2html.TagCreator.text;
 
 import io.flowinquiry.modules.collab.domain.ActivityLog;
 import io.flowinquiry.modules.collab.domain.EntityType;
-import io.flowinquiry.modules.collab.repository.ActivityLogRepository;
+import io.flowinquiry.modules.collab.service.ActivityLogWriter;
 import io.flowinquiry.modules.teams.domain.Ticket;
 import io.flowinquiry.modules.teams.domain.WorkflowState;
 import io.flowinquiry.modules.teams.repository.TicketRepository;
 import io.flowinquiry.modules.teams.repository.WorkflowStateRepository;
 import io.flowinquiry.modules.teams.service.WorkflowTransitionHistoryService;
+import io.flowinquiry.modules.teams.service.dto.TicketDTO;
 import io.flowinquiry.modules.teams.service.event.TicketWorkStateTransitionEvent;
+import io.flowinquiry.modules.teams.service.event.TicketsBulkUpdatedEvent;
+import io.flowinquiry.modules.usermanagement.domain.User;
+import io.flowinquiry.modules.usermanagement.repository.UserRepository;
 import io.flowinquiry.utils.Obfuscator;
 import jakarta.persistence.EntityNotFoundException;
+import java.util.List;
+import java.util.Objects;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
@@ -24,20 +30,23 @@ import org.springframework.transaction.annotation.Transactional;
 @Component
 public class TicketWorkStateTransitionEventListener {
 
-    private final ActivityLogRepository activityLogRepository;
+    private final ActivityLogWriter activityLogWriter;
     private final TicketRepository ticketRepository;
     private final WorkflowStateRepository workflowStateRepository;
     private final WorkflowTransitionHistoryService workflowTransitionHistoryService;
+    private final UserRepository userRepository;
 
     public TicketWorkStateTransitionEventListener(
-            ActivityLogRepository activityLogRepository,
+            ActivityLogWriter activityLogWriter,
             TicketRepository ticketRepository,
             WorkflowStateRepository workflowStateRepository,
-            WorkflowTransitionHistoryService workflowTransitionHistoryService) {
-        this.activityLogRepository = activityLogRepository;
+            WorkflowTransitionHistoryService workflowTransitionHistoryService,
+            UserRepository userRepository) {
+        this.activityLogWriter = activityLogWriter;
         this.ticketRepository = ticketRepository;
         this.workflowStateRepository = workflowStateRepository;
         this.workflowTransitionHistoryService = workflowTransitionHistoryService;
+        this.userRepository = userRepository;
     }
 
     @Async("asyncTaskExecutor")
@@ -87,28 +96,82 @@ public class TicketWorkStateTransitionEventListener {
             userLink = "/portal/users/" + Obfuscator.obfuscate(ticket.getModifiedBy());
         }
 
+        writeActivityLog(
+                userName,
+                userLink,
+                ticket.getTeam().getId(),
+                ticket.getId(),
+                ticket.getRequestTitle(),
+                sourceState.getStateName(),
+                targetState.getStateName());
+    }
+
+    /**
+     * Logs the state changes of a bulk update. The history of the transitions is recorded by the
+     * update itself; the tickets and state names come with the event.
+     */
+    @Async("asyncTaskExecutor")
+    @EventListener
+    @Transactional
+    public void onTicketsBulkUpdated(TicketsBulkUpdatedEvent event) {
+        String userName = "System";
+        String userLink = "";
+        User user =
+                event.getModifiedBy() == null
+                        ? null
+                        : userRepository.findById(event.getModifiedBy()).orElse(null);
+        if (user != null) {
+            userName = user.getFirstName() + " " + user.getLastName();
+            userLink = "/portal/users/" + Obfuscator.obfuscate(user.getId());
+        }
+
+        List<TicketDTO> previousTickets = event.getPreviousTickets();
+        List<TicketDTO> updatedTickets = event.getUpdatedTickets();
+        for (int i = 0; i < updatedTickets.size(); i++) {
+            TicketDTO previous = previousTickets.get(i);
+            TicketDTO updated = updatedTickets.get(i);
+            if (!Objects.equals(previous.getCurrentStateId(), updated.getCurrentStateId())) {
+                writeActivityLog(
+                        userName,
+                        userLink,
+                        updated.getTeamId(),
+                        updated.getId(),
+                        updated.getRequestTitle(),
+                        previous.getCurrentStateName(),
+                        updated.getCurrentStateName());
+            }
+        }
+    }
+
+    private void writeActivityLog(
+            String userName,
+            String userLink,
+            Long teamId,
+            Long ticketId,
+            String requestTitle,
+            String sourceStateName,
+            String targetStateName) {
         String html =
                 p().with(
                                 a(userName).withHref(userLink),
                                 text(" updated the ticket "),
-                                a(ticket.getRequestTitle())
+                                a(requestTitle)
                                         .withHref(
                                                 "/portal/teams/"
-                                                        + Obfuscator.obfuscate(
-                                                                ticket.getTeam().getId())
+                                                        + Obfuscator.obfuscate(teamId)
                                                         + "/tickets/"
-                                                        + Obfuscator.obfuscate(ticket.getId())),
+                                                        + Obfuscator.obfuscate(ticketId)),
                                 text(" status from "),
-                                span(sourceState.getStateName()).withClass("status-old"),
+                                span(sourceStateName).withClass("status-old"),
                                 text(" to "),
-                                span(targetState.getStateName()).withClass("status-new"))
+                                span(targetStateName).withClass("status-new"))
                         .render();
         ActivityLog activityLog =
                 ActivityLog.builder()
-                        .entityId(ticket.getTeam().getId())
+                        .entityId(teamId)
                         .entityType(EntityType.Team)
                         .content(html)
                         .build();
-        activityLogRepository.save(activityLog);
+        activityLogWriter.write(activityLog);
     }
 }
@@ -0,0 +1,210 @@
+package io.flowinquiry.modules.teams.service.sla;
+
+import io.flowinquiry.config.FlowInquiryProperties;
+import io.flowinquiry.modules.teams.service.WorkflowTransitionHistoryService;
+import io.flowinquiry.modules.teams.service.dto.SlaDeadlineDTO;
+import io.flowinquiry.modules.teams.service.event.SlaDueDateScheduledEvent;
+import io.flowinquiry.modules.teams.service.event.TicketsBulkUpdatedEvent;
+import io.flowinquiry.modules.teams.service.job.SendNotificationForTicketsViolateSlaJob;
+import io.flowinquiry.modules.teams.service.job.SendWarningForUpcomingTicketsViolateSlaJob;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Fires SLA warnings and escalations at the moment they are due. Every transition in progress with
+ * an SLA has a warning timer {@code warningLeadSeconds} before its due date and an escalation timer
+ * on it, held in a {@link TimerWheel} that one background thread advances every tick.
+ *
+ * <p>Timers are added as SLA due dates are set, and reloaded every {@code resyncIntervalSeconds}
+ * for the transitions due before the next reload, from the index on status and due date. The reload
+ * picks up due dates set on other nodes and retries escalations that failed. Every node may fire
+ * the same timer; the database update that escalates a transition or records its warning decides
+ * which node sends the notifications.
+ */
+@Component
+@Profile("!test")
+@Slf4j
+public class SlaTimerService implements SmartLifecycle {
+
+    private final WorkflowTransitionHistoryService workflowTransitionHistoryService;
+    private final SendWarningForUpcomingTicketsViolateSlaJob warningJob;
+    private final SendNotificationForTicketsViolateSlaJob violationJob;
+    private final long tickMillis;
+    private final long warningLeadMillis;
+    private final long resyncIntervalMillis;
+    private final int batchSize;
+
+    /** Guarded by itself. */
+    private final TimerWheel<SlaTimer> wheel;
+
+    private volatile boolean running;
+    private Thread timerThread;
+    private long nextResyncMillis;
+
+    public SlaTimerService(
+            WorkflowTransitionHistoryService workflowTransitionHistoryService,
+            SendWarningForUpcomingTicketsViolateSlaJob warningJob,
+            SendNotificationForTicketsViolateSlaJob violationJob,
+            FlowInquiryProperties flowInquiryProperties) {
+        FlowInquiryProperties.Sla properties = flowInquiryProperties.getSla();
+        this.workflowTransitionHistoryService = workflowTransitionHistoryService;
+        this.warningJob = warningJob;
+        this.violationJob = violationJob;
+        this.tickMillis = properties.getTickMillis();
+        this.warningLeadMillis = TimeUnit.SECONDS.toMillis(properties.getWarningLeadSeconds());
+        this.resyncIntervalMillis =
+                TimeUnit.SECONDS.toMillis(properties.getResyncIntervalSeconds());
+        this.batchSize = properties.getBatchSize();
+        this.wheel = new TimerWheel<>(tickMillis, System.currentTimeMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlaDueDateScheduled(SlaDueDateScheduledEvent event) {
+        schedule(event.getTransitionId(), event.getSlaDueDate(), null, Instant.now());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsBulkUpdated(TicketsBulkUpdatedEvent event) {
+        Instant now = Instant.now();
+        event.getSlaDueDates()
+                .forEach(
+                        (transitionId, slaDueDate) ->
+                                schedule(transitionId, slaDueDate, null, now));
+    }
+
+    private void schedule(
+            Long transitionId, Instant slaDueDate, Instant warningSentAt, Instant now) {
+        long dueMillis = slaDueDate.toEpochMilli();
+        synchronized (wheel) {
+            if (warningSentAt == null && dueMillis > now.toEpochMilli()) {
+                wheel.schedule(
+                        new SlaTimer(transitionId, SlaTimer.Kind.WARNING),
+                        dueMillis - warningLeadMillis);
+            }
+            wheel.schedule(new SlaTimer(transitionId, SlaTimer.Kind.ESCALATION), dueMillis);
+        }
+    }
+
+    /** Adds timers for every transition in progress that is due before the next reload. */
+    void resync(Instant now) {
+        // Set first, so that a failing database is not queried on every tick
+        nextResyncMillis = now.toEpochMilli() + resyncIntervalMillis;
+        Instant before = now.plusMillis(resyncIntervalMillis + warningLeadMillis);
+        List<SlaDeadlineDTO> deadlines = workflowTransitionHistoryService.getSlaDeadlines(before);
+        for (SlaDeadlineDTO deadline : deadlines) {
+            schedule(
+                    deadline.getTransitionId(),
+                    deadline.getSlaDueDate(),
+                    deadline.getSlaWarningSentAt(),
+                    now);
+        }
+        log.debug("Loaded {} SLA deadlines due before {}", deadlines.size(), before);
+    }
+
+    /** Sends the warnings and escalations that are due. */
+    void fireDue(Instant now) {
+        List<SlaTimer> due;
+        synchronized (wheel) {
+            due = wheel.advance(now.toEpochMilli());
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<Long> warnings = new ArrayList<>();
+        List<Long> escalations = new ArrayList<>();
+        for (SlaTimer timer : due) {
+            (timer.kind() == SlaTimer.Kind.WARNING ? warnings : escalations)
+                    .add(timer.transitionId());
+        }
+        // Escalations first, so an overdue transition is not warned of as well
+        inBatches(escalations, violationJob::run, "escalate");
+        inBatches(warnings, warningJob::run, "send SLA warnings for");
+    }
+
+    private void inBatches(List<Long> transitionIds, Consumer<List<Long>> action, String what) {
+        for (int from = 0; from < transitionIds.size(); from += batchSize) {
+            List<Long> batch =
+                    transitionIds.subList(from, Math.min(from + batchSize, transitionIds.size()));
+            try {
+                action.accept(batch);
+            } catch (RuntimeException e) {
+                // Still in progress, so the next reload schedules them again
+                log.error("Failed to {} transitions {}", what, batch, e);
+            }
+        }
+    }
+
+    private void runTimer() {
+        while (running) {
+            try {
+                long now = System.currentTimeMillis();
+                Thread.sleep(tickMillis - now % tickMillis);
+                Instant tick = Instant.now();
+                if (tick.toEpochMilli() >= nextResyncMillis) {
+                    resync(tick);
+                }
+                fireDue(tick);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in SLA timer", e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            resync(Instant.now());
+            log.info("Scheduled {} SLA timers", size());
+        } catch (RuntimeException e) {
+            // Retried with the next reload
+            log.error("Failed to load SLA deadlines", e);
+        }
+        running = true;
+        timerThread = new Thread(this::runTimer, "sla-timer");
+        timerThread.setDaemon(true);
+        timerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (timerThread == null) {
+            return;
+        }
+        try {
+            timerThread.join(tickMillis + 30_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    int size() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    record SlaTimer(Long transitionId, Kind kind) {
+        enum Kind {
+            WARNING,
+            ESCALATION
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package io.flowinquiry.modules.teams.service.sla;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A hierarchical timing wheel. Timers are kept in {@value #LEVELS} wheels of {@value #SLOTS} slots,
+ * where a slot of level {@code n} spans {@code SLOTS^n} ticks, so scheduling, cancelling and
+ * advancing one tick take constant time however many timers are pending. Timers further out than
+ * the wheels reach wait in the last slot of the top level and are placed again when it comes round.
+ *
+ * <p>Each key has at most one pending timer; scheduling a key again replaces its timer. The wheel
+ * is not thread-safe.
+ *
+ * @param <K> The key identifying a timer.
+ */
+final class TimerWheel<K> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (BITS * LEVELS);
+
+    private final long tickMillis;
+    private final List<List<Timer<K>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+
+    /** Timers that were due when scheduled, returned by the next {@link #advance}. */
+    private final List<Timer<K>> overdue = new ArrayList<>();
+
+    private long currentTick;
+
+    TimerWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /** Schedules the key to expire at the given time, replacing its pending timer. */
+    void schedule(K key, long dueMillis) {
+        Timer<K> timer = new Timer<>(key, Math.floorDiv(dueMillis, tickMillis));
+        Timer<K> replaced = timers.put(key, timer);
+        if (replaced != null) {
+            replaced.cancelled = true;
+        }
+        place(timer);
+    }
+
+    void cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer != null) {
+            timer.cancelled = true;
+        }
+    }
+
+    boolean contains(K key) {
+        return timers.containsKey(key);
+    }
+
+    int size() {
+        return timers.size();
+    }
+
+    /**
+     * Moves the wheel forward to the given time.
+     *
+     * @return The keys that expired, in no particular order.
+     */
+    List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        for (Timer<K> timer : overdue) {
+            expire(timer, expired);
+        }
+        overdue.clear();
+
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            // When a lower level wraps around, the next slot above is spread over the levels below
+            for (int level = 1; level < LEVELS; level++) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) {
+                    break;
+                }
+                List<Timer<K>> slot = slot(level, currentTick);
+                List<Timer<K>> cascaded = new ArrayList<>(slot);
+                slot.clear();
+                for (Timer<K> timer : cascaded) {
+                    if (!timer.cancelled) {
+                        place(timer);
+                    }
+                }
+            }
+
+            List<Timer<K>> slot = slot(0, currentTick);
+            for (Timer<K> timer : slot) {
+                expire(timer, expired);
+            }
+            slot.clear();
+        }
+
+        if (!overdue.isEmpty()) {
+            // Placed while cascading the current tick
+            for (Timer<K> timer : overdue) {
+                expire(timer, expired);
+            }
+            overdue.clear();
+        }
+        return expired;
+    }
+
+    private void place(Timer<K> timer) {
+        long delta = timer.dueTick - currentTick;
+        if (delta <= 0) {
+            overdue.add(timer);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        long tick = delta < SPAN ? timer.dueTick : currentTick + SPAN - 1;
+        slot(level, tick).add(timer);
+    }
+
+    private void expire(Timer<K> timer, List<K> expired) {
+        if (!timer.cancelled && timers.remove(timer.key, timer)) {
+            expired.add(timer.key);
+        }
+    }
+
+    private List<Timer<K>> slot(int level, long tick) {
+        return slots.get(level * SLOTS + (int) ((tick >>> (BITS * level)) & MASK));
+    }
+
+    private static final class Timer<K> {
+        private final K key;
+        private final long dueTick;
+        private boolean cancelled;
+
+        private Timer(K key, long dueTick) {
+            this.key = key;
+            this.dueTick = dueTick;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package io.flowinquiry.query;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * A named expression that an {@link AggregationQuery} can group by or aggregate, for values that
+ * are derived from several attributes rather than stored in one (e.g. the age of a ticket).
+ */
+@FunctionalInterface
+public interface ComputedField {
+
+    Expression<?> toExpression(CriteriaBuilder cb, Root<?> root);
+}
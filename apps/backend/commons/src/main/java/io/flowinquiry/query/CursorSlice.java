@@ -0,0 +1,63 @@
+package io.flowinquiry.query;
+
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+/**
+ * A slice of keyset-paginated rows, with the cursor that fetches the next slice. Unlike a {@link
+ * org.springframework.data.domain.Page}, it is built without counting the matching rows.
+ */
+public class CursorSlice<T> extends SliceImpl<T> {
+
+    /** The most rows a slice may hold. */
+    public static final int MAX_SIZE = 100;
+
+    private final String nextCursor;
+
+    public CursorSlice(List<T> content, int size, Sort.Order order, String nextCursor) {
+        super(content, PageRequest.of(0, size, Sort.by(order)), nextCursor != null);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds the slice from rows fetched with a limit of {@code size + 1}: the extra row only tells
+     * whether there is a next slice, and the cursor points at the last row kept.
+     */
+    public static <R, T> CursorSlice<T> of(
+            List<R> rows,
+            int size,
+            Sort.Order order,
+            Function<R, Object> sortValue,
+            Function<R, Long> id,
+            Function<R, T> mapper) {
+        checkSize(size);
+        List<R> kept = rows.size() > size ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (rows.size() > size) {
+            R last = kept.getLast();
+            nextCursor = KeysetCursor.of(order, sortValue.apply(last), id.apply(last)).encode();
+        }
+        return new CursorSlice<>(kept.stream().map(mapper).toList(), size, order, nextCursor);
+    }
+
+    /**
+     * Checks a requested slice size before {@code size + 1} rows are fetched for it.
+     *
+     * @return the size
+     * @throws IllegalArgumentException if the size is not between 1 and {@link #MAX_SIZE}
+     */
+    public static int checkSize(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    "Invalid slice size " + size + ", must be between 1 and " + MAX_SIZE);
+        }
+        return size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
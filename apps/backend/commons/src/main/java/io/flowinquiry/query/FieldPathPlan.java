@@ -0,0 +1,177 @@
+package io.flowinquiry.query;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A dotted filter field (e.g. {@code project.team.name}) resolved once against the JPA metamodel,
+ * together with the value converter for its target type.
+ */
+final class FieldPathPlan {
+
+    /** Marker returned by {@link #convert(Object)} for strings that name no enum constant. */
+    static final Object INVALID_VALUE = new Object();
+
+    private final String field;
+    private final List<Segment> segments;
+    private final String attribute;
+    private final Class<?> javaType;
+    private final Function<String, Object> parser;
+
+    private FieldPathPlan(
+            String field,
+            List<Segment> segments,
+            String attribute,
+            Class<?> javaType,
+            Function<String, Object> parser) {
+        this.field = field;
+        this.segments = segments;
+        this.attribute = attribute;
+        this.javaType = javaType;
+        this.parser = parser;
+    }
+
+    static FieldPathPlan resolve(ManagedType<?> entityType, String field) {
+        String[] parts = field.trim().split("\\.");
+        List<Segment> segments = new ArrayList<>(parts.length - 1);
+        ManagedType<?> current = entityType;
+        StringBuilder pathKey = new StringBuilder();
+
+        for (int i = 0; i < parts.length - 1; i++) {
+            Attribute<?, ?> attribute = current.getAttribute(parts[i]);
+            Type<?> target =
+                    attribute instanceof PluralAttribute<?, ?, ?> plural
+                            ? plural.getElementType()
+                            : ((SingularAttribute<?, ?>) attribute).getType();
+            if (!(target instanceof ManagedType<?> managedTarget)) {
+                throw new IllegalArgumentException(
+                        "Field " + field + " navigates through basic attribute " + parts[i]);
+            }
+            pathKey.append(i == 0 ? "" : ".").append(parts[i]);
+            segments.add(
+                    new Segment(
+                            parts[i],
+                            pathKey.toString(),
+                            attribute.isAssociation() || attribute.isCollection(),
+                            attribute.isCollection()));
+            current = managedTarget;
+        }
+
+        String leaf = parts[parts.length - 1];
+        Class<?> javaType = box(current.getAttribute(leaf).getJavaType());
+        return new FieldPathPlan(field, List.copyOf(segments), leaf, javaType, parserFor(javaType));
+    }
+
+    String field() {
+        return field;
+    }
+
+    Class<?> javaType() {
+        return javaType;
+    }
+
+    boolean isJoined() {
+        return !segments.isEmpty();
+    }
+
+    /**
+     * Builds the criteria path. To-one association paths are inner joined once per query through
+     * {@code queryJoins}, so every filter on them shares the join. Once the path crosses a
+     * collection, its joins come from {@code predicateJoins} instead: each predicate then gets its
+     * own joined element, and "has a watcher A" AND "has a watcher B" can match two different rows.
+     */
+    Path<?> toPath(
+            Root<?> root,
+            Map<String, Join<?, ?>> queryJoins,
+            Map<String, Join<?, ?>> predicateJoins) {
+        Path<?> current = root;
+        Map<String, Join<?, ?>> joins = queryJoins;
+        for (Segment segment : segments) {
+            if (segment.join() && current instanceof From<?, ?> from) {
+                if (segment.collection()) {
+                    joins = predicateJoins;
+                }
+                current =
+                        joins.computeIfAbsent(
+                                segment.pathKey(),
+                                key -> from.join(segment.name(), JoinType.INNER));
+            } else {
+                current = current.get(segment.name());
+            }
+        }
+        return current.get(attribute);
+    }
+
+    /**
+     * Converts a raw filter value to the field type. Values that already have the right type, or
+     * that cannot be converted, are passed through unchanged for the persistence provider to
+     * coerce.
+     */
+    Object convert(Object value) {
+        if (value == null || javaType.isInstance(value) || !(value instanceof String string)) {
+            return value;
+        }
+        return parser.apply(string);
+    }
+
+    private static Function<String, Object> parserFor(Class<?> javaType) {
+        if (javaType.isEnum()) {
+            Map<String, Object> constants = new HashMap<>();
+            for (Object constant : javaType.getEnumConstants()) {
+                constants.put(((Enum<?>) constant).name(), constant);
+            }
+            return value -> constants.getOrDefault(value, INVALID_VALUE);
+        } else if (javaType.equals(Instant.class)) {
+            return Instant::parse;
+        } else if (javaType.equals(LocalDate.class)) {
+            return LocalDate::parse;
+        } else if (javaType.equals(Long.class)) {
+            return Long::valueOf;
+        } else if (javaType.equals(Integer.class)) {
+            return Integer::valueOf;
+        } else if (javaType.equals(Boolean.class)) {
+            return Boolean::parseBoolean;
+        } else if (javaType.equals(Double.class)) {
+            return Double::valueOf;
+        }
+        return value -> value;
+    }
+
+    private static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == int.class) {
+            return Integer.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        }
+        return Character.class;
+    }
+
+    private record Segment(String name, String pathKey, boolean join, boolean collection) {}
+}
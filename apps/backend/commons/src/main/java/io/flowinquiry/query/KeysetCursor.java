@@ -0,0 +1,161 @@
+package io.flowinquiry.query;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Nulls;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Position of the last row of a slice, for keyset (seek) pagination. Rows are ordered by one sort
+ * property and then by id in the same direction; the next slice starts right after the sort value
+ * and id of the cursor, so the database seeks through an index instead of skipping an offset.
+ *
+ * <p>Null sort values come first in descending order and last in ascending order, as in PostgreSQL.
+ * The cursor travels as an opaque URL-safe string.
+ *
+ * @param property the sort property, a path such as {@code createdAt} or {@code team.name}
+ * @param direction the sort direction
+ * @param value the sort value of the last row, as a string, or null
+ * @param id the id of the last row
+ */
+public record KeysetCursor(String property, Sort.Direction direction, String value, Long id) {
+
+    private static final String SEPARATOR = ":";
+
+    public static KeysetCursor of(Sort.Order order, Object value, Long id) {
+        return new KeysetCursor(
+                order.getProperty(),
+                order.getDirection(),
+                value instanceof Enum<?> constant
+                        ? constant.name()
+                        : value == null ? null : value.toString(),
+                id);
+    }
+
+    public String encode() {
+        String raw =
+                String.join(SEPARATOR, property, direction.name(), String.valueOf(id))
+                        + (value == null ? "" : SEPARATOR + value);
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            return new KeysetCursor(
+                    parts[0],
+                    Sort.Direction.valueOf(parts[1]),
+                    parts.length == 4 ? parts[3] : null,
+                    Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    public Sort.Order order() {
+        return new Sort.Order(direction, property);
+    }
+
+    /** Rows that come after this cursor, in the order of {@link #orders}. */
+    public <T> Specification<T> after() {
+        return (root, query, cb) -> {
+            Path<Object> key = sortKey(root, property);
+            Path<Long> rowId = root.get("id");
+            boolean ascending = direction.isAscending();
+            Predicate idAfter = ascending ? cb.gt(rowId, id) : cb.lt(rowId, id);
+            if (value == null) {
+                Predicate sameKey = cb.and(cb.isNull(key), idAfter);
+                return ascending ? sameKey : cb.or(sameKey, cb.isNotNull(key));
+            }
+            Object keyValue = convert(value, key.getJavaType());
+            // The redundant bound on the key alone gives the database an index range to scan
+            Predicate seek =
+                    cb.and(
+                            compare(cb, key, keyValue, ascending, true),
+                            cb.or(
+                                    compare(cb, key, keyValue, ascending, false),
+                                    cb.and(cb.equal(key, keyValue), idAfter)));
+            return ascending ? cb.or(seek, cb.isNull(key)) : seek;
+        };
+    }
+
+    /**
+     * Orders rows by the sort property and then by id, with the null ordering {@link #after}
+     * expects.
+     */
+    public static List<Order> orders(Sort.Order order, Root<?> root, CriteriaBuilder cb) {
+        Path<Object> key = sortKey(root, order.getProperty());
+        Path<Long> rowId = root.get("id");
+        return order.isAscending()
+                ? List.of(cb.asc(key, Nulls.LAST), cb.asc(rowId))
+                : List.of(cb.desc(key, Nulls.FIRST), cb.desc(rowId));
+    }
+
+    /**
+     * The path of a sort property. Associations of nested properties are left-joined, reusing a
+     * left join the query already has, so rows without the association are kept as null keys.
+     */
+    public static Path<Object> sortKey(Root<?> root, String property) {
+        String[] segments = property.split("\\.");
+        From<?, ?> from = root;
+        for (int i = 0; i < segments.length - 1; i++) {
+            from = leftJoin(from, segments[i]);
+        }
+        return from.get(segments[segments.length - 1]);
+    }
+
+    private static From<?, ?> leftJoin(From<?, ?> from, String attribute) {
+        for (Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute)
+                    && join.getJoinType() == JoinType.LEFT) {
+                return join;
+            }
+        }
+        return from.join(attribute, JoinType.LEFT);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate compare(
+            CriteriaBuilder cb,
+            Expression<?> key,
+            Object value,
+            boolean ascending,
+            boolean orEqual) {
+        Expression<Comparable> comparableKey = (Expression<Comparable>) key;
+        if (ascending) {
+            return orEqual
+                    ? cb.greaterThanOrEqualTo(comparableKey, (Comparable) value)
+                    : cb.greaterThan(comparableKey, (Comparable) value);
+        }
+        return orEqual
+                ? cb.lessThanOrEqualTo(comparableKey, (Comparable) value)
+                : cb.lessThan(comparableKey, (Comparable) value);
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == Instant.class) {
+            return Instant.parse(value);
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.parse(value);
+        }
+        return DefaultConversionService.getSharedInstance().convert(value, type);
+    }
+}
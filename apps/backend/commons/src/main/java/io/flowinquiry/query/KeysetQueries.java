@@ -0,0 +1,61 @@
+package io.flowinquiry.query;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/** Keyset-paginated entity queries built on {@link Specification}s. */
+public final class KeysetQueries {
+
+    private KeysetQueries() {}
+
+    /**
+     * Fetches the slice of entities matching {@code specification} that comes after {@code cursor},
+     * or the first slice when the cursor is null. The first slice is sorted by {@code order}; later
+     * slices keep the sort of their cursor. No count query is issued.
+     */
+    public static <T, R> CursorSlice<R> scroll(
+            EntityManager entityManager,
+            Class<T> entityType,
+            Specification<T> specification,
+            String cursor,
+            Sort.Order order,
+            int size,
+            Function<T, R> mapper) {
+        CursorSlice.checkSize(size);
+        KeysetCursor position = cursor == null ? null : KeysetCursor.decode(cursor);
+        Sort.Order sortOrder = position == null ? order : position.order();
+        Specification<T> seek =
+                position == null ? specification : specification.and(position.after());
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> cq = cb.createQuery(entityType);
+        Root<T> root = cq.from(entityType);
+        Predicate where = seek.toPredicate(root, cq, cb);
+        if (where != null) {
+            cq.where(where);
+        }
+        cq.select(root).orderBy(KeysetCursor.orders(sortOrder, root, cb));
+
+        List<T> rows = entityManager.createQuery(cq).setMaxResults(size + 1).getResultList();
+        return CursorSlice.of(
+                rows,
+                size,
+                sortOrder,
+                row ->
+                        PropertyAccessorFactory.forBeanPropertyAccess(row)
+                                .getPropertyValue(sortOrder.getProperty()),
+                row ->
+                        (Long)
+                                PropertyAccessorFactory.forBeanPropertyAccess(row)
+                                        .getPropertyValue("id"),
+                mapper);
+    }
+}
@@ -0,0 +1,288 @@
+package io.flowinquiry.query;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.ManagedType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link QueryDTO} filter tree compiled against one entity type. Field paths, value converters
+ * and operator/type compatibility are resolved once per entity and filter shape (fields, operators
+ * and nesting, but not values), so building predicates for a request only walks the filter values.
+ */
+final class QueryPlan {
+
+    private static final Cache<PlanKey, QueryPlan> PLANS =
+            Caffeine.newBuilder().maximumSize(1000).recordStats().build();
+
+    private final List<GroupPlan> groups;
+    private final List<FilterPlan> filters;
+
+    private QueryPlan(List<GroupPlan> groups, List<FilterPlan> filters) {
+        this.groups = groups;
+        this.filters = filters;
+    }
+
+    static QueryPlan of(ManagedType<?> entityType, QueryDTO queryDTO) {
+        QueryShape shape = QueryShape.of(queryDTO);
+        return PLANS.get(
+                new PlanKey(entityType.getJavaType(), shape), key -> compile(entityType, shape));
+    }
+
+    /** Hit and miss counts of the plan cache; a miss is a compilation. */
+    static CacheStats stats() {
+        return PLANS.stats();
+    }
+
+    private static QueryPlan compile(ManagedType<?> entityType, QueryShape shape) {
+        if (shape.groups() != null) {
+            return new QueryPlan(
+                    shape.groups().stream()
+                            .map(group -> GroupPlan.compile(entityType, group))
+                            .toList(),
+                    null);
+        } else if (shape.filters() != null) {
+            return new QueryPlan(
+                    null,
+                    shape.filters().stream()
+                            .map(filter -> FilterPlan.compile(entityType, filter))
+                            .toList());
+        }
+        return new QueryPlan(null, null);
+    }
+
+    Predicate toPredicate(Root<?> root, CriteriaBuilder cb, QueryDTO queryDTO) {
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+        if (groups != null) {
+            Predicate[] predicates = new Predicate[groups.size()];
+            for (int i = 0; i < predicates.length; i++) {
+                predicates[i] =
+                        groups.get(i).toPredicate(queryDTO.getGroups().get(i), root, cb, joins);
+            }
+            return cb.and(predicates);
+        } else if (filters != null) {
+            return cb.and(FilterPlan.toPredicates(filters, queryDTO.getFilters(), root, cb, joins));
+        }
+        return cb.conjunction();
+    }
+
+    private record PlanKey(Class<?> entityClass, QueryShape shape) {}
+
+    private record QueryShape(List<GroupShape> groups, List<FilterShape> filters) {
+
+        static QueryShape of(QueryDTO queryDTO) {
+            if (queryDTO.getGroups() != null) {
+                return new QueryShape(
+                        queryDTO.getGroups().stream().map(GroupShape::of).toList(), null);
+            } else if (queryDTO.getFilters() != null) {
+                return new QueryShape(null, FilterShape.of(queryDTO.getFilters()));
+            }
+            return new QueryShape(null, null);
+        }
+    }
+
+    private record GroupShape(
+            LogicalOperator operator, List<FilterShape> filters, List<GroupShape> groups) {
+
+        static GroupShape of(GroupFilter group) {
+            return new GroupShape(
+                    group.getLogicalOperator(),
+                    group.getFilters() == null ? List.of() : FilterShape.of(group.getFilters()),
+                    group.getGroups() == null
+                            ? List.of()
+                            : group.getGroups().stream().map(GroupShape::of).toList());
+        }
+    }
+
+    private record FilterShape(String field, FilterOperator operator) {
+
+        static List<FilterShape> of(List<Filter> filters) {
+            return filters.stream()
+                    .map(filter -> new FilterShape(filter.getField(), filter.getOperator()))
+                    .toList();
+        }
+    }
+
+    private record GroupPlan(
+            LogicalOperator operator, List<FilterPlan> filters, List<GroupPlan> groups) {
+
+        static GroupPlan compile(ManagedType<?> entityType, GroupShape shape) {
+            if (shape.operator() == null) {
+                throw new IllegalArgumentException("Logical operator cannot be null");
+            }
+            return new GroupPlan(
+                    shape.operator(),
+                    shape.filters().stream()
+                            .map(filter -> FilterPlan.compile(entityType, filter))
+                            .toList(),
+                    shape.groups().stream().map(group -> compile(entityType, group)).toList());
+        }
+
+        Predicate toPredicate(
+                GroupFilter group,
+                Root<?> root,
+                CriteriaBuilder cb,
+                Map<String, Join<?, ?>> joins) {
+            List<Predicate> predicates =
+                    new ArrayList<>(
+                            Arrays.asList(
+                                    FilterPlan.toPredicates(
+                                            filters, group.getFilters(), root, cb, joins)));
+            for (int i = 0; i < groups.size(); i++) {
+                predicates.add(
+                        groups.get(i).toPredicate(group.getGroups().get(i), root, cb, joins));
+            }
+            Predicate[] combined = predicates.toArray(new Predicate[0]);
+            return switch (operator) {
+                case AND -> cb.and(combined);
+                case OR -> cb.or(combined);
+            };
+        }
+    }
+
+    private record FilterPlan(FilterOperator operator, List<FieldPathPlan> fields) {
+
+        static FilterPlan compile(ManagedType<?> entityType, FilterShape shape) {
+            if (shape.operator() == null) {
+                throw new IllegalArgumentException("Invalid operator: null");
+            }
+            // Comma separated fields (e.g. "firstName,lastName") are always matched with a
+            // case-insensitive like against the space separated concatenation
+            List<FieldPathPlan> fields =
+                    Arrays.stream(shape.field().split(","))
+                            .map(field -> FieldPathPlan.resolve(entityType, field))
+                            .toList();
+            if (isRangeOperator(shape.operator())
+                    && !Comparable.class.isAssignableFrom(fields.get(0).javaType())) {
+                throw new IllegalArgumentException(
+                        "Operator "
+                                + shape.operator()
+                                + " requires a comparable field: "
+                                + shape.field());
+            }
+            return new FilterPlan(shape.operator(), fields);
+        }
+
+        static Predicate[] toPredicates(
+                List<FilterPlan> plans,
+                List<Filter> filters,
+                Root<?> root,
+                CriteriaBuilder cb,
+                Map<String, Join<?, ?>> joins) {
+            Predicate[] predicates = new Predicate[plans.size()];
+            for (int i = 0; i < predicates.length; i++) {
+                predicates[i] =
+                        plans.get(i).toPredicate(filters.get(i).getValue(), root, cb, joins);
+            }
+            return predicates;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Predicate toPredicate(
+                Object value, Root<?> root, CriteriaBuilder cb, Map<String, Join<?, ?>> joins) {
+            // Joins below a collection are private to this predicate, see FieldPathPlan#toPath
+            Map<String, Join<?, ?>> predicateJoins = new HashMap<>();
+            if (fields.size() > 1) {
+                return concatenatedLike(value, root, cb, joins, predicateJoins);
+            }
+
+            FieldPathPlan field = fields.get(0);
+            Path path = field.toPath(root, joins, predicateJoins);
+            Object typedValue = field.convert(value);
+
+            return switch (operator) {
+                case GT -> cb.greaterThan(path, (Comparable) typedValue);
+                case LT -> cb.lessThan(path, (Comparable) typedValue);
+                case GTE -> cb.greaterThanOrEqualTo(path, (Comparable) typedValue);
+                case LTE -> cb.lessThanOrEqualTo(path, (Comparable) typedValue);
+                case EQ -> {
+                    if (typedValue == null) {
+                        yield cb.isNull(path);
+                    } else if (typedValue == FieldPathPlan.INVALID_VALUE) {
+                        yield cb.disjunction(); // Always false
+                    }
+                    yield cb.equal(path, typedValue);
+                }
+                case NE -> {
+                    if (typedValue == null) {
+                        yield cb.isNotNull(path);
+                    } else if (typedValue == FieldPathPlan.INVALID_VALUE) {
+                        yield cb.conjunction(); // Always true
+                    }
+                    yield cb.notEqual(path, typedValue);
+                }
+                case LK ->
+                        field.isJoined()
+                                ? cb.like(path, "%" + value + "%")
+                                : cb.like(
+                                        cb.lower(path), "%" + value.toString().toLowerCase() + "%");
+                case IN -> in(field, path, value, cb);
+            };
+        }
+
+        private Predicate in(FieldPathPlan field, Path<?> path, Object value, CriteriaBuilder cb) {
+            if (!(value instanceof List<?> values)) {
+                throw new IllegalArgumentException(
+                        "Operator IN requires a list value: " + field.field());
+            }
+            List<Object> typedValues = new ArrayList<>(values.size());
+            for (Object item : values) {
+                Object typedItem = field.convert(item);
+                // Skip invalid enum values
+                if (typedItem != FieldPathPlan.INVALID_VALUE) {
+                    typedValues.add(typedItem);
+                }
+            }
+            if (field.javaType().isEnum() && typedValues.isEmpty()) {
+                return cb.disjunction(); // Always false if no valid enum values
+            }
+            return path.in(typedValues);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Predicate concatenatedLike(
+                Object value,
+                Root<?> root,
+                CriteriaBuilder cb,
+                Map<String, Join<?, ?>> joins,
+                Map<String, Join<?, ?>> predicateJoins) {
+            String likePattern = "%" + value.toString().toLowerCase() + "%";
+            Expression<String> concatenatedFields =
+                    cb.lower(
+                            (Expression<String>) fields.get(0).toPath(root, joins, predicateJoins));
+            for (int i = 1; i < fields.size(); i++) {
+                concatenatedFields =
+                        cb.concat(
+                                concatenatedFields,
+                                cb.concat(
+                                        " ",
+                                        cb.lower(
+                                                (Expression<String>)
+                                                        fields.get(i)
+                                                                .toPath(
+                                                                        root,
+                                                                        joins,
+                                                                        predicateJoins))));
+            }
+            return cb.like(concatenatedFields, likePattern);
+        }
+
+        private static boolean isRangeOperator(FilterOperator operator) {
+            return operator == FilterOperator.GT
+                    || operator == FilterOperator.LT
+                    || operator == FilterOperator.GTE
+                    || operator == FilterOperator.LTE;
+        }
+    }
+}
@@ -8,6 +8,9 @@ import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
@@ -35,9 +38,15 @@ import tools.jackson.databind.ObjectMapper;
  *
  * <ul>
  *   <li>Direct field: {@code "channel"}, {@code "priority"}, {@code "isCompleted"}
- *   <li>Single join: {@code "assignUser.firstName"}, {@code "team.name"}
+ *   <li>Joined field: {@code "assignUser.firstName"}, {@code "project.team.organization.name"}
  * </ul>
  *
+ * <p>Every association path is LEFT JOINed once per query, however many dimensions and metrics
+ * reference it.
+ *
+ * <p>Callers may also pass {@link ComputedField}s: named expressions (e.g. a ticket's age) that
+ * dimensions and metrics reference by name, like any other field.
+ *
  * <h3>Usage example – channel distribution</h3>
  *
  * <pre>{@code
@@ -60,43 +69,72 @@ public class ReportEngine {
     /** Used to serialize enum dimension values via their Jackson {@code @JsonSerialize} config. */
     private final ObjectMapper objectMapper;
 
+    /** Managed types by simple class name, built on first use from the static metamodel. */
+    private volatile Map<String, Class<?>> entityClassesByName;
+
     @Autowired
     public ReportEngine(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
     }
 
-    /**
-     * Resolves a JPA entity class by simple name, scanning all managed types in the persistence
-     * context.
-     */
+    /** Resolves a JPA entity class by simple name through the precomputed name index. */
     private Class<?> resolveEntityClass(String simpleEntityName) {
-        return em.getMetamodel().getManagedTypes().stream()
-                .map(ManagedType::getJavaType)
-                .filter(c -> c.getSimpleName().equals(simpleEntityName))
-                .findFirst()
-                .orElseThrow(
-                        () ->
-                                new IllegalArgumentException(
-                                        "Unknown JPA entity: " + simpleEntityName));
+        Class<?> entityClass = getEntityClassesByName().get(simpleEntityName);
+        if (entityClass == null) {
+            throw new IllegalArgumentException("Unknown JPA entity: " + simpleEntityName);
+        }
+        return entityClass;
+    }
+
+    private Map<String, Class<?>> getEntityClassesByName() {
+        Map<String, Class<?>> index = entityClassesByName;
+        if (index == null) {
+            Map<String, Class<?>> classes = new HashMap<>();
+            for (ManagedType<?> managedType : em.getMetamodel().getManagedTypes()) {
+                classes.putIfAbsent(
+                        managedType.getJavaType().getSimpleName(), managedType.getJavaType());
+            }
+            index = Map.copyOf(classes);
+            entityClassesByName = index;
+        }
+        return index;
     }
 
     /**
-     * Resolves a possibly dot-notated field path to a JPA Criteria {@link Expression}. Supports one
-     * level of join: {@code "join.field"}.
+     * Resolves a possibly dot-notated field path of any depth (e.g. {@code
+     * "project.team.organization.name"}) to a JPA Criteria {@link Expression}. Each association
+     * prefix is LEFT JOINed at most once per query through {@code joins}.
      */
-    private <X> Expression<?> resolvePath(Root<X> root, String fieldPath) {
-        if (fieldPath.contains(".")) {
-            String[] parts = fieldPath.split("\\.", 2);
-            return root.join(parts[0], jakarta.persistence.criteria.JoinType.LEFT).get(parts[1]);
+    private <X> Expression<?> resolvePath(
+            Root<X> root,
+            String fieldPath,
+            Map<String, Join<?, ?>> joins,
+            Map<String, Expression<?>> computedExpressions) {
+        Expression<?> computed = computedExpressions.get(fieldPath);
+        if (computed != null) {
+            return computed;
+        }
+        String[] parts = fieldPath.split("\\.");
+        From<?, ?> from = root;
+        String joinPath = null;
+        for (int i = 0; i < parts.length - 1; i++) {
+            From<?, ?> parent = from;
+            String association = parts[i];
+            joinPath = joinPath == null ? association : joinPath + "." + association;
+            from = joins.computeIfAbsent(joinPath, key -> parent.join(association, JoinType.LEFT));
         }
-        return root.get(fieldPath);
+        return from.get(parts[parts.length - 1]);
     }
 
     /** Builds a Criteria {@link Expression} for a single {@link AggregationField}. */
     @SuppressWarnings({"unchecked", "rawtypes"})
     private <X> Expression<? extends Number> buildAggExpression(
-            CriteriaBuilder cb, Root<X> root, AggregationField agg) {
-        Expression path = resolvePath(root, agg.getField());
+            CriteriaBuilder cb,
+            Root<X> root,
+            AggregationField agg,
+            Map<String, Join<?, ?>> joins,
+            Map<String, Expression<?>> computedExpressions) {
+        Expression path = resolvePath(root, agg.getField(), joins, computedExpressions);
         return switch (agg.getFunction()) {
             case COUNT -> cb.count(path);
             case SUM -> cb.sum(path);
@@ -135,8 +173,18 @@ public class ReportEngine {
     /**
      * Executes the {@link AggregationQuery} and returns a list of {@link AggregationResult} rows.
      */
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public List<AggregationResult> aggregate(AggregationQuery query) {
+        return aggregate(query, Map.of());
+    }
+
+    /**
+     * Executes the {@link AggregationQuery}, resolving the fields named in {@code computedFields}
+     * to their expressions instead of entity attributes. Each computed field is built once per
+     * query.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<AggregationResult> aggregate(
+            AggregationQuery query, Map<String, ComputedField> computedFields) {
         Class<?> entityClass = resolveEntityClass(query.getEntity());
 
         CriteriaBuilder cb = em.getCriteriaBuilder();
@@ -157,6 +205,10 @@ public class ReportEngine {
         // ── SELECT + GROUP BY ─────────────────────────────────────────────────
         List<Selection<?>> selections = new ArrayList<>();
         List<Expression<?>> groupByExprs = new ArrayList<>();
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+        Map<String, Expression<?>> computedExpressions = new HashMap<>();
+        computedFields.forEach(
+                (name, field) -> computedExpressions.put(name, field.toExpression(cb, root)));
 
         // Track positional index of each alias in the tuple
         Map<String, Integer> dimensionIndex = new HashMap<>();
@@ -164,14 +216,15 @@ public class ReportEngine {
         int idx = 0;
 
         for (String field : query.getGroupByFields()) {
-            Expression<?> expr = resolvePath(root, field);
+            Expression<?> expr = resolvePath(root, field, joins, computedExpressions);
             selections.add(expr.alias(field));
             groupByExprs.add(expr);
             dimensionIndex.put(field, idx++);
         }
 
         for (AggregationField agg : query.getAggregations()) {
-            Expression<? extends Number> aggExpr = buildAggExpression(cb, root, agg);
+            Expression<? extends Number> aggExpr =
+                    buildAggExpression(cb, root, agg, joins, computedExpressions);
             selections.add(aggExpr.alias(agg.getAlias()));
             metricIndex.put(agg.getAlias(), idx++);
         }
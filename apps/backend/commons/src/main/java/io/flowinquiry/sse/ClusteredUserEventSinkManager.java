@@ -0,0 +1,372 @@
+package io.flowinquiry.sse;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.flowinquiry.config.FlowInquiryProperties;
+import io.flowinquiry.modules.shared.domain.EventPayload;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link UserEventSinkManager} that routes every event through a {@link SseEventBroker}, so a user
+ * receives events emitted on any node. Each node keeps a short ring buffer of recent events per
+ * user for {@code Last-Event-ID} replay; because the broker delivers messages to all nodes in the
+ * same order, a client can reconnect to a different node and resume where it left off.
+ *
+ * <p>Topic subscriptions travel through the broker as well, so every node knows the topics of every
+ * recently connected user and buffers their topic events for replay. A topic event is published
+ * once and fanned out on each node to the users subscribed to it.
+ *
+ * <p>Each connection gets its own buffer of at most {@code bufferSize} events that drops the oldest
+ * event when a slow client falls behind, and a user's channel is evicted as soon as the last
+ * connection goes away.
+ */
+@Component
+@ConditionalOnExpression("'${flowinquiry.sse.broker:none}' != 'none'")
+@Slf4j
+public class ClusteredUserEventSinkManager implements UserEventSinkManager {
+
+    private final SseEventBroker broker;
+    private final int bufferSize;
+    private final int replaySize;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong sequence = new AtomicLong();
+
+    /** Users with at least one open connection on this node. */
+    private final Map<Long, UserChannel> channels = new ConcurrentHashMap<>();
+
+    /** Recent events and topics of users, connected or not, kept for replay after a reconnect. */
+    private final Cache<Long, UserState> states;
+
+    /**
+     * Users by subscribed topic. Users whose state has expired are removed when the topic next
+     * receives an event.
+     */
+    private final Map<String, Set<Long>> subscribers = new ConcurrentHashMap<>();
+
+    public ClusteredUserEventSinkManager(
+            SseEventBroker broker, FlowInquiryProperties flowInquiryProperties) {
+        FlowInquiryProperties.Sse properties = flowInquiryProperties.getSse();
+        this.broker = broker;
+        this.bufferSize = properties.getBufferSize();
+        this.replaySize = properties.getReplaySize();
+        this.states =
+                Caffeine.newBuilder()
+                        .expireAfterAccess(Duration.ofSeconds(properties.getReplayTtlSeconds()))
+                        .maximumSize(properties.getReplayMaxUsers())
+                        .build();
+        broker.subscribe(this::deliver);
+    }
+
+    @Override
+    public Flux<UserEvent> getSink(Long userId, Collection<String> topics, String lastEventId) {
+        return Flux.defer(
+                () -> {
+                    Sinks.Many<UserEvent> connection =
+                            Sinks.many().unicast().onBackpressureBuffer();
+                    UserState state = state(userId);
+                    // Holding the state lock while replaying and registering means no event is
+                    // both replayed and delivered live, and none falls between the two
+                    synchronized (state) {
+                        replaceTopics(userId, state, topics);
+                        state.after(lastEventId).forEach(connection::tryEmitNext);
+                        channels.compute(
+                                userId,
+                                (id, channel) -> {
+                                    UserChannel target =
+                                            channel != null ? channel : new UserChannel(state);
+                                    target.connections.add(connection);
+                                    return target;
+                                });
+                    }
+                    // Let the other nodes buffer the user's topic events for a reconnect there
+                    publish(
+                            SseMessage.Kind.TOPICS,
+                            SseMessage.userTarget(userId),
+                            List.copyOf(topics));
+                    return connection
+                            .asFlux()
+                            .onBackpressureBuffer(
+                                    bufferSize,
+                                    dropped ->
+                                            log.debug(
+                                                    "Dropping SSE event {} for slow user {}",
+                                                    dropped.id(),
+                                                    userId),
+                                    BufferOverflowStrategy.DROP_OLDEST)
+                            .publishOn(Schedulers.boundedElastic())
+                            .doFinally(signal -> disconnect(userId, connection));
+                });
+    }
+
+    @Override
+    public void emitToUser(Long userId, EventPayload payload) {
+        publishEvent(SseMessage.userTarget(userId), payload);
+    }
+
+    @Override
+    public void emitToTopic(String topic, EventPayload payload) {
+        publishEvent(topic, payload);
+    }
+
+    @Override
+    public void subscribe(Long userId, String topic) {
+        publish(SseMessage.Kind.SUBSCRIBE, SseMessage.userTarget(userId), topic);
+    }
+
+    @Override
+    public void unsubscribe(Long userId, String topic) {
+        publish(SseMessage.Kind.UNSUBSCRIBE, SseMessage.userTarget(userId), topic);
+    }
+
+    @Override
+    public void broadcast(EventPayload payload) {
+        publishEvent(SseMessage.BROADCAST, payload);
+    }
+
+    private void publishEvent(String target, EventPayload<?> payload) {
+        broker.publish(
+                new SseMessage(
+                        nextId(),
+                        SseMessage.Kind.EVENT,
+                        target,
+                        payload.getType(),
+                        payload.getData()));
+    }
+
+    private void publish(SseMessage.Kind kind, String target, Object data) {
+        broker.publish(new SseMessage(nextId(), kind, target, null, data));
+    }
+
+    private String nextId() {
+        return nodeId + "-" + sequence.incrementAndGet();
+    }
+
+    private void deliver(SseMessage message) {
+        if (message.kind() == SseMessage.Kind.EVENT) {
+            deliverEvent(message);
+            return;
+        }
+
+        Long userId = message.targetUserId();
+        if (userId == null) {
+            log.warn(
+                    "Ignoring SSE {} message {} for unknown target {}",
+                    message.kind(),
+                    message.id(),
+                    message.target());
+            return;
+        }
+        switch (message.kind()) {
+            case TOPICS -> {
+                if (message.id().startsWith(nodeId + "-")) {
+                    // Already applied when the connection opened
+                    return;
+                }
+                List<String> topics =
+                        ((Collection<?>) message.data()).stream().map(String::valueOf).toList();
+                UserState state = state(userId);
+                synchronized (state) {
+                    replaceTopics(userId, state, topics);
+                }
+            }
+            case SUBSCRIBE -> {
+                UserState state = existingState(userId);
+                if (state != null && state.topics.add(String.valueOf(message.data()))) {
+                    addSubscriber(String.valueOf(message.data()), userId);
+                }
+            }
+            case UNSUBSCRIBE -> {
+                UserState state = existingState(userId);
+                if (state != null && state.topics.remove(String.valueOf(message.data()))) {
+                    removeSubscriber(String.valueOf(message.data()), userId);
+                }
+            }
+            default -> throw new IllegalStateException("Unexpected kind " + message.kind());
+        }
+    }
+
+    private void deliverEvent(SseMessage message) {
+        UserEvent event =
+                new UserEvent(message.id(), new EventPayload<>(message.type(), message.data()));
+        if (SseMessage.BROADCAST.equals(message.target())) {
+            channels.values().forEach(channel -> channel.deliver(event));
+            return;
+        }
+
+        Long userId = message.targetUserId();
+        if (userId != null) {
+            deliverTo(userId, state(userId), event);
+            return;
+        }
+
+        String topic = message.target();
+        Set<Long> userIds = subscribers.get(topic);
+        if (userIds == null) {
+            return;
+        }
+        for (Long subscriber : userIds) {
+            UserState state = existingState(subscriber);
+            if (state != null && state.topics.contains(topic)) {
+                deliverTo(subscriber, state, event);
+            } else {
+                removeSubscriber(topic, subscriber);
+            }
+        }
+    }
+
+    private void deliverTo(Long userId, UserState state, UserEvent event) {
+        synchronized (state) {
+            state.add(event);
+            UserChannel channel = channels.get(userId);
+            if (channel != null) {
+                channel.emit(event);
+            }
+        }
+    }
+
+    /** Callers hold the lock of the state. */
+    private void replaceTopics(Long userId, UserState state, Collection<String> topics) {
+        state.topics.retainAll(topics);
+        state.topics.addAll(topics);
+        topics.forEach(topic -> addSubscriber(topic, userId));
+    }
+
+    private void addSubscriber(String topic, Long userId) {
+        subscribers.compute(
+                topic,
+                (key, userIds) -> {
+                    Set<Long> target = userIds != null ? userIds : ConcurrentHashMap.newKeySet();
+                    target.add(userId);
+                    return target;
+                });
+    }
+
+    private void removeSubscriber(String topic, Long userId) {
+        subscribers.computeIfPresent(
+                topic,
+                (key, userIds) -> {
+                    // The user may have subscribed again since the caller looked
+                    UserState state = existingState(userId);
+                    if (state == null || !state.topics.contains(topic)) {
+                        userIds.remove(userId);
+                    }
+                    return userIds.isEmpty() ? null : userIds;
+                });
+    }
+
+    private UserState state(Long userId) {
+        UserChannel channel = channels.get(userId);
+        if (channel != null) {
+            return channel.state;
+        }
+        return states.get(userId, id -> new UserState(replaySize));
+    }
+
+    private UserState existingState(Long userId) {
+        UserChannel channel = channels.get(userId);
+        if (channel != null) {
+            return channel.state;
+        }
+        return states.getIfPresent(userId);
+    }
+
+    private void disconnect(Long userId, Sinks.Many<UserEvent> connection) {
+        channels.computeIfPresent(
+                userId,
+                (id, channel) -> {
+                    channel.connections.remove(connection);
+                    if (channel.connections.isEmpty()) {
+                        // Keep the events for a reconnect, but stop holding the channel
+                        states.put(userId, channel.state);
+                        return null;
+                    }
+                    return channel;
+                });
+    }
+
+    int connectedUsers() {
+        return channels.size();
+    }
+
+    private static final class UserChannel {
+        private final UserState state;
+        private final List<Sinks.Many<UserEvent>> connections = new CopyOnWriteArrayList<>();
+
+        private UserChannel(UserState state) {
+            this.state = state;
+        }
+
+        private void deliver(UserEvent event) {
+            synchronized (state) {
+                state.add(event);
+                emit(event);
+            }
+        }
+
+        private void emit(UserEvent event) {
+            for (Sinks.Many<UserEvent> connection : connections) {
+                connection.tryEmitNext(event);
+            }
+        }
+    }
+
+    /**
+     * The most recent events of a user, oldest first, and the user's topics. Callers synchronize on
+     * the state to touch the events; the topics may be read without the lock.
+     */
+    private static final class UserState {
+        private final int capacity;
+        private final Deque<UserEvent> events;
+        private final Set<String> topics = ConcurrentHashMap.newKeySet();
+
+        private UserState(int capacity) {
+            this.capacity = capacity;
+            this.events = new ArrayDeque<>(capacity);
+        }
+
+        private void add(UserEvent event) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+
+        /**
+         * Events after the given id. When the id is no longer buffered the whole buffer is
+         * returned, preferring duplicates over a silent gap.
+         */
+        private List<UserEvent> after(String lastEventId) {
+            if (lastEventId == null) {
+                return List.of();
+            }
+            List<UserEvent> missed = new ArrayList<>();
+            boolean found = false;
+            for (UserEvent event : events) {
+                if (found) {
+                    missed.add(event);
+                } else if (event.id().equals(lastEventId)) {
+                    found = true;
+                }
+            }
+            return found ? missed : new ArrayList<>(events);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package io.flowinquiry.sse;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/** Single-node stand-in for a real broker that hands messages straight to local subscribers. */
+@Component
+@ConditionalOnProperty(prefix = "flowinquiry.sse", name = "broker", havingValue = "in-memory")
+public class InMemorySseEventBroker implements SseEventBroker {
+
+    private final List<Consumer<SseMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(SseMessage message) {
+        subscribers.forEach(subscriber -> subscriber.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<SseMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
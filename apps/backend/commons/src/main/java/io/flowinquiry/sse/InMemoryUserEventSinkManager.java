@@ -1,33 +1,105 @@
 package io.flowinquiry.sse;
 
 import io.flowinquiry.modules.shared.domain.EventPayload;
+import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Sinks;
 
 @Component
+@ConditionalOnProperty(
+        prefix = "flowinquiry.sse",
+        name = "broker",
+        havingValue = "none",
+        matchIfMissing = true)
 public class InMemoryUserEventSinkManager implements UserEventSinkManager {
 
-    private final Map<Long, Sinks.Many<EventPayload>> sinks = new ConcurrentHashMap<>();
+    private final Map<Long, Sinks.Many<UserEvent>> sinks = new ConcurrentHashMap<>();
+
+    /** Subscribed users by topic. */
+    private final Map<String, Set<Long>> subscribers = new ConcurrentHashMap<>();
+
+    /** Subscribed topics by user, the inverse of {@link #subscribers}. */
+    private final Map<Long, Set<String>> topics = new ConcurrentHashMap<>();
 
     @Override
-    public Flux<EventPayload> getSink(Long userId) {
+    public Flux<UserEvent> getSink(Long userId, Collection<String> topics, String lastEventId) {
+        Set<String> previous = this.topics.put(userId, newTopicSet(topics));
+        topics.forEach(topic -> addSubscriber(topic, userId));
+        if (previous != null) {
+            previous.stream()
+                    .filter(topic -> !topics.contains(topic))
+                    .forEach(topic -> removeSubscriber(topic, userId));
+        }
         return sinks.computeIfAbsent(userId, id -> Sinks.many().multicast().onBackpressureBuffer())
                 .asFlux();
     }
 
     @Override
     public void emitToUser(Long userId, EventPayload payload) {
-        Sinks.Many<EventPayload> sink = sinks.get(userId);
+        Sinks.Many<UserEvent> sink = sinks.get(userId);
         if (sink != null) {
-            sink.tryEmitNext(payload);
+            sink.tryEmitNext(new UserEvent(null, payload));
+        }
+    }
+
+    @Override
+    public void emitToTopic(String topic, EventPayload payload) {
+        Set<Long> userIds = subscribers.get(topic);
+        if (userIds == null) {
+            return;
+        }
+        UserEvent event = new UserEvent(null, payload);
+        for (Long userId : userIds) {
+            Sinks.Many<UserEvent> sink = sinks.get(userId);
+            if (sink != null) {
+                sink.tryEmitNext(event);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Long userId, String topic) {
+        Set<String> userTopics = topics.get(userId);
+        if (userTopics != null && userTopics.add(topic)) {
+            addSubscriber(topic, userId);
+        }
+    }
+
+    @Override
+    public void unsubscribe(Long userId, String topic) {
+        Set<String> userTopics = topics.get(userId);
+        if (userTopics != null && userTopics.remove(topic)) {
+            removeSubscriber(topic, userId);
         }
     }
 
     @Override
     public void broadcast(EventPayload payload) {
-        sinks.values().forEach(sink -> sink.tryEmitNext(payload));
+        UserEvent event = new UserEvent(null, payload);
+        sinks.values().forEach(sink -> sink.tryEmitNext(event));
+    }
+
+    private void addSubscriber(String topic, Long userId) {
+        subscribers.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(userId);
+    }
+
+    private void removeSubscriber(String topic, Long userId) {
+        subscribers.computeIfPresent(
+                topic,
+                (key, userIds) -> {
+                    userIds.remove(userId);
+                    return userIds.isEmpty() ? null : userIds;
+                });
+    }
+
+    private static Set<String> newTopicSet(Collection<String> topics) {
+        Set<String> topicSet = ConcurrentHashMap.newKeySet();
+        topicSet.addAll(topics);
+        return topicSet;
     }
 }
@@ -0,0 +1,197 @@
+package io.flowinquiry.sse;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.flowinquiry.config.FlowInquiryProperties;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Broker backed by Postgres {@code LISTEN/NOTIFY}, so nodes sharing the application database need
+ * no extra infrastructure. Listening and publishing each use a dedicated connection outside the
+ * pool: a listening connection is held forever, and {@code NOTIFY} must not join the caller's
+ * (possibly read-only) transaction.
+ *
+ * <p>Postgres limits a notification payload to 8000 bytes. Larger messages are delivered to this
+ * node's subscribers only.
+ */
+@Component
+@ConditionalOnProperty(prefix = "flowinquiry.sse", name = "broker", havingValue = "postgres")
+@Slf4j
+public class PostgresSseEventBroker implements SseEventBroker, SmartLifecycle {
+
+    private static final int MAX_PAYLOAD_BYTES = 7999;
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final List<Consumer<SseMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+    /** Guarded by {@code this}. */
+    private Connection publishConnection;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresSseEventBroker(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            FlowInquiryProperties flowInquiryProperties) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.channel = flowInquiryProperties.getSse().getChannel();
+    }
+
+    @Override
+    public void publish(SseMessage message) {
+        String json = objectMapper.writeValueAsString(message);
+        if (json.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            log.warn(
+                    "SSE message {} for {} exceeds the notification size limit, delivering it on"
+                            + " this node only",
+                    message.type(),
+                    message.target());
+            dispatch(message);
+            return;
+        }
+
+        synchronized (this) {
+            try {
+                if (publishConnection == null || publishConnection.isClosed()) {
+                    publishConnection = openConnection();
+                }
+                try (PreparedStatement statement =
+                        publishConnection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                    statement.setString(1, channel);
+                    statement.setString(2, json);
+                    statement.execute();
+                }
+            } catch (SQLException e) {
+                log.error("Failed to publish SSE message, delivering it on this node only", e);
+                closeQuietly(publishConnection);
+                publishConnection = null;
+                dispatch(message);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<SseMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = openConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + channel + "\"");
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for SSE messages on channel {}", channel);
+                while (running) {
+                    PGNotification[] notifications =
+                            pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn(
+                        "SSE listener connection failed, reconnecting in {} ms",
+                        RECONNECT_DELAY_MILLIS,
+                        e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String json) {
+        try {
+            dispatch(objectMapper.readValue(json, SseMessage.class));
+        } catch (RuntimeException e) {
+            log.error("Failed to handle SSE message {}", json, e);
+        }
+    }
+
+    private void dispatch(SseMessage message) {
+        subscribers.forEach(subscriber -> subscriber.accept(message));
+    }
+
+    private Connection openConnection() throws SQLException {
+        Connection connection;
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            connection =
+                    DriverManager.getConnection(
+                            hikari.getJdbcUrl(), hikari.getUsername(), hikari.getPassword());
+        } else {
+            connection = dataSource.getConnection();
+        }
+        connection.setAutoCommit(true);
+        return connection;
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close SSE connection", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "sse-postgres-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        synchronized (this) {
+            closeQuietly(publishConnection);
+            publishConnection = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,14 @@
+package io.flowinquiry.sse;
+
+import java.util.function.Consumer;
+
+/**
+ * Fans SSE messages out to every application node. Messages published on any node, including this
+ * one, are handed to the subscribers of every node in the same order.
+ */
+public interface SseEventBroker {
+
+    void publish(SseMessage message);
+
+    void subscribe(Consumer<SseMessage> subscriber);
+}
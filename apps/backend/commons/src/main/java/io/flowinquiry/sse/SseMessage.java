@@ -0,0 +1,47 @@
+package io.flowinquiry.sse;
+
+import io.flowinquiry.modules.shared.domain.EventPayloadType;
+
+/**
+ * A message as it travels through a {@link SseEventBroker}: either an event, or a change to the
+ * topics a user is subscribed to.
+ *
+ * @param id The cluster-wide unique message id, which is the SSE id of an event.
+ * @param kind What the message carries.
+ * @param target Who the message is for: {@code user:<id>}, a topic, or {@value #BROADCAST} for
+ *     everyone. Subscription changes always target a user.
+ * @param type The payload type of an event, null otherwise.
+ * @param data The payload data of an event, the topic of a {@link Kind#SUBSCRIBE} or {@link
+ *     Kind#UNSUBSCRIBE}, or the list of topics of a {@link Kind#TOPICS}. After crossing nodes this
+ *     is the JSON tree of the original object.
+ */
+public record SseMessage(String id, Kind kind, String target, EventPayloadType type, Object data) {
+
+    public static final String BROADCAST = "*";
+
+    private static final String USER_PREFIX = "user:";
+
+    public enum Kind {
+        /** An event to deliver. */
+        EVENT,
+        /** Replaces all topics of the target user. */
+        TOPICS,
+        /** Adds one topic to the target user. */
+        SUBSCRIBE,
+        /** Removes one topic from the target user. */
+        UNSUBSCRIBE
+    }
+
+    public static String userTarget(Long userId) {
+        return USER_PREFIX + userId;
+    }
+
+    /**
+     * @return The receiving user id, or null if the message is not addressed to a single user.
+     */
+    public Long targetUserId() {
+        return target.startsWith(USER_PREFIX)
+                ? Long.valueOf(target.substring(USER_PREFIX.length()))
+                : null;
+    }
+}
@@ -0,0 +1,16 @@
+package io.flowinquiry.sse;
+
+/**
+ * Names of the topics an SSE connection can subscribe to. An event emitted to a topic is published
+ * once and delivered to every connection subscribed to it, instead of being sent to each member
+ * separately.
+ */
+public final class SseTopics {
+
+    private SseTopics() {}
+
+    /** Events for all members of a team, including those about the team's projects. */
+    public static String team(Long teamId) {
+        return "team:" + teamId;
+    }
+}
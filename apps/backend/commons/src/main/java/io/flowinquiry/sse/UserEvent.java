@@ -0,0 +1,50 @@
+package io.flowinquiry.sse;
+
+import io.flowinquiry.modules.shared.domain.EventPayload;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * An event delivered to a user's SSE stream. An event emitted to a topic or broadcast is one
+ * instance shared by every receiving connection, so its JSON is rendered once however many users
+ * receive it.
+ */
+public final class UserEvent {
+
+    private final String id;
+    private final EventPayload<?> payload;
+    private volatile String json;
+
+    /**
+     * @param id The event id sent as the SSE id, used for {@code Last-Event-ID} replay; null when
+     *     the sink manager does not support replay.
+     * @param payload The event payload.
+     */
+    public UserEvent(String id, EventPayload<?> payload) {
+        this.id = id;
+        this.payload = payload;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public EventPayload<?> payload() {
+        return payload;
+    }
+
+    /**
+     * Renders the payload as JSON on first use. Concurrent first calls may each render it, which is
+     * harmless as the result is the same.
+     *
+     * @param objectMapper The mapper used for HTTP message conversion.
+     * @return The JSON of the payload.
+     */
+    public String json(ObjectMapper objectMapper) {
+        String rendered = json;
+        if (rendered == null) {
+            rendered = objectMapper.writeValueAsString(payload);
+            json = rendered;
+        }
+        return rendered;
+    }
+}
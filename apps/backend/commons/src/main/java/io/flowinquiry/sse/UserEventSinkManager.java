@@ -1,12 +1,38 @@
 package io.flowinquiry.sse;
 
 import io.flowinquiry.modules.shared.domain.EventPayload;
+import java.util.Collection;
 import reactor.core.publisher.Flux;
 
 public interface UserEventSinkManager {
-    Flux<EventPayload> getSink(Long userId);
+
+    /**
+     * Opens an event stream for a user.
+     *
+     * @param userId The user the stream belongs to.
+     * @param topics The topics the user is subscribed to, see {@link SseTopics}. They replace the
+     *     user's previous topics and apply to all of the user's connections.
+     * @param lastEventId The id of the last event the client received before reconnecting, or null
+     *     on a fresh connection. Implementations that keep recent events replay the ones after it.
+     * @return The events of the user, ending when the subscriber cancels.
+     */
+    Flux<UserEvent> getSink(Long userId, Collection<String> topics, String lastEventId);
 
     void emitToUser(Long userId, EventPayload payload);
 
+    /**
+     * Emits an event once to every user subscribed to a topic.
+     *
+     * @param topic The topic, see {@link SseTopics}.
+     * @param payload The event payload.
+     */
+    void emitToTopic(String topic, EventPayload payload);
+
+    /** Adds a topic to a user that is already connected, for example after joining a team. */
+    void subscribe(Long userId, String topic);
+
+    /** Removes a topic from a user, for example after leaving a team. */
+    void unsubscribe(Long userId, String topic);
+
     void broadcast(EventPayload payload);
 }
@@ -13,8 +13,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
  * security context from the calling thread are properly propagated to the thread that executes the
  * task.
  *
- * <p>After task execution, it cleans up thread-local storage to prevent memory leaks and context
- * contamination between different requests.
+ * <p>After task execution, it restores the contexts the executing thread had before, to prevent
+ * memory leaks and context contamination between different requests. Tasks submitted without tenant
+ * nor authentication are handed to the delegate unwrapped.
  */
 public class TenantAwareDelegatingTaskExecutor implements TaskExecutor {
 
@@ -34,19 +35,30 @@ public class TenantAwareDelegatingTaskExecutor implements TaskExecutor {
         UUID tenantId = TenantContext.getTenantId().orElse(null);
         SecurityContext securityContext = SecurityContextHolder.getContext();
 
+        // Nothing to propagate, run the task as is
+        if (tenantId == null && securityContext.getAuthentication() == null) {
+            delegate.execute(task);
+            return;
+        }
+
         delegate.execute(
-                () -> {
-                    try {
-                        // Set both contexts
-                        TenantContext.setTenantId(tenantId);
-                        SecurityContextHolder.setContext(securityContext);
-
-                        task.run();
-                    } finally {
-                        // Clean up thread-local storage
-                        TenantContext.clear();
-                        SecurityContextHolder.clearContext();
-                    }
-                });
+                () ->
+                        TenantContext.runWithTenant(
+                                tenantId, () -> runWithSecurityContext(securityContext, task)));
+    }
+
+    private static void runWithSecurityContext(SecurityContext securityContext, Runnable task) {
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext(securityContext);
+        try {
+            task.run();
+        } finally {
+            // Restore rather than clear, the task may run on the submitting thread
+            if (previous.getAuthentication() == null) {
+                SecurityContextHolder.clearContext();
+            } else {
+                SecurityContextHolder.setContext(previous);
+            }
+        }
     }
 }
@@ -2,12 +2,18 @@ package io.flowinquiry.tenant;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Utility class for managing tenant context in a multi-tenant application. This class provides
  * thread-local storage for tenant information, ensuring that tenant-specific data is isolated
  * between different threads/requests. It also provides functionality to temporarily suppress tenant
  * filtering when needed.
+ *
+ * <p>{@link #runWithTenant(UUID, Runnable)} and {@link #callWithTenant(UUID, Supplier)} bind the
+ * tenant for the extent of a call only, like a {@code ScopedValue} would, and restore the previous
+ * binding afterwards. They are safe on virtual threads and on threads that run tasks of several
+ * tenants in turn, since no binding outlives the call that made it.
  */
 public class TenantContext {
     /**
@@ -20,7 +26,7 @@ public class TenantContext {
      * Thread-local flag to indicate whether tenant filtering should be suppressed. When set to
      * true, tenant filtering will be bypassed.
      */
-    private static final ThreadLocal<Boolean> suppress = ThreadLocal.withInitial(() -> false);
+    private static final ThreadLocal<Boolean> suppress = new ThreadLocal<>();
 
     /**
      * Checks if tenant filtering is currently suppressed.
@@ -28,7 +34,7 @@ public class TenantContext {
      * @return true if tenant filtering is suppressed, false otherwise
      */
     public static boolean isFilterSuppressed() {
-        return suppress.get();
+        return suppress.get() == Boolean.TRUE;
     }
 
     /**
@@ -57,15 +63,56 @@ public class TenantContext {
     }
 
     /**
-     * Gets the tenant ID for the current thread. If tenant filtering is suppressed, this method
-     * returns null. Otherwise, if the tenant ID is not set, it throws an IllegalStateException.
+     * Gets the tenant ID for the current thread.
      *
-     * @return the current tenant ID, or null if filtering is suppressed
-     * @throws IllegalStateException if tenant ID is not set and filtering is not suppressed
+     * @return the current tenant ID, or empty if it is not set or filtering is suppressed
      */
     public static Optional<UUID> getTenantId() {
-        if (suppress.get()) return Optional.empty();
-        return Optional.of(currentTenant.get());
+        if (isFilterSuppressed()) return Optional.empty();
+        return Optional.ofNullable(currentTenant.get());
+    }
+
+    /**
+     * Runs a task with the given tenant as the current one, then restores the tenant that was
+     * current before.
+     *
+     * @param tenantId the UUID of the tenant, or null to run the task without tenant
+     * @param task the task to run
+     */
+    public static void runWithTenant(UUID tenantId, Runnable task) {
+        UUID previous = bind(tenantId);
+        try {
+            task.run();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    /**
+     * Calls a task with the given tenant as the current one, then restores the tenant that was
+     * current before.
+     *
+     * @param tenantId the UUID of the tenant, or null to call the task without tenant
+     * @param task the task to call
+     * @return the result of the task
+     */
+    public static <T> T callWithTenant(UUID tenantId, Supplier<T> task) {
+        UUID previous = bind(tenantId);
+        try {
+            return task.get();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    private static UUID bind(UUID tenantId) {
+        UUID previous = currentTenant.get();
+        if (tenantId == null) {
+            currentTenant.remove();
+        } else {
+            currentTenant.set(tenantId);
+        }
+        return previous;
     }
 
     /**
@@ -0,0 +1,55 @@
+package io.flowinquiry.tenant;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import java.sql.SQLException;
+import java.util.UUID;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Enables the Hibernate {@code tenantFilter} for the current tenant on the session of each
+ * transaction, when the transaction begins. Requests that never touch the database pay nothing, and
+ * the filter is enabled on the session that actually runs the queries.
+ *
+ * <p>Outside a transaction, repository queries run on an entity manager created for the call. The
+ * entity manager factory enables the filter on those through {@link
+ * #enableTenantFilter(EntityManager)}, see {@code DatabaseConfiguration}.
+ *
+ * <p>The filter only restricts HQL and criteria queries. It does not apply to loading an entity by
+ * id, {@code findById} or {@code EntityManager.find}, nor to native SQL and JDBC statements. Code
+ * taking ids or running native statements must resolve the ids through a filtered query first, as
+ * {@code TicketBulkService} does.
+ */
+public class TenantFilterJpaDialect extends HibernateJpaDialect {
+
+    static final String TENANT_FILTER = "tenantFilter";
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        enableTenantFilter(entityManager);
+        return transactionData;
+    }
+
+    @Override
+    public Object prepareTransaction(EntityManager entityManager, boolean readOnly, String name)
+            throws PersistenceException {
+        Object transactionData = super.prepareTransaction(entityManager, readOnly, name);
+        enableTenantFilter(entityManager);
+        return transactionData;
+    }
+
+    public void enableTenantFilter(EntityManager entityManager) {
+        UUID tenantId = TenantContext.getTenantId().orElse(null);
+        if (tenantId == null) {
+            return;
+        }
+        entityManager
+                .unwrap(Session.class)
+                .enableFilter(TENANT_FILTER)
+                .setParameter("tenantId", tenantId);
+    }
+}
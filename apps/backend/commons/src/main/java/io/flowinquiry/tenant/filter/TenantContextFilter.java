@@ -3,9 +3,6 @@ package io.flowinquiry.tenant.filter;
 import static io.flowinquiry.security.SecurityUtils.TENANT_ID;
 
 import io.flowinquiry.tenant.TenantContext;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.PersistenceException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,7 +10,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.Session;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -30,14 +26,14 @@ import org.springframework.web.filter.OncePerRequestFilter;
  * requests.
  *
  * <p>The tenant ID is extracted from the JWT token's claims and set in the thread-local context,
- * making it available throughout the request processing.
+ * making it available throughout the request processing. The Hibernate tenant filter is enabled
+ * later, by {@link io.flowinquiry.tenant.TenantFilterJpaDialect} when a transaction begins, so
+ * requests that never touch the database open no session.
  */
 @Slf4j
 @Component
 public class TenantContextFilter extends OncePerRequestFilter {
 
-    @PersistenceContext private EntityManager entityManager;
-
     /**
      * Processes each HTTP request to extract and set tenant context information.
      *
@@ -70,19 +66,6 @@ public class TenantContextFilter extends OncePerRequestFilter {
                 log.debug("Anonymous request with no tenant ID for: {}", request.getRequestURI());
             }
 
-            if (tenantId != null
-                    && entityManager.isOpen()
-                    && entityManager.getEntityManagerFactory().isOpen()) {
-                try {
-                    Session session = entityManager.unwrap(Session.class);
-                    if (session.isOpen() && session.getEnabledFilter("tenantFilter") == null) {
-                        session.enableFilter("tenantFilter").setParameter("tenantId", tenantId);
-                    }
-                } catch (IllegalStateException | PersistenceException ex) {
-                    log.warn("Exception when enabling tenant filter: {}", ex.getMessage(), ex);
-                }
-            }
-
             filterChain.doFilter(request, response);
 
         } finally {
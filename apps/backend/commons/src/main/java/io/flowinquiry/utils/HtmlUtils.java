@@ -38,7 +38,8 @@ public class HtmlUtils {
         DomContent avatar;
         if (StringUtils.isNotBlank(user.getImageUrl())) {
             avatar =
-                    img().withSrc("/api/files/" + user.getImageUrl())
+                    // A small variant, sharp on high density screens, instead of the full image
+                    img().withSrc("/api/files/" + user.getImageUrl() + "?size=48")
                             .withAlt(fullName)
                             .withStyle(
                                     "width:24px;height:24px;border-radius:50%;"
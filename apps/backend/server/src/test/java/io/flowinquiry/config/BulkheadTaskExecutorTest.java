@@ -0,0 +1,179 @@
+package io.flowinquiry.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.flowinquiry.tenant.TenantAwareDelegatingTaskExecutor;
+import io.flowinquiry.tenant.TenantContext;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+public class BulkheadTaskExecutorTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkheadTaskExecutorTest.class);
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void shouldRunAtMostPermitsTasksAtOnce() throws InterruptedException {
+        BulkheadTaskExecutor executor = new BulkheadTaskExecutor("test-", 3, 100, Duration.ZERO);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+
+        for (int i = 0; i < 20; i++) {
+            executor.execute(
+                    () -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        sleep(20);
+                        running.decrementAndGet();
+                        done.countDown();
+                    });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(3);
+        assertThat(executor.getWaiting()).isZero();
+    }
+
+    @Test
+    public void shouldRejectTasksBeyondTheQueueCapacity() throws InterruptedException {
+        BulkheadTaskExecutor executor =
+                new BulkheadTaskExecutor("test-", 1, 2, Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+
+        for (int i = 0; i < 3; i++) {
+            executor.execute(
+                    () -> {
+                        awaitQuietly(release);
+                        done.countDown();
+                    });
+        }
+
+        assertThatThrownBy(() -> executor.execute(done::countDown))
+                .isInstanceOf(TaskRejectedException.class);
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Room is made again as tasks finish
+        CountDownLatch accepted = new CountDownLatch(1);
+        executor.execute(accepted::countDown);
+        assertThat(accepted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void shouldPropagateTenantContextToVirtualThreads() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        TaskExecutor executor =
+                new TenantAwareDelegatingTaskExecutor(
+                        new BulkheadTaskExecutor("test-", 1, 100, Duration.ZERO));
+        CompletableFuture<UUID> seenTenant = new CompletableFuture<>();
+        CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+
+        TenantContext.setTenantId(tenantId);
+        executor.execute(
+                () -> {
+                    virtual.complete(Thread.currentThread().isVirtual());
+                    seenTenant.complete(TenantContext.getTenantId().orElse(null));
+                });
+
+        assertThat(seenTenant.get(5, TimeUnit.SECONDS)).isEqualTo(tenantId);
+        assertThat(virtual.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    /**
+     * Latency of short database-like tasks submitted while a burst of slow mail sends (200ms each)
+     * is in flight: on one pool shared by everything, as configured by default (2 core threads and
+     * a large queue), against separate bulkheads on virtual threads. Logs the p99 of both.
+     */
+    @Test
+    public void benchmarkLatencyUnderSlowDependency() throws InterruptedException {
+        ThreadPoolTaskExecutor shared = new ThreadPoolTaskExecutor();
+        shared.setCorePoolSize(2);
+        shared.setMaxPoolSize(50);
+        shared.setQueueCapacity(10000);
+        shared.initialize();
+        long sharedP99;
+        try {
+            sharedP99 = p99Latency(shared, shared);
+        } finally {
+            shared.shutdown();
+        }
+
+        long bulkheadP99 =
+                p99Latency(
+                        new BulkheadTaskExecutor("mail-", 10, 1000, Duration.ZERO),
+                        new BulkheadTaskExecutor("database-", 50, 1000, Duration.ZERO));
+
+        log.info(
+                "p99 latency of database tasks during a mail burst: {} ms on a shared pool, {} ms"
+                        + " on virtual thread bulkheads",
+                sharedP99,
+                bulkheadP99);
+        assertThat(bulkheadP99).isLessThan(sharedP99);
+    }
+
+    private static long p99Latency(TaskExecutor mailExecutor, TaskExecutor databaseExecutor)
+            throws InterruptedException {
+        int mails = 20;
+        int queries = 100;
+        CountDownLatch done = new CountDownLatch(mails + queries);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < mails; i++) {
+            mailExecutor.execute(
+                    () -> {
+                        sleep(200);
+                        done.countDown();
+                    });
+        }
+        for (int i = 0; i < queries; i++) {
+            long submitted = System.nanoTime();
+            databaseExecutor.execute(
+                    () -> {
+                        sleep(2);
+                        latencies.add((System.nanoTime() - submitted) / 1_000_000);
+                        done.countDown();
+                    });
+        }
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
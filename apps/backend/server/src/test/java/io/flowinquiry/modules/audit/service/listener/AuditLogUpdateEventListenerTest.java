@@ -1,22 +1,27 @@
 package io.flowinquiry.modules.audit.service.listener;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import io.flowinquiry.modules.audit.service.EntityFieldHandler;
 import io.flowinquiry.modules.audit.service.EntityFieldHandlerRegistry;
 import io.flowinquiry.modules.audit.service.EntityFieldHandlerRegistryFactory;
 import io.flowinquiry.modules.audit.service.event.AuditLogUpdateEvent;
-import io.flowinquiry.modules.collab.domain.ActivityLog;
+import io.flowinquiry.modules.audit.utils.AuditUtils.FieldChange;
+import io.flowinquiry.modules.audit.utils.EntityAccessorTable;
 import io.flowinquiry.modules.collab.domain.EntityType;
-import io.flowinquiry.modules.collab.repository.ActivityLogRepository;
+import io.flowinquiry.modules.collab.service.ActivityLogWriter;
 import io.flowinquiry.modules.usermanagement.domain.User;
 import io.flowinquiry.security.SecurityUtils;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,7 +35,7 @@ import org.springframework.context.ApplicationContext;
 @ExtendWith(MockitoExtension.class)
 public class AuditLogUpdateEventListenerTest {
 
-    @Mock private ActivityLogRepository activityLogRepository;
+    @Mock private ActivityLogWriter activityLogWriter;
 
     @Mock private EntityFieldHandlerRegistryFactory registryFactory;
 
@@ -42,7 +47,7 @@ public class AuditLogUpdateEventListenerTest {
     public void setup() {
         listener =
                 new AuditLogUpdateEventListener(
-                        activityLogRepository, registryFactory, applicationContext);
+                        activityLogWriter, registryFactory, applicationContext);
     }
 
     @Test
@@ -64,6 +69,8 @@ public class AuditLogUpdateEventListenerTest {
 
         // Configure the registry to return handlers
         when(registry.getHandler("name")).thenReturn(handlers.get("name"));
+        when(registry.getAuditedAccessors())
+                .thenReturn(EntityAccessorTable.of(TestEntity.class).select(handlers.keySet()));
 
         // Configure the factory to return the registry
         when(registryFactory.getRegistry(TestEntity.class)).thenReturn(registry);
@@ -77,18 +84,16 @@ public class AuditLogUpdateEventListenerTest {
             listener.onNewTicketCreated(event);
 
             // Then
-            ArgumentCaptor<ActivityLog> activityLogCaptor =
-                    ArgumentCaptor.forClass(ActivityLog.class);
-            verify(activityLogRepository).save(activityLogCaptor.capture());
-
-            ActivityLog capturedLog = activityLogCaptor.getValue();
-            assert capturedLog.getEntityId().equals(1L);
-            assert capturedLog.getEntityType().equals(EntityType.Ticket);
-            assert capturedLog.getCreatedBy() != null;
-            assert capturedLog.getCreatedBy().equals(testUser);
-            assert capturedLog.getContent().contains("Name");
-            assert capturedLog.getContent().contains("Old Name");
-            assert capturedLog.getContent().contains("New Name");
+            ArgumentCaptor<List<FieldChange>> changesCaptor = ArgumentCaptor.forClass(List.class);
+            verify(activityLogWriter)
+                    .writeChanges(
+                            eq(EntityType.Ticket), eq(1L), eq(testUser), changesCaptor.capture());
+
+            List<FieldChange> changes = changesCaptor.getValue();
+            assert changes.size() == 1;
+            assert changes.get(0).getFieldName().equals("Name");
+            assert changes.get(0).getOldValue().equals("Old Name");
+            assert changes.get(0).getNewValue().equals("New Name");
         }
     }
 
@@ -103,6 +108,7 @@ public class AuditLogUpdateEventListenerTest {
         // Create a mock registry
         EntityFieldHandlerRegistry registry = mock(EntityFieldHandlerRegistry.class);
         when(registry.getEntityClass()).thenReturn((Class) TestEntity.class);
+        when(registry.getAuditedAccessors()).thenReturn(EntityAccessorTable.of(TestEntity.class));
 
         // Configure the factory to return the registry
         when(registryFactory.getRegistry(TestEntity.class)).thenReturn(registry);
@@ -111,7 +117,30 @@ public class AuditLogUpdateEventListenerTest {
         listener.onNewTicketCreated(event);
 
         // Then - no activity log should be saved
-        verify(activityLogRepository, never()).save(any());
+        verifyNoInteractions(activityLogWriter);
+    }
+
+    @Test
+    public void testOnNewTicketCreated_IgnoresFieldsOutsideAuditedAccessors() {
+        // Given - only the name is audited, but only the description changed
+        TestEntity previousEntity = new TestEntity(1L, "Same Name", "Old Description");
+        TestEntity updatedEntity = new TestEntity(1L, "Same Name", "New Description");
+
+        AuditLogUpdateEvent event = new AuditLogUpdateEvent(this, previousEntity, updatedEntity);
+
+        EntityFieldHandlerRegistry registry = mock(EntityFieldHandlerRegistry.class);
+        when(registry.getEntityClass()).thenReturn((Class) TestEntity.class);
+        when(registry.getAuditedAccessors())
+                .thenReturn(EntityAccessorTable.of(TestEntity.class).select(Set.of("name")));
+
+        when(registryFactory.getRegistry(TestEntity.class)).thenReturn(registry);
+
+        // When
+        listener.onNewTicketCreated(event);
+
+        // Then - the description is never compared, so nothing is logged
+        verify(registry, never()).getHandler(any());
+        verifyNoInteractions(activityLogWriter);
     }
 
     @Test
@@ -135,6 +164,8 @@ public class AuditLogUpdateEventListenerTest {
         // Configure the registry to return handlers
         when(registry.getHandler("name")).thenReturn(handlers.get("name"));
         when(registry.getHandler("description")).thenReturn(handlers.get("description"));
+        when(registry.getAuditedAccessors())
+                .thenReturn(EntityAccessorTable.of(TestEntity.class).select(handlers.keySet()));
 
         // Configure the factory to return the registry
         when(registryFactory.getRegistry(TestEntity.class)).thenReturn(registry);
@@ -148,19 +179,17 @@ public class AuditLogUpdateEventListenerTest {
             listener.onNewTicketCreated(event);
 
             // Then
-            ArgumentCaptor<ActivityLog> activityLogCaptor =
-                    ArgumentCaptor.forClass(ActivityLog.class);
-            verify(activityLogRepository).save(activityLogCaptor.capture());
-
-            ActivityLog capturedLog = activityLogCaptor.getValue();
-            assert capturedLog.getEntityId().equals(1L);
-            assert capturedLog.getEntityType().equals(EntityType.Ticket);
-            assert capturedLog.getCreatedBy() != null;
-            assert capturedLog.getCreatedBy().equals(testUser);
-            assert capturedLog.getContent().contains("Name");
-            assert capturedLog.getContent().contains("New Name");
-            assert capturedLog.getContent().contains("Description");
-            assert capturedLog.getContent().contains("Old Description");
+            ArgumentCaptor<List<FieldChange>> changesCaptor = ArgumentCaptor.forClass(List.class);
+            verify(activityLogWriter)
+                    .writeChanges(
+                            eq(EntityType.Ticket), eq(1L), eq(testUser), changesCaptor.capture());
+
+            List<FieldChange> changes = changesCaptor.getValue();
+            assert changes.size() == 2;
+            assert changes.get(0).getFieldName().equals("Name");
+            assert changes.get(0).getNewValue().equals("New Name");
+            assert changes.get(1).getFieldName().equals("Description");
+            assert changes.get(1).getOldValue().equals("Old Description");
         }
     }
 
@@ -180,7 +209,7 @@ public class AuditLogUpdateEventListenerTest {
         listener.onNewTicketCreated(event);
 
         // Then - no activity log should be saved, but no exception should be thrown
-        verify(activityLogRepository, never()).save(any());
+        verifyNoInteractions(activityLogWriter);
     }
 
     // Test entity class for testing
@@ -0,0 +1,61 @@
+package io.flowinquiry.modules.collab;
+
+import static io.flowinquiry.modules.collab.PrerenderedTemplate.placeholder;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class PrerenderedTemplateTest {
+
+    @Test
+    public void testFillSubstitutesEveryOccurrence() {
+        String rendered =
+                "<h1>"
+                        + placeholder("title")
+                        + "</h1><p>"
+                        + placeholder("name")
+                        + ", see "
+                        + placeholder("title")
+                        + "</p>";
+        PrerenderedTemplate template =
+                PrerenderedTemplate.parse(rendered, List.of("title", "name"));
+
+        assertThat(template.fill(Map.of("title", "Outage", "name", "Jane")))
+                .isEqualTo("<h1>Outage</h1><p>Jane, see Outage</p>");
+    }
+
+    @Test
+    public void testFillEscapesValues() {
+        PrerenderedTemplate template =
+                PrerenderedTemplate.parse(
+                        "<a title=\"" + placeholder("title") + "\">x</a>", List.of("title"));
+
+        assertThat(template.fill(Map.of("title", "\"Tom & Jerry\" <script>")))
+                .isEqualTo("<a title=\"&quot;Tom &amp; Jerry&quot; &lt;script&gt;\">x</a>");
+    }
+
+    @Test
+    public void testFillDoesNotSubstituteInsideValues() {
+        PrerenderedTemplate template =
+                PrerenderedTemplate.parse(
+                        placeholder("first") + "|" + placeholder("second"),
+                        List.of("first", "second"));
+
+        assertThat(template.fill(Map.of("first", placeholder("second"), "second", "2")))
+                .isEqualTo(placeholder("second") + "|2");
+    }
+
+    @Test
+    public void testFillRendersMissingValuesEmptyAndKeepsUnknownPlaceholders() {
+        PrerenderedTemplate template =
+                PrerenderedTemplate.parse(
+                        placeholder("known") + " " + placeholder("other"), List.of("known"));
+        Map<String, String> values = new HashMap<>();
+        values.put("known", null);
+
+        assertThat(template.fill(values)).isEqualTo(" " + placeholder("other"));
+    }
+}
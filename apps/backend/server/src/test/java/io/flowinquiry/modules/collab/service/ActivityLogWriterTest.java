@@ -0,0 +1,183 @@
+package io.flowinquiry.modules.collab.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.flowinquiry.config.FlowInquiryProperties;
+import io.flowinquiry.modules.audit.utils.AuditUtils.FieldChange;
+import io.flowinquiry.modules.collab.domain.ActivityLog;
+import io.flowinquiry.modules.collab.domain.EntityType;
+import io.flowinquiry.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class ActivityLogWriterTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @Mock private EntityManagerFactory entityManagerFactory;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ActivityLogWriter writer;
+
+    @BeforeEach
+    public void setup() {
+        Cache cache = mock(Cache.class);
+        when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(mock(org.hibernate.Cache.class));
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+
+        FlowInquiryProperties properties = new FlowInquiryProperties();
+        // Keep changes coalescing until the writer is stopped
+        properties.getActivityLog().setCoalesceWindowMillis(60_000);
+        properties.getActivityLog().setFlushIntervalMillis(50);
+
+        meterRegistry = new SimpleMeterRegistry();
+        writer =
+                new ActivityLogWriter(
+                        jdbcTemplate,
+                        transactionManager,
+                        entityManagerFactory,
+                        meterRegistry,
+                        properties);
+        TenantContext.setTenantId(TENANT_ID);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void shouldCoalesceChangesOfTheSameEntityAndFlushOnStop() throws Exception {
+        writer.start();
+
+        writer.writeChanges(
+                EntityType.Ticket, 1L, null, List.of(new FieldChange("Title", "First", "Second")));
+        writer.writeChanges(
+                EntityType.Ticket,
+                1L,
+                null,
+                List.of(
+                        new FieldChange("Title", "Second", "Third"),
+                        new FieldChange("Priority", "Low", "High")));
+        writer.writeChanges(
+                EntityType.Ticket, 1L, null, List.of(new FieldChange("Priority", "High", "Low")));
+        writer.writeChanges(
+                EntityType.Ticket, 2L, null, List.of(new FieldChange("Title", "Old", "New")));
+
+        writer.stop();
+
+        List<String> contents = insertedContents();
+        assertThat(contents).hasSize(2);
+        assertThat(contents.get(0))
+                .contains("Title", "First", "Third")
+                .doesNotContain("Second", "Priority");
+        assertThat(contents.get(1)).contains("Old", "New");
+    }
+
+    @Test
+    public void shouldFlushCoalescingChangesOnTheWriterThread() throws Exception {
+        List<String> writingThreads = Collections.synchronizedList(new ArrayList<>());
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenAnswer(
+                        invocation -> {
+                            writingThreads.add(Thread.currentThread().getName());
+                            return new int[0][];
+                        });
+        writer.start();
+
+        writer.writeChanges(
+                EntityType.Ticket, 1L, null, List.of(new FieldChange("Title", "Old", "New")));
+        writer.stop();
+
+        assertThat(writingThreads).containsExactly("activity-log-writer");
+    }
+
+    @Test
+    public void shouldWriteRenderedEntriesInBatches() throws Exception {
+        writer.start();
+
+        for (long i = 0; i < 3; i++) {
+            writer.write(
+                    ActivityLog.builder()
+                            .entityType(EntityType.Team)
+                            .entityId(i)
+                            .content("entry " + i)
+                            .build());
+        }
+
+        writer.stop();
+
+        assertThat(insertedContents()).containsExactlyInAnyOrder("entry 0", "entry 1", "entry 2");
+        assertThat(meterRegistry.get("flowinquiry.activity_log.flush").timer().count())
+                .isPositive();
+        assertThat(meterRegistry.get("flowinquiry.activity_log.dropped").counter().count())
+                .isZero();
+    }
+
+    @Test
+    public void shouldWriteDirectlyWhenNotRunning() throws Exception {
+        writer.write(
+                ActivityLog.builder()
+                        .entityType(EntityType.Team)
+                        .entityId(1L)
+                        .content("inline")
+                        .build());
+
+        assertThat(insertedContents()).containsExactly("inline");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<String> insertedContents() throws Exception {
+        ArgumentCaptor<Collection> batches = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter> setters =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate, atLeastOnce())
+                .batchUpdate(anyString(), batches.capture(), anyInt(), setters.capture());
+
+        List<String> contents = new ArrayList<>();
+        for (int i = 0; i < batches.getAllValues().size(); i++) {
+            for (Object entry : batches.getAllValues().get(i)) {
+                PreparedStatement ps = mock(PreparedStatement.class);
+                setters.getAllValues().get(i).setValues(ps, entry);
+                ArgumentCaptor<String> content = ArgumentCaptor.forClass(String.class);
+                verify(ps).setString(eq(4), content.capture());
+                verify(ps).setObject(1, TENANT_ID);
+                contents.add(content.getValue());
+            }
+        }
+        verify(transactionManager, atLeastOnce()).commit(any());
+        return contents;
+    }
+}
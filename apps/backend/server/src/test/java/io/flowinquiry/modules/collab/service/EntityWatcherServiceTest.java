@@ -0,0 +1,98 @@
+package io.flowinquiry.modules.collab.service;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.flowinquiry.modules.collab.domain.EntityType;
+import io.flowinquiry.modules.collab.repository.EntityWatcherRepository;
+import io.flowinquiry.modules.collab.service.mapper.EntityWatcherMapper;
+import io.flowinquiry.modules.teams.repository.TicketRepository;
+import io.flowinquiry.modules.usermanagement.domain.User;
+import io.flowinquiry.modules.usermanagement.repository.UserRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class EntityWatcherServiceTest {
+
+    private static final Long TICKET_ID = 7L;
+
+    @Mock private EntityWatcherRepository entityWatcherRepository;
+
+    @Mock private EntityWatcherMapper entityWatcherMapper;
+
+    @Mock private UserRepository userRepository;
+
+    @Mock private TicketRepository ticketRepository;
+
+    private EntityWatcherService entityWatcherService;
+
+    @BeforeEach
+    public void setup() {
+        entityWatcherService =
+                new EntityWatcherService(
+                        entityWatcherRepository,
+                        entityWatcherMapper,
+                        userRepository,
+                        ticketRepository);
+    }
+
+    @Test
+    public void shouldCountOnlyNewWatchersOfATicket() {
+        when(entityWatcherRepository.findWatcherIdsByEntity(EntityType.Ticket, TICKET_ID))
+                .thenReturn(List.of(1L));
+        when(userRepository.findAllById(List.of(2L, 3L)))
+                .thenReturn(List.of(User.builder().id(2L).build(), User.builder().id(3L).build()));
+
+        entityWatcherService.addWatchers(EntityType.Ticket, TICKET_ID, List.of(1L, 2L, 3L));
+
+        verify(ticketRepository).adjustNumberWatchers(TICKET_ID, 2);
+    }
+
+    @Test
+    public void shouldDiscountRemovedWatchersOfATicket() {
+        when(entityWatcherRepository.deleteByEntityTypeAndEntityIdAndWatchUser_IdIn(
+                        EntityType.Ticket, TICKET_ID, List.of(1L, 2L, 3L)))
+                .thenReturn(2L);
+        when(entityWatcherRepository.deleteByEntityTypeAndEntityIdAndWatchUserId(
+                        EntityType.Ticket, TICKET_ID, 4L))
+                .thenReturn(1L);
+
+        entityWatcherService.removeWatchers(EntityType.Ticket, TICKET_ID, List.of(1L, 2L, 3L));
+        entityWatcherService.removeWatcher(EntityType.Ticket, TICKET_ID, 4L);
+
+        verify(ticketRepository).adjustNumberWatchers(TICKET_ID, -2);
+        verify(ticketRepository).adjustNumberWatchers(TICKET_ID, -1);
+    }
+
+    @Test
+    public void shouldLeaveTheCounterAloneWhenNothingChanged() {
+        when(entityWatcherRepository.findWatcherIdsByEntity(EntityType.Ticket, TICKET_ID))
+                .thenReturn(List.of(1L));
+
+        entityWatcherService.addWatchers(EntityType.Ticket, TICKET_ID, List.of(1L));
+        entityWatcherService.removeWatcher(EntityType.Ticket, TICKET_ID, 5L);
+
+        verify(ticketRepository, never()).adjustNumberWatchers(anyLong(), anyInt());
+    }
+
+    @Test
+    public void shouldNotCountWatchersOfOtherEntities() {
+        when(entityWatcherRepository.findWatcherIdsByEntity(EntityType.Team, TICKET_ID))
+                .thenReturn(List.of());
+        when(userRepository.findAllById(anyList()))
+                .thenReturn(List.of(User.builder().id(2L).build()));
+
+        entityWatcherService.addWatchers(EntityType.Team, TICKET_ID, List.of(2L));
+
+        verify(ticketRepository, never()).adjustNumberWatchers(anyLong(), anyInt());
+    }
+}
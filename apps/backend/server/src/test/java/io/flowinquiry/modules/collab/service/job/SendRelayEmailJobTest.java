@@ -0,0 +1,265 @@
+package io.flowinquiry.modules.collab.service.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.flowinquiry.config.FlowInquiryProperties;
+import io.flowinquiry.modules.collab.domain.EmailJob;
+import io.flowinquiry.modules.collab.domain.RenderedEmail;
+import io.flowinquiry.modules.collab.repository.EmailJobRepository;
+import io.flowinquiry.modules.collab.service.AppSettingService;
+import io.flowinquiry.modules.collab.service.MailService;
+import io.flowinquiry.modules.collab.service.MailTemplateRendererService;
+import jakarta.mail.internet.MimeMessage;
+import java.io.FileNotFoundException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.MessageSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import tools.jackson.databind.node.JsonNodeFactory;
+
+@ExtendWith(MockitoExtension.class)
+public class SendRelayEmailJobTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SendRelayEmailJobTest.class);
+
+    @Mock private EmailJobRepository emailJobRepository;
+
+    @Mock private MailTemplateRendererService emailTemplateRenderer;
+
+    @Mock private AppSettingService appSettingService;
+
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @Mock private MessageSource messageSource;
+
+    @Mock private SpringTemplateEngine templateEngine;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail =
+            new GreenMailExtension(ServerSetupTest.SMTP)
+                    .withConfiguration(
+                            GreenMailConfiguration.aConfig()
+                                    .withUser("noreply@example.com", "user", "pass"))
+                    .withPerMethodLifecycle(true);
+
+    private MailService mailService;
+
+    private SendRelayEmailJob job;
+
+    @BeforeEach
+    void setup() {
+        Map<String, String> settings =
+                Map.of(
+                        "mail.host", "localhost",
+                        "mail.port", String.valueOf(greenMail.getSmtp().getPort()),
+                        "mail.username", "user",
+                        "mail.smtp.auth", "true",
+                        "mail.smtp.starttls.enable", "false",
+                        "mail.from", "noreply@example.com");
+        lenient()
+                .when(appSettingService.getValue(anyString()))
+                .thenAnswer(
+                        invocation -> Optional.ofNullable(settings.get(invocation.getArgument(0))));
+        lenient()
+                .when(appSettingService.getDecryptedValue("mail.password"))
+                .thenReturn(Optional.of("pass"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (job != null) {
+            job.destroy();
+        }
+        if (mailService != null) {
+            mailService.destroy();
+        }
+    }
+
+    private void createJob(int workerThreads, int chunkSize, double maxMessagesPerSecond) {
+        FlowInquiryProperties properties = new FlowInquiryProperties();
+        properties.getRelayEmail().setWorkerThreads(workerThreads);
+        properties.getRelayEmail().setChunkSize(chunkSize);
+        properties.getRelayEmail().setMaxMessagesPerSecond(maxMessagesPerSecond);
+        mailService = new MailService(appSettingService, messageSource, templateEngine, properties);
+        mailService.init();
+        job =
+                new SendRelayEmailJob(
+                        emailJobRepository,
+                        emailTemplateRenderer,
+                        mailService,
+                        appSettingService,
+                        transactionManager,
+                        properties);
+        job.init();
+    }
+
+    private static EmailJob renderedJob(long id, String recipient) {
+        EmailJob job = new EmailJob();
+        job.setId(id);
+        job.setRecipients(recipient);
+        job.setSubjectOverride("Subject " + id);
+        job.setBody("<p>Body " + id + "</p>");
+        return job;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> markedSent() {
+        ArgumentCaptor<Collection<Long>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(emailJobRepository, org.mockito.Mockito.atLeastOnce())
+                .markSent(captor.capture(), any(Instant.class));
+        Set<Long> ids = new HashSet<>();
+        captor.getAllValues().forEach(ids::addAll);
+        return ids;
+    }
+
+    @Test
+    void shouldSendClaimedJobsAndRecordTheOutcome() throws Exception {
+        createJob(2, 2, 0);
+        EmailJob templated = new EmailJob();
+        templated.setId(2L);
+        templated.setRecipients("Jane Doe <jane@example.com>");
+        templated.setRecipientLocale("en");
+        templated.setTemplateKey("mail/welcome");
+        templated.setTemplateContext(JsonNodeFactory.instance.objectNode().put("name", "Jane"));
+        EmailJob missingTemplate = new EmailJob();
+        missingTemplate.setId(3L);
+        missingTemplate.setRecipients("john@example.com");
+        missingTemplate.setTemplateKey("mail/missing");
+        when(emailJobRepository.claimPending(any(Instant.class), any(Instant.class), eq(500)))
+                .thenReturn(
+                        List.of(
+                                renderedJob(1L, "john@example.com"),
+                                templated,
+                                missingTemplate,
+                                renderedJob(4L, "not an address")));
+        when(emailTemplateRenderer.render(
+                        eq("mail/welcome"), any(Context.class), eq(Locale.ENGLISH)))
+                .thenReturn(new RenderedEmail("Welcome", "<p>Welcome Jane</p>"));
+        when(emailTemplateRenderer.render(
+                        eq("mail/missing"), any(Context.class), any(Locale.class)))
+                .thenThrow(new FileNotFoundException("mail/missing"));
+
+        job.run();
+
+        assertThat(greenMail.getReceivedMessages())
+                .extracting(MimeMessage::getSubject)
+                .containsExactlyInAnyOrder("Subject 1", "Welcome");
+        assertThat(markedSent()).containsExactlyInAnyOrder(1L, 2L);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> failed = ArgumentCaptor.forClass(Collection.class);
+        verify(emailJobRepository)
+                .markFailed(
+                        failed.capture(), eq(SendRelayEmailJob.MAX_RETRIES), any(Instant.class));
+        assertThat(failed.getValue()).containsExactlyInAnyOrder(3L, 4L);
+    }
+
+    @Test
+    void shouldStopWhenNothingIsPending() {
+        createJob(1, 50, 0);
+        when(emailJobRepository.claimPending(any(Instant.class), any(Instant.class), anyInt()))
+                .thenReturn(List.of());
+
+        job.run();
+
+        verify(emailJobRepository, never()).markSent(any(), any());
+        verify(emailJobRepository, never()).markFailed(any(), anyInt(), any());
+    }
+
+    @Test
+    void shouldNotExceedTheRateLimit() {
+        createJob(4, 5, 40);
+        List<EmailJob> jobs = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            jobs.add(renderedJob(id, "user" + id + "@example.com"));
+        }
+        when(emailJobRepository.claimPending(any(Instant.class), any(Instant.class), anyInt()))
+                .thenReturn(jobs);
+
+        long start = System.nanoTime();
+        job.run();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // 20 messages at 40 per second take at least 19 intervals of 25ms, whatever the workers
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(450);
+        assertThat(greenMail.getReceivedMessages()).hasSize(20);
+    }
+
+    /**
+     * Throughput of the relay against a local SMTP server, with a single worker versus four workers
+     * on pooled connections. Logs the rates; asserts only that every mail arrived, since the rates
+     * depend on the machine.
+     */
+    @Test
+    void benchmarkThroughput() throws Exception {
+        int count = 60;
+        double serial = relayAndMeasure(1, 1, count);
+        greenMail.purgeEmailFromAllMailboxes();
+        double parallel = relayAndMeasure(4, 50, count);
+
+        log.info(
+                "Relayed {} mails: {} per second with 1 worker, {} per second with 4 workers",
+                count,
+                Math.round(serial),
+                Math.round(parallel));
+    }
+
+    private double relayAndMeasure(int workerThreads, int chunkSize, int count) {
+        tearDown();
+        createJob(workerThreads, chunkSize, 0);
+        List<EmailJob> jobs = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            jobs.add(renderedJob(id, "user" + id + "@example.com"));
+        }
+        List<List<EmailJob>> batches = new ArrayList<>();
+        for (int from = 0; from < count; from += 500) {
+            batches.add(jobs.subList(from, Math.min(from + 500, count)));
+        }
+        batches.add(List.of());
+        org.mockito.Mockito.reset(emailJobRepository);
+        var stubbing =
+                when(
+                        emailJobRepository.claimPending(
+                                any(Instant.class), any(Instant.class), anyInt()));
+        for (List<EmailJob> batch : batches) {
+            stubbing = stubbing.thenReturn(batch);
+        }
+
+        long start = System.nanoTime();
+        job.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(count);
+        assertThat(markedSent()).hasSize(count);
+        return count / seconds;
+    }
+}
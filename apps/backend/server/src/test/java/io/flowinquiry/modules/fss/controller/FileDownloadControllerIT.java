@@ -0,0 +1,87 @@
+package io.flowinquiry.modules.fss.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.flowinquiry.it.AuthenticatedIntegrationTest;
+import io.flowinquiry.it.WithMockFwUser;
+import io.flowinquiry.modules.fss.service.StorageService;
+import io.flowinquiry.modules.usermanagement.AuthoritiesConstants;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WithMockFwUser(
+        userId = 1L,
+        authorities = {AuthoritiesConstants.ADMIN})
+@AuthenticatedIntegrationTest
+public class FileDownloadControllerIT {
+
+    private static final String CONTAINER = "download-it";
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @Autowired private StorageService storageService;
+
+    @Autowired private MockMvc mockMvc;
+
+    private String filePath;
+
+    @BeforeEach
+    void uploadFile() throws Exception {
+        filePath =
+                storageService.uploadFile(
+                        CONTAINER,
+                        "sample.txt",
+                        new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @AfterEach
+    void deleteFile() throws Exception {
+        storageService.deleteFile(filePath);
+    }
+
+    @Test
+    void shouldDownloadWholeFileWithValidators() throws Exception {
+        mockMvc.perform(get("/api/files/" + filePath))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "20"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void shouldServeRequestedRange() throws Exception {
+        mockMvc.perform(get("/api/files/" + filePath).header(HttpHeaders.RANGE, "bytes=10-14"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("abcde"))
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-14/20"));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForMatchingETag() throws Exception {
+        String eTag =
+                mockMvc.perform(get("/api/files/" + filePath))
+                        .andReturn()
+                        .getResponse()
+                        .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/files/" + filePath).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldReturnNotFoundForMissingFile() throws Exception {
+        mockMvc.perform(get("/api/files/" + CONTAINER + "/missing.txt"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,46 @@
+package io.flowinquiry.modules.fss.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.flowinquiry.modules.fss.service.StorageService;
+import io.flowinquiry.modules.fss.service.StoredObject;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+public class FileDownloadControllerTest {
+
+    private StorageService storageService;
+
+    private FileDownloadController fileDownloadController;
+
+    @BeforeEach
+    public void setup() {
+        storageService = mock(StorageService.class);
+        fileDownloadController = new FileDownloadController(storageService);
+    }
+
+    @Test
+    public void shouldHandTheStoredResourceToSpringWithoutReadingIt() throws Exception {
+        // Any read of the content by the controller, including buffering it, is an interaction
+        Resource content = mock(Resource.class);
+        when(storageService.getObject("attachments", "large.bin"))
+                .thenReturn(new StoredObject(content, Instant.EPOCH, "\"etag\""));
+
+        ResponseEntity<Resource> response =
+                fileDownloadController.downloadFile(
+                        new MockHttpServletRequest("GET", "/api/files/attachments/large.bin"),
+                        null);
+
+        assertThat(response.getBody()).isSameAs(content);
+        verify(storageService).getObject("attachments", "large.bin");
+        verifyNoInteractions(content);
+    }
+}
@@ -5,13 +5,18 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import io.flowinquiry.it.IntegrationTest;
 import io.flowinquiry.modules.fss.domain.EntityAttachment;
 import io.flowinquiry.modules.fss.repository.EntityAttachmentRepository;
 import io.flowinquiry.modules.fss.service.dto.EntityAttachmentDTO;
+import io.flowinquiry.modules.teams.repository.TicketRepository;
+import io.flowinquiry.modules.teams.service.TicketService;
+import jakarta.persistence.EntityManager;
 import java.io.InputStream;
 import java.time.Instant;
 import java.util.List;
@@ -34,6 +39,12 @@ public class EntityAttachmentServiceIT {
 
     @Autowired private EntityAttachmentRepository entityAttachmentRepository;
 
+    @Autowired private TicketRepository ticketRepository;
+
+    @Autowired private TicketService ticketService;
+
+    @Autowired private EntityManager entityManager;
+
     private StorageService mockStorageService;
 
     private static final String ENTITY_TYPE = "test";
@@ -55,22 +66,25 @@ public class EntityAttachmentServiceIT {
         // Create and configure the mock storage service
         mockStorageService = Mockito.mock(StorageService.class);
 
-        // Use doAnswer to provide a custom implementation that returns different file URLs based on
-        // the file name
+        // Use doAnswer to provide a custom implementation that stages content at different file
+        // URLs based on the file name
         Mockito.doAnswer(
                         invocation -> {
-                            String containerName = invocation.getArgument(0);
                             String fileName = invocation.getArgument(1);
 
-                            return switch (fileName) {
-                                case FILE_NAME -> FILE_URL;
-                                case "file1.txt" -> FILE_URL_1;
-                                case "file2.txt" -> FILE_URL_2;
-                                default -> "attachments/" + fileName;
-                            };
+                            String path =
+                                    switch (fileName) {
+                                        case FILE_NAME -> FILE_URL;
+                                        case "file1.txt" -> FILE_URL_1;
+                                        case "file2.txt" -> FILE_URL_2;
+                                        default -> "attachments/" + fileName;
+                                    };
+                            StagedContent content = Mockito.mock(StagedContent.class);
+                            when(content.path()).thenReturn(path);
+                            return content;
                         })
                 .when(mockStorageService)
-                .uploadFile(anyString(), anyString(), any(InputStream.class));
+                .stageContent(anyString(), anyString(), any(InputStream.class));
         doNothing().when(mockStorageService).deleteFile(anyString());
 
         // Inject the mock storage service into the entity attachment service
@@ -125,7 +139,7 @@ public class EntityAttachmentServiceIT {
 
         // Verify the storage service was called
         verify(mockStorageService, times(2))
-                .uploadFile(eq(StorageService.ATTACHMENTS), anyString(), any(InputStream.class));
+                .stageContent(eq(StorageService.ATTACHMENTS), anyString(), any(InputStream.class));
 
         // Verify the attachments were saved to the database
         List<EntityAttachment> savedAttachments =
@@ -133,6 +147,34 @@ public class EntityAttachmentServiceIT {
         assertThat(savedAttachments).hasSize(3); // 1 from setup + 2 new ones
     }
 
+    @Test
+    public void testUploadAttachmentsSkipsContentAlreadyAttached() throws Exception {
+        MockMultipartFile file =
+                new MockMultipartFile("file", FILE_NAME, "text/plain", "test content".getBytes());
+
+        List<EntityAttachment> result =
+                entityAttachmentService.uploadAttachments(
+                        ENTITY_TYPE, ENTITY_ID, new MultipartFile[] {file});
+
+        assertThat(result).isEmpty();
+        assertThat(entityAttachmentRepository.findByEntityTypeAndEntityId(ENTITY_TYPE, ENTITY_ID))
+                .hasSize(1);
+    }
+
+    @Test
+    public void testDeleteAttachmentKeepsFileStillReferenced() throws Exception {
+        MockMultipartFile file =
+                new MockMultipartFile("file1", "file1.txt", "text/plain", "shared".getBytes());
+        entityAttachmentService.uploadAttachments(
+                ENTITY_TYPE, ENTITY_ID, new MultipartFile[] {file});
+        entityAttachmentService.uploadAttachments(
+                ENTITY_TYPE, ENTITY_ID + 1, new MultipartFile[] {file});
+
+        entityAttachmentService.deleteAttachments(ENTITY_TYPE, ENTITY_ID + 1);
+
+        verify(mockStorageService, never()).deleteFile(FILE_URL_1);
+    }
+
     @Test
     public void testGetAttachments() {
         // Call the service method
@@ -176,4 +218,38 @@ public class EntityAttachmentServiceIT {
                 entityAttachmentRepository.findById(testAttachment.getId());
         assertThat(deletedAttachment).isEmpty();
     }
+
+    @Test
+    public void testTicketAttachmentCounterFollowsUploadsAndDeletes() throws Exception {
+        Long ticketId = 1L;
+        int before = numberAttachments(ticketId);
+        MultipartFile[] files = {
+            new MockMultipartFile("file1", "file1.txt", "text/plain", "content 1".getBytes()),
+            new MockMultipartFile("file2", "file2.txt", "text/plain", "content 2".getBytes())
+        };
+
+        List<EntityAttachment> uploaded =
+                entityAttachmentService.uploadAttachments("Ticket", ticketId, files);
+        assertThat(numberAttachments(ticketId)).isEqualTo(before + 2);
+
+        entityAttachmentService.deleteAttachment(uploaded.get(0).getId());
+        assertThat(numberAttachments(ticketId)).isEqualTo(before + 1);
+
+        entityAttachmentService.deleteAttachments("Ticket", ticketId);
+        assertThat(numberAttachments(ticketId)).isEqualTo(before);
+
+        // The setup removed the ticket's attachments behind the service's back
+        ticketService.reconcileCounters();
+        assertThat(numberAttachments(ticketId))
+                .isEqualTo(
+                        entityAttachmentRepository
+                                .findByEntityTypeAndEntityId("Ticket", ticketId)
+                                .size());
+    }
+
+    private int numberAttachments(Long ticketId) {
+        entityManager.flush();
+        entityManager.clear();
+        return ticketRepository.findById(ticketId).orElseThrow().getNumberAttachments();
+    }
 }
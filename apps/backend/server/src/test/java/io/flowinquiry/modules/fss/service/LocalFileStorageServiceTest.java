@@ -0,0 +1,294 @@
+package io.flowinquiry.modules.fss.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.flowinquiry.exceptions.ResourceNotFoundException;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+public class LocalFileStorageServiceTest {
+
+    @TempDir private Path rootDirectory;
+
+    private LocalFileStorageService storageService;
+
+    @BeforeEach
+    public void setup() {
+        storageService = new LocalFileStorageService(rootDirectory.toString(), 1024 * 1024);
+    }
+
+    @Test
+    public void shouldOpenStoredFileAsFileBackedResource() throws Exception {
+        String path = upload("notes.txt", "hello");
+
+        StoredObject object = storageService.getObject("attachments", "notes.txt");
+
+        assertThat(path).isEqualTo("attachments/notes.txt");
+        assertThat(object.resource()).isInstanceOf(FileSystemResource.class);
+        assertThat(object.resource().contentLength()).isEqualTo(5);
+        assertThat(object.eTag()).startsWith("\"").endsWith("\"");
+        assertThat(object.lastModified()).isNotNull();
+    }
+
+    @Test
+    public void shouldChangeETagWhenFileIsRewritten() throws Exception {
+        upload("notes.txt", "hello");
+        Path file = rootDirectory.resolve("attachments/notes.txt");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-01T00:00:00Z")));
+        String before = storageService.getObject("attachments", "notes.txt").eTag();
+
+        upload("notes.txt", "world");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-02T00:00:00Z")));
+
+        assertThat(storageService.getObject("attachments", "notes.txt").eTag())
+                .isNotEqualTo(before);
+    }
+
+    @Test
+    public void shouldRejectMissingFilesAndPathsOutsideTheRoot() throws Exception {
+        Files.writeString(rootDirectory.resolveSibling("outside.txt"), "secret");
+
+        assertThatThrownBy(() -> storageService.getObject("attachments", "missing.txt"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> storageService.getObject("..", "outside.txt"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    public void shouldStreamLargeFilesFromDisk() throws Exception {
+        long fileSize = 100L * 1024 * 1024;
+        Path container = Files.createDirectories(rootDirectory.resolve("large"));
+        // A sparse file, so the test does not need 100 MB of disk
+        try (RandomAccessFile file =
+                new RandomAccessFile(container.resolve("file").toFile(), "rw")) {
+            file.setLength(fileSize);
+        }
+
+        StoredObject object = storageService.getObject("large", "file");
+
+        // The content is read from the file on demand, never held in a byte array
+        assertThat(object.resource()).isInstanceOf(FileSystemResource.class);
+        assertThat(object.resource().contentLength()).isEqualTo(fileSize);
+        assertThat(stream(object)).isEqualTo(fileSize);
+    }
+
+    @Test
+    public void shouldStoreIdenticalContentOnce() throws Exception {
+        String first;
+        try (StagedContent content = stage("screenshot.PNG", "same bytes")) {
+            first = content.path();
+            content.store();
+        }
+        String second;
+        try (StagedContent content = stage("other-name.png", "same bytes")) {
+            second = content.path();
+            assertThat(content.size()).isEqualTo(10);
+            content.store();
+        }
+
+        assertThat(second).isEqualTo(first).startsWith("attachments/").endsWith(".png");
+        assertThat(Files.readString(rootDirectory.resolve(first))).isEqualTo("same bytes");
+        try (var staged = Files.list(rootDirectory.resolve(".staging"))) {
+            assertThat(staged).isEmpty();
+        }
+    }
+
+    @Test
+    public void shouldAddressDifferentContentSeparately() throws Exception {
+        try (StagedContent first = stage("log.txt", "one");
+                StagedContent second = stage("log.txt", "two")) {
+            assertThat(first.path()).isNotEqualTo(second.path());
+        }
+    }
+
+    @Test
+    public void shouldWriteDownscaledVariantsOnImageUpload() throws Exception {
+        String path = storageService.uploadImage("avatar", "user", png(400, 200));
+
+        StoredObject variant = storageService.getImageVariant("avatar", "user.png", 48);
+
+        assertThat(path).isEqualTo("avatar/user.png");
+        assertThat(variant.resource().getFile().toPath())
+                .isEqualTo(rootDirectory.resolve(".variants/avatar/64/user.png"));
+        BufferedImage image = ImageIO.read(variant.resource().getFile());
+        assertThat(image.getWidth()).isEqualTo(64);
+        assertThat(image.getHeight()).isEqualTo(32);
+    }
+
+    @Test
+    public void shouldServeOriginalWhenSmallerThanVariant() throws Exception {
+        storageService.uploadImage("avatar", "small", png(20, 20));
+
+        StoredObject variant = storageService.getImageVariant("avatar", "small.png", 32);
+
+        assertThat(variant.resource().getFile().toPath())
+                .isEqualTo(rootDirectory.resolve("avatar/small.png"));
+    }
+
+    @Test
+    public void shouldCacheThumbnailOfImageStoredWithoutVariants() throws Exception {
+        Path original = rootDirectory.resolve("avatar/legacy.png");
+        Files.createDirectories(original.getParent());
+        ImageIO.write(
+                new BufferedImage(300, 300, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+
+        StoredObject first = storageService.getImageVariant("avatar", "legacy.png", 200);
+        StoredObject second = storageService.getImageVariant("avatar", "legacy.png", 256);
+
+        Path thumbnail = rootDirectory.resolve(".thumbnails/avatar/256/legacy.png");
+        assertThat(first.resource().getFile().toPath()).isEqualTo(thumbnail);
+        assertThat(second.eTag()).isEqualTo(first.eTag());
+        assertThat(ImageIO.read(thumbnail.toFile()).getWidth()).isEqualTo(256);
+
+        storageService.deleteFile("avatar/legacy.png");
+
+        assertThat(thumbnail).doesNotExist();
+    }
+
+    @Test
+    public void shouldEvictThumbnailsBeyondTheBound() throws Exception {
+        storageService = new LocalFileStorageService(rootDirectory.toString(), 1);
+        Path original = rootDirectory.resolve("avatar/legacy.png");
+        Files.createDirectories(original.getParent());
+        ImageIO.write(
+                new BufferedImage(300, 300, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+
+        StoredObject variant = storageService.getImageVariant("avatar", "legacy.png", 64);
+
+        assertThat(variant.resource().getFile().toPath()).isEqualTo(original);
+        assertThat(rootDirectory.resolve(".thumbnails/avatar/64/legacy.png")).doesNotExist();
+    }
+
+    @Test
+    public void shouldServeImagesWithTooManyPixelsUnscaledWithoutDecodingThem() throws Exception {
+        // Only the header of a 100000 x 100000 image, which would take 40 GB decoded
+        Path original = rootDirectory.resolve("avatar/huge.png");
+        Files.createDirectories(original.getParent());
+        Files.write(original, pngHeader(100_000, 100_000));
+
+        StoredObject variant = storageService.getImageVariant("avatar", "huge.png", 64);
+
+        assertThat(variant.resource().getFile().toPath()).isEqualTo(original);
+        assertThat(rootDirectory.resolve(".thumbnails/avatar/64/huge.png")).doesNotExist();
+    }
+
+    @Test
+    public void shouldGenerateOneThumbnailForConcurrentRequests() throws Exception {
+        Path original = rootDirectory.resolve("avatar/legacy.png");
+        Files.createDirectories(original.getParent());
+        ImageIO.write(
+                new BufferedImage(300, 300, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+        Path thumbnail = rootDirectory.resolve(".thumbnails/avatar/64/legacy.png");
+
+        List<Callable<Path>> requests =
+                Collections.nCopies(
+                        8,
+                        () ->
+                                storageService
+                                        .getImageVariant("avatar", "legacy.png", 64)
+                                        .resource()
+                                        .getFile()
+                                        .toPath());
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (Future<Path> served : executor.invokeAll(requests)) {
+                // Requests beyond the generation bound are served the original
+                assertThat(served.get()).isIn(thumbnail, original);
+            }
+        }
+
+        assertThat(ImageIO.read(thumbnail.toFile()).getWidth()).isEqualTo(64);
+        try (var staged = Files.list(rootDirectory.resolve(".staging"))) {
+            assertThat(staged).isEmpty();
+        }
+    }
+
+    @Test
+    public void shouldReturnFilesThatAreNotImagesUnchanged() throws Exception {
+        upload("notes.txt", "hello");
+
+        StoredObject variant = storageService.getImageVariant("attachments", "notes.txt", 64);
+
+        assertThat(variant.resource().contentLength()).isEqualTo(5);
+    }
+
+    private long stream(StoredObject object) throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        try (InputStream in = object.resource().getInputStream()) {
+            in.transferTo(out);
+        }
+        return out.count;
+    }
+
+    private String upload(String name, String content) throws Exception {
+        return storageService.uploadFile(
+                "attachments",
+                name,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private StagedContent stage(String name, String content) throws Exception {
+        return storageService.stageContent(
+                "attachments",
+                name,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static InputStream png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    /** The signature and header chunk of a PNG image, without any image data. */
+    private static byte[] pngHeader(int width, int height) {
+        ByteBuffer header = ByteBuffer.allocate(13);
+        header.putInt(width).putInt(height).put(new byte[] {8, 6, 0, 0, 0});
+        CRC32 crc = new CRC32();
+        crc.update("IHDR".getBytes(StandardCharsets.US_ASCII));
+        crc.update(header.array());
+        return ByteBuffer.allocate(33)
+                .put(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'})
+                .putInt(13)
+                .put("IHDR".getBytes(StandardCharsets.US_ASCII))
+                .put(header.array())
+                .putInt((int) crc.getValue())
+                .array();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
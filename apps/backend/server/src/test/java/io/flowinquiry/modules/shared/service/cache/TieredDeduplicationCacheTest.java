@@ -0,0 +1,194 @@
+package io.flowinquiry.modules.shared.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.flowinquiry.config.FlowInquiryProperties;
+import io.flowinquiry.modules.shared.domain.DeduplicationCacheEntry;
+import io.flowinquiry.modules.shared.reppository.DeduplicationCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class TieredDeduplicationCacheTest {
+
+    private static final String STORED_KEY = "1:2:3:escalate:4:violation";
+
+    @Mock private DeduplicationCacheRepository deduplicationCacheRepository;
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @Mock private EntityManagerFactory entityManagerFactory;
+
+    private FlowInquiryProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        when(entityManagerFactory.getCache()).thenReturn(mock(Cache.class));
+        properties = new FlowInquiryProperties();
+        properties.getDeduplication().setFlushIntervalMillis(50);
+        meterRegistry = new SimpleMeterRegistry();
+
+        // The database holds one key that has not expired
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString(1)).thenReturn(STORED_KEY);
+        when(row.getTimestamp(2)).thenReturn(Timestamp.from(Instant.now().plusSeconds(3600)));
+        doAnswer(
+                        invocation -> {
+                            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+                            return null;
+                        })
+                .when(jdbcTemplate)
+                .query(anyString(), any(RowCallbackHandler.class), any(Timestamp.class));
+    }
+
+    private TieredDeduplicationCache newCache() {
+        return new TieredDeduplicationCache(
+                deduplicationCacheRepository,
+                jdbcTemplate,
+                transactionManager,
+                entityManagerFactory,
+                meterRegistry,
+                properties);
+    }
+
+    @Test
+    public void shouldAnswerUnseenKeysWithoutQueryingTheDatabase() {
+        TieredDeduplicationCache cache = newCache();
+        cache.start();
+
+        for (int i = 0; i < 100; i++) {
+            cache.containsKey("never-stored:" + i);
+        }
+        cache.stop();
+
+        verify(deduplicationCacheRepository, never()).findById(anyString());
+        assertThat(lookups("filter")).isGreaterThan(90);
+    }
+
+    @Test
+    public void shouldServeKeysLoadedOnStartupFromMemory() {
+        TieredDeduplicationCache cache = newCache();
+        cache.start();
+
+        assertThat(cache.containsKey(STORED_KEY)).isTrue();
+        cache.stop();
+
+        verify(deduplicationCacheRepository, never()).findById(anyString());
+        assertThat(lookups("cache")).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldFallBackToTheDatabaseForFilteredKeysNotInMemory() {
+        properties.getDeduplication().setCapacity(0);
+        when(deduplicationCacheRepository.findById(STORED_KEY))
+                .thenReturn(
+                        Optional.of(
+                                new DeduplicationCacheEntry(
+                                        STORED_KEY, Instant.now().plusSeconds(3600))));
+        TieredDeduplicationCache cache = newCache();
+        cache.start();
+
+        assertThat(cache.containsKey(STORED_KEY)).isTrue();
+        cache.stop();
+
+        verify(deduplicationCacheRepository).findById(STORED_KEY);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void shouldPersistNewKeysInBatches() throws Exception {
+        TieredDeduplicationCache cache = newCache();
+        cache.start();
+
+        cache.put("a", Duration.ofHours(24));
+        cache.put("b", Duration.ofHours(24));
+        assertThat(cache.containsKey("a")).isTrue();
+        cache.stop();
+
+        ArgumentCaptor<Collection> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate)
+                .batchUpdate(
+                        anyString(),
+                        batch.capture(),
+                        anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class));
+        assertThat(batch.getValue())
+                .extracting(entry -> ((DeduplicationCacheEntry) entry).getKey())
+                .containsExactly("a", "b");
+        verify(transactionManager).commit(any());
+        verify(entityManagerFactory.getCache()).evict(eq(DeduplicationCacheEntry.class));
+    }
+
+    @Test
+    public void shouldNotRebuildAFilterSizedForMoreKeysThanExpected() throws Exception {
+        int storedKeys = 25;
+        properties.getDeduplication().setExpectedKeys(10);
+        AtomicInteger rows = new AtomicInteger();
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString(1)).thenAnswer(invocation -> "stored:" + rows.incrementAndGet());
+        when(row.getTimestamp(2)).thenReturn(Timestamp.from(Instant.now().plusSeconds(3600)));
+        doAnswer(
+                        invocation -> {
+                            for (int i = 0; i < storedKeys; i++) {
+                                invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+                            }
+                            return null;
+                        })
+                .when(jdbcTemplate)
+                .query(anyString(), any(RowCallbackHandler.class), any(Timestamp.class));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Timestamp.class)))
+                .thenReturn((long) storedKeys);
+        TieredDeduplicationCache cache = newCache();
+        cache.start();
+
+        // Several flush intervals, each of which rebuilds a saturated filter
+        Thread.sleep(300);
+        cache.stop();
+
+        verify(jdbcTemplate, times(1))
+                .query(anyString(), any(RowCallbackHandler.class), any(Timestamp.class));
+    }
+
+    private double lookups(String tier) {
+        return meterRegistry
+                .get("flowinquiry.deduplication.lookups")
+                .tag("tier", tier)
+                .counter()
+                .count();
+    }
+}
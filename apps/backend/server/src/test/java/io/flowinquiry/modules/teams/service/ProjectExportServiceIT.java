@@ -14,6 +14,7 @@ import io.flowinquiry.query.Filter;
 import io.flowinquiry.query.FilterOperator;
 import io.flowinquiry.query.QueryDTO;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
@@ -115,6 +116,47 @@ class ProjectExportServiceIT {
         assertThat(csv).contains("1");
     }
 
+    @Test
+    void shouldStreamCsvAcrossKeysetChunks() {
+        for (int i = 1; i <= 5; i++) {
+            saveProject("Streamed project " + i, "STR" + i);
+        }
+        QueryDTO queryDTO = new QueryDTO();
+        queryDTO.setFilters(List.of(new Filter("name", FilterOperator.LK, "Streamed project")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        projectExportService.streamExport(
+                Optional.of(queryDTO), HttpHeaderConstants.CSV_MIME_TYPE, out, 2);
+
+        List<String> lines = new String(out.toByteArray(), StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(6);
+        assertThat(lines.get(0)).startsWith("\"id\",\"name\"");
+        for (int i = 1; i <= 5; i++) {
+            assertThat(lines.get(i)).contains("Streamed project " + i);
+        }
+    }
+
+    @Test
+    void shouldStreamExcelWithoutPagingLimits() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            saveProject("Streamed workbook " + i, "STW" + i);
+        }
+        QueryDTO queryDTO = new QueryDTO();
+        queryDTO.setFilters(List.of(new Filter("name", FilterOperator.LK, "Streamed workbook")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        projectExportService.streamExport(
+                Optional.of(queryDTO), HttpHeaderConstants.EXCEL_MIME_TYPE, out, 1);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertThat(sheet.getLastRowNum()).isEqualTo(3);
+            assertThat(sheet.getRow(0).getCell(1).getStringCellValue()).isEqualTo("name");
+            assertThat(sheet.getRow(3).getCell(1).getStringCellValue())
+                    .isEqualTo("Streamed workbook 3");
+        }
+    }
+
     private QueryDTO getQueryDTOForSampleProject() {
         ProjectDTO projectDTO = createProjectDTO();
 
@@ -128,6 +170,13 @@ class ProjectExportServiceIT {
         return queryDTO;
     }
 
+    private void saveProject(String name, String shortName) {
+        ProjectDTO projectDTO = createProjectDTO();
+        projectDTO.setName(name);
+        projectDTO.setShortName(shortName);
+        projectRepository.save(projectMapper.toEntity(projectDTO));
+    }
+
     private ProjectDTO createProjectDTO() {
         return ProjectDTO.builder()
                 .name("Sample project")
@@ -0,0 +1,116 @@
+package io.flowinquiry.modules.teams.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+
+import io.flowinquiry.it.IntegrationTest;
+import io.flowinquiry.modules.teams.domain.Ticket;
+import io.flowinquiry.modules.teams.repository.TicketRepository;
+import io.flowinquiry.modules.teams.service.dto.TicketDTO;
+import io.flowinquiry.tenant.TenantContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Not transactional: every ticket is created in a transaction of its own, as in production. */
+@IntegrationTest
+public class ProjectTicketNumberSequencerIT {
+
+    private static final long PROJECT_ID = 1L;
+
+    private static final int THREADS = 16;
+
+    private static final int TICKETS_PER_THREAD = 10;
+
+    @Autowired private TicketService ticketService;
+    @Autowired private TicketRepository ticketRepository;
+    @Autowired private ApplicationEventPublisher realEventPublisher;
+
+    private final ConcurrentLinkedQueue<TicketDTO> createdTickets = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        ApplicationEventPublisher spyEventPublisher = Mockito.spy(realEventPublisher);
+        ReflectionTestUtils.setField(ticketService, "eventPublisher", spyEventPublisher);
+        doNothing().when(spyEventPublisher).publishEvent(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        createdTickets.forEach(ticket -> ticketService.deleteTicket(ticket.getId()));
+        ReflectionTestUtils.setField(ticketService, "eventPublisher", realEventPublisher);
+    }
+
+    @Test
+    void shouldNumberConcurrentlyCreatedTicketsWithoutFailuresOrDuplicates() throws Exception {
+        UUID tenantId = TenantContext.getTenantId().orElseThrow();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(
+                        executor.submit(
+                                () -> {
+                                    start.await();
+                                    for (int t = 0; t < TICKETS_PER_THREAD; t++) {
+                                        createdTickets.add(
+                                                TenantContext.callWithTenant(
+                                                        tenantId,
+                                                        () ->
+                                                                ticketService.createTicket(
+                                                                        newTicket())));
+                                    }
+                                    return null;
+                                }));
+            }
+            start.countDown();
+            // Rethrows the failure of any worker
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Long> numbers =
+                createdTickets.stream().map(TicketDTO::getProjectTicketNumber).toList();
+        assertThat(numbers)
+                .hasSize(THREADS * TICKETS_PER_THREAD)
+                .doesNotContainNull()
+                .doesNotHaveDuplicates();
+        assertThat(
+                        ticketRepository.findAll().stream()
+                                .filter(
+                                        ticket ->
+                                                ticket.getProject() != null
+                                                        && ticket.getProject().getId()
+                                                                == PROJECT_ID)
+                                .map(Ticket::getProjectTicketNumber))
+                .doesNotHaveDuplicates();
+    }
+
+    private TicketDTO newTicket() {
+        TicketDTO ticket = ticketService.getTicketById(2L);
+        ticket.setId(null);
+        ticket.setConversationHealth(null);
+        ticket.setProjectTicketNumber(null);
+        ticket.setProjectId(PROJECT_ID);
+        return ticket;
+    }
+}
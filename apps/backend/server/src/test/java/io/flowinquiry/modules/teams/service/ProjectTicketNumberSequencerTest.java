@@ -0,0 +1,128 @@
+package io.flowinquiry.modules.teams.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.flowinquiry.config.FlowInquiryProperties;
+import io.flowinquiry.modules.teams.repository.ProjectTicketSequenceRepository;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+public class ProjectTicketNumberSequencerTest {
+
+    private static final long PROJECT_ID = 1L;
+
+    private static final int THREADS = 32;
+
+    private static final int TICKETS_PER_THREAD = 200;
+
+    private ProjectTicketSequenceRepository repository;
+
+    /** Stands in for the sequence rows; the upsert is atomic, as the row lock makes it. */
+    private final Map<Long, Long> sequences = new HashMap<>();
+
+    private final AtomicInteger reservations = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() {
+        repository = mock(ProjectTicketSequenceRepository.class);
+        when(repository.reserveTicketNumbers(anyLong(), anyInt()))
+                .thenAnswer(
+                        invocation -> {
+                            reservations.incrementAndGet();
+                            synchronized (sequences) {
+                                return sequences.merge(
+                                        invocation.getArgument(0),
+                                        (long) (int) invocation.getArgument(1),
+                                        Long::sum);
+                            }
+                        });
+    }
+
+    @Test
+    public void shouldHandOutEveryNumberOnceWithoutGaps() throws Exception {
+        List<Long> numbers = createTicketsConcurrently(sequencer(1));
+
+        assertThat(numbers)
+                .doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(
+                        LongStream.rangeClosed(1, THREADS * TICKETS_PER_THREAD).boxed().toList());
+        assertThat(reservations).hasValue(THREADS * TICKETS_PER_THREAD);
+    }
+
+    @Test
+    public void shouldReachTheDatabaseOncePerBlock() throws Exception {
+        List<Long> numbers = createTicketsConcurrently(sequencer(50));
+
+        assertThat(numbers)
+                .hasSize(THREADS * TICKETS_PER_THREAD)
+                .doesNotHaveDuplicates()
+                .allMatch(number -> number >= 1 && number <= THREADS * TICKETS_PER_THREAD);
+        assertThat(reservations).hasValue(THREADS * TICKETS_PER_THREAD / 50);
+    }
+
+    @Test
+    public void shouldKeepProjectsApart() {
+        ProjectTicketNumberSequencer sequencer = sequencer(10);
+
+        assertThat(sequencer.nextTicketNumber(1L)).isEqualTo(1);
+        assertThat(sequencer.nextTicketNumber(2L)).isEqualTo(1);
+        assertThat(sequencer.nextTicketNumber(1L)).isEqualTo(2);
+    }
+
+    private ProjectTicketNumberSequencer sequencer(int blockSize) {
+        FlowInquiryProperties properties = new FlowInquiryProperties();
+        properties.getTicketNumber().setBlockSize(blockSize);
+        return new ProjectTicketNumberSequencer(
+                repository, mock(PlatformTransactionManager.class), properties);
+    }
+
+    private static List<Long> createTicketsConcurrently(ProjectTicketNumberSequencer sequencer)
+            throws Exception {
+        ConcurrentLinkedQueue<Long> numbers = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers =
+                    LongStream.range(0, THREADS)
+                            .mapToObj(
+                                    i ->
+                                            executor.submit(
+                                                    () -> {
+                                                        start.await();
+                                                        for (int t = 0;
+                                                                t < TICKETS_PER_THREAD;
+                                                                t++) {
+                                                            numbers.add(
+                                                                    sequencer.nextTicketNumber(
+                                                                            PROJECT_ID));
+                                                        }
+                                                        return null;
+                                                    }))
+                            .<Future<?>>map(future -> future)
+                            .toList();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return List.copyOf(numbers);
+    }
+}
@@ -5,6 +5,7 @@ import static io.flowinquiry.modules.teams.service.TeamService.ROLE_MANAGER;
 import static io.flowinquiry.modules.teams.service.TeamService.ROLE_MEMBER;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
@@ -13,6 +14,7 @@ import static org.mockito.Mockito.verify;
 import io.flowinquiry.exceptions.ResourceNotFoundException;
 import io.flowinquiry.it.IntegrationTest;
 import io.flowinquiry.modules.teams.service.dto.TeamDTO;
+import io.flowinquiry.modules.teams.service.dto.TeamManagerDTO;
 import io.flowinquiry.modules.teams.service.event.NewTeamCreatedEvent;
 import io.flowinquiry.modules.teams.service.event.RemoveUserOutOfTeamEvent;
 import io.flowinquiry.modules.usermanagement.domain.User;
@@ -389,4 +391,22 @@ public class TeamServiceIT {
         assertThat(newManagers).hasSize(1);
         assertThat(newManagers.get(0).getId()).isEqualTo(1L);
     }
+
+    @Test
+    void shouldGetManagersOfSeveralTeamsInOneCall() {
+        TeamDTO teamDTO = new TeamDTO();
+        teamDTO.setName("Second Team for Manager Test");
+        teamDTO.setSlogan("Manager Test");
+        teamDTO.setDescription("This team is for testing getTeamManagers with several teams");
+        Long teamId = teamService.createTeam(teamDTO).getId();
+        teamService.addUsersToTeam(List.of(1L), ROLE_MANAGER, teamId);
+
+        List<TeamManagerDTO> managers = teamService.getTeamManagers(List.of(1L, teamId));
+
+        // Team 1 has a manager (user 7) according to fw_user_team_test.csv
+        assertThat(managers)
+                .extracting(TeamManagerDTO::getTeamId, TeamManagerDTO::getUserId)
+                .contains(tuple(1L, 7L), tuple(teamId, 1L));
+        assertThat(teamService.getTeamManagers(List.of())).isEmpty();
+    }
 }
@@ -45,6 +45,18 @@ public class TicketAgingReportServiceIT {
                     .containsExactlyInAnyOrder("Alice Johnson", "John Doe", "Jane Smith");
             reports.getGroupedTickets()
                     .forEach((key, value) -> assertThat(value.size()).isEqualTo(8));
+            // The default limit lists every matching ticket of the project
+            assertThat(reports.getGroupedTickets().values().stream().mapToInt(List::size).sum())
+                    .isEqualTo(reports.getTotalTickets());
+            assertThat(reports.getGroupCounts())
+                    .containsOnlyKeys("Alice Johnson", "John Doe", "Jane Smith")
+                    .allSatisfy((key, value) -> assertThat(value).isEqualTo(8L));
+            assertThat(
+                            reports.getGroupAgeBuckets().values().stream()
+                                    .flatMap(buckets -> buckets.values().stream())
+                                    .mapToLong(Long::longValue)
+                                    .sum())
+                    .isEqualTo(24L);
 
             assertThat(reports.getGroupedTickets().get("Alice Johnson").getFirst())
                     .usingRecursiveComparison()
@@ -73,6 +85,32 @@ public class TicketAgingReportServiceIT {
         }
     }
 
+    @Test
+    public void testAllTicketsReportLimitsListedTickets() {
+        TicketQueryParams queryParams = new TicketQueryParams();
+        queryParams.setProjectId("3");
+        queryParams.setIncludeClosed(true);
+        queryParams.setLimit(5);
+
+        Instant fixed = Instant.parse("2025-11-15T23:59:59.846138634Z");
+        try (MockedStatic<Instant> mocked =
+                Mockito.mockStatic(Instant.class, Mockito.CALLS_REAL_METHODS)) {
+            mocked.when(Instant::now).thenReturn(fixed);
+
+            TicketAgingReportDTO reports =
+                    ticketAgingReportService.getAgingTicketsReport(queryParams);
+
+            assertThat(reports.getTotalTickets()).isEqualTo(24);
+            assertThat(reports.getMaxAge()).isEqualTo(41);
+            assertThat(reports.getMinAge()).isEqualTo(0);
+            assertThat(reports.getGroupCounts().values()).containsOnly(8L);
+            assertThat(reports.getGroupedTickets().values().stream().mapToInt(List::size).sum())
+                    .isEqualTo(5);
+            assertThat(reports.getGroupedTickets().get("Alice Johnson").getFirst().getAgeInDays())
+                    .isEqualTo(41L);
+        }
+    }
+
     @Test
     public void testAllOpenTicketsReport() {
         TicketQueryParams queryParams = new TicketQueryParams();
@@ -0,0 +1,175 @@
+package io.flowinquiry.modules.teams.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.flowinquiry.it.IntegrationTest;
+import io.flowinquiry.modules.audit.service.event.AuditLogBatchUpdateEvent;
+import io.flowinquiry.modules.collab.domain.EntityType;
+import io.flowinquiry.modules.collab.repository.EntityWatcherRepository;
+import io.flowinquiry.modules.teams.domain.TicketPriority;
+import io.flowinquiry.modules.teams.domain.WorkflowTransitionHistory;
+import io.flowinquiry.modules.teams.domain.WorkflowTransitionHistoryStatus;
+import io.flowinquiry.modules.teams.repository.TicketDailyRollupRepository;
+import io.flowinquiry.modules.teams.repository.WorkflowTransitionHistoryRepository;
+import io.flowinquiry.modules.teams.service.dto.TicketBulkUpdateDTO;
+import io.flowinquiry.modules.teams.service.dto.TicketDTO;
+import io.flowinquiry.modules.teams.service.event.TicketsBulkUpdatedEvent;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+@IntegrationTest
+@Transactional
+public class TicketBulkServiceIT {
+
+    /** The final state of workflow 1, reachable from every other state of it. */
+    private static final long DONE_STATE = 5L;
+
+    @Autowired private TicketBulkService ticketBulkService;
+    @Autowired private TicketService ticketService;
+    @Autowired private WorkflowTransitionHistoryRepository workflowTransitionHistoryRepository;
+    @Autowired private EntityWatcherRepository entityWatcherRepository;
+    @Autowired private TicketDailyRollupRepository ticketDailyRollupRepository;
+    @Autowired private SessionFactory sessionFactory;
+    @Autowired private ApplicationEventPublisher realEventPublisher;
+    private ApplicationEventPublisher spyEventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        spyEventPublisher = Mockito.spy(realEventPublisher);
+        ReflectionTestUtils.setField(ticketBulkService, "eventPublisher", spyEventPublisher);
+        doNothing().when(spyEventPublisher).publishEvent(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(ticketBulkService, "eventPublisher", realEventPublisher);
+        sessionFactory.getStatistics().setStatisticsEnabled(false);
+    }
+
+    @Test
+    void shouldMoveTicketsAndRecordTheirTransitions() {
+        // Tickets 1 and 5 are in the Backlog and Review states of workflow 1
+        List<TicketDTO> updated = ticketBulkService.updateTickets(changes(List.of(5L, 1L)));
+
+        assertThat(updated).extracting(TicketDTO::getId).containsExactly(1L, 5L);
+        assertThat(updated)
+                .allSatisfy(
+                        ticket -> {
+                            assertThat(ticket.getCurrentStateId()).isEqualTo(DONE_STATE);
+                            assertThat(ticket.getIsCompleted()).isTrue();
+                            assertThat(ticket.getIsNew()).isFalse();
+                            assertThat(ticket.getActualCompletionDate()).isNotNull();
+                        });
+        for (TicketDTO ticket : updated) {
+            List<WorkflowTransitionHistory> history =
+                    workflowTransitionHistoryRepository.findByTicketId(ticket.getId());
+            assertThat(history)
+                    .filteredOn(entry -> entry.getToState().getId() == DONE_STATE)
+                    .singleElement()
+                    .satisfies(
+                            entry -> {
+                                assertThat(entry.getEventName()).isEqualTo("Complete Task");
+                                assertThat(entry.getStatus())
+                                        .isEqualTo(WorkflowTransitionHistoryStatus.COMPLETED);
+                            });
+        }
+        assertThat(ticketDailyRollupRepository.countMismatchedRows()).isZero();
+    }
+
+    @Test
+    void shouldPublishEachSideEffectOncePerBatch() {
+        ticketBulkService.updateTickets(changes(List.of(1L, 5L)));
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(spyEventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues())
+                .hasExactlyElementsOfTypes(
+                        AuditLogBatchUpdateEvent.class, TicketsBulkUpdatedEvent.class);
+        TicketsBulkUpdatedEvent event = (TicketsBulkUpdatedEvent) events.getAllValues().get(1);
+        assertThat(event.getPreviousTickets())
+                .extracting(TicketDTO::getCurrentStateId)
+                .containsExactly(1L, 4L);
+        assertThat(event.getUpdatedTickets())
+                .extracting(TicketDTO::getCurrentStateId)
+                .containsExactly(DONE_STATE, DONE_STATE);
+    }
+
+    @Test
+    void shouldUpdateNoTicketWhenOneCannotMove() {
+        // Ticket 2 belongs to workflow 2, which has no transition to state 5
+        assertThatThrownBy(() -> ticketBulkService.updateTickets(changes(List.of(1L, 2L))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("[2]");
+
+        assertThat(ticketService.getTicketById(1L).getCurrentStateId()).isEqualTo(1L);
+        verify(spyEventPublisher, times(0)).publishEvent(any());
+    }
+
+    @Test
+    void shouldReassignTicketsAndAddTheAssigneeAsWatcher() {
+        long userId = 3L;
+        List<Long> ticketIds = List.of(1L, 5L);
+        List<TicketDTO> before =
+                ticketIds.stream().map(id -> ticketService.getTicketById(id)).toList();
+        TicketBulkUpdateDTO changes = new TicketBulkUpdateDTO();
+        changes.setTicketIds(ticketIds);
+        changes.setAssignUserId(userId);
+        changes.setPriority(TicketPriority.Low);
+
+        List<TicketDTO> updated = ticketBulkService.updateTickets(changes);
+
+        for (int i = 0; i < updated.size(); i++) {
+            TicketDTO ticket = updated.get(i);
+            assertThat(ticket.getAssignUserId()).isEqualTo(userId);
+            assertThat(ticket.getPriority()).isEqualTo(TicketPriority.Low);
+            assertThat(ticket.getCurrentStateId()).isEqualTo(before.get(i).getCurrentStateId());
+            List<Long> watchers =
+                    entityWatcherRepository.findWatcherIdsByEntity(
+                            EntityType.Ticket, ticket.getId());
+            assertThat(watchers).containsOnlyOnce(userId);
+            assertThat(ticket.getNumberWatchers()).isEqualTo(watchers.size());
+        }
+        assertThat(ticketDailyRollupRepository.countMismatchedRows()).isZero();
+    }
+
+    @Test
+    void shouldUseTheSameNumberOfStatementsWhateverTheBatchSize() {
+        long statementsForOne = countStatements(List.of(1L));
+        long statementsForFive = countStatements(List.of(1L, 2L, 3L, 4L, 5L));
+
+        assertThat(statementsForFive).isEqualTo(statementsForOne);
+    }
+
+    private long countStatements(List<Long> ticketIds) {
+        TicketBulkUpdateDTO changes = new TicketBulkUpdateDTO();
+        changes.setTicketIds(ticketIds);
+        changes.setPriority(TicketPriority.High);
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        ticketBulkService.updateTickets(changes);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static TicketBulkUpdateDTO changes(List<Long> ticketIds) {
+        TicketBulkUpdateDTO changes = new TicketBulkUpdateDTO();
+        changes.setTicketIds(ticketIds);
+        changes.setCurrentStateId(DONE_STATE);
+        return changes;
+    }
+}
@@ -0,0 +1,360 @@
+package io.flowinquiry.modules.teams.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import io.flowinquiry.config.FlowInquiryProperties;
+import io.flowinquiry.modules.ai.service.ChatModelService;
+import io.flowinquiry.modules.teams.domain.Ticket;
+import io.flowinquiry.modules.teams.domain.TicketConversationHealth;
+import io.flowinquiry.modules.teams.repository.TicketConversationHealthRepository;
+import io.flowinquiry.modules.teams.service.dto.TicketDTO;
+import io.flowinquiry.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+public class TicketHealthEvalServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketHealthEvalServiceTest.class);
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    private static final Long REQUESTER_ID = 101L;
+
+    private static final Long AGENT_ID = 202L;
+
+    @Mock private TicketConversationHealthRepository ticketConversationHealthRepository;
+
+    @Mock private TicketService ticketService;
+
+    @Mock private PlatformTransactionManager transactionManager;
+
+    /** Conversation health records by ticket, standing in for the table. */
+    private final Map<Long, TicketConversationHealth> healthByTicket = new ConcurrentHashMap<>();
+
+    private StubChatModelService chatModelService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ThreadPoolTaskExecutor aiTaskExecutor;
+
+    private TicketHealthEvalService service;
+
+    @BeforeEach
+    public void setup() {
+        lenient()
+                .when(ticketService.getTicketById(anyLong()))
+                .thenAnswer(
+                        invocation ->
+                                TicketDTO.builder()
+                                        .id(invocation.getArgument(0))
+                                        .requestUserId(REQUESTER_ID)
+                                        .build());
+        lenient()
+                .when(ticketConversationHealthRepository.findByTicketId(anyLong()))
+                .thenAnswer(
+                        invocation ->
+                                Optional.ofNullable(healthByTicket.get(invocation.getArgument(0))));
+        lenient()
+                .when(ticketConversationHealthRepository.findByTicketIdForUpdate(anyLong()))
+                .thenAnswer(
+                        invocation ->
+                                Optional.ofNullable(healthByTicket.get(invocation.getArgument(0))));
+        lenient()
+                .when(ticketConversationHealthRepository.save(any()))
+                .thenAnswer(
+                        invocation -> {
+                            TicketConversationHealth health = invocation.getArgument(0);
+                            healthByTicket.put(health.getTicket().getId(), health);
+                            return health;
+                        });
+        TenantContext.setTenantId(TENANT_ID);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+        if (service != null) {
+            service.destroy();
+            aiTaskExecutor.shutdown();
+        }
+    }
+
+    private void createService(long latencyMillis, long coalesceMillis, int maxPendingTickets) {
+        FlowInquiryProperties properties = new FlowInquiryProperties();
+        properties.getHealthEvaluation().setCoalesceMillis(coalesceMillis);
+        properties.getHealthEvaluation().setMaxPendingTickets(maxPendingTickets);
+        chatModelService = new StubChatModelService(latencyMillis);
+        meterRegistry = new SimpleMeterRegistry();
+        aiTaskExecutor = new ThreadPoolTaskExecutor();
+        aiTaskExecutor.setCorePoolSize(4);
+        aiTaskExecutor.initialize();
+        service =
+                new TicketHealthEvalService(
+                        chatModelService,
+                        ticketConversationHealthRepository,
+                        ticketService,
+                        transactionManager,
+                        meterRegistry,
+                        properties,
+                        aiTaskExecutor);
+    }
+
+    /** Waits until the given number of evaluations finished, successfully or not. */
+    private void awaitEvaluations(long evaluations) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (meterRegistry.timer("flowinquiry.health_eval.evaluation").count() < evaluations) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError(evaluations + " evaluations did not finish in time");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name).count();
+    }
+
+    @Test
+    public void shouldEvaluateABurstOfMessagesWithOneCall() {
+        createService(0, 100, 100);
+
+        service.submit(1L, "<p>The export fails with an error</p>", REQUESTER_ID);
+        service.submit(1L, "Which version are you on?", AGENT_ID);
+        service.submit(1L, "Is it 1.2?", REQUESTER_ID);
+
+        awaitEvaluations(1);
+        TicketConversationHealth health = healthByTicket.get(1L);
+        assertThat(chatModelService.signalCalls.get()).isEqualTo(1);
+        assertThat(chatModelService.summaryCalls.get()).isEqualTo(1);
+        assertThat(health.getSummary()).isEqualTo("Summary");
+        assertThat(health.getTotalMessages()).isEqualTo(3);
+        // The agent's question does not count
+        assertThat(health.getTotalQuestions()).isEqualTo(1);
+        assertThat(counter("flowinquiry.health_eval.coalesced")).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldCountResolutionsOnlyFromTheRequester() {
+        createService(0, 10, 100);
+
+        service.submit(1L, "Does it work now?", AGENT_ID);
+        awaitEvaluations(1);
+        service.submit(1L, "Yes, it is resolved", AGENT_ID);
+        awaitEvaluations(2);
+        service.submit(1L, "Thanks, it is resolved", REQUESTER_ID);
+        awaitEvaluations(3);
+
+        TicketConversationHealth health = healthByTicket.get(1L);
+        assertThat(health.getTotalMessages()).isEqualTo(3);
+        assertThat(health.getResolvedQuestions()).isEqualTo(1);
+        assertThat(health.getConversationHealth()).isGreaterThan(0.2f);
+    }
+
+    @Test
+    public void shouldReuseTheSignalsOfARepeatedMessage() {
+        createService(0, 10, 100);
+
+        service.submit(1L, "Any update?", REQUESTER_ID);
+        awaitEvaluations(1);
+        service.submit(2L, "Any update?", REQUESTER_ID);
+        awaitEvaluations(2);
+
+        assertThat(chatModelService.signalCalls.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("flowinquiry.health_eval.cache", "result", "hit").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDropMessagesWhenTooManyTicketsAreWaiting() {
+        // Nothing is evaluated while the test runs
+        createService(0, 60_000, 2);
+
+        service.submit(1L, "First", REQUESTER_ID);
+        service.submit(2L, "Second", REQUESTER_ID);
+        service.submit(1L, "Coalesced with the first", REQUESTER_ID);
+        service.submit(3L, "Dropped", REQUESTER_ID);
+
+        assertThat(counter("flowinquiry.health_eval.dropped")).isEqualTo(1);
+        assertThat(meterRegistry.get("flowinquiry.health_eval.pending").gauge().value())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void shouldCountFailedEvaluations() {
+        createService(0, 10, 100);
+        chatModelService.malformed = true;
+
+        service.submit(1L, "Hello", REQUESTER_ID);
+        service.submit(1L, "Anyone?", REQUESTER_ID);
+
+        awaitEvaluations(1);
+        assertThat(counter("flowinquiry.health_eval.failed")).isEqualTo(2);
+        assertThat(healthByTicket).isEmpty();
+    }
+
+    @Test
+    public void shouldNotCallTheChatModelInsideTheTransaction() {
+        createService(0, 10, 100);
+        when(transactionManager.getTransaction(any()))
+                .thenAnswer(
+                        invocation -> {
+                            chatModelService.inTransaction.set(true);
+                            return new SimpleTransactionStatus();
+                        });
+        doAnswer(
+                        invocation -> {
+                            chatModelService.inTransaction.set(false);
+                            return null;
+                        })
+                .when(transactionManager)
+                .commit(any());
+        // The record is found before the transaction, but gone once it is locked
+        TicketConversationHealth removed = new TicketConversationHealth();
+        removed.setTicket(Ticket.builder().id(1L).build());
+        when(ticketConversationHealthRepository.findByTicketId(1L))
+                .thenReturn(Optional.of(removed));
+
+        service.submit(1L, "Hello", REQUESTER_ID);
+
+        awaitEvaluations(1);
+        assertThat(healthByTicket.get(1L).getSummary()).isEqualTo("Summary");
+        assertThat(healthByTicket.get(1L).getTotalMessages()).isEqualTo(1);
+        assertThat(chatModelService.summaryCalls.get()).isEqualTo(1);
+        assertThat(chatModelService.callsInTransaction.get()).isZero();
+    }
+
+    /**
+     * Bursts of comments on many tickets against a chat model answering in 50ms. Every comment used
+     * to cost three sequential calls; logs the calls and time taken now.
+     */
+    @Test
+    public void benchmarkThroughput() {
+        createService(50, 200, 1000);
+        int tickets = 100;
+        int commentsPerTicket = 5;
+        // Summaries are only generated for new records, leave them out of the comparison
+        for (long ticketId = 1; ticketId <= tickets; ticketId++) {
+            TicketConversationHealth health = new TicketConversationHealth();
+            health.setTicket(Ticket.builder().id(ticketId).build());
+            healthByTicket.put(ticketId, health);
+        }
+
+        long start = System.nanoTime();
+        for (int comment = 0; comment < commentsPerTicket; comment++) {
+            for (long ticketId = 1; ticketId <= tickets; ticketId++) {
+                service.submit(ticketId, "Comment " + comment + " on " + ticketId, REQUESTER_ID);
+            }
+        }
+        long submitMillis = (System.nanoTime() - start) / 1_000_000;
+        awaitEvaluations(tickets);
+        long totalMillis = (System.nanoTime() - start) / 1_000_000;
+
+        int comments = tickets * commentsPerTicket;
+        log.info(
+                "Evaluated {} comments in {} ms ({} ms to submit) with {} chat model calls;"
+                        + " sequential calls would have taken {} ms",
+                comments,
+                totalMillis,
+                submitMillis,
+                chatModelService.signalCalls.get(),
+                comments * 3 * 50);
+        assertThat(chatModelService.signalCalls.get()).isEqualTo(tickets);
+        assertThat(healthByTicket.values())
+                .allSatisfy(
+                        health ->
+                                assertThat(health.getTotalMessages()).isEqualTo(commentsPerTicket));
+    }
+
+    /**
+     * Answers like a chat model after a fixed latency: a message is a question when it ends with a
+     * question mark, resolves the issue when it says so, and is neutral to positive.
+     */
+    private static class StubChatModelService implements ChatModelService {
+
+        private static final Pattern MESSAGE = Pattern.compile("(?m)^Message \\d+: (.*)$");
+
+        private final long latencyMillis;
+
+        final AtomicInteger signalCalls = new AtomicInteger();
+
+        final AtomicInteger summaryCalls = new AtomicInteger();
+
+        volatile boolean malformed;
+
+        final AtomicBoolean inTransaction = new AtomicBoolean();
+
+        final AtomicInteger callsInTransaction = new AtomicInteger();
+
+        StubChatModelService(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public String call(String input) {
+            summaryCalls.incrementAndGet();
+            checkTransaction();
+            sleep();
+            return "Summary";
+        }
+
+        @Override
+        public String call(Prompt prompt) {
+            signalCalls.incrementAndGet();
+            checkTransaction();
+            sleep();
+            if (malformed) {
+                return "I am not sure.";
+            }
+            List<String> signals = new ArrayList<>();
+            Matcher matcher = MESSAGE.matcher(prompt.getContents());
+            while (matcher.find()) {
+                String message = matcher.group(1).trim();
+                signals.add(
+                        "{\"sentiment\": 0.7, \"question\": %s, \"resolved\": %s}"
+                                .formatted(message.endsWith("?"), message.contains("resolved")));
+            }
+            return "```json\n[" + String.join(", ", signals) + "]\n```";
+        }
+
+        private void checkTransaction() {
+            if (inTransaction.get()) {
+                callsInTransaction.incrementAndGet();
+            }
+        }
+
+        private void sleep() {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.flowinquiry.modules.teams.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.flowinquiry.it.IntegrationTest;
+import io.flowinquiry.modules.teams.repository.TicketRepository;
+import io.flowinquiry.modules.teams.service.dto.TicketDTO;
+import io.flowinquiry.modules.teams.service.mapper.TicketMapper;
+import io.flowinquiry.query.Filter;
+import io.flowinquiry.query.FilterOperator;
+import io.flowinquiry.query.QueryDTO;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+@IntegrationTest
+@Transactional
+public class TicketSearchServiceIT {
+
+    @Autowired private TicketSearchService ticketSearchService;
+    @Autowired private TicketRepository ticketRepository;
+    @Autowired private TicketMapper ticketMapper;
+    @Autowired private EntityManager entityManager;
+    @Autowired private SessionFactory sessionFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void shouldUseTheSameNumberOfStatementsWhateverThePageSize() {
+        long statementsForOne = countStatements(PageRequest.of(0, 1, Sort.by("id")));
+        long statementsForTen = countStatements(PageRequest.of(0, 10, Sort.by("id")));
+        long statementsForThirty = countStatements(PageRequest.of(0, 30, Sort.by("id")));
+
+        // The page, the child ticket ids of the page and the total count
+        assertThat(statementsForOne).isEqualTo(3);
+        assertThat(statementsForTen).isEqualTo(statementsForOne);
+        assertThat(statementsForThirty).isEqualTo(statementsForOne);
+    }
+
+    @Test
+    void shouldReturnWhatTheMapperReturns() {
+        QueryDTO queryDTO = new QueryDTO();
+        queryDTO.setFilters(List.of(new Filter("team.id", FilterOperator.EQ, 1L)));
+
+        Page<TicketDTO> page =
+                ticketSearchService.findTickets(queryDTO, PageRequest.of(0, 5, Sort.by("id")));
+
+        assertThat(page.getContent()).isNotEmpty();
+        for (TicketDTO ticket : page.getContent()) {
+            TicketDTO expected =
+                    ticketMapper.toDto(ticketRepository.findById(ticket.getId()).orElseThrow());
+            assertThat(ticket)
+                    .usingRecursiveComparison()
+                    .ignoringCollectionOrder()
+                    .isEqualTo(expected);
+        }
+    }
+
+    private long countStatements(Pageable pageable) {
+        entityManager.clear();
+        statistics.clear();
+
+        Page<TicketDTO> page = ticketSearchService.findTickets(null, pageable);
+
+        assertThat(page.getContent()).hasSize(pageable.getPageSize());
+        return statistics.getPrepareStatementCount();
+    }
+}
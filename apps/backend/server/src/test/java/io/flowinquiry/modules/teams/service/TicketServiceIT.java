@@ -15,6 +15,7 @@ import io.flowinquiry.modules.teams.domain.TShirtSize;
 import io.flowinquiry.modules.teams.domain.Ticket;
 import io.flowinquiry.modules.teams.domain.TicketChannel;
 import io.flowinquiry.modules.teams.domain.WorkflowTransitionHistoryStatus;
+import io.flowinquiry.modules.teams.repository.TicketDailyRollupRepository;
 import io.flowinquiry.modules.teams.repository.TicketRepository;
 import io.flowinquiry.modules.teams.service.dto.PriorityDistributionDTO;
 import io.flowinquiry.modules.teams.service.dto.TeamTicketPriorityDistributionDTO;
@@ -50,6 +51,8 @@ public class TicketServiceIT {
 
     @Autowired private TicketService ticketService;
     @Autowired private TicketRepository ticketRepository;
+    @Autowired private TicketRollupService ticketRollupService;
+    @Autowired private TicketDailyRollupRepository ticketDailyRollupRepository;
     @Autowired private TicketMapper ticketMapper;
     @Autowired private EntityWatcherRepository entityWatcherRepository;
     @Autowired private ApplicationEventPublisher realEventPublisher;
@@ -391,6 +394,33 @@ public class TicketServiceIT {
         assertThat(ticket.getIsCompleted()).isTrue();
     }
 
+    @Test
+    void shouldKeepTicketRollupsInSyncWithTicketChanges() {
+        TicketDTO newTicket = ticketMapper.toDto(ticketRepository.findById(2L).orElseThrow());
+        newTicket.setId(null);
+        newTicket.setConversationHealth(null);
+        ticketService.createTicket(newTicket);
+
+        TicketDTO updatedTicket = ticketMapper.toDto(ticketRepository.findById(1L).orElseThrow());
+        updatedTicket.setCurrentStateId(2L);
+        updatedTicket.setEstimate(8);
+        ticketService.updateTicket(updatedTicket);
+
+        ticketService.closeTicketsWithIteration(3L);
+        ticketService.deleteTicket(3L);
+
+        assertThat(ticketRollupService.reconcile()).isZero();
+    }
+
+    @Test
+    void shouldCorrectDriftedTicketRollups() {
+        // Counting ticket 13 twice leaves its rollup row one ticket too high
+        ticketDailyRollupRepository.applyTickets(List.of(13L), 1);
+
+        assertThat(ticketRollupService.reconcile()).isEqualTo(1);
+        assertThat(ticketDailyRollupRepository.countMismatchedRows()).isZero();
+    }
+
     @Test
     void shouldGetNextProjectTicketNumberSuccessfully() {
         TicketDTO ticketDTO = ticketMapper.toDto(ticketRepository.findById(2L).orElseThrow());
@@ -21,11 +21,13 @@ import io.flowinquiry.modules.teams.repository.WorkflowRepository;
 import io.flowinquiry.modules.teams.repository.WorkflowStateRepository;
 import io.flowinquiry.modules.teams.repository.WorkflowTransitionHistoryRepository;
 import io.flowinquiry.modules.teams.repository.WorkflowTransitionRepository;
+import io.flowinquiry.modules.teams.service.dto.SlaBreachDTO;
+import io.flowinquiry.modules.teams.service.dto.SlaDeadlineDTO;
 import io.flowinquiry.modules.teams.service.dto.TransitionItemCollectionDTO;
 import io.flowinquiry.modules.teams.service.dto.TransitionItemDTO;
 import io.flowinquiry.modules.usermanagement.domain.User;
 import io.flowinquiry.modules.usermanagement.repository.UserRepository;
-import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.EntityManager;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -54,6 +56,8 @@ public class WorkflowTransitionHistoryServiceIT {
 
     @Autowired private UserRepository userRepository;
 
+    @Autowired private EntityManager entityManager;
+
     private Ticket testTicket;
     private WorkflowState fromState;
     private WorkflowState toState;
@@ -274,7 +278,7 @@ public class WorkflowTransitionHistoryServiceIT {
     }
 
     @Test
-    public void testGetViolatingTransitions() {
+    public void testGetSlaDeadlines() {
         // Given: Create a transition with a soon-to-expire SLA
         WorkflowTransitionHistory history = new WorkflowTransitionHistory();
         history.setTicket(testTicket);
@@ -287,18 +291,18 @@ public class WorkflowTransitionHistoryServiceIT {
         workflowTransitionHistoryRepository.save(history);
 
         // When: Check for transitions that will violate SLA in the next 2 hours
-        List<WorkflowTransitionHistory> violatingTransitions =
-                workflowTransitionHistoryService.getViolatingTransitions(
-                        7200); // 2 hours in seconds
+        List<SlaDeadlineDTO> deadlines =
+                workflowTransitionHistoryService.getSlaDeadlines(
+                        Instant.now().plus(2, ChronoUnit.HOURS));
 
         // Then: Verify our transition is in the list
-        assertThat(violatingTransitions)
+        assertThat(deadlines)
                 .isNotEmpty()
-                .anyMatch(t -> t.getId().equals(history.getId()));
+                .anyMatch(d -> d.getTransitionId().equals(history.getId()));
     }
 
     @Test
-    public void testGetViolatedTransitions() {
+    public void testGetSlaDeadlinesIncludesViolatedTransitions() {
         // Given: Create a transition with an expired SLA
         WorkflowTransitionHistory history = new WorkflowTransitionHistory();
         history.setTicket(testTicket);
@@ -311,17 +315,17 @@ public class WorkflowTransitionHistoryServiceIT {
         workflowTransitionHistoryRepository.save(history);
 
         // When: Check for transitions that have already violated SLA
-        List<WorkflowTransitionHistory> violatedTransitions =
-                workflowTransitionHistoryService.getViolatedTransitions();
+        List<SlaDeadlineDTO> deadlines =
+                workflowTransitionHistoryService.getSlaDeadlines(Instant.now());
 
         // Then: Verify our transition is in the list
-        assertThat(violatedTransitions)
+        assertThat(deadlines)
                 .isNotEmpty()
-                .anyMatch(t -> t.getId().equals(history.getId()));
+                .anyMatch(d -> d.getTransitionId().equals(history.getId()));
     }
 
     @Test
-    public void testEscalateTransition() {
+    public void testEscalateTransitions() {
         // Given: Create a transition
         WorkflowTransitionHistory history = new WorkflowTransitionHistory();
         history.setTicket(testTicket);
@@ -331,23 +335,35 @@ public class WorkflowTransitionHistoryServiceIT {
         history.setTransitionDate(Instant.now());
         history.setSlaDueDate(Instant.now().plus(24, ChronoUnit.HOURS));
         history.setStatus(IN_PROGRESS);
-        history = workflowTransitionHistoryRepository.save(history);
+        history = workflowTransitionHistoryRepository.saveAndFlush(history);
+        Long historyId = history.getId();
 
         // When: Escalate the transition
-        workflowTransitionHistoryService.escalateTransition(history.getId());
+        List<SlaBreachDTO> breaches =
+                workflowTransitionHistoryService.escalateTransitions(List.of(historyId));
 
         // Then: Verify the transition status is updated to Escalated
+        assertThat(breaches)
+                .singleElement()
+                .satisfies(
+                        breach -> {
+                            assertThat(breach.getTransitionId()).isEqualTo(historyId);
+                            assertThat(breach.getTicketId()).isEqualTo(testTicket.getId());
+                        });
+        entityManager.clear();
         WorkflowTransitionHistory updatedHistory =
-                workflowTransitionHistoryRepository.findById(history.getId()).orElseThrow();
+                workflowTransitionHistoryRepository.findById(historyId).orElseThrow();
 
         assertThat(updatedHistory.getStatus()).isEqualTo(ESCALATED);
+
+        // And: Verify a second escalation leaves it out
+        assertThat(workflowTransitionHistoryService.escalateTransitions(List.of(historyId)))
+                .isEmpty();
     }
 
     @Test
     public void testEscalateNonExistentTransition() {
-        // When/Then: Attempt to escalate a non-existent transition
-        assertThatThrownBy(() -> workflowTransitionHistoryService.escalateTransition(999L))
-                .isInstanceOf(EntityNotFoundException.class)
-                .hasMessageContaining("Transition not found");
+        // When/Then: Escalating a non-existent transition escalates nothing
+        assertThat(workflowTransitionHistoryService.escalateTransitions(List.of(999L))).isEmpty();
     }
 }
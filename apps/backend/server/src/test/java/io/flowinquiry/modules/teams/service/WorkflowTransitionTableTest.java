@@ -0,0 +1,82 @@
+package io.flowinquiry.modules.teams.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.flowinquiry.modules.teams.domain.WorkflowState;
+import io.flowinquiry.modules.teams.domain.WorkflowTransition;
+import io.flowinquiry.modules.teams.repository.WorkflowTransitionRepository;
+import io.flowinquiry.modules.teams.service.WorkflowTransitionTable.Transition;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class WorkflowTransitionTableTest {
+
+    private static final long WORKFLOW_ID = 1L;
+
+    private WorkflowTransitionRepository workflowTransitionRepository;
+
+    private WorkflowTransitionTable workflowTransitionTable;
+
+    @BeforeEach
+    public void setup() {
+        workflowTransitionRepository = mock(WorkflowTransitionRepository.class);
+        workflowTransitionTable = new WorkflowTransitionTable(workflowTransitionRepository);
+        WorkflowState backlog = WorkflowState.builder().id(1L).isFinal(false).build();
+        WorkflowState ready = WorkflowState.builder().id(2L).isFinal(false).build();
+        WorkflowState done = WorkflowState.builder().id(5L).isFinal(true).build();
+        when(workflowTransitionRepository.findByWorkflowId(WORKFLOW_ID))
+                .thenReturn(
+                        List.of(
+                                transition(backlog, ready, "Move to Ready", 60000L),
+                                transition(backlog, done, "Complete Task", 120000L)));
+    }
+
+    @Test
+    public void shouldFindTheTransitionsOfAWorkflow() {
+        Transition toReady = workflowTransitionTable.find(WORKFLOW_ID, 1L, 2L);
+        Transition toDone = workflowTransitionTable.find(WORKFLOW_ID, 1L, 5L);
+
+        assertThat(toReady).isEqualTo(new Transition(1L, 2L, "Move to Ready", 60000L, false));
+        assertThat(toDone).isEqualTo(new Transition(1L, 5L, "Complete Task", 120000L, true));
+    }
+
+    @Test
+    public void shouldReturnNullForAMoveTheWorkflowDoesNotAllow() {
+        assertThat(workflowTransitionTable.find(WORKFLOW_ID, 2L, 1L)).isNull();
+        assertThat(workflowTransitionTable.find(WORKFLOW_ID, 5L, 2L)).isNull();
+    }
+
+    @Test
+    public void shouldLoadEachWorkflowOnce() {
+        for (int i = 0; i < 100; i++) {
+            workflowTransitionTable.find(WORKFLOW_ID, 1L, 2L);
+            workflowTransitionTable.find(WORKFLOW_ID, 2L, 1L);
+        }
+
+        verify(workflowTransitionRepository, times(1)).findByWorkflowId(WORKFLOW_ID);
+    }
+
+    @Test
+    public void shouldReloadAWorkflowOnceInvalidated() {
+        workflowTransitionTable.find(WORKFLOW_ID, 1L, 2L);
+        workflowTransitionTable.invalidate(WORKFLOW_ID);
+        workflowTransitionTable.find(WORKFLOW_ID, 1L, 2L);
+
+        verify(workflowTransitionRepository, times(2)).findByWorkflowId(WORKFLOW_ID);
+    }
+
+    private static WorkflowTransition transition(
+            WorkflowState source, WorkflowState target, String eventName, Long slaDuration) {
+        return WorkflowTransition.builder()
+                .sourceState(source)
+                .targetState(target)
+                .eventName(eventName)
+                .slaDuration(slaDuration)
+                .build();
+    }
+}
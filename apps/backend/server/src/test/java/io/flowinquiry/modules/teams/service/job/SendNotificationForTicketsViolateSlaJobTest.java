@@ -1,7 +1,9 @@
 package io.flowinquiry.modules.teams.service.job;
 
 import static io.flowinquiry.modules.shared.domain.EventPayloadType.NOTIFICATION;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -10,27 +12,27 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import io.flowinquiry.modules.collab.EmailContext;
+import io.flowinquiry.modules.collab.domain.EmailJob;
 import io.flowinquiry.modules.collab.domain.Notification;
 import io.flowinquiry.modules.collab.domain.NotificationType;
+import io.flowinquiry.modules.collab.service.EmailJobService;
 import io.flowinquiry.modules.collab.service.MailService;
+import io.flowinquiry.modules.collab.service.NotificationService;
 import io.flowinquiry.modules.shared.controller.SseController;
 import io.flowinquiry.modules.shared.service.cache.DeduplicationCacheService;
-import io.flowinquiry.modules.teams.domain.Team;
-import io.flowinquiry.modules.teams.domain.Ticket;
-import io.flowinquiry.modules.teams.domain.Workflow;
-import io.flowinquiry.modules.teams.domain.WorkflowState;
-import io.flowinquiry.modules.teams.domain.WorkflowTransitionHistory;
-import io.flowinquiry.modules.teams.domain.WorkflowTransitionHistoryStatus;
 import io.flowinquiry.modules.teams.service.TeamService;
 import io.flowinquiry.modules.teams.service.WorkflowTransitionHistoryService;
-import io.flowinquiry.modules.usermanagement.domain.User;
-import io.flowinquiry.modules.usermanagement.service.dto.UserDTO;
-import io.flowinquiry.modules.usermanagement.service.mapper.UserMapper;
+import io.flowinquiry.modules.teams.service.dto.SlaBreachDTO;
+import io.flowinquiry.modules.teams.service.dto.TeamManagerDTO;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -38,20 +40,35 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
 
 @ExtendWith(MockitoExtension.class)
 public class SendNotificationForTicketsViolateSlaJobTest {
 
+    private static final String TEMPLATE = "mail/violatedSlaTicketEmail";
+
+    /** What the mail template renders to with placeholders for its variables. */
+    private static final String RENDERED_TEMPLATE =
+            "<p>Dear @@firstName@@,</p><a href=\"/portal/teams/@@obfuscatedTeamId@@/tickets/"
+                    + "@@obfuscatedTicketId@@\">@@requestTitle@@</a> was due on @@slaDueDate@@";
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
     @Mock private WorkflowTransitionHistoryService workflowTransitionHistoryService;
 
     @Mock private MailService mailService;
 
+    @Mock private SpringTemplateEngine templateEngine;
+
+    @Mock private NotificationService notificationService;
+
+    @Mock private EmailJobService emailJobService;
+
     @Mock private DeduplicationCacheService deduplicationCacheService;
 
     @Mock private TeamService teamService;
 
-    @Mock private UserMapper userMapper;
-
     @Mock private MessageSource messageSource;
 
     @Mock private SseController sseController;
@@ -65,299 +82,221 @@ public class SendNotificationForTicketsViolateSlaJobTest {
                         teamService,
                         workflowTransitionHistoryService,
                         mailService,
+                        templateEngine,
+                        notificationService,
+                        emailJobService,
                         deduplicationCacheService,
-                        userMapper,
                         messageSource,
                         sseController);
     }
 
+    private static SlaBreachDTO breach(long transitionId, long teamId, Long assignUserId) {
+        return new SlaBreachDTO(
+                transitionId,
+                "Test Event",
+                2L,
+                Instant.now().minusSeconds(3600),
+                transitionId + 100,
+                "Test <Ticket> " + transitionId,
+                TENANT_ID,
+                teamId,
+                "Test Team",
+                3L,
+                assignUserId,
+                assignUserId == null ? null : "assigned" + assignUserId + "@example.com",
+                "Assigned",
+                "User",
+                null);
+    }
+
+    private static TeamManagerDTO manager(long teamId, long userId, String langKey) {
+        return new TeamManagerDTO(
+                teamId, userId, "manager" + userId + "@example.com", "Manager", "User", langKey);
+    }
+
+    private void stubTemplates() {
+        when(templateEngine.process(eq(TEMPLATE), any(IContext.class)))
+                .thenReturn(RENDERED_TEMPLATE);
+        when(messageSource.getMessage(
+                        eq("email.ticket.sla.violation.subject"), any(), any(Locale.class)))
+                .thenReturn("SLA violated");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Notification> capturedNotifications() {
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).createNotifications(captor.capture());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EmailJob> capturedEmailJobs() {
+        ArgumentCaptor<List<EmailJob>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emailJobService).enqueueRenderedEmailJobs(captor.capture());
+        return captor.getValue();
+    }
+
     @Test
     public void testRunWithViolatingTickets() {
         // Given
-        WorkflowState fromState = WorkflowState.builder().id(1L).stateName("From State").build();
-
-        WorkflowState toState = WorkflowState.builder().id(2L).stateName("To State").build();
-
-        Workflow workflow = Workflow.builder().id(3L).build();
-
-        Team team = Team.builder().id(4L).name("Test Team").build();
-
-        User assignUser =
-                User.builder()
-                        .id(5L)
-                        .firstName("Assigned")
-                        .lastName("User")
-                        .email("assigned@example.com")
-                        .build();
-
-        Ticket ticket =
-                Ticket.builder()
-                        .id(6L)
-                        .requestTitle("Test Ticket")
-                        .team(team)
-                        .assignUser(assignUser)
-                        .workflow(workflow)
-                        .build();
-
-        Instant now = Instant.now();
-        Instant slaDueDate = now.minusSeconds(3600); // Due date in the past (1 hour ago)
-
-        WorkflowTransitionHistory violatingTicket =
-                WorkflowTransitionHistory.builder()
-                        .id(7L)
-                        .ticket(ticket)
-                        .fromState(fromState)
-                        .toState(toState)
-                        .eventName("Test Event")
-                        .transitionDate(now.minusSeconds(7200)) // 2 hours ago
-                        .slaDueDate(slaDueDate)
-                        .status(WorkflowTransitionHistoryStatus.IN_PROGRESS)
-                        .build();
-
-        List<WorkflowTransitionHistory> violatingTickets = List.of(violatingTicket);
-
-        User teamManager =
-                User.builder()
-                        .id(8L)
-                        .firstName("Manager")
-                        .lastName("User")
-                        .email("manager@example.com")
-                        .build();
-
-        List<User> teamManagers = List.of(teamManager);
-
-        UserDTO assignUserDTO = new UserDTO();
-        assignUserDTO.setId(assignUser.getId());
-        assignUserDTO.setEmail(assignUser.getEmail());
-
-        UserDTO teamManagerDTO = new UserDTO();
-        teamManagerDTO.setId(teamManager.getId());
-        teamManagerDTO.setEmail(teamManager.getEmail());
-
-        // Mock service calls
-        when(workflowTransitionHistoryService.getViolatedTransitions())
-                .thenReturn(violatingTickets);
-        when(teamService.getTeamManagers(team.getId())).thenReturn(teamManagers);
-        when(userMapper.toDto(assignUser)).thenReturn(assignUserDTO);
-        when(userMapper.toDto(teamManager)).thenReturn(teamManagerDTO);
+        when(workflowTransitionHistoryService.escalateTransitions(List.of(7L)))
+                .thenReturn(List.of(breach(7L, 4L, 5L)));
+        when(teamService.getTeamManagers(anyCollection()))
+                .thenReturn(List.of(manager(4L, 8L, null)));
         when(deduplicationCacheService.containsKey(anyString())).thenReturn(false);
+        stubTemplates();
 
         // When
-        job.run();
+        job.run(List.of(7L));
 
         // Then
-        // Verify escalation
-        verify(workflowTransitionHistoryService).escalateTransition(violatingTicket.getId());
-
-        // Verify notifications sent to both assign user and team manager
-        ArgumentCaptor<Long> userIdCaptor = ArgumentCaptor.forClass(Long.class);
-        ArgumentCaptor<Notification> notificationCaptor =
-                ArgumentCaptor.forClass(Notification.class);
-
-        // Should send 2 notifications (one to assignUser, one to teamManager)
-        verify(sseController, times(2))
-                .sendEventToUser(
-                        userIdCaptor.capture(), eq(NOTIFICATION), notificationCaptor.capture());
-
-        List<Long> capturedUserIds = userIdCaptor.getAllValues();
-        List<Notification> capturedNotifications = notificationCaptor.getAllValues();
-
-        // Verify notification properties
-        for (Notification notification : capturedNotifications) {
-            assert notification.getType() == NotificationType.SLA_BREACH;
-            assert notification.getContent().contains("Test Ticket");
-            assert !notification.getIsRead();
+        verify(workflowTransitionHistoryService).escalateTransitions(List.of(7L));
+        verify(teamService).getTeamManagers(Set.of(4L));
+
+        // One notification each for the assignee and the team manager
+        List<Notification> notifications = capturedNotifications();
+        assertThat(notifications)
+                .extracting(notification -> notification.getUser().getId())
+                .containsExactly(5L, 8L);
+        for (Notification notification : notifications) {
+            assertThat(notification.getType()).isEqualTo(NotificationType.SLA_BREACH);
+            assertThat(notification.getContent()).contains("Test &lt;Ticket&gt; 7");
+            assertThat(notification.getIsRead()).isFalse();
+            assertThat(notification.getTenantId()).isEqualTo(TENANT_ID);
         }
+        verify(sseController, times(2)).sendEventToUser(anyLong(), eq(NOTIFICATION), any());
+
+        // Mails are queued with the placeholders filled in and escaped
+        List<EmailJob> emailJobs = capturedEmailJobs();
+        assertThat(emailJobs)
+                .extracting(EmailJob::getRecipients)
+                .containsExactly(
+                        "Assigned User <assigned5@example.com>",
+                        "Manager User <manager8@example.com>");
+        EmailJob emailJob = emailJobs.getFirst();
+        assertThat(emailJob.getSubjectOverride()).isEqualTo("SLA violated");
+        assertThat(emailJob.getRecipientLocale()).isEqualTo("en");
+        assertThat(emailJob.getBody())
+                .startsWith("<p>Dear Assigned,</p>")
+                .contains(">Test &lt;Ticket&gt; 7</a>")
+                .doesNotContain("@@");
 
-        // Verify emails sent - just verify the method was called
-        verify(mailService, times(2)).sendEmail(any(EmailContext.class));
-
-        // Verify deduplication cache entries
         verify(deduplicationCacheService, times(2)).put(anyString(), any(Duration.class));
     }
 
     @Test
     public void testRunWithNoViolatingTickets() {
         // Given
-        when(workflowTransitionHistoryService.getViolatedTransitions())
+        when(workflowTransitionHistoryService.escalateTransitions(List.of(7L)))
                 .thenReturn(Collections.emptyList());
 
         // When
-        job.run();
+        job.run(List.of(7L));
 
         // Then
-        verify(workflowTransitionHistoryService, never()).escalateTransition(anyLong());
-        verify(teamService, never()).getTeamManagers(anyLong());
+        // Nothing escalated by this node, for instance because another node was first
+        verify(workflowTransitionHistoryService).escalateTransitions(List.of(7L));
+        verify(teamService, never()).getTeamManagers(anyCollection());
+        verify(notificationService, never()).createNotifications(any());
+        verify(emailJobService, never()).enqueueRenderedEmailJobs(any());
         verify(sseController, never()).sendEventToUser(anyLong(), any(), any());
-        verify(mailService, never()).sendEmail(any(EmailContext.class));
         verify(deduplicationCacheService, never()).put(anyString(), any(Duration.class));
     }
 
     @Test
     public void testRunWithNullAssignUser() {
         // Given
-        WorkflowState fromState = WorkflowState.builder().id(1L).stateName("From State").build();
-
-        WorkflowState toState = WorkflowState.builder().id(2L).stateName("To State").build();
-
-        Workflow workflow = Workflow.builder().id(3L).build();
-
-        Team team = Team.builder().id(4L).name("Test Team").build();
-
-        // Ticket with null assignUser
-        Ticket ticket =
-                Ticket.builder()
-                        .id(6L)
-                        .requestTitle("Test Ticket")
-                        .team(team)
-                        .assignUser(null) // No assigned user
-                        .workflow(workflow)
-                        .build();
-
-        Instant now = Instant.now();
-        Instant slaDueDate = now.minusSeconds(3600); // Due date in the past (1 hour ago)
-
-        WorkflowTransitionHistory violatingTicket =
-                WorkflowTransitionHistory.builder()
-                        .id(7L)
-                        .ticket(ticket)
-                        .fromState(fromState)
-                        .toState(toState)
-                        .eventName("Test Event")
-                        .transitionDate(now.minusSeconds(7200)) // 2 hours ago
-                        .slaDueDate(slaDueDate)
-                        .status(WorkflowTransitionHistoryStatus.IN_PROGRESS)
-                        .build();
-
-        List<WorkflowTransitionHistory> violatingTickets = List.of(violatingTicket);
-
-        User teamManager =
-                User.builder()
-                        .id(8L)
-                        .firstName("Manager")
-                        .lastName("User")
-                        .email("manager@example.com")
-                        .build();
-
-        List<User> teamManagers = List.of(teamManager);
-
-        UserDTO teamManagerDTO = new UserDTO();
-        teamManagerDTO.setId(teamManager.getId());
-        teamManagerDTO.setEmail(teamManager.getEmail());
-
-        // Mock service calls
-        when(workflowTransitionHistoryService.getViolatedTransitions())
-                .thenReturn(violatingTickets);
-        when(teamService.getTeamManagers(team.getId())).thenReturn(teamManagers);
-        when(userMapper.toDto(teamManager)).thenReturn(teamManagerDTO);
+        when(workflowTransitionHistoryService.escalateTransitions(List.of(7L)))
+                .thenReturn(List.of(breach(7L, 4L, null)));
+        when(teamService.getTeamManagers(anyCollection()))
+                .thenReturn(List.of(manager(4L, 8L, null)));
         when(deduplicationCacheService.containsKey(anyString())).thenReturn(false);
+        stubTemplates();
 
         // When
-        job.run();
+        job.run(List.of(7L));
 
         // Then
-        // Verify escalation
-        verify(workflowTransitionHistoryService).escalateTransition(violatingTicket.getId());
-
-        // Verify notifications sent to team manager only
-        ArgumentCaptor<Long> userIdCaptor = ArgumentCaptor.forClass(Long.class);
-        ArgumentCaptor<Notification> notificationCaptor =
-                ArgumentCaptor.forClass(Notification.class);
-
-        // Should send 1 notification (to teamManager only)
-        verify(sseController, times(1))
-                .sendEventToUser(
-                        userIdCaptor.capture(), eq(NOTIFICATION), notificationCaptor.capture());
-
-        Long capturedUserId = userIdCaptor.getValue();
-        Notification capturedNotification = notificationCaptor.getValue();
-
-        // Verify notification properties
-        assert capturedUserId.equals(teamManager.getId());
-        assert capturedNotification.getType() == NotificationType.SLA_BREACH;
-        assert capturedNotification.getContent().contains("Test Ticket");
-        assert !capturedNotification.getIsRead();
-
-        // Verify email sent - just verify the method was called
-        verify(mailService, times(1)).sendEmail(any(EmailContext.class));
-
-        // Verify deduplication cache entry
+        // Team manager only
+        assertThat(capturedNotifications())
+                .extracting(notification -> notification.getUser().getId())
+                .containsExactly(8L);
+        assertThat(capturedEmailJobs())
+                .extracting(EmailJob::getRecipients)
+                .containsExactly("Manager User <manager8@example.com>");
+        verify(sseController, times(1)).sendEventToUser(eq(8L), eq(NOTIFICATION), any());
         verify(deduplicationCacheService, times(1)).put(anyString(), any(Duration.class));
     }
 
     @Test
     public void testRunWithDuplicateNotification() {
         // Given
-        WorkflowState fromState = WorkflowState.builder().id(1L).stateName("From State").build();
-
-        WorkflowState toState = WorkflowState.builder().id(2L).stateName("To State").build();
-
-        Workflow workflow = Workflow.builder().id(3L).build();
-
-        Team team = Team.builder().id(4L).name("Test Team").build();
-
-        User assignUser =
-                User.builder()
-                        .id(5L)
-                        .firstName("Assigned")
-                        .lastName("User")
-                        .email("assigned@example.com")
-                        .build();
-
-        Ticket ticket =
-                Ticket.builder()
-                        .id(6L)
-                        .requestTitle("Test Ticket")
-                        .team(team)
-                        .assignUser(assignUser)
-                        .workflow(workflow)
-                        .build();
-
-        Instant now = Instant.now();
-        Instant slaDueDate = now.minusSeconds(3600); // Due date in the past (1 hour ago)
-
-        WorkflowTransitionHistory violatingTicket =
-                WorkflowTransitionHistory.builder()
-                        .id(7L)
-                        .ticket(ticket)
-                        .fromState(fromState)
-                        .toState(toState)
-                        .eventName("Test Event")
-                        .transitionDate(now.minusSeconds(7200)) // 2 hours ago
-                        .slaDueDate(slaDueDate)
-                        .status(WorkflowTransitionHistoryStatus.IN_PROGRESS)
-                        .build();
-
-        List<WorkflowTransitionHistory> violatingTickets = List.of(violatingTicket);
-
-        User teamManager =
-                User.builder()
-                        .id(8L)
-                        .firstName("Manager")
-                        .lastName("User")
-                        .email("manager@example.com")
-                        .build();
-
-        List<User> teamManagers = List.of(teamManager);
-
-        // Mock service calls
-        when(workflowTransitionHistoryService.getViolatedTransitions())
-                .thenReturn(violatingTickets);
-        when(teamService.getTeamManagers(team.getId())).thenReturn(teamManagers);
+        when(workflowTransitionHistoryService.escalateTransitions(List.of(7L)))
+                .thenReturn(List.of(breach(7L, 4L, 5L)));
+        when(teamService.getTeamManagers(anyCollection()))
+                .thenReturn(List.of(manager(4L, 8L, null)));
 
         // Simulate that notifications have already been sent (keys exist in cache)
         when(deduplicationCacheService.containsKey(anyString())).thenReturn(true);
 
         // When
-        job.run();
+        job.run(List.of(7L));
 
         // Then
-        // Verify escalation still happens
-        verify(workflowTransitionHistoryService).escalateTransition(violatingTicket.getId());
-
-        // Verify no notifications are sent for duplicate violations
+        // Escalation still happens, but nothing is sent again
+        verify(workflowTransitionHistoryService).escalateTransitions(List.of(7L));
+        assertThat(capturedNotifications()).isEmpty();
+        assertThat(capturedEmailJobs()).isEmpty();
+        verify(templateEngine, never()).process(anyString(), any(IContext.class));
         verify(sseController, never()).sendEventToUser(anyLong(), any(), any());
-        verify(mailService, never()).sendEmail(any(EmailContext.class));
         verify(deduplicationCacheService, never()).put(anyString(), any(Duration.class));
     }
+
+    @Test
+    public void testRunWithTenThousandBreachesUsesBoundedQueries() {
+        // Given
+        int breachCount = 10_000;
+        int teamCount = 50;
+        List<Long> transitionIds = new ArrayList<>();
+        List<SlaBreachDTO> breaches = new ArrayList<>();
+        for (long id = 1; id <= breachCount; id++) {
+            transitionIds.add(id);
+            // Every fifth ticket is unassigned
+            breaches.add(breach(id, id % teamCount, id % 5 == 0 ? null : 1_000_000 + id));
+        }
+        List<TeamManagerDTO> managers = new ArrayList<>();
+        for (long teamId = 0; teamId < teamCount; teamId++) {
+            managers.add(manager(teamId, 2_000_000 + teamId, teamId % 2 == 0 ? "en" : "vi"));
+        }
+        when(workflowTransitionHistoryService.escalateTransitions(transitionIds))
+                .thenReturn(breaches);
+        when(teamService.getTeamManagers(anyCollection())).thenReturn(managers);
+        when(deduplicationCacheService.containsKey(anyString())).thenReturn(false);
+        stubTemplates();
+
+        // When
+        job.run(transitionIds);
+
+        // Then
+        // The statements do not grow with the number of breaches: one escalation returning the
+        // tickets, one manager lookup, one batched insert each for notifications and mails
+        verify(workflowTransitionHistoryService, times(1)).escalateTransitions(anyCollection());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> teamIds = ArgumentCaptor.forClass(Collection.class);
+        verify(teamService, times(1)).getTeamManagers(teamIds.capture());
+        assertThat(teamIds.getValue()).hasSize(teamCount);
+        verify(teamService, never()).getTeamManagers(anyLong());
+
+        // The template is rendered once per locale, not per mail
+        verify(templateEngine, times(2)).process(eq(TEMPLATE), any(IContext.class));
+
+        int expected = breachCount + breachCount * 4 / 5;
+        assertThat(capturedNotifications()).hasSize(expected);
+        List<EmailJob> emailJobs = capturedEmailJobs();
+        assertThat(emailJobs).hasSize(expected);
+        assertThat(emailJobs).extracting(EmailJob::getRecipientLocale).containsOnly("en", "vi");
+        assertThat(emailJobs)
+                .allSatisfy(emailJob -> assertThat(emailJob.getBody()).doesNotContain("@@"));
+        verify(sseController, times(expected)).sendEventToUser(anyLong(), eq(NOTIFICATION), any());
+    }
 }
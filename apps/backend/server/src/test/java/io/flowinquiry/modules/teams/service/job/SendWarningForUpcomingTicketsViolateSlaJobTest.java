@@ -37,8 +37,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 public class SendWarningForUpcomingTicketsViolateSlaJobTest {
 
-    private static final long PRIOR_SLA_WARNING_THRESHOLD_IN_SECONDS = 1800; // 30 minutes
-
     @Mock private WorkflowTransitionHistoryService workflowTransitionHistoryService;
 
     @Mock private DeduplicationCacheService deduplicationCacheService;
@@ -106,13 +104,12 @@ public class SendWarningForUpcomingTicketsViolateSlaJobTest {
         List<WorkflowTransitionHistory> upcomingViolatingTickets = List.of(upcomingViolatingTicket);
 
         // Mock service calls
-        when(workflowTransitionHistoryService.getViolatingTransitions(
-                        PRIOR_SLA_WARNING_THRESHOLD_IN_SECONDS))
+        when(workflowTransitionHistoryService.claimSlaWarnings(List.of(7L)))
                 .thenReturn(upcomingViolatingTickets);
         when(deduplicationCacheService.containsKey(anyString())).thenReturn(false);
 
         // When
-        job.run();
+        job.run(List.of(7L));
 
         // Then
         // Verify notification sent to assigned user
@@ -141,12 +138,11 @@ public class SendWarningForUpcomingTicketsViolateSlaJobTest {
     @Test
     public void should_not_send_notification_when_no_tickets_approaching_sla_deadline() {
         // Given
-        when(workflowTransitionHistoryService.getViolatingTransitions(
-                        PRIOR_SLA_WARNING_THRESHOLD_IN_SECONDS))
+        when(workflowTransitionHistoryService.claimSlaWarnings(List.of(7L)))
                 .thenReturn(Collections.emptyList());
 
         // When
-        job.run();
+        job.run(List.of(7L));
 
         // Then
         verify(sseController, never()).sendEventToUser(anyLong(), any(), any());
@@ -203,14 +199,13 @@ public class SendWarningForUpcomingTicketsViolateSlaJobTest {
         List<User> teamManagers = List.of(teamManager);
 
         // Mock service calls
-        when(workflowTransitionHistoryService.getViolatingTransitions(
-                        PRIOR_SLA_WARNING_THRESHOLD_IN_SECONDS))
+        when(workflowTransitionHistoryService.claimSlaWarnings(List.of(7L)))
                 .thenReturn(upcomingViolatingTickets);
         when(teamService.getTeamManagers(team.getId())).thenReturn(teamManagers);
         when(deduplicationCacheService.containsKey(anyString())).thenReturn(false);
 
         // When
-        job.run();
+        job.run(List.of(7L));
 
         // Then
         // Verify notification sent to team manager
@@ -283,15 +278,14 @@ public class SendWarningForUpcomingTicketsViolateSlaJobTest {
         List<WorkflowTransitionHistory> upcomingViolatingTickets = List.of(upcomingViolatingTicket);
 
         // Mock service calls
-        when(workflowTransitionHistoryService.getViolatingTransitions(
-                        PRIOR_SLA_WARNING_THRESHOLD_IN_SECONDS))
+        when(workflowTransitionHistoryService.claimSlaWarnings(List.of(7L)))
                 .thenReturn(upcomingViolatingTickets);
 
         // Simulate that notifications have already been sent (keys exist in cache)
         when(deduplicationCacheService.containsKey(anyString())).thenReturn(true);
 
         // When
-        job.run();
+        job.run(List.of(7L));
 
         // Then
         // Verify no notifications are sent for duplicate warnings
@@ -13,8 +13,8 @@ import io.flowinquiry.modules.collab.domain.ActivityLog;
 import io.flowinquiry.modules.collab.domain.EntityType;
 import io.flowinquiry.modules.collab.domain.Notification;
 import io.flowinquiry.modules.collab.domain.NotificationType;
-import io.flowinquiry.modules.collab.repository.ActivityLogRepository;
 import io.flowinquiry.modules.collab.repository.NotificationRepository;
+import io.flowinquiry.modules.collab.service.ActivityLogWriter;
 import io.flowinquiry.modules.shared.controller.SseController;
 import io.flowinquiry.modules.teams.repository.TeamRepository;
 import io.flowinquiry.modules.teams.service.dto.ProjectDTO;
@@ -40,7 +40,7 @@ public class NewProjectCreatedNotificationEventListenerTest {
 
     @Mock private NotificationRepository notificationRepository;
 
-    @Mock private ActivityLogRepository activityLogRepository;
+    @Mock private ActivityLogWriter activityLogWriter;
 
     @Mock private UserRepository userRepository;
 
@@ -54,7 +54,7 @@ public class NewProjectCreatedNotificationEventListenerTest {
                 new NewProjectCreatedNotificationEventListener(
                         teamRepository,
                         notificationRepository,
-                        activityLogRepository,
+                        activityLogWriter,
                         userRepository,
                         sseController);
     }
@@ -104,7 +104,7 @@ public class NewProjectCreatedNotificationEventListenerTest {
         verify(notificationRepository).saveAll(Collections.emptyList());
 
         ArgumentCaptor<ActivityLog> activityLogCaptor = ArgumentCaptor.forClass(ActivityLog.class);
-        verify(activityLogRepository).save(activityLogCaptor.capture());
+        verify(activityLogWriter).write(activityLogCaptor.capture());
 
         ActivityLog capturedActivityLog = activityLogCaptor.getValue();
         assert capturedActivityLog.getEntityId().equals(teamId);
@@ -207,7 +207,7 @@ public class NewProjectCreatedNotificationEventListenerTest {
                 .sendEventToUser(anyLong(), eq(NOTIFICATION), any(Notification.class));
 
         ArgumentCaptor<ActivityLog> activityLogCaptor = ArgumentCaptor.forClass(ActivityLog.class);
-        verify(activityLogRepository).save(activityLogCaptor.capture());
+        verify(activityLogWriter).write(activityLogCaptor.capture());
 
         ActivityLog capturedActivityLog = activityLogCaptor.getValue();
         assert capturedActivityLog.getEntityId().equals(teamId);
@@ -35,6 +35,7 @@ public class NewTicketCreatedAiSummaryEventListenerTest {
                         .id(ticketId)
                         .requestTitle(title)
                         .requestDescription(description)
+                        .requestUserId(101L)
                         .build();
 
         NewTicketCreatedEvent event = new NewTicketCreatedEvent(this, ticketDTO);
@@ -44,6 +45,6 @@ public class NewTicketCreatedAiSummaryEventListenerTest {
 
         // Then
         String expectedContent = "Title: " + title + "\n" + "Description: " + description + "\n";
-        verify(ticketHealthEvalService).evaluateConversationHealth(ticketId, expectedContent, true);
+        verify(ticketHealthEvalService).submit(ticketId, expectedContent, 101L);
     }
 }
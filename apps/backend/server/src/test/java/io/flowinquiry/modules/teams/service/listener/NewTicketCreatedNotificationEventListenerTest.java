@@ -15,8 +15,8 @@ import io.flowinquiry.modules.collab.domain.ActivityLog;
 import io.flowinquiry.modules.collab.domain.EntityType;
 import io.flowinquiry.modules.collab.domain.Notification;
 import io.flowinquiry.modules.collab.domain.NotificationType;
-import io.flowinquiry.modules.collab.repository.ActivityLogRepository;
 import io.flowinquiry.modules.collab.repository.NotificationRepository;
+import io.flowinquiry.modules.collab.service.ActivityLogWriter;
 import io.flowinquiry.modules.shared.controller.SseController;
 import io.flowinquiry.modules.teams.repository.TeamRepository;
 import io.flowinquiry.modules.teams.service.TicketService;
@@ -45,7 +45,7 @@ public class NewTicketCreatedNotificationEventListenerTest {
 
     @Mock private TeamRepository teamRepository;
 
-    @Mock private ActivityLogRepository activityLogRepository;
+    @Mock private ActivityLogWriter activityLogWriter;
 
     @Mock private UserRepository userRepository;
 
@@ -60,7 +60,7 @@ public class NewTicketCreatedNotificationEventListenerTest {
                         ticketService,
                         notificationRepository,
                         teamRepository,
-                        activityLogRepository,
+                        activityLogWriter,
                         userRepository,
                         sseController);
     }
@@ -113,7 +113,7 @@ public class NewTicketCreatedNotificationEventListenerTest {
         verify(notificationRepository).saveAll(Collections.emptyList());
 
         ArgumentCaptor<ActivityLog> activityLogCaptor = ArgumentCaptor.forClass(ActivityLog.class);
-        verify(activityLogRepository).save(activityLogCaptor.capture());
+        verify(activityLogWriter).write(activityLogCaptor.capture());
 
         ActivityLog capturedActivityLog = activityLogCaptor.getValue();
         assert capturedActivityLog.getEntityId().equals(teamId);
@@ -219,7 +219,7 @@ public class NewTicketCreatedNotificationEventListenerTest {
                 .sendEventToUser(anyLong(), eq(NOTIFICATION), any(Notification.class));
 
         ArgumentCaptor<ActivityLog> activityLogCaptor = ArgumentCaptor.forClass(ActivityLog.class);
-        verify(activityLogRepository).save(activityLogCaptor.capture());
+        verify(activityLogWriter).write(activityLogCaptor.capture());
 
         ActivityLog capturedActivityLog = activityLogCaptor.getValue();
         assert capturedActivityLog.getEntityId().equals(teamId);
@@ -5,7 +5,7 @@ import static org.mockito.Mockito.when;
 
 import io.flowinquiry.modules.collab.domain.ActivityLog;
 import io.flowinquiry.modules.collab.domain.EntityType;
-import io.flowinquiry.modules.collab.repository.ActivityLogRepository;
+import io.flowinquiry.modules.collab.service.ActivityLogWriter;
 import io.flowinquiry.modules.teams.domain.Team;
 import io.flowinquiry.modules.teams.repository.TeamRepository;
 import io.flowinquiry.modules.teams.service.event.NewUsersAddedIntoTeamEvent;
@@ -28,7 +28,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 public class NewUserAddedIntoTeamNotificationEventListenerTest {
 
-    @Mock private ActivityLogRepository activityLogRepository;
+    @Mock private ActivityLogWriter activityLogWriter;
 
     @Mock private TeamRepository teamRepository;
 
@@ -40,7 +40,7 @@ public class NewUserAddedIntoTeamNotificationEventListenerTest {
     public void setup() {
         listener =
                 new NewUserAddedIntoTeamNotificationEventListener(
-                        activityLogRepository, teamRepository, userRepository);
+                        activityLogWriter, teamRepository, userRepository);
     }
 
     @Test
@@ -80,7 +80,7 @@ public class NewUserAddedIntoTeamNotificationEventListenerTest {
 
             ArgumentCaptor<ActivityLog> activityLogCaptor =
                     ArgumentCaptor.forClass(ActivityLog.class);
-            verify(activityLogRepository).save(activityLogCaptor.capture());
+            verify(activityLogWriter).write(activityLogCaptor.capture());
 
             ActivityLog capturedActivityLog = activityLogCaptor.getValue();
             assert capturedActivityLog.getEntityId().equals(teamId);
@@ -2,20 +2,16 @@ package io.flowinquiry.modules.teams.service.listener;
 
 import static io.flowinquiry.modules.shared.domain.EventPayloadType.ITERATION_CLOSED;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import io.flowinquiry.modules.collab.domain.ActivityLog;
 import io.flowinquiry.modules.shared.controller.SseController;
 import io.flowinquiry.modules.teams.domain.*;
-import io.flowinquiry.modules.teams.repository.TeamRepository;
 import io.flowinquiry.modules.teams.service.dto.ProjectIterationDTO;
 import io.flowinquiry.modules.teams.service.event.ProjectIterationStatusChangeEvent;
 import io.flowinquiry.modules.teams.service.mapper.ProjectIterationMapper;
-import io.flowinquiry.modules.usermanagement.service.dto.UserWithTeamRoleDTO;
-import java.util.Arrays;
-import java.util.List;
+import io.flowinquiry.sse.SseTopics;
 import org.junit.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,7 +21,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
 public class ProjectIterationStatusChangeEventListenerTest {
-    @Mock private TeamRepository teamRepository;
     @Mock private SseController sseController;
     @Mock private ProjectIterationMapper projectIterationMapper;
     private ProjectIterationStatusChangeEventListener listener;
@@ -34,26 +29,14 @@ public class ProjectIterationStatusChangeEventListenerTest {
     public void setup() {
         listener =
                 new ProjectIterationStatusChangeEventListener(
-                        teamRepository, sseController, projectIterationMapper);
+                        sseController, projectIterationMapper);
     }
 
     @Test
     public void testOnClosingEventOnly_Success() {
         Long teamId = 1L;
-        Long userId1 = 101L;
-        Long userId2 = 102L;
-        List<Long> userIds = Arrays.asList(userId1, userId2);
-
         Team team = Team.builder().id(teamId).name("Test Team").build();
 
-        UserWithTeamRoleDTO user1 =
-                new UserWithTeamRoleDTO(
-                        userId1, "abc@def.com", "jhon", "doe", "", "", "", teamId, "");
-
-        UserWithTeamRoleDTO user2 =
-                new UserWithTeamRoleDTO(
-                        userId2, "abc123@def.com", "jane", "doe", "", "", "", teamId, "");
-        ;
         Project project =
                 Project.builder()
                         .id(1L)
@@ -76,10 +59,11 @@ public class ProjectIterationStatusChangeEventListenerTest {
 
         listener.onProjectIterationStatusChange(event);
 
-        when(teamRepository.findUsersByTeamId(teamId)).thenReturn(List.of(user1, user2));
-
-        verify(sseController, times(2))
-                .sendEventToUser(anyLong(), eq(ITERATION_CLOSED), any(ProjectIterationDTO.class));
+        verify(sseController)
+                .sendEventToTopic(
+                        eq(SseTopics.team(teamId)),
+                        eq(ITERATION_CLOSED),
+                        any(ProjectIterationDTO.class));
 
         ArgumentCaptor<ActivityLog> activityLogCaptor = ArgumentCaptor.forClass(ActivityLog.class);
         ActivityLog capturedActivityLog = activityLogCaptor.getValue();
@@ -5,7 +5,7 @@ import static org.mockito.Mockito.when;
 
 import io.flowinquiry.modules.collab.domain.ActivityLog;
 import io.flowinquiry.modules.collab.domain.EntityType;
-import io.flowinquiry.modules.collab.repository.ActivityLogRepository;
+import io.flowinquiry.modules.collab.service.ActivityLogWriter;
 import io.flowinquiry.modules.teams.domain.Team;
 import io.flowinquiry.modules.teams.repository.TeamRepository;
 import io.flowinquiry.modules.teams.service.event.RemoveUserOutOfTeamEvent;
@@ -30,7 +30,7 @@ public class RemoveUserOutOfTeamNotificationEventListenerTest {
 
     @Mock private UserRepository userRepository;
 
-    @Mock private ActivityLogRepository activityLogRepository;
+    @Mock private ActivityLogWriter activityLogWriter;
 
     private RemoveUserOutOfTeamNotificationEventListener listener;
 
@@ -38,7 +38,7 @@ public class RemoveUserOutOfTeamNotificationEventListenerTest {
     public void setup() {
         listener =
                 new RemoveUserOutOfTeamNotificationEventListener(
-                        teamRepository, userRepository, activityLogRepository);
+                        teamRepository, userRepository, activityLogWriter);
     }
 
     @Test
@@ -70,7 +70,7 @@ public class RemoveUserOutOfTeamNotificationEventListenerTest {
 
             ArgumentCaptor<ActivityLog> activityLogCaptor =
                     ArgumentCaptor.forClass(ActivityLog.class);
-            verify(activityLogRepository).save(activityLogCaptor.capture());
+            verify(activityLogWriter).write(activityLogCaptor.capture());
 
             ActivityLog capturedActivityLog = activityLogCaptor.getValue();
             assert capturedActivityLog.getEntityId().equals(teamId);
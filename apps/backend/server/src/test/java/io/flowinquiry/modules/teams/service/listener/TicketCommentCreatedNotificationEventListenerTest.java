@@ -12,8 +12,8 @@ import io.flowinquiry.modules.collab.domain.ActivityLog;
 import io.flowinquiry.modules.collab.domain.EntityType;
 import io.flowinquiry.modules.collab.domain.Notification;
 import io.flowinquiry.modules.collab.domain.NotificationType;
-import io.flowinquiry.modules.collab.repository.ActivityLogRepository;
 import io.flowinquiry.modules.collab.repository.NotificationRepository;
+import io.flowinquiry.modules.collab.service.ActivityLogWriter;
 import io.flowinquiry.modules.collab.service.dto.CommentDTO;
 import io.flowinquiry.modules.shared.controller.SseController;
 import io.flowinquiry.modules.shared.domain.EventPayloadType;
@@ -45,7 +45,7 @@ public class TicketCommentCreatedNotificationEventListenerTest {
 
     @Mock private NotificationRepository notificationRepository;
 
-    @Mock private ActivityLogRepository activityLogRepository;
+    @Mock private ActivityLogWriter activityLogWriter;
 
     @Mock private SseController sseController;
 
@@ -59,7 +59,7 @@ public class TicketCommentCreatedNotificationEventListenerTest {
                         ticketService,
                         teamRepository,
                         notificationRepository,
-                        activityLogRepository,
+                        activityLogWriter,
                         sseController);
     }
 
@@ -166,7 +166,7 @@ public class TicketCommentCreatedNotificationEventListenerTest {
                         anyLong(), eq(EventPayloadType.NOTIFICATION), any(Notification.class));
 
         ArgumentCaptor<ActivityLog> activityLogCaptor = ArgumentCaptor.forClass(ActivityLog.class);
-        verify(activityLogRepository).save(activityLogCaptor.capture());
+        verify(activityLogWriter).write(activityLogCaptor.capture());
 
         ActivityLog capturedActivityLog = activityLogCaptor.getValue();
         assert capturedActivityLog.getEntityId().equals(teamId);
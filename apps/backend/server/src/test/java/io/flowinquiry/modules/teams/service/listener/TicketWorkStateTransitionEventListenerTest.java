@@ -5,7 +5,7 @@ import static org.mockito.Mockito.when;
 
 import io.flowinquiry.modules.collab.domain.ActivityLog;
 import io.flowinquiry.modules.collab.domain.EntityType;
-import io.flowinquiry.modules.collab.repository.ActivityLogRepository;
+import io.flowinquiry.modules.collab.service.ActivityLogWriter;
 import io.flowinquiry.modules.teams.domain.Team;
 import io.flowinquiry.modules.teams.domain.Ticket;
 import io.flowinquiry.modules.teams.domain.WorkflowState;
@@ -14,6 +14,7 @@ import io.flowinquiry.modules.teams.repository.WorkflowStateRepository;
 import io.flowinquiry.modules.teams.service.WorkflowTransitionHistoryService;
 import io.flowinquiry.modules.teams.service.event.TicketWorkStateTransitionEvent;
 import io.flowinquiry.modules.usermanagement.domain.User;
+import io.flowinquiry.modules.usermanagement.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,7 +27,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 public class TicketWorkStateTransitionEventListenerTest {
 
-    @Mock private ActivityLogRepository activityLogRepository;
+    @Mock private ActivityLogWriter activityLogWriter;
 
     @Mock private TicketRepository ticketRepository;
 
@@ -34,16 +35,19 @@ public class TicketWorkStateTransitionEventListenerTest {
 
     @Mock private WorkflowTransitionHistoryService workflowTransitionHistoryService;
 
+    @Mock private UserRepository userRepository;
+
     private TicketWorkStateTransitionEventListener listener;
 
     @BeforeEach
     public void setup() {
         listener =
                 new TicketWorkStateTransitionEventListener(
-                        activityLogRepository,
+                        activityLogWriter,
                         ticketRepository,
                         workflowStateRepository,
-                        workflowTransitionHistoryService);
+                        workflowTransitionHistoryService,
+                        userRepository);
     }
 
     @Test
@@ -88,7 +92,7 @@ public class TicketWorkStateTransitionEventListenerTest {
         verify(ticketRepository).findById(ticketId);
 
         ArgumentCaptor<ActivityLog> activityLogCaptor = ArgumentCaptor.forClass(ActivityLog.class);
-        verify(activityLogRepository).save(activityLogCaptor.capture());
+        verify(activityLogWriter).write(activityLogCaptor.capture());
 
         ActivityLog capturedActivityLog = activityLogCaptor.getValue();
         assert capturedActivityLog.getEntityId().equals(teamId);
@@ -0,0 +1,114 @@
+package io.flowinquiry.modules.teams.service.sla;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.flowinquiry.config.FlowInquiryProperties;
+import io.flowinquiry.modules.teams.service.WorkflowTransitionHistoryService;
+import io.flowinquiry.modules.teams.service.dto.SlaDeadlineDTO;
+import io.flowinquiry.modules.teams.service.event.SlaDueDateScheduledEvent;
+import io.flowinquiry.modules.teams.service.job.SendNotificationForTicketsViolateSlaJob;
+import io.flowinquiry.modules.teams.service.job.SendWarningForUpcomingTicketsViolateSlaJob;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class SlaTimerServiceTest {
+
+    @Mock private WorkflowTransitionHistoryService workflowTransitionHistoryService;
+
+    @Mock private SendWarningForUpcomingTicketsViolateSlaJob warningJob;
+
+    @Mock private SendNotificationForTicketsViolateSlaJob violationJob;
+
+    private SlaTimerService slaTimerService;
+
+    private Instant now;
+
+    @BeforeEach
+    public void setup() {
+        FlowInquiryProperties properties = new FlowInquiryProperties();
+        properties.getSla().setBatchSize(2);
+        slaTimerService =
+                new SlaTimerService(
+                        workflowTransitionHistoryService, warningJob, violationJob, properties);
+        now = Instant.now();
+    }
+
+    @Test
+    public void shouldWarnAndEscalateAtTheirDueTime() {
+        Instant due = now.plus(Duration.ofHours(2));
+        slaTimerService.onSlaDueDateScheduled(new SlaDueDateScheduledEvent(this, 1L, due));
+
+        slaTimerService.fireDue(due.minus(Duration.ofMinutes(31)));
+        verify(warningJob, never()).run(any());
+
+        slaTimerService.fireDue(due.minus(Duration.ofMinutes(30)));
+        verify(warningJob).run(List.of(1L));
+        verify(violationJob, never()).run(any());
+
+        slaTimerService.fireDue(due);
+        verify(violationJob).run(List.of(1L));
+        assertThat(slaTimerService.size()).isZero();
+    }
+
+    @Test
+    public void shouldEscalateOverdueTransitionsLoadedOnResyncInBatches() {
+        Instant overdue = now.minus(Duration.ofMinutes(5));
+        when(workflowTransitionHistoryService.getSlaDeadlines(any()))
+                .thenReturn(
+                        List.of(
+                                new SlaDeadlineDTO(1L, overdue, null),
+                                new SlaDeadlineDTO(2L, overdue, null),
+                                new SlaDeadlineDTO(3L, overdue, null)));
+
+        slaTimerService.resync(now);
+        slaTimerService.fireDue(now.plusSeconds(1));
+
+        verify(violationJob).run(List.of(1L, 2L));
+        verify(violationJob).run(List.of(3L));
+        verify(warningJob, never()).run(any());
+    }
+
+    @Test
+    public void shouldNotScheduleWarningsSentAlready() {
+        Instant due = now.plus(Duration.ofMinutes(10));
+        when(workflowTransitionHistoryService.getSlaDeadlines(any()))
+                .thenReturn(
+                        List.of(
+                                new SlaDeadlineDTO(1L, due, now.minusSeconds(60)),
+                                new SlaDeadlineDTO(2L, due, null)));
+
+        slaTimerService.resync(now);
+        slaTimerService.fireDue(now.plusSeconds(1));
+
+        verify(warningJob).run(List.of(2L));
+    }
+
+    @Test
+    public void shouldKeepFiringOtherBatchesWhenOneFails() {
+        Instant overdue = now.minus(Duration.ofMinutes(5));
+        when(workflowTransitionHistoryService.getSlaDeadlines(any()))
+                .thenReturn(
+                        List.of(
+                                new SlaDeadlineDTO(1L, overdue, null),
+                                new SlaDeadlineDTO(2L, overdue, null),
+                                new SlaDeadlineDTO(3L, overdue, null)));
+        doThrow(new IllegalStateException("database down")).when(violationJob).run(List.of(1L, 2L));
+
+        slaTimerService.resync(now);
+        slaTimerService.fireDue(now.plusSeconds(1));
+
+        verify(violationJob).run(List.of(3L));
+    }
+}
@@ -0,0 +1,88 @@
+package io.flowinquiry.modules.teams.service.sla;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class TimerWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    public void shouldExpireTimersAtTheirTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(1000, START);
+        wheel.schedule("soon", START + 5_000);
+        wheel.schedule("hour", START + 3_600_000);
+        wheel.schedule("week", START + 7 * 86_400_000L);
+
+        assertThat(wheel.advance(START + 4_999)).isEmpty();
+        assertThat(wheel.advance(START + 5_000)).containsExactly("soon");
+        assertThat(wheel.advance(START + 3_599_999)).isEmpty();
+        assertThat(wheel.advance(START + 3_600_000)).containsExactly("hour");
+        assertThat(wheel.advance(START + 7 * 86_400_000L - 1)).isEmpty();
+        assertThat(wheel.advance(START + 7 * 86_400_000L)).containsExactly("week");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    public void shouldExpireTimersBeyondTheWheelsReach() {
+        TimerWheel<String> wheel = new TimerWheel<>(1000, START);
+        long twoYears = 2 * 365 * 86_400_000L;
+        wheel.schedule("later", START + twoYears);
+
+        assertThat(wheel.advance(START + twoYears - 1000)).isEmpty();
+        assertThat(wheel.advance(START + twoYears)).containsExactly("later");
+    }
+
+    @Test
+    public void shouldExpireOverdueTimersOnNextAdvance() {
+        TimerWheel<String> wheel = new TimerWheel<>(1000, START);
+        wheel.schedule("overdue", START - 60_000);
+
+        assertThat(wheel.advance(START)).containsExactly("overdue");
+    }
+
+    @Test
+    public void shouldReplaceAndCancelTimers() {
+        TimerWheel<String> wheel = new TimerWheel<>(1000, START);
+        wheel.schedule("moved", START + 10_000);
+        wheel.schedule("moved", START + 100_000);
+        wheel.schedule("cancelled", START + 10_000);
+        wheel.cancel("cancelled");
+
+        assertThat(wheel.advance(START + 10_000)).isEmpty();
+        assertThat(wheel.contains("moved")).isTrue();
+        assertThat(wheel.advance(START + 100_000)).containsExactly("moved");
+    }
+
+    @Test
+    public void shouldExpireEveryTimerExactlyOnceAtItsTick() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(1000, START);
+        Random random = new Random(42);
+        long[] due = new long[2000];
+        for (int i = 0; i < due.length; i++) {
+            due[i] = START + 1000L * random.nextInt(400_000);
+            wheel.schedule(i, due[i]);
+        }
+
+        List<Integer> expired = new ArrayList<>();
+        // Advance in uneven steps, checking nothing expires early or late
+        long now = START;
+        while (expired.size() < due.length) {
+            now += 1000L * (1 + random.nextInt(5000));
+            for (Integer key : wheel.advance(now)) {
+                assertThat(due[key]).isLessThanOrEqualTo(now);
+                expired.add(key);
+            }
+            for (int i = 0; i < due.length; i++) {
+                if (due[i] <= now) {
+                    assertThat(wheel.contains(i)).isFalse();
+                }
+            }
+        }
+        assertThat(expired).doesNotHaveDuplicates().hasSize(due.length);
+    }
+}
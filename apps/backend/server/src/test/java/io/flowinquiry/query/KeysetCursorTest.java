@@ -0,0 +1,135 @@
+package io.flowinquiry.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+public class KeysetCursorTest {
+
+    private static final Sort.Order NEWEST_FIRST = Sort.Order.desc("createdAt");
+
+    @Test
+    public void shouldDecodeWhatItEncodes() {
+        KeysetCursor cursor =
+                KeysetCursor.of(NEWEST_FIRST, Instant.parse("2025-01-29T10:40:00Z"), 42L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.order()).isEqualTo(NEWEST_FIRST);
+        assertThat(decoded.value()).isEqualTo("2025-01-29T10:40:00Z");
+    }
+
+    @Test
+    public void shouldKeepNullAndEmptyValuesApart() {
+        KeysetCursor nullValue = KeysetCursor.of(Sort.Order.asc("team.name"), null, 7L);
+        KeysetCursor emptyValue = KeysetCursor.of(Sort.Order.asc("team.name"), "", 7L);
+
+        assertThat(KeysetCursor.decode(nullValue.encode()).value()).isNull();
+        assertThat(KeysetCursor.decode(emptyValue.encode()).value()).isEmpty();
+    }
+
+    @Test
+    public void shouldRejectInvalidCursors() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("Y3JlYXRlZEF0"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldPointTheNextCursorAtTheLastRowKept() {
+        List<Long> rows = List.of(10L, 9L, 8L, 7L);
+
+        CursorSlice<Long> slice =
+                CursorSlice.of(
+                        rows, 3, Sort.Order.desc("id"), id -> id, id -> id, Function.identity());
+
+        assertThat(slice.getContent()).containsExactly(10L, 9L, 8L);
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(KeysetCursor.decode(slice.getNextCursor()))
+                .isEqualTo(new KeysetCursor("id", Sort.Direction.DESC, "8", 8L));
+    }
+
+    @Test
+    public void shouldHaveNoNextCursorOnTheLastSlice() {
+        CursorSlice<Long> slice =
+                CursorSlice.of(
+                        List.of(2L, 1L),
+                        3,
+                        Sort.Order.desc("id"),
+                        id -> id,
+                        id -> id,
+                        Function.identity());
+
+        assertThat(slice.getContent()).containsExactly(2L, 1L);
+        assertThat(slice.hasNext()).isFalse();
+        assertThat(slice.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void shouldRejectSizesOutOfRange() {
+        assertThatThrownBy(
+                        () ->
+                                CursorSlice.of(
+                                        List.of(1L),
+                                        0,
+                                        Sort.Order.desc("id"),
+                                        id -> id,
+                                        id -> id,
+                                        Function.identity()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorSlice.checkSize(0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorSlice.checkSize(Integer.MAX_VALUE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(CursorSlice.checkSize(CursorSlice.MAX_SIZE)).isEqualTo(CursorSlice.MAX_SIZE);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void shouldLeftJoinNestedSortProperties() {
+        Root root = mock(Root.class);
+        Join iteration = mock(Join.class);
+        Path name = mock(Path.class);
+        when(root.getJoins()).thenReturn(Set.of());
+        when(root.join("iteration", JoinType.LEFT)).thenReturn(iteration);
+        when(iteration.get("name")).thenReturn(name);
+
+        assertThat(KeysetCursor.sortKey(root, "iteration.name")).isSameAs(name);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void shouldReuseTheLeftJoinsOfTheQuery() {
+        Root root = mock(Root.class);
+        Join assignUser = mock(Join.class);
+        Attribute attribute = mock(Attribute.class);
+        Path firstName = mock(Path.class);
+        when(attribute.getName()).thenReturn("assignUser");
+        when(assignUser.getAttribute()).thenReturn(attribute);
+        when(assignUser.getJoinType()).thenReturn(JoinType.LEFT);
+        when(assignUser.get("firstName")).thenReturn(firstName);
+        when(root.getJoins()).thenReturn(Set.of(assignUser));
+
+        assertThat(KeysetCursor.sortKey(root, "assignUser.firstName")).isSameAs(firstName);
+        verify(root, never()).join(anyString(), any(JoinType.class));
+    }
+}
@@ -0,0 +1,214 @@
+package io.flowinquiry.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.flowinquiry.it.IntegrationTest;
+import io.flowinquiry.modules.collab.service.ActivityLogService;
+import io.flowinquiry.modules.collab.service.NotificationService;
+import io.flowinquiry.modules.collab.service.dto.ActivityLogDTO;
+import io.flowinquiry.modules.collab.service.dto.NotificationDTO;
+import io.flowinquiry.modules.teams.domain.Ticket;
+import io.flowinquiry.modules.teams.repository.TicketRepository;
+import io.flowinquiry.modules.teams.service.TicketService;
+import io.flowinquiry.modules.teams.service.dto.TicketDTO;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+@IntegrationTest
+@Transactional
+public class KeysetPaginationIT {
+
+    private static final Logger log = LoggerFactory.getLogger(KeysetPaginationIT.class);
+
+    private static final long USER_ID = 1L;
+
+    private static final String TENANT_ID = "00000000-0000-0000-0000-000000000001";
+
+    @Autowired private TicketService ticketService;
+    @Autowired private TicketRepository ticketRepository;
+    @Autowired private NotificationService notificationService;
+    @Autowired private ActivityLogService activityLogService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldScrollThroughEveryTicketOnce() {
+        List<Long> allIds = ticketRepository.findAll().stream().map(Ticket::getId).toList();
+
+        // Unique keys, keys shared by many tickets, keys that are often null and keys of
+        // associations that are often null
+        for (Sort sort :
+                List.of(
+                        Sort.by(Sort.Direction.DESC, "createdAt"),
+                        Sort.by(Sort.Direction.ASC, "priority"),
+                        Sort.by(Sort.Direction.ASC, "estimatedCompletionDate"),
+                        Sort.by(Sort.Direction.DESC, "estimatedCompletionDate"),
+                        Sort.by(Sort.Direction.ASC, "team.name"),
+                        Sort.by(Sort.Direction.ASC, "iteration.name"),
+                        Sort.by(Sort.Direction.DESC, "iteration.name"),
+                        Sort.by(Sort.Direction.ASC, "project.name"),
+                        Sort.by(Sort.Direction.DESC, "assignUser.firstName"))) {
+            List<Long> scrolled =
+                    scrollAll(
+                            cursor -> ticketService.scrollTickets(null, cursor, sort, 4),
+                            TicketDTO::getId);
+
+            assertThat(scrolled).as("Sorted by %s", sort).doesNotHaveDuplicates();
+            assertThat(scrolled)
+                    .as("Sorted by %s", sort)
+                    .containsExactlyInAnyOrderElementsOf(allIds);
+        }
+    }
+
+    @Test
+    void shouldScrollTicketsInTheOrderOfOffsetPagination() {
+        QueryDTO queryDTO = new QueryDTO();
+        queryDTO.setFilters(List.of(new Filter("team.id", FilterOperator.EQ, 1L)));
+        Sort sort =
+                Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+
+        List<Long> offsetIds =
+                ticketService.findTickets(queryDTO, Pageable.unpaged(sort)).stream()
+                        .map(TicketDTO::getId)
+                        .toList();
+        List<Long> scrolledIds =
+                scrollAll(
+                        cursor -> ticketService.scrollTickets(queryDTO, cursor, sort, 3),
+                        TicketDTO::getId);
+
+        assertThat(scrolledIds).isNotEmpty().containsExactlyElementsOf(offsetIds);
+    }
+
+    @Test
+    void shouldScrollActivitiesInTheOrderOfOffsetPagination() {
+        List<Long> offsetIds =
+                activityLogService
+                        .getActivitiesForUser(
+                                USER_ID,
+                                PageRequest.of(
+                                        0, 1000, Sort.by(Sort.Direction.DESC, "createdAt", "id")))
+                        .stream()
+                        .map(ActivityLogDTO::getId)
+                        .toList();
+        List<Long> scrolledIds =
+                scrollAll(
+                        cursor -> activityLogService.scrollActivitiesForUser(USER_ID, cursor, 2),
+                        ActivityLogDTO::getId);
+
+        assertThat(scrolledIds).containsExactlyElementsOf(offsetIds);
+    }
+
+    /**
+     * Latency of page 1 and page 1000 of a user's notifications, with offset and with keyset
+     * pagination. Offset pagination reads and skips every row before the page, and counts them all
+     * for the page total; the cursor seeks straight to the page through the (user, created_at, id)
+     * index. Logs the numbers.
+     */
+    @Test
+    void benchmarkFirstAndThousandthPage() {
+        int pageSize = 20;
+        int notifications = 1000 * pageSize + pageSize;
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO fw_notification (content, user_id, is_read, notification_type,"
+                        + " created_at, tenant_id) VALUES (?, ?, false, 'INFO', ?, ?::uuid)",
+                IntStream.range(0, notifications)
+                        .mapToObj(
+                                i ->
+                                        new Object[] {
+                                            "Notification " + i,
+                                            USER_ID,
+                                            Timestamp.from(start.plusSeconds(i / 3)),
+                                            TENANT_ID
+                                        })
+                        .toList());
+        jdbcTemplate.execute("ANALYZE fw_notification");
+        Pageable firstPage =
+                PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        Pageable thousandthPage = firstPage.withPage(999);
+
+        // The cursor of the thousandth page is the last row of the page before it
+        NotificationDTO lastBefore =
+                notificationService
+                        .getNotificationsForUser(
+                                USER_ID, PageRequest.of(999 * pageSize - 1, 1, firstPage.getSort()))
+                        .getContent()
+                        .getFirst();
+        String thousandthCursor =
+                KeysetCursor.of(
+                                Sort.Order.desc("createdAt"),
+                                lastBefore.getCreatedAt(),
+                                lastBefore.getId())
+                        .encode();
+
+        for (int warmUp = 0; warmUp < 20; warmUp++) {
+            notificationService.getNotificationsForUser(USER_ID, thousandthPage);
+            notificationService.scrollNotificationsForUser(USER_ID, thousandthCursor, pageSize);
+        }
+
+        long offsetFirst =
+                time(() -> notificationService.getNotificationsForUser(USER_ID, firstPage));
+        long offsetThousandth =
+                time(() -> notificationService.getNotificationsForUser(USER_ID, thousandthPage));
+        long keysetFirst =
+                time(() -> notificationService.scrollNotificationsForUser(USER_ID, null, pageSize));
+        long keysetThousandth =
+                time(
+                        () ->
+                                notificationService.scrollNotificationsForUser(
+                                        USER_ID, thousandthCursor, pageSize));
+
+        log.info(
+                "Notifications page 1 / page 1000 over {} rows: offset {} / {} µs, keyset {} / {}"
+                        + " µs",
+                notifications,
+                offsetFirst,
+                offsetThousandth,
+                keysetFirst,
+                keysetThousandth);
+        assertThat(
+                        notificationService
+                                .scrollNotificationsForUser(USER_ID, thousandthCursor, pageSize)
+                                .map(NotificationDTO::getId)
+                                .getContent())
+                .containsExactlyElementsOf(
+                        notificationService
+                                .getNotificationsForUser(USER_ID, thousandthPage)
+                                .map(NotificationDTO::getId)
+                                .getContent());
+    }
+
+    /** Average latency in microseconds over 50 runs. */
+    private static long time(Runnable query) {
+        int runs = 50;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - start) / runs / 1000;
+    }
+
+    private static <T> List<Long> scrollAll(
+            Function<String, CursorSlice<T>> scroll, Function<T, Long> id) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorSlice<T> slice = scroll.apply(cursor);
+            slice.getContent().forEach(row -> ids.add(id.apply(row)));
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+}
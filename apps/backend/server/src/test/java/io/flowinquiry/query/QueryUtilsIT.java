@@ -0,0 +1,147 @@
+package io.flowinquiry.query;
+
+import static io.flowinquiry.query.QueryUtils.createSpecification;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.flowinquiry.it.IntegrationTest;
+import io.flowinquiry.modules.teams.domain.Ticket;
+import io.flowinquiry.modules.teams.domain.TicketPriority;
+import io.flowinquiry.modules.teams.domain.Workflow;
+import io.flowinquiry.modules.teams.repository.TicketRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+@IntegrationTest
+@Transactional
+public class QueryUtilsIT {
+
+    @Autowired private TicketRepository ticketRepository;
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Test
+    void shouldJoinEachAssociationPathOnce() {
+        Specification<Ticket> spec =
+                createSpecification(
+                        andQuery(
+                                new Filter("project.id", FilterOperator.EQ, 1L),
+                                new Filter("project.name", FilterOperator.LK, ""),
+                                new Filter("iteration.id", FilterOperator.NE, null)));
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ticket> query = cb.createQuery(Ticket.class);
+        Root<Ticket> root = query.from(Ticket.class);
+        query.where(spec.toPredicate(root, query, cb));
+
+        assertThat(root.getJoins()).hasSize(2);
+        assertThat(entityManager.createQuery(query).getResultList())
+                .allMatch(ticket -> ticket.getProject().getId().equals(1L))
+                .allMatch(ticket -> ticket.getIteration() != null);
+    }
+
+    @Test
+    void shouldJoinCollectionPathsOncePerFilter() {
+        // Workflow 1 has both states 1 and 5, so each filter must match a different state row
+        Specification<Workflow> spec =
+                createSpecification(
+                        andQuery(
+                                new Filter("states.id", FilterOperator.EQ, 1L),
+                                new Filter("states.id", FilterOperator.EQ, 5L)));
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Workflow> query = cb.createQuery(Workflow.class);
+        Root<Workflow> root = query.from(Workflow.class);
+        query.where(spec.toPredicate(root, query, cb));
+
+        assertThat(root.getJoins()).hasSize(2);
+        assertThat(entityManager.createQuery(query).getResultList())
+                .extracting(Workflow::getId)
+                .contains(1L);
+    }
+
+    @Test
+    void shouldReuseCompiledPlanWithDifferentValues() {
+        List<Ticket> allTickets = ticketRepository.findAll();
+        CacheStats before = QueryPlan.stats();
+
+        for (TicketPriority priority : TicketPriority.values()) {
+            List<Ticket> tickets =
+                    ticketRepository.findAll(
+                            createSpecification(
+                                    andQuery(
+                                            new Filter(
+                                                    "priority",
+                                                    FilterOperator.EQ,
+                                                    priority.name()))));
+
+            assertThat(tickets)
+                    .hasSize(
+                            (int)
+                                    allTickets.stream()
+                                            .filter(ticket -> ticket.getPriority() == priority)
+                                            .count());
+        }
+
+        // One compilation at most (none if an earlier test already cached the shape), every
+        // other query hits the cached plan
+        CacheStats used = QueryPlan.stats().minus(before);
+        assertThat(used.missCount()).isLessThanOrEqualTo(1);
+        assertThat(used.hitCount()).isGreaterThanOrEqualTo(TicketPriority.values().length - 1L);
+    }
+
+    @Test
+    void shouldConvertEnumNamesAndSkipInvalidOnes() {
+        List<Ticket> tickets =
+                ticketRepository.findAll(
+                        createSpecification(
+                                andQuery(
+                                        new Filter(
+                                                "priority",
+                                                FilterOperator.IN,
+                                                List.of("High", "NotAPriority")))));
+        assertThat(tickets).allMatch(ticket -> ticket.getPriority() == TicketPriority.High);
+
+        assertThat(
+                        ticketRepository.findAll(
+                                createSpecification(
+                                        andQuery(
+                                                new Filter(
+                                                        "priority",
+                                                        FilterOperator.EQ,
+                                                        "NotAPriority")))))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldRejectRangeOperatorOnNonComparableField() {
+        Specification<Ticket> spec =
+                createSpecification(andQuery(new Filter("project", FilterOperator.GT, 1L)));
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ticket> query = cb.createQuery(Ticket.class);
+        Root<Ticket> root = query.from(Ticket.class);
+
+        assertThatThrownBy(() -> spec.toPredicate(root, query, cb))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("comparable");
+    }
+
+    private QueryDTO andQuery(Filter... filters) {
+        GroupFilter group = new GroupFilter();
+        group.setLogicalOperator(LogicalOperator.AND);
+        group.setFilters(List.of(filters));
+        QueryDTO queryDTO = new QueryDTO();
+        queryDTO.setGroups(List.of(group));
+        return queryDTO;
+    }
+}
@@ -0,0 +1,92 @@
+package io.flowinquiry.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.flowinquiry.it.IntegrationTest;
+import io.flowinquiry.modules.teams.repository.TicketRepository;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@IntegrationTest
+@Transactional
+public class ReportEngineIT {
+
+    @Autowired private ReportEngine reportEngine;
+
+    @Autowired private TicketRepository ticketRepository;
+
+    @Test
+    void shouldGroupBySeveralFieldsOfTheSameAssociation() {
+        AggregationQuery query = new AggregationQuery();
+        query.setEntity("Ticket");
+        query.setGroupByFields(List.of("assignUser.firstName", "assignUser.lastName"));
+        query.setAggregations(
+                List.of(new AggregationField("id", AggregationFunction.COUNT, "ticketCount")));
+
+        List<AggregationResult> results = reportEngine.aggregate(query);
+
+        long total =
+                results.stream()
+                        .mapToLong(row -> row.getMetrics().get("ticketCount").longValue())
+                        .sum();
+        assertThat(total).isEqualTo(ticketRepository.count());
+        assertThat(results)
+                .allMatch(row -> row.getDimensions().containsKey("assignUser.firstName"))
+                .allMatch(row -> row.getDimensions().containsKey("assignUser.lastName"));
+    }
+
+    @Test
+    void shouldResolveMultiLevelJoinPaths() {
+        AggregationQuery query = new AggregationQuery();
+        query.setEntity("Ticket");
+        query.setGroupByFields(List.of("project.team.organization.name", "project.team.name"));
+        query.setAggregations(
+                List.of(new AggregationField("id", AggregationFunction.COUNT, "ticketCount")));
+        query.setSorts(List.of(new SortField("ticketCount", SortDirection.DESC)));
+
+        List<AggregationResult> results = reportEngine.aggregate(query);
+
+        assertThat(results).isNotEmpty();
+        assertThat(results)
+                .extracting(row -> row.getMetrics().get("ticketCount").longValue())
+                .isSortedAccordingTo((a, b) -> Long.compare(b, a));
+    }
+
+    @Test
+    void shouldAggregateComputedFields() {
+        AggregationQuery query = new AggregationQuery();
+        query.setEntity("Ticket");
+        query.setGroupByFields(List.of("isCompleted"));
+        query.setAggregations(
+                List.of(
+                        new AggregationField("id", AggregationFunction.COUNT, "ticketCount"),
+                        new AggregationField("one", AggregationFunction.SUM, "ones")));
+
+        List<AggregationResult> results =
+                reportEngine.aggregate(query, Map.of("one", (cb, root) -> cb.literal(1L)));
+
+        assertThat(results)
+                .isNotEmpty()
+                .allSatisfy(
+                        row ->
+                                assertThat(row.getMetrics().get("ones").longValue())
+                                        .isEqualTo(
+                                                row.getMetrics().get("ticketCount").longValue()));
+    }
+
+    @Test
+    void shouldRejectUnknownEntity() {
+        AggregationQuery query = new AggregationQuery();
+        query.setEntity("NoSuchEntity");
+        query.setGroupByFields(List.of("id"));
+        query.setAggregations(List.of(new AggregationField("id", AggregationFunction.COUNT, "c")));
+
+        assertThatThrownBy(() -> reportEngine.aggregate(query))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("NoSuchEntity");
+    }
+}
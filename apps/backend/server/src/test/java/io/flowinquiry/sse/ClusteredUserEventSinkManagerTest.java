@@ -0,0 +1,179 @@
+package io.flowinquiry.sse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.flowinquiry.config.FlowInquiryProperties;
+import io.flowinquiry.modules.shared.domain.EventPayload;
+import io.flowinquiry.modules.shared.domain.EventPayloadType;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+public class ClusteredUserEventSinkManagerTest {
+
+    private InMemorySseEventBroker broker;
+
+    private ClusteredUserEventSinkManager nodeA;
+
+    private ClusteredUserEventSinkManager nodeB;
+
+    @BeforeEach
+    public void setup() {
+        FlowInquiryProperties properties = new FlowInquiryProperties();
+        properties.getSse().setReplaySize(3);
+        // Two nodes sharing one broker
+        broker = new InMemorySseEventBroker();
+        nodeA = new ClusteredUserEventSinkManager(broker, properties);
+        nodeB = new ClusteredUserEventSinkManager(broker, properties);
+    }
+
+    @Test
+    public void shouldDeliverEventsEmittedOnAnotherNode() throws Exception {
+        List<UserEvent> received = new CopyOnWriteArrayList<>();
+        Disposable connection = nodeB.getSink(1L, List.of(), null).subscribe(received::add);
+
+        nodeA.emitToUser(1L, new EventPayload<>(EventPayloadType.NOTIFICATION, "hello"));
+        nodeA.emitToUser(2L, new EventPayload<>(EventPayloadType.NOTIFICATION, "other user"));
+
+        awaitSize(received, 1);
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0).id()).isNotNull();
+        assertThat(received.get(0).payload().getData()).isEqualTo("hello");
+        connection.dispose();
+    }
+
+    @Test
+    public void shouldReplayEventsAfterLastEventIdOnReconnect() throws Exception {
+        List<UserEvent> firstConnection = new CopyOnWriteArrayList<>();
+        Disposable connection = nodeA.getSink(1L, List.of(), null).subscribe(firstConnection::add);
+        nodeA.emitToUser(1L, new EventPayload<>(EventPayloadType.NOTIFICATION, "first"));
+        awaitSize(firstConnection, 1);
+        connection.dispose();
+
+        // Emitted while the client is disconnected
+        nodeA.emitToUser(1L, new EventPayload<>(EventPayloadType.NOTIFICATION, "second"));
+        nodeA.emitToUser(1L, new EventPayload<>(EventPayloadType.NOTIFICATION, "third"));
+
+        // The client reconnects to the other node
+        List<UserEvent> secondConnection = new CopyOnWriteArrayList<>();
+        connection =
+                nodeB.getSink(1L, List.of(), firstConnection.get(0).id())
+                        .subscribe(secondConnection::add);
+
+        awaitSize(secondConnection, 2);
+        assertThat(secondConnection)
+                .extracting(event -> (Object) event.payload().getData())
+                .containsExactly("second", "third");
+        connection.dispose();
+    }
+
+    @Test
+    public void shouldEvictChannelWhenLastConnectionCloses() throws Exception {
+        Disposable first = nodeA.getSink(1L, List.of(), null).subscribe();
+        Disposable second = nodeA.getSink(1L, List.of(), null).subscribe();
+        assertThat(nodeA.connectedUsers()).isEqualTo(1);
+
+        first.dispose();
+        assertThat(nodeA.connectedUsers()).isEqualTo(1);
+
+        second.dispose();
+        assertThat(nodeA.connectedUsers()).isZero();
+    }
+
+    @Test
+    public void shouldBroadcastToConnectedUsersOfEveryNode() throws Exception {
+        List<UserEvent> userOne = new CopyOnWriteArrayList<>();
+        List<UserEvent> userTwo = new CopyOnWriteArrayList<>();
+        Disposable one = nodeA.getSink(1L, List.of(), null).subscribe(userOne::add);
+        Disposable two = nodeB.getSink(2L, List.of(), null).subscribe(userTwo::add);
+
+        nodeA.broadcast(new EventPayload<>(EventPayloadType.NOTIFICATION, "everyone"));
+
+        awaitSize(userOne, 1);
+        awaitSize(userTwo, 1);
+        assertThat(userOne.get(0).id()).isEqualTo(userTwo.get(0).id());
+        one.dispose();
+        two.dispose();
+    }
+
+    @Test
+    public void shouldDeliverTopicEventsOnceToSubscribersOfEveryNode() throws Exception {
+        String team = SseTopics.team(7L);
+        List<UserEvent> userOne = new CopyOnWriteArrayList<>();
+        List<UserEvent> userTwo = new CopyOnWriteArrayList<>();
+        List<UserEvent> userThree = new CopyOnWriteArrayList<>();
+        Disposable one = nodeA.getSink(1L, List.of(team), null).subscribe(userOne::add);
+        Disposable two = nodeB.getSink(2L, List.of(team), null).subscribe(userTwo::add);
+        Disposable three =
+                nodeB.getSink(3L, List.of(SseTopics.team(8L)), null).subscribe(userThree::add);
+
+        nodeA.emitToTopic(team, new EventPayload<>(EventPayloadType.UPDATED_EPIC, "epic"));
+        nodeA.emitToUser(3L, new EventPayload<>(EventPayloadType.NOTIFICATION, "marker"));
+
+        awaitSize(userOne, 1);
+        awaitSize(userTwo, 1);
+        awaitSize(userThree, 1);
+        assertThat(userOne.get(0).payload().getData()).isEqualTo("epic");
+        assertThat(userTwo.get(0).id()).isEqualTo(userOne.get(0).id());
+        assertThat(userThree)
+                .extracting(event -> (Object) event.payload().getData())
+                .containsExactly("marker");
+        one.dispose();
+        two.dispose();
+        three.dispose();
+    }
+
+    @Test
+    public void shouldApplySubscriptionChangesWithoutReconnecting() throws Exception {
+        String team = SseTopics.team(7L);
+        List<UserEvent> received = new CopyOnWriteArrayList<>();
+        Disposable connection = nodeB.getSink(1L, List.of(), null).subscribe(received::add);
+
+        nodeA.subscribe(1L, team);
+        nodeA.emitToTopic(team, new EventPayload<>(EventPayloadType.UPDATED_EPIC, "joined"));
+        awaitSize(received, 1);
+
+        nodeA.unsubscribe(1L, team);
+        nodeA.emitToTopic(team, new EventPayload<>(EventPayloadType.UPDATED_EPIC, "left"));
+        nodeA.emitToUser(1L, new EventPayload<>(EventPayloadType.NOTIFICATION, "marker"));
+        awaitSize(received, 2);
+
+        assertThat(received)
+                .extracting(event -> (Object) event.payload().getData())
+                .containsExactly("joined", "marker");
+        connection.dispose();
+    }
+
+    @Test
+    public void shouldReplayTopicEventsOnAnotherNode() throws Exception {
+        String team = SseTopics.team(7L);
+        List<UserEvent> firstConnection = new CopyOnWriteArrayList<>();
+        Disposable connection =
+                nodeA.getSink(1L, List.of(team), null).subscribe(firstConnection::add);
+        nodeA.emitToTopic(team, new EventPayload<>(EventPayloadType.UPDATED_EPIC, "first"));
+        awaitSize(firstConnection, 1);
+        connection.dispose();
+
+        // Emitted while the client is disconnected; the other node learned the topics on connect
+        nodeA.emitToTopic(team, new EventPayload<>(EventPayloadType.UPDATED_EPIC, "second"));
+
+        List<UserEvent> secondConnection = new CopyOnWriteArrayList<>();
+        connection =
+                nodeB.getSink(1L, List.of(team), firstConnection.get(0).id())
+                        .subscribe(secondConnection::add);
+
+        awaitSize(secondConnection, 1);
+        assertThat(secondConnection)
+                .extracting(event -> (Object) event.payload().getData())
+                .containsExactly("second");
+        connection.dispose();
+    }
+
+    private static void awaitSize(List<?> events, int size) throws InterruptedException {
+        for (int i = 0; i < 100 && events.size() < size; i++) {
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package io.flowinquiry.tenant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class TenantContextTest {
+
+    private static final UUID TENANT_A = UUID.randomUUID();
+
+    private static final UUID TENANT_B = UUID.randomUUID();
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+        TenantContext.restoreFiltering();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void shouldBeEmptyWithoutTenant() {
+        assertThat(TenantContext.getTenantId()).isEmpty();
+    }
+
+    @Test
+    public void shouldBeEmptyWhenFilteringIsSuppressed() {
+        TenantContext.setTenantId(TENANT_A);
+        TenantContext.suppressFiltering();
+
+        assertThat(TenantContext.getTenantId()).isEmpty();
+        assertThat(TenantContext.isFilterSuppressed()).isTrue();
+    }
+
+    @Test
+    public void shouldRestoreThePreviousTenantAfterNestedCalls() {
+        TenantContext.setTenantId(TENANT_A);
+
+        UUID inner =
+                TenantContext.callWithTenant(
+                        TENANT_B, () -> TenantContext.getTenantId().orElseThrow());
+        TenantContext.runWithTenant(null, () -> assertThat(TenantContext.getTenantId()).isEmpty());
+
+        assertThat(inner).isEqualTo(TENANT_B);
+        assertThat(TenantContext.getTenantId()).contains(TENANT_A);
+    }
+
+    @Test
+    public void shouldRestoreThePreviousTenantWhenTheTaskFails() {
+        assertThatThrownBy(
+                        () ->
+                                TenantContext.runWithTenant(
+                                        TENANT_A,
+                                        () -> {
+                                            throw new IllegalStateException("boom");
+                                        }))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(TenantContext.getTenantId()).isEmpty();
+    }
+
+    @Test
+    public void shouldPropagateContextsToVirtualThreads() throws Exception {
+        Authentication authentication = new TestingAuthenticationToken("user", "password");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        TenantContext.setTenantId(TENANT_A);
+        TenantAwareDelegatingTaskExecutor executor =
+                new TenantAwareDelegatingTaskExecutor(new VirtualThreadTaskExecutor("test-"));
+        CompletableFuture<UUID> seenTenant = new CompletableFuture<>();
+        CompletableFuture<Authentication> seenAuthentication = new CompletableFuture<>();
+
+        executor.execute(
+                () -> {
+                    seenTenant.complete(TenantContext.getTenantId().orElse(null));
+                    seenAuthentication.complete(
+                            SecurityContextHolder.getContext().getAuthentication());
+                });
+
+        assertThat(seenTenant.get(5, TimeUnit.SECONDS)).isEqualTo(TENANT_A);
+        assertThat(seenAuthentication.get(5, TimeUnit.SECONDS)).isSameAs(authentication);
+    }
+
+    @Test
+    public void shouldKeepTheCallerContextsWhenTheTaskRunsOnTheCallerThread() {
+        Authentication authentication = new TestingAuthenticationToken("user", "password");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        TenantContext.setTenantId(TENANT_A);
+        TenantAwareDelegatingTaskExecutor executor =
+                new TenantAwareDelegatingTaskExecutor(new SyncTaskExecutor());
+
+        executor.execute(() -> TenantContext.runWithTenant(TENANT_B, () -> {}));
+
+        // Used to be cleared once the task was done
+        assertThat(TenantContext.getTenantId()).contains(TENANT_A);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isSameAs(authentication);
+    }
+
+    @Test
+    public void shouldRunTasksWithoutContextsUnwrapped() {
+        Runnable task = () -> {};
+        Runnable[] submitted = new Runnable[1];
+        TenantAwareDelegatingTaskExecutor executor =
+                new TenantAwareDelegatingTaskExecutor(runnable -> submitted[0] = runnable);
+
+        executor.execute(task);
+
+        assertThat(submitted[0]).isSameAs(task);
+    }
+}
@@ -0,0 +1,168 @@
+package io.flowinquiry.tenant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.flowinquiry.tenant.domain.TenantScopedEntity;
+import io.flowinquiry.tenant.filter.TenantContextFilter;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Id;
+import java.util.UUID;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Runs against a session factory that never connects to a database: opening sessions and enabling
+ * filters need no connection.
+ */
+public class TenantFilterJpaDialectTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantFilterJpaDialectTest.class);
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    private static SessionFactory sessionFactory;
+
+    private final TenantFilterJpaDialect dialect = new TenantFilterJpaDialect();
+
+    @BeforeAll
+    public static void buildSessionFactory() {
+        Configuration configuration =
+                new Configuration()
+                        .addAnnotatedClass(Note.class)
+                        .setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect")
+                        .setProperty("hibernate.boot.allow_jdbc_metadata_access", "false");
+        configuration
+                .getProperties()
+                .put(
+                        "hibernate.connection.datasource",
+                        new DriverManagerDataSource("jdbc:postgresql://localhost:1/none"));
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    @AfterAll
+    public static void closeSessionFactory() {
+        sessionFactory.close();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+        TenantContext.restoreFiltering();
+    }
+
+    @Test
+    public void shouldEnableTheFilterForTheCurrentTenant() {
+        TenantContext.setTenantId(TENANT_ID);
+        try (Session session = sessionFactory.openSession()) {
+            dialect.enableTenantFilter(session);
+
+            assertThat(session.getEnabledFilter(TenantFilterJpaDialect.TENANT_FILTER))
+                    .isNotNull()
+                    .satisfies(
+                            filter ->
+                                    assertThat(filter.getParameterValue("tenantId"))
+                                            .isEqualTo(TENANT_ID));
+        }
+    }
+
+    @Test
+    public void shouldLeaveTheFilterDisabledWithoutTenant() {
+        try (Session session = sessionFactory.openSession()) {
+            dialect.enableTenantFilter(session);
+
+            assertThat(session.getEnabledFilter(TenantFilterJpaDialect.TENANT_FILTER)).isNull();
+        }
+    }
+
+    @Test
+    public void shouldLeaveTheFilterDisabledWhenFilteringIsSuppressed() {
+        TenantContext.setTenantId(TENANT_ID);
+        TenantContext.suppressFiltering();
+        try (Session session = sessionFactory.openSession()) {
+            dialect.enableTenantFilter(session);
+
+            assertThat(session.getEnabledFilter(TenantFilterJpaDialect.TENANT_FILTER)).isNull();
+        }
+    }
+
+    /**
+     * Per-request cost of the tenant filter on a request that never touches the database, such as
+     * {@code /api/versions}. The filter used to open a session to enable the Hibernate filter on
+     * every request; it now only binds the tenant. Logs both costs.
+     */
+    @Test
+    public void benchmarkRequestOverhead() throws Exception {
+        TenantContextFilter filter = new TenantContextFilter();
+        int iterations = 20_000;
+
+        // Warm up both paths before measuring
+        for (int i = 0; i < iterations; i++) {
+            eagerFilter();
+            filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            eagerFilter();
+        }
+        long eagerNanos = (System.nanoTime() - start) / iterations;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+        }
+        long lazyNanos = (System.nanoTime() - start) / iterations;
+
+        log.info(
+                "Tenant filter overhead per request without database access: {} µs enabling the"
+                        + " Hibernate filter up front, {} µs enabling it lazily",
+                eagerNanos / 1000.0,
+                lazyNanos / 1000.0);
+        assertThat(TenantContext.getTenantId()).isEmpty();
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/versions");
+        request.addHeader("X-Tenant-ID", TENANT_ID.toString());
+        return request;
+    }
+
+    /**
+     * What the filter used to do, outside any transaction: a shared entity manager creates a
+     * session for the unwrap, the filter is enabled on it and the session is closed again.
+     */
+    private void eagerFilter() {
+        MockHttpServletRequest request = request();
+        TenantContext.setTenantId(UUID.fromString(request.getHeader("X-Tenant-ID")));
+        try {
+            EntityManager entityManager = sessionFactory.createEntityManager();
+            try {
+                Session session = entityManager.unwrap(Session.class);
+                if (session.isOpen() && session.getEnabledFilter("tenantFilter") == null) {
+                    session.enableFilter("tenantFilter").setParameter("tenantId", TENANT_ID);
+                }
+            } finally {
+                entityManager.close();
+            }
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    @Entity(name = "TenantFilterJpaDialectTestNote")
+    public static class Note extends TenantScopedEntity {
+        @Id private Long id;
+    }
+}
@@ -0,0 +1,128 @@
+package io.flowinquiry.tenant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.flowinquiry.exceptions.ResourceNotFoundException;
+import io.flowinquiry.it.IntegrationTest;
+import io.flowinquiry.modules.teams.domain.TicketPriority;
+import io.flowinquiry.modules.teams.repository.TicketRepository;
+import io.flowinquiry.modules.teams.service.TicketBulkService;
+import io.flowinquiry.modules.teams.service.TicketSearchService;
+import io.flowinquiry.modules.teams.service.dto.TicketBulkUpdateDTO;
+import io.flowinquiry.modules.teams.service.dto.TicketDTO;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checks that the tenant filter keeps a tenant away from the tickets of another, whether or not the
+ * caller runs in a transaction. Not transactional itself, so that repository queries run on the
+ * entity managers created outside a transaction, as they do in production.
+ */
+@IntegrationTest
+public class TenantIsolationIT {
+
+    /** All test tickets belong to the default test tenant, none to this one. */
+    private static final UUID OTHER_TENANT =
+            UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private static final long TEAM_ID = 1L;
+
+    private static final List<Long> TICKET_IDS = List.of(1L, 5L);
+
+    @Autowired private TicketRepository ticketRepository;
+
+    @Autowired private TicketSearchService ticketSearchService;
+
+    @Autowired private TicketBulkService ticketBulkService;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void shouldNotReadTheTicketsOfAnotherTenantOutsideATransaction() {
+        assertThat(countTeamTickets()).isPositive();
+        assertThat(ticketSearchService.findTicketsById(TICKET_IDS)).hasSize(2);
+
+        TenantContext.runWithTenant(
+                OTHER_TENANT,
+                () -> {
+                    assertThat(countTeamTickets()).isZero();
+                    assertThat(ticketSearchService.findTicketsById(TICKET_IDS)).isEmpty();
+                });
+    }
+
+    @Test
+    void shouldNotReadTheTicketsOfAnotherTenantInsideATransaction() {
+        TenantContext.runWithTenant(
+                OTHER_TENANT,
+                () ->
+                        transactionTemplate.executeWithoutResult(
+                                status -> {
+                                    assertThat(countTeamTickets()).isZero();
+                                    assertThat(ticketSearchService.findTicketsById(TICKET_IDS))
+                                            .isEmpty();
+                                }));
+    }
+
+    @Test
+    void shouldNotUpdateTheTicketsOfAnotherTenantOutsideATransaction() {
+        List<TicketPriority> before = priorities();
+
+        TenantContext.runWithTenant(
+                OTHER_TENANT,
+                () ->
+                        assertThatThrownBy(() -> ticketBulkService.updateTickets(changes()))
+                                .isInstanceOf(ResourceNotFoundException.class));
+
+        assertThat(priorities()).isEqualTo(before);
+    }
+
+    @Test
+    void shouldNotUpdateTheTicketsOfAnotherTenantInsideATransaction() {
+        List<TicketPriority> before = priorities();
+
+        TenantContext.runWithTenant(
+                OTHER_TENANT,
+                () ->
+                        transactionTemplate.executeWithoutResult(
+                                status -> {
+                                    assertThatThrownBy(
+                                                    () ->
+                                                            ticketBulkService.updateTickets(
+                                                                    changes()))
+                                            .isInstanceOf(ResourceNotFoundException.class);
+                                    status.setRollbackOnly();
+                                }));
+
+        assertThat(priorities()).isEqualTo(before);
+    }
+
+    private long countTeamTickets() {
+        return ticketRepository.getTicketStatisticsByTeamId(TEAM_ID, null, null).getTotalTickets();
+    }
+
+    private List<TicketPriority> priorities() {
+        return ticketSearchService.findTicketsById(TICKET_IDS).stream()
+                .map(TicketDTO::getPriority)
+                .toList();
+    }
+
+    private static TicketBulkUpdateDTO changes() {
+        TicketBulkUpdateDTO changes = new TicketBulkUpdateDTO();
+        changes.setTicketIds(TICKET_IDS);
+        changes.setPriority(TicketPriority.Trivial);
+        return changes;
+    }
+}
@@ -16,6 +16,13 @@ interface AvatarDisplayProps {
   fallbackContent?: React.ReactNode; // React component or content for fallback
 }
 
+// Tailwind sizes are in quarter rems; request twice the rendered pixels so
+// avatars stay sharp on high density screens
+const variantSize = (size: string) => {
+  const match = size.match(/(?:^|\s)w-(\d+)/);
+  return match ? Number(match[1]) * 4 * 2 : 64;
+};
+
 export const AvatarDisplay: React.FC<AvatarDisplayProps> = ({
   imageUrl,
   size = "w-8 h-8",
@@ -37,7 +44,10 @@ export const AvatarDisplay: React.FC<AvatarDisplayProps> = ({
       }
 
       try {
-        const blob = await getSecureBlobResource(imageUrl, setError);
+        const blob = await getSecureBlobResource(
+          `${imageUrl}?size=${variantSize(size)}`,
+          setError,
+        );
         if (blob) {
           const objectURL = URL.createObjectURL(blob);
           setProtectedImageUrl(objectURL);
@@ -56,7 +66,7 @@ export const AvatarDisplay: React.FC<AvatarDisplayProps> = ({
         URL.revokeObjectURL(protectedImageUrl);
       }
     };
-  }, [imageUrl]);
+  }, [imageUrl, size]);
 
   return (
     <Avatar className={`${size} cursor-pointer ${className}`} onClick={onClick}>
@@ -41,13 +41,14 @@ interface Props {
   extraFilters?: Filter[];
 }
 
+// `key` matches the age bucket labels computed by the backend in groupAgeBuckets
 const BUCKETS = [
-  { label: "0–2d", min: 0, max: 2, color: "#22c55e" },
-  { label: "3–5d", min: 3, max: 5, color: "#84cc16" },
-  { label: "6–10d", min: 6, max: 10, color: "#eab308" },
-  { label: "11–20d", min: 11, max: 20, color: "#f97316" },
-  { label: "21–30d", min: 21, max: 30, color: "#ef4444" },
-  { label: "31+d", min: 31, max: Infinity, color: "#7f1d1d" },
+  { key: "0-2", label: "0–2d", color: "#22c55e" },
+  { key: "3-5", label: "3–5d", color: "#84cc16" },
+  { key: "6-10", label: "6–10d", color: "#eab308" },
+  { key: "11-20", label: "11–20d", color: "#f97316" },
+  { key: "21-30", label: "21–30d", color: "#ef4444" },
+  { key: "31+", label: "31+d", color: "#7f1d1d" },
 ];
 
 const GROUP_OPTIONS = [
@@ -58,16 +59,6 @@ const GROUP_OPTIONS = [
 
 type GroupBy = "assignee" | "priority" | "status";
 
-function bucketTickets(tickets: TicketAgingDTO[]) {
-  const counts = BUCKETS.map((b) => ({ ...b, count: 0 }));
-  tickets.forEach((t) => {
-    const age = t.ageInDays ?? 0;
-    const bucket = counts.find((b) => age >= b.min && age <= b.max);
-    if (bucket) bucket.count++;
-  });
-  return counts;
-}
-
 function KpiCard({
   icon,
   label,
@@ -154,12 +145,12 @@ const TicketAgingChart: React.FC<Props> = ({ teamId }) => {
 
   const bucketChartData = useMemo(() => {
     if (!data) return [];
-    return Object.entries(data.groupedTickets).map(([group, tickets]) => {
-      const buckets = bucketTickets(tickets);
+    // Bucket counts cover every matching ticket, not only the listed ones
+    return Object.entries(data.groupAgeBuckets).map(([group, counts]) => {
       const row: Record<string, string | number> = {
         name: group || "Unassigned",
       };
-      buckets.forEach((b) => (row[b.label] = b.count));
+      BUCKETS.forEach((b) => (row[b.label] = counts[b.key] ?? 0));
       return row;
     });
   }, [data]);
@@ -127,6 +127,8 @@ export type TicketAgingDTO = {
 
 export type TicketAgingReportDTO = {
   groupedTickets: Record<string, TicketAgingDTO[]>;
+  groupCounts: Record<string, number>;
+  groupAgeBuckets: Record<string, Record<string, number>>;
   averageAge: number;
   maxAge: number;
   minAge: number;